@@ -193,6 +193,9 @@ public class AS400ImplRemote implements AS400Impl
   
   private String localIPAddress_ = null;   /* The IP address from the last opened socket */ 
   private boolean localIPAddressSet_ = false; 
+
+  // Attributes of integrated file system objects shared by the IFSFile objects of this system, or null.
+  private volatile IFSAttributeCache ifsAttributeCache_ = IFSAttributeCache.createDefault();
   
   private static final String CLASSNAME = "com.ibm.as400.access.AS400ImplRemote";
 
@@ -2583,6 +2586,45 @@ public class AS400ImplRemote implements AS400Impl
       return isAlive;
   }
 
+  // Check connection's current status, for a specific service, without a host server exchange
+  // if the server job has replied within the last cacheTime milliseconds.
+  boolean isConnectionAlive(int service, long cacheTime)
+  {
+      if (cacheTime > 0 && repliedRecently(getConnectedServer(new int[] { service }), cacheTime))
+      {
+          if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Service connection replied recently, skipping ping:", service);
+          return true;
+      }
+      return isConnectionAlive(service);
+  }
+
+  // Check connection's current status, without a host server exchange
+  // if a server job for any service has replied within the last cacheTime milliseconds.
+  boolean isConnectionAlive(long cacheTime)
+  {
+      if (cacheTime > 0)
+      {
+          for (int service = 0; service < pingRequests_.size(); service++)
+          {
+              if (repliedRecently(getConnectedServer(new int[] { service }), cacheTime))
+              {
+                  if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Service connection replied recently, skipping ping:", service);
+                  return true;
+              }
+          }
+      }
+      return isConnectionAlive();
+  }
+
+  // A connected server job that replied within the last cacheTime milliseconds is taken to be alive.
+  private static boolean repliedRecently(AS400Server server, long cacheTime)
+  {
+      if (server == null || !server.isConnected())
+          return false;
+      long lastReplyTime = server.getLastReplyTime();
+      return lastReplyTime != 0 && System.currentTimeMillis() - lastReplyTime < cacheTime;
+  }
+
   private final AS400Server getConnectedServer(int[] services)
   {
       AS400Server server = null;
@@ -5423,4 +5465,15 @@ public class AS400ImplRemote implements AS400Impl
     }
     return localIPAddress_; 
   }
-}
\ No newline at end of file
+
+  // Returns the shared integrated file system attribute cache, or null if it is not enabled.
+  IFSAttributeCache getIFSAttributeCache()
+  {
+      return ifsAttributeCache_;
+  }
+
+  void setIFSAttributeCache(IFSAttributeCache cache)
+  {
+      ifsAttributeCache_ = cache;
+  }
+}
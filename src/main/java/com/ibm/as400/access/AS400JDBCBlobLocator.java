@@ -13,6 +13,7 @@
 
 package com.ibm.as400.access;
 
+import java.io.BufferedOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.sql.Blob;
@@ -85,7 +86,7 @@ Returns the entire BLOB as a stream of uninterpreted bytes.
         JDError.throwSQLException(this, JDError.EXC_FUNCTION_SEQUENCE); //@free
 
 
-      return new AS400JDBCInputStream(locator_);
+      return locator_.getInputStream();
     }
   }
 
@@ -298,6 +299,9 @@ Returns the position at which a pattern is found in the BLOB.
   Returns a stream that an application can use to write to this BLOB.
   The stream begins at position <i>position</i>.
 
+  <p>If the "lob block size" property is set, the data is sent to the system
+  when a block is full, and when the stream is flushed or closed.
+
   @param position The position (1-based) in the BLOB where writes should start.
   @return An OutputStream object to which data can be written by an application.
   @exception SQLException If there is an error accessing the BLOB or if the position
@@ -313,7 +317,11 @@ Returns the position at which a pattern is found in the BLOB.
       JDError.throwSQLException(this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);
     }
 
-    return new AS400JDBCBlobLocatorOutputStream(this, position);
+    OutputStream stream = new AS400JDBCBlobLocatorOutputStream(this, position);
+    int blockSize = locator_.getBlockSize();
+    if (blockSize > 0)
+      stream = new BufferedOutputStream(stream, blockSize);
+    return stream;
   }
 
 
@@ -504,7 +512,7 @@ Returns the position at which a pattern is found in the BLOB.
           JDError.throwSQLException(this, JDError.EXC_FUNCTION_SEQUENCE); //@free
 
       
-          return new AS400JDBCInputStream(locator_, pos, length);
+          return locator_.getInputStream(pos, length);
       }
   }
   
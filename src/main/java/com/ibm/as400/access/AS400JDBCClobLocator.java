@@ -13,6 +13,8 @@
 
 package com.ibm.as400.access;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -124,7 +126,7 @@ public class AS400JDBCClobLocator implements Clob
       try
       {
         //@xml3 if xml column, remove xml declaration via ConvTableReader
-        return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(locator_), converter_.getCcsid(), converter_.bidiStringType_, isXML_), 819); // ISO 8859-1.  //@xml3
+        return new ReaderInputStream(new ConvTableReader(locator_.getInputStream(), converter_.getCcsid(), converter_.bidiStringType_, isXML_), 819); // ISO 8859-1.  //@xml3
       }
       catch (UnsupportedEncodingException e)
       {
@@ -153,7 +155,7 @@ public class AS400JDBCClobLocator implements Clob
       try
       {
         //@xml3 if xml column, remove xml declaration via ConvTableReader
-        return new ConvTableReader(new AS400JDBCInputStream(locator_), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml3
+        return new ConvTableReader(locator_.getInputStream(), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml3
       }
       catch (UnsupportedEncodingException e)
       {
@@ -215,7 +217,7 @@ Returns the handle to this CLOB locator in the database.
       {
           ConvTableReader r = null;
     	  try{
-    		  r = new ConvTableReader(new AS400JDBCInputStream( locator_), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml4
+    		  r = new ConvTableReader(locator_.getInputStream(), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml4
     		  r.skip(offset);                     //@xml4 ConvTableReader will already have skipped XML header if column is XML type
     		  return r.read(lengthToUse);         //@xml4
     	  }
@@ -398,6 +400,9 @@ Returns the handle to this CLOB locator in the database.
   Returns a stream that an application can use to write Ascii characters to this CLOB.
   The stream begins at position <i>position</i>, and the CLOB will be truncated 
   after the last character of the write.
+
+  <p>If the "lob block size" property is set, the data is sent to the system
+  when a block is full, and when the stream is flushed or closed.
   
   @param position The position (1-based) in the CLOB where writes should start.
   @return An OutputStream object to which data can be written by an application.
@@ -416,7 +421,11 @@ Returns the handle to this CLOB locator in the database.
 
     try
     {
-      return new AS400JDBCClobLocatorOutputStream(this, position, ConvTable.getTable(819, null));
+      OutputStream stream = new AS400JDBCClobLocatorOutputStream(this, position, ConvTable.getTable(819, null));
+      int blockSize = locator_.getBlockSize();
+      if (blockSize > 0)
+        stream = new BufferedOutputStream(stream, blockSize);
+      return stream;
     }
     catch (UnsupportedEncodingException e)
     {
@@ -433,6 +442,9 @@ Returns the handle to this CLOB locator in the database.
   this CLOB.  The stream begins at position <i>position</i>, and the CLOB will 
   be truncated after the last character of the write.
 
+  <p>If the "lob block size" property is set, the characters are sent to the system
+  when a block is full, and when the writer is flushed or closed.
+
   @param position The position (1-based) in the CLOB where writes should start.
   @return An OutputStream object to which data can be written by an application.
   @exception SQLException If there is an error accessing the CLOB or if the position
@@ -449,7 +461,11 @@ Returns the handle to this CLOB locator in the database.
       JDError.throwSQLException(this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);
     }
 
-    return new AS400JDBCWriter(this, position);  
+    Writer writer = new AS400JDBCWriter(this, position);
+    int blockSize = locator_.getBlockSize();
+    if (blockSize > 0)
+      writer = new BufferedWriter(writer, blockSize);
+    return writer;
   }
 
 
@@ -656,7 +672,7 @@ Returns the handle to this CLOB locator in the database.
           try
           {
               //@xml3 if xml column, remove xml declaration via ConvTableReader
-              r = new ConvTableReader(new AS400JDBCInputStream( locator_), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml3
+              r = new ConvTableReader(locator_.getInputStream(), converter_.getCcsid(), converter_.bidiStringType_, isXML_); //@xml3
               r.skip(pos); 
               return r;
           }
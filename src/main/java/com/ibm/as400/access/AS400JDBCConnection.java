@@ -41,6 +41,7 @@ import java.util.HashMap;
 /* endif */ 
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 /* ifdef JDBC40 */
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.Executor;
@@ -64,6 +65,8 @@ implements Connection
   static final int            DATA_COMPRESSION_OLD_   = 1;            // @ECA
   static final int            DATA_COMPRESSION_RLE_   = 0x3832;       // @ECA @EIC @EJC
   protected boolean inFinalizer_;
+  // Parsed SQL statements of this connection, or null if they are not cached.
+  final JDSQLStatementCache sqlStatementCache_ = JDSQLStatementCache.createDefault();
 
 
     /**
@@ -443,6 +446,16 @@ implements Connection
     throws SQLException;
 
 
+    /**
+    Returns the current schema, as known without a request to the system.
+
+    @return     The schema set by setSchema(), or the default SQL schema,
+                which is null if none was specified.
+    **/
+     abstract String getCurrentSchema ()
+    throws SQLException;
+
+
     //@G4A JDBC 3.0
     /**
     Returns the holdability of ResultSets created from this connection.
@@ -1306,6 +1319,17 @@ implements Connection
     throws SQLException;
 
 
+    // Sends a request without waiting for the reply, which is
+    // returned by receiveAsync().
+    abstract CompletableFuture<DataStream> sendAsync (DBBaseRequestDS request, int id)
+    throws SQLException;
+
+
+    // Waits for the reply to a request sent by sendAsync().
+    abstract DBReplyRequestedDS receiveAsync (CompletableFuture<DataStream> future)
+    throws SQLException;
+
+
     //@D2A
     abstract DBReplyRequestedDS sendAndMultiReceive (DBBaseRequestDS request)
     throws SQLException;
@@ -1928,6 +1952,20 @@ implements Connection
 	// @A6A
 	abstract public int getMaximumBlockedInputRows();
 
+    /**
+    Returns the prepared statement cache of the connection.
+
+    @return The statement cache, or null if the "statement cache size" property is 0.
+    **/
+    abstract public AS400JDBCStatementCache getStatementCache();
+
+    /**
+    Returns the DatabaseMetaData cache used by the connection.
+
+    @return The metadata cache, or null if the "metadata cache size" property is 0.
+    **/
+    abstract public AS400JDBCMetaDataCache getMetaDataCache();
+
     /**
      * Terminates an open connection. Calling abort results in:
      * <ul>
@@ -37,6 +37,7 @@ import java.sql.Statement;
 import java.sql.Struct;
 import java.util.Map;
 import java.util.Properties; //@pda client info
+import java.util.concurrent.CompletableFuture;
 /* ifdef JDBC40 */
 import java.util.concurrent.Executor;
 /* endif */ 
@@ -508,6 +509,18 @@ implements Connection //@A5A
     return connection_.getDefaultSchema();
   }
 
+  /**
+  *  Returns the current schema, as known without a request to the system.
+  *
+  *  @return     The schema set by setSchema(), or the default SQL schema, which is null if none was specified.
+  **/
+  String getCurrentSchema ()
+  throws SQLException
+  {
+    validateConnection();
+    return connection_.getCurrentSchema();
+  }
+
   // @A1D /**
   // @A1D *  Returns the graphic converter for this connection.
   // @A1D *
@@ -607,6 +620,36 @@ implements Connection //@A5A
       validateConnection();
       return connection_.getServerJobIdentifier();
   }
+
+  /**
+  Returns the prepared statement cache of the connection.
+  <p>Note: Since this method is not defined in the JDBC Connection interface,
+  you typically need to cast a Connection object to AS400JDBCConnectionHandle in order
+  to call this method.
+
+  @return The statement cache, or null if the "statement cache size" property is 0.
+  @exception SQLException If the connection is not open.
+  **/
+  public AS400JDBCStatementCache getStatementCache() throws SQLException
+  {
+      validateConnection();
+      return connection_.getStatementCache();
+  }
+
+  /**
+  Returns the DatabaseMetaData cache used by the connection.
+  <p>Note: Since this method is not defined in the JDBC Connection interface,
+  you typically need to cast a Connection object to AS400JDBCConnectionHandle in order
+  to call this method.
+
+  @return The metadata cache, or null if the "metadata cache size" property is 0.
+  @exception SQLException If the connection is not open.
+  **/
+  public AS400JDBCMetaDataCache getMetaDataCache() throws SQLException
+  {
+      validateConnection();
+      return connection_.getMetaDataCache();
+  }
   
   //@pda
   /**
@@ -1306,6 +1349,48 @@ ResultSet.CONCUR_READ_ONLY.
     }
   }
 
+  /**
+  *  Sends a request data stream to the system without waiting
+  *  for the reply.
+  *
+  *  @param   request     The request.
+  *  @param   id          The id.
+  *  @return              The future for the reply.
+  *
+  *  @exception           SQLException   If an error occurs.
+  **/
+  CompletableFuture<DataStream> sendAsync (DBBaseRequestDS request, int id) throws SQLException
+  {
+    validateConnection();
+    try {
+      return connection_.sendAsync(request, id);
+    }
+    catch (SQLException e) {
+      fireEventIfErrorFatal(e);
+      throw e;
+    }
+  }
+
+  /**
+  *  Waits for the reply to a request sent by sendAsync().
+  *
+  *  @param   future      The future returned by sendAsync().
+  *  @return              The reply.
+  *
+  *  @exception           SQLException   If an error occurs.
+  **/
+  DBReplyRequestedDS receiveAsync (CompletableFuture<DataStream> future) throws SQLException
+  {
+    validateConnection();
+    try {
+      return connection_.receiveAsync(future);
+    }
+    catch (SQLException e) {
+      fireEventIfErrorFatal(e);
+      throw e;
+    }
+  }
+
   /**
   *  Sets the auto-commit mode.   If the connection is in auto-commit
   *  mode, then all of its SQL statements are executed and committed
@@ -49,6 +49,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 /* ifdef JDBC40 */
 import java.util.concurrent.locks.ReentrantLock;
@@ -190,6 +192,7 @@ extends AS400JDBCConnection
             JDDataSourceURL             dataSourceUrl_;
     private boolean                     drda_;                          // @B1A
     private String                      defaultSchema_;
+    private String                      currentSchema_;                 // set by setSchema(), null for the default schema
     private boolean                     extendedFormats_;
     // @E2D private ConverterImplRemote          graphicConverter_;
     // @E2D private boolean                     graphicConverterLoaded_;
@@ -260,6 +263,8 @@ extends AS400JDBCConnection
 
 	private boolean useBlockUpdate_ = false;                                   //@A2A
 	private int     maximumBlockedInputRows_ = 32000;                                  //@A6A
+	private AS400JDBCStatementCache statementCache_;   // null if the "statement cache size" property is 0
+	private AS400JDBCMetaDataCache metaDataCache_;     // null if the "metadata cache size" property is 0
 
 	protected final static int QUERY_TIMEOUT_QQRYTIMLMT = 0;
 	protected final static int QUERY_TIMEOUT_CANCEL     = 1;
@@ -566,6 +571,12 @@ extends AS400JDBCConnection
         if (isClosed ())
             return;
 
+        // Statements closed from now on are deleted, and the idle statements
+        // in the statement cache end with the connection.
+        if (statementCache_ != null)
+            statementCache_.close();
+        releaseMetaDataCache();
+
         // partial close (moved rollback and closing of all the statements).     @E1
         pseudoClose();
 
@@ -626,6 +637,9 @@ public void handleAbort() {
         // Ingore any errors
   }
   closing_ = true;
+  if (statementCache_ != null)
+    statementCache_.close();
+  releaseMetaDataCache();
   // partial close (moved rollback and closing of all the statements).
   try {
     pseudoClose();
@@ -1138,6 +1152,19 @@ throws SQLException
     }
 
 
+    /**
+    Returns the current schema, as known without a request to the system.
+
+    @return     The schema set by setSchema(), or the default SQL schema,
+                which is null if none was specified.
+    **/
+    String getCurrentSchema ()
+    throws SQLException
+    {
+      return (currentSchema_ != null) ? currentSchema_ : defaultSchema_;
+    }
+
+
     //@G4A JDBC 3.0
     /**
     Returns the holdability of ResultSets created from this connection.
@@ -1682,7 +1709,8 @@ throws SQLException
             // race condition where another thread could have closed the connected while
             // we were looping through the statement elements.   @F7A
             try {
-            if(!statement.isHoldStatement())                                        //@KBL
+            // Statements kept in the statement cache have no open cursors.
+            if(!statement.isHoldStatement() && !statement.isClosed())               //@KBL
                 statement.markCursorClosed(isRollback);                             //@KBL
             } catch (SQLException ex) {
               if (JDTrace.isTraceOn()) {
@@ -1836,7 +1864,7 @@ throws SQLException
     public String nativeSQL (AS400JDBCConnection con, String sql)
     throws SQLException
     {
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con); // @A2A @G4A
         return sqlStatement.toString ();
@@ -2039,7 +2067,7 @@ throws SQLException
             JDError.throwSQLException (this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);    //@F3A
 
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), this); // @A2A @G4A
         int statementId = getUnusedId (resultSetType); // @B1C
@@ -2152,7 +2180,7 @@ throws SQLException
         checkOpen ();
 
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con);  // @A2A @G4A
 
@@ -2166,7 +2194,7 @@ throws SQLException
             {
                 //wrapper the statement
                 String selectStatement = makeGeneratedKeySelectStatement(sql);
-                sqlStatement = new JDSQLStatement (selectStatement, properties_.getString(JDProperties.DECIMAL_SEPARATOR), true,
+                sqlStatement = JDSQLStatement.getStatement (selectStatement, properties_.getString(JDProperties.DECIMAL_SEPARATOR), true,
                                                    properties_.getString(JDProperties.PACKAGE_CRITERIA), con);
                 wrappedInsert_ = true;
 
@@ -2318,11 +2346,39 @@ throws SQLException
         if (!checkHoldabilityConstants(resultSetHoldability))                   //@F3A
             JDError.throwSQLException (this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);    //@F3A
 
+        // Reuse a statement with the same SQL and attributes from the statement cache.
+        AS400JDBCStatementCache statementCache = statementCache_;
+        String statementCacheKey = null;
+        if (statementCache != null)
+        {
+            statementCacheKey = AS400JDBCStatementCache.getKey(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+            AS400JDBCPreparedStatementImpl cached = statementCache.get(statementCacheKey);
+            if (cached != null)
+            {
+                cached.reopenFromCache();
+                return cached;
+            }
+        }
+
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con);  // @A2A @G4A
-        int statementId = getUnusedId (resultSetType); // @B1C
+        int statementId;
+        while (true)
+        {
+            try
+            {
+                statementId = getUnusedId (resultSetType); // @B1C
+                break;
+            }
+            catch (SQLException e)
+            {
+                // Delete idle statements from the statement cache until an id is available.
+                if (statementCache == null || !statementCache.closeEldest())
+                    throw e;
+            }
+        }
         AS400JDBCPreparedStatementImpl statement = new AS400JDBCPreparedStatementImpl (con,
                                                                                statementId, transactionManager_, packageManager_,
                                                                                properties_.getString (JDProperties.BLOCK_CRITERIA),
@@ -2332,6 +2388,8 @@ throws SQLException
                                                                                properties_.getString (JDProperties.PACKAGE_CRITERIA),
                                                                                resultSetType, resultSetConcurrency, resultSetHoldability, //@G4A
                                                                                AS400JDBCStatement.GENERATED_KEYS_NOT_SPECIFIED);                        //@G4A
+        if (statementCacheKey != null)
+            statement.setStatementCache(statementCache, statementCacheKey);
         statements_.addElement(statement);                      // @DAC
         statementCount_++;                           //@K1A
         if(thousandStatements_ == false && statementCount_ == 1000)              //@K1A
@@ -2385,7 +2443,7 @@ throws SQLException
             checkOpen();
 
             //Create a JDSQLStatement
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                               properties_.getString (JDProperties.PACKAGE_CRITERIA), con);
             //Check if the statement is an insert
@@ -2436,7 +2494,7 @@ throws SQLException
             checkOpen();
 
             //Create a JDSQLStatement
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                               properties_.getString (JDProperties.PACKAGE_CRITERIA), con);
             //Check if the statement is an insert
@@ -3121,25 +3179,11 @@ throws SQLException
 
         try
         {
-            request.setBasedOnORSHandle (0);                 // @DAC @EKC
-
-            if (dataCompression_ == DATA_COMPRESSION_RLE_ && !disableCompression_)         //@L9C
-            {                                // @ECA
-                request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REQUEST_RLE_COMPRESSION); // @ECA
-                request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REPLY_RLE_COMPRESSION); // @ECA
-                request.compress();                                                         // @ECA
-            }                                                                               // @ECA
+            prepareRequest (request);
 
-            DataStream actualRequest;                                                       // @E5A
             try {
                 heldRequestsLock.lock();
-                if (heldRequests_ != null)                                                  // @E5A
-                    actualRequest = new DBConcatenatedRequestDS(heldRequests_, request); // @E5A
-                else                                                                        // @E5A
-                    actualRequest = request;                                                // @E5A
-                heldRequests_ = null;                                                       // @E5A
-
-				reply = (DBReplyRequestedDS) server_.sendAndReceive(actualRequest); // @E5C @F7M
+				reply = (DBReplyRequestedDS) server_.sendAndReceive(takeHeldRequests(request)); // @E5C @F7M
 				// @P0D requestPending_.clear(id);
 				// @P1D requestPending_[id] = false; //@P0A @F7M
 			} finally {
@@ -3162,35 +3206,13 @@ throws SQLException
         // @J5D }                                                                   // @C1A
         catch (IOException e)
         {                                             // @J5A
-            // Make sure the underlying socket is closed.  @AH2
-            as400_.disconnectServer (server_);
-            server_ = null;                                                  // @J5A
-            if (Trace.isTraceErrorOn()) {
-              Trace.log(Trace.ERROR, "Communication Link Failure "); 
-              Trace.log(Trace.ERROR, e);
-              Trace.log(Trace.ERROR, "Server job is "+serverJobIdentifier_); 
-              if (request != null && request.data_ != null ) {
-                Trace.log(Trace.ERROR,"Request bytes", request.data_); 
-              }
-            }            
             //@P0D request.freeCommunicationsBuffer();                              // @J5A
-            JDError.throwSQLException (this, JDError.EXC_COMMUNICATION_LINK_FAILURE, e); // @J5A
+            communicationLinkFailure (e, request);
         }                                                                   // @J5A
         catch (Exception e)
         {
             //@P0D request.freeCommunicationsBuffer();                              // @EMa
-            if (Trace.isTraceErrorOn()) {
-              Trace.log(Trace.ERROR, "Unexpected exception "); 
-              Trace.log(Trace.ERROR, e);
-              Trace.log(Trace.ERROR, "Server job is "+serverJobIdentifier_); 
-              if (request != null && request.data_ != null ) {
-                Trace.log(Trace.ERROR,"Request bytes", request.data_); 
-              }
-            } else if (JDTrace.isTraceOn()) {
-              JDTrace.logException(this, "Unexpected exception", e); 
-              JDTrace.logInformation(this, "Server job is "+serverJobIdentifier_);
-            }
-            JDError.throwSQLException (this, JDError.EXC_INTERNAL, e);
+            unexpectedException (e, request);
         }
 
         // if (DBDSPool.monitor) {
@@ -3201,6 +3223,180 @@ throws SQLException
     }
 
 
+
+    // Sets the based on id and the compression of a request before it is sent.
+    private void prepareRequest (DBBaseRequestDS request)
+    {
+        request.setBasedOnORSHandle (0);                 // @DAC @EKC
+
+        if (dataCompression_ == DATA_COMPRESSION_RLE_ && !disableCompression_)         //@L9C
+        {                                // @ECA
+            request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REQUEST_RLE_COMPRESSION); // @ECA
+            request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REPLY_RLE_COMPRESSION); // @ECA
+            request.compress();                                                         // @ECA
+        }                                                                               // @ECA
+    }
+
+
+
+    // Returns the data stream to send for a request, which includes any held
+    // requests.  The held requests are cleared.  The caller must hold heldRequestsLock.
+    private DataStream takeHeldRequests (DBBaseRequestDS request)
+    {
+        DataStream actualRequest;                                                       // @E5A
+        if (heldRequests_ != null)                                                      // @E5A
+            actualRequest = new DBConcatenatedRequestDS(heldRequests_, request);     // @E5A
+        else                                                                            // @E5A
+            actualRequest = request;                                                    // @E5A
+        heldRequests_ = null;                                                           // @E5A
+        return actualRequest;
+    }
+
+
+
+    // Closes the connection to the system after a communication failure and
+    // throws the corresponding SQLException.
+    // @param request The request that was sent, or null if it is not known.
+    private void communicationLinkFailure (IOException e, DBBaseRequestDS request)
+    throws SQLException
+    {
+        // Make sure the underlying socket is closed.  @AH2
+        if (server_ != null)
+            as400_.disconnectServer (server_);
+        server_ = null;                                                  // @J5A
+        if (Trace.isTraceErrorOn()) {
+          Trace.log(Trace.ERROR, "Communication Link Failure "); 
+          Trace.log(Trace.ERROR, e);
+          Trace.log(Trace.ERROR, "Server job is "+serverJobIdentifier_); 
+          if (request != null && request.data_ != null ) {
+            Trace.log(Trace.ERROR,"Request bytes", request.data_); 
+          }
+        }            
+        JDError.throwSQLException (this, JDError.EXC_COMMUNICATION_LINK_FAILURE, e); // @J5A
+    }
+
+
+
+    // Traces an unexpected exception from a request and throws the
+    // corresponding SQLException.
+    // @param request The request that was sent, or null if it is not known.
+    private void unexpectedException (Exception e, DBBaseRequestDS request)
+    throws SQLException
+    {
+        if (Trace.isTraceErrorOn()) {
+          Trace.log(Trace.ERROR, "Unexpected exception "); 
+          Trace.log(Trace.ERROR, e);
+          Trace.log(Trace.ERROR, "Server job is "+serverJobIdentifier_); 
+          if (request != null && request.data_ != null ) {
+            Trace.log(Trace.ERROR,"Request bytes", request.data_); 
+          }
+        } else if (JDTrace.isTraceOn()) {
+          JDTrace.logException(this, "Unexpected exception", e); 
+          JDTrace.logInformation(this, "Server job is "+serverJobIdentifier_);
+        }
+        JDError.throwSQLException (this, JDError.EXC_INTERNAL, e);
+    }
+
+
+    /**
+    Sends a request data stream to the system without waiting for
+    the reply.  The reply is read in the background and is returned
+    by receiveAsync().  Other requests can be sent on the connection
+    while the reply is outstanding.
+
+    @param   request     The request.
+    @param   id          The id.
+    @return              The future for the reply.
+
+    @exception           SQLException   If an error occurs.
+    **/
+    //
+    // See implementation notes for sendAndReceive().
+    //
+    CompletableFuture<DataStream> sendAsync (DBBaseRequestDS request, int id)
+    throws SQLException
+    {
+        checkCancel();
+        checkOpen();
+
+        CompletableFuture<DataStream> future = null;
+        try
+        {
+            prepareRequest (request);
+
+            try {
+                heldRequestsLock.lock();
+                future = server_.sendAsync(takeHeldRequests(request));
+            } finally {
+                heldRequestsLock.unlock();
+            }
+
+            if (DEBUG_COMM_TRACE_ > 0)
+                debug (request);
+        }
+        catch (IOException e)
+        {
+            communicationLinkFailure (e, request);
+        }
+        catch (Exception e)
+        {
+            unexpectedException (e, request);
+        }
+        return future;
+    }
+
+
+
+    /**
+    Waits for the reply to a request sent by sendAsync().
+
+    @param   future      The future returned by sendAsync().
+    @return              The reply.
+
+    @exception           SQLException   If an error occurs.
+    **/
+    DBReplyRequestedDS receiveAsync (CompletableFuture<DataStream> future)
+    throws SQLException
+    {
+        DBReplyRequestedDS reply = null;
+        try
+        {
+            try
+            {
+                reply = (DBReplyRequestedDS) future.get();
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception)
+                    throw (Exception) cause;
+                throw e;
+            }
+
+            reply.parse(dataCompression_);
+
+            if (DEBUG_COMM_TRACE_ > 0)
+                debug (reply);
+        }
+        catch (IOException e)
+        {
+            communicationLinkFailure (e, null);
+        }
+        catch (SQLException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+            unexpectedException (e, null);
+        }
+        return reply;
+    }
+
+
+
     //@D2A
     public DBReplyRequestedDS sendAndMultiReceive (DBBaseRequestDS request)
     throws SQLException
@@ -3656,6 +3852,13 @@ throws SQLException
         if ( maximumBlockedInputRows_ > 32000 ) maximumBlockedInputRows_ = 32000;                     // @A6A
         if ( maximumBlockedInputRows_ < 1 ) maximumBlockedInputRows_ = 1;                             // @A6A
 
+        int statementCacheSize = properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+        if (statementCacheSize > 0)
+            statementCache_ = new AS400JDBCStatementCache(statementCacheSize);
+
+        releaseMetaDataCache();
+        metaDataCache_ = AS400JDBCMetaDataCache.getCache(properties_, as400_.getSystemName(), as400_.getUserId());
+
         // Issue any warnings.
         if (dataSourceUrl_.isExtraPathSpecified ())
             postWarningSQLState (JDError.WARN_URL_EXTRA_IGNORED);
@@ -5052,48 +5255,27 @@ throws SQLException
 
         try
         {
-            // inner class to run timer in sep thread
-            class CommTimer implements Runnable
-            {
-
-                Thread otherThread;
-                ReentrantLock lock;
-                int timeout;
+            // The timeout interrupts this thread if it is still blocked on IO.  It runs on the
+            // shared scheduler and is cancelled when the reply arrives, so no thread is started.
+            final Thread requestThread = Thread.currentThread();
+            final ReentrantLock timerLock = lock;
+            final boolean[] done = new boolean[1];
+            SharedScheduler.Timeout timer = null;
 
+            // Only use timeout if > 0.  @D6A
+            if (timeout > 0) {
+              timer = SharedScheduler.scheduleTimeout(new Runnable()
+              {
                 public void run()
                 {
-                    try
-                    {
-                        Thread.sleep(timeout * 1000);
-                        lock.lockInterruptibly(); //lock, so only one thread can call interrupt
-                        otherThread.interrupt();
-                        lock.unlock();
-
-                    }catch(InterruptedException ie)
-                    {
-                        //interrupted from notifyThread because request/reply is done.  just return from run()
-                        if (JDTrace.isTraceOn())
-                            JDTrace.logInformation (this, "Connection.isValid timer interrupted and stopped");
-                    }
-
-                }
-
-                public CommTimer(Thread otherThread, int timeout, ReentrantLock lock )
-                {
-                    this.otherThread = otherThread;
-                    this.timeout = timeout;
-                    this.lock = lock;
+                  timerLock.lock(); //lock, so only one thread can call interrupt
+                  try {
+                    if (!done[0]) requestThread.interrupt();
+                  } finally {
+                    timerLock.unlock();
+                  }
                 }
-            };
-
-            CommTimer timer = null;
-            Thread t = null;
-
-            // Only use timeout if > 0.  @D6A
-            if (timeout > 0) {
-              timer = new CommTimer( Thread.currentThread(), timeout, lock); //pass in ref to main thread so timer can interrupt if blocked on IO
-              t = new  Thread(timer);
-              t.start(); //sleeps for timeout and then interrupts main thread if it is still blocked on IO
+              }, timeout * 1000L);
             }
 
             try
@@ -5102,19 +5284,22 @@ throws SQLException
                 reply = sendAndReceive(request);
 
                 lock.lockInterruptibly(); //lock, so only one thread can call interrupt
-                if (t != null) t.interrupt(); //stop timer thread @D6C
+                done[0] = true;
+                if (timer != null) timer.cancel(); //stop timer @D6C
                 lock.unlock();
                 errorClass = reply.getErrorClass();
                 returnCode = reply.getReturnCode();
 
             } catch(Exception ex) {
+             // Make sure timeout is stopped, so it cannot interrupt this thread later @D6A
              try {
-                // Make sure timeout thread is stopped @D6A
                 lock.lockInterruptibly(); //lock, so only one thread can call interrupt
-                if (t != null) t.interrupt(); //stop timer thread
-                lock.unlock();
-             } catch (Exception ex2) {
+             } catch (InterruptedException ex2) {
+                lock.lock();    // the interrupt from the timeout is cleared
              }
+             done[0] = true;
+             if (timer != null) timer.cancel(); //stop timer
+             lock.unlock();
                 //interruptedException is wrapped in sqlException
                 //if exception occurs, just return false since connection is not valid
                 //this happens if timer ends before sendAndReceive returns
@@ -5734,6 +5919,52 @@ throws SQLException
 		return maximumBlockedInputRows_;
 	}
 
+    /**
+    Returns the prepared statement cache of the connection.
+
+    <p>Note: Since this method is not defined in the JDBC Connection interface,
+    you typically need to cast a Connection object to AS400JDBCConnectionImpl in order
+    to call this method:
+    <blockquote><pre>
+    AS400JDBCStatementCache cache = ((AS400JDBCConnectionImpl)connection).getStatementCache();
+    </pre></blockquote>
+
+    @return The statement cache, or null if the "statement cache size" property is 0.
+    **/
+    public AS400JDBCStatementCache getStatementCache()
+    {
+        return statementCache_;
+    }
+
+    /**
+    Returns the DatabaseMetaData cache used by the connection.  The cache is
+    shared with the other connections to the same system with the same user
+    and metadata properties.
+
+    <p>Note: Since this method is not defined in the JDBC Connection interface,
+    you typically need to cast a Connection object to AS400JDBCConnectionImpl in order
+    to call this method:
+    <blockquote><pre>
+    AS400JDBCMetaDataCache cache = ((AS400JDBCConnectionImpl)connection).getMetaDataCache();
+    </pre></blockquote>
+
+    @return The metadata cache, or null if the "metadata cache size" property is 0.
+    **/
+    public AS400JDBCMetaDataCache getMetaDataCache()
+    {
+        return metaDataCache_;
+    }
+
+    // Stops using the metadata cache, so that it is dropped when no open connection uses it.
+    private void releaseMetaDataCache()
+    {
+        if (metaDataCache_ != null)
+        {
+            metaDataCache_.release();
+            metaDataCache_ = null;
+        }
+    }
+
     /**
      * Terminates an open connection. Calling abort results in:
      * <ul>
@@ -6014,12 +6245,18 @@ throws SQLException
     if ("DEFAULT".equals(schema)  || 
         ((!SQLNaming) && ("*LIBL".equals(schema)))) { 
       ps = prepareStatement("SET CURRENT SCHEMA DEFAULT ");
+      schema = null;
     } else { 
       ps = prepareStatement("SET CURRENT SCHEMA ? ");
       ps.setString(1, schema);
     }
     ps.executeUpdate();
     ps.close();
+    currentSchema_ = schema;
+
+    // Cached statements keep the names resolved for the previous schema.
+    if (statementCache_ != null)
+      statementCache_.clear();
   }
 
   /**
@@ -6269,6 +6506,8 @@ throws SQLException
     System.arraycopy(assigned_, 0, newConnection.assigned_, 0, MAX_STATEMENTS_);
     newConnection.statements_ = statements_; 
     statements_ = new Vector(); 
+    newConnection.statementCache_ = statementCache_;
+    statementCache_ = null;
     
     
     
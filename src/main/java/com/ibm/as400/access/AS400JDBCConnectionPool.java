@@ -1,14 +1,14 @@
 ///////////////////////////////////////////////////////////////////////////////
-//                                                                             
-// JTOpen (IBM Toolbox for Java - OSS version)                                 
-//                                                                             
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
 // Filename: AS400JDBCConnectionPool.java
-//                                                                             
-// The source code contained herein is licensed under the IBM Public License   
-// Version 1.0, which has been approved by the Open Source Initiative.         
-// Copyright (C) 1997-2003 International Business Machines Corporation and     
-// others. All rights reserved.                                                
-//                                                                             
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 1997-2003 International Business Machines Corporation and
+// others. All rights reserved.
+//
 ///////////////////////////////////////////////////////////////////////////////
 
 package com.ibm.as400.access;
@@ -20,13 +20,30 @@ import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Iterator;                            // Java2
-import java.util.Vector;                              // Java2
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
 *  Represents a pool of JDBC connections
 *  that are available for use by a Java program.
 *  <p>
-*  Note: AS400JDBCConnectionPool objects are threadsafe.
+*  Note: AS400JDBCConnectionPool objects are threadsafe.  Getting and returning
+*  connections does not lock the pool.
+*
+*  <p>When the pool has reached its maximum number of connections, a request for
+*  a connection waits up to the {@link #setMaxWaitTime maximum wait time} for a
+*  connection to be returned.  Waiting requests are served in the order they arrived.
+*  The maintenance of all pools runs on one shared background thread.  Testing and closing
+*  connections, which wait for the system, run on a separate thread for each pool.
+*  The metrics of the pool are available through {@link #getMetrics getMetrics()}.
 *
 *  <p>The following example creates a connection pool with 10 connections.
 *  <blockquote><pre>
@@ -46,7 +63,7 @@ import java.util.Vector;                              // Java2
 *  ... Perform miscellenous queries/updates on the database.
 *
 *  // Close the connection handle to return it to the pool.
-*  connection.close();  
+*  connection.close();
 *
 *  ... Application works with some more connections from the pool.
 *
@@ -58,16 +75,52 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
 {
   static final long serialVersionUID = 4L;
 
+  private static final long POLL_NANOSECONDS = 100000000L;       // Longest wait before a waiting request checks the pool again.
+  private static final Object CANCELLED = new Object();          // Marks a waiting request that stopped waiting.
 
-
-  private boolean closed_;                                       // If the pool is closed.
+  private volatile boolean closed_;                              // If the pool is closed.
   private AS400JDBCConnectionPoolDataSource dataSource_;         // The dataSource used for the connection.
+  private long maxWaitTime_;                                     // Milliseconds to wait for a connection when the pool is full.
+  private long leakDetectionThreshold_;                          // Milliseconds in use before a connection is reported as a possible leak.
+  private boolean validateIdleConnections_;                      // If maintenance tests the available connections.
   transient long lastSingleThreadRun_;                   // Last time maintenance was run (single-thread mode).
-  transient Vector activePool_;                          // Active connections.
-  transient Vector availablePool_;                       // Available connections.
-  transient Vector deadPool_;                            // Connections staged for removal and disconnection.
+  transient ConcurrentHashMap<AS400JDBCPooledConnection, Checkout> activePool_;      // Active connections.
+  transient ConcurrentLinkedDeque<AS400JDBCPooledConnection> availablePool_;          // Available connections, most recently used last.
+  transient ConcurrentLinkedQueue<AS400JDBCPooledConnection> deadPool_;               // Connections staged for disconnection.
+  transient private Set<AS400JDBCPooledConnection> connections_;                     // Connections created and not yet removed.
+  transient private AtomicInteger connectionCount_;                                  // Connections created or being created.
+  transient private ConcurrentLinkedQueue<Waiter> waiters_;                          // Requests waiting for a connection, oldest first.
+  transient private JDConnectionPoolMetrics metrics_;
+  transient private volatile boolean running_;                                       // If the pool has been started since it was last idle or closed.
+  transient private ScheduledFuture<?> maintenanceTask_;
+  transient private AtomicBoolean maintenanceWorker_;                                // If a thread is validating or closing connections.
   transient private PoolConnectionEventListener eventListener_;  // Listener for events on pooled connections.
 
+  // Records when and where an active connection was handed out.
+  static final class Checkout
+  {
+    final Exception stack_;             // Set when leak detection is on.
+    volatile boolean leakReported_;
+
+    Checkout(Exception stack)
+    {
+      stack_ = stack;
+    }
+  }
+
+  // A request waiting for a connection.  The value is null while waiting,
+  // the connection handed to the request, or CANCELLED.
+  private static final class Waiter extends AtomicReference<Object>
+  {
+    static final long serialVersionUID = 1L;
+    final Thread thread_ = Thread.currentThread();
+
+    boolean cancel()
+    {
+      return compareAndSet(null, CANCELLED);
+    }
+  }
+
   /**
   *  Constructs a default AS400JDBCConnectionPool object.
   **/
@@ -87,7 +140,7 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
 
     try
     {
-      setDataSource(dataSource);      
+      setDataSource(dataSource);
     }
     catch (PropertyVetoException p)
     { /* will never occur. */
@@ -98,9 +151,19 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   /**
   *  Removes any connections that have exceeded maximum inactivity time, replaces any connections that have aged past maximum
   *  usage or maximum lifetime, and removes any connections that have been in use too long.
-  *  @exception SQLException If a database error occurs closing a connection.
   **/
   void cleanupConnections()
+  {
+    cleanupConnections(true);
+  }
+
+  /**
+  *  Removes any connections that have exceeded maximum inactivity time, replaces any connections that have aged past maximum
+  *  usage or maximum lifetime, and removes any connections that have been in use too long.
+  *  @param blocking true to validate the available connections and close the removed connections on this thread;
+  *  false to pass that work to a maintenance thread, as the shared scheduler thread must not block.
+  **/
+  private void cleanupConnections(boolean blocking)
   {
     boolean trace = JDTrace.isTraceOn();                                              // @B5C
     if (trace)
@@ -116,82 +179,91 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
       JDTrace.logInformation (this, "Dead Connections: " + deadPool_.size());
     }
 
-    synchronized (availablePool_)
+    // Connections are only changed after they are removed from their pool,
+    // so a connection being handed out or returned at the same time is skipped.
+    Iterator<AS400JDBCPooledConnection> available = availablePool_.iterator();
+    while (available.hasNext())
     {
-      synchronized (activePool_)
+      AS400JDBCPooledConnection poolConnection = available.next();
+
+      if (trace)
+        JDTrace.logInformation (this, poolConnection.toString());     // @B5C
+
+      if ((getMaxLifetime() !=-1 && poolConnection.getLifeSpan() > getMaxLifetime()) ||   //@B1C
+          (getMaxInactivity() !=-1 && poolConnection.getInactivityTime() > getMaxInactivity()))  //@B1C //@B3C
       {
-        Iterator[] connections = { availablePool_.iterator(), activePool_.iterator()};
-        for (int i=0; i< connections.length; i++)
+        if (availablePool_.removeFirstOccurrence(poolConnection))
         {
-          while (connections[i].hasNext())
+          if (trace)
+            JDTrace.logInformation (this, "Removing expired connection from the pool.");  // @B5C
+
+          // Stage the connection for closing.
+          retirePooledConnection(poolConnection);
+
+          // Notify listeners that the connection expired
+          if (poolListeners_ != null)
           {
-            AS400JDBCPooledConnection poolConnection = (AS400JDBCPooledConnection)connections[i].next();
-
-            if (trace)
-              JDTrace.logInformation (this, poolConnection.toString());     // @B5C
-
-            if ((!poolConnection.isInUse() && getMaxLifetime() !=-1 && poolConnection.getLifeSpan() > getMaxLifetime()) ||   //@B1C       // inactive connections only.
-                (!poolConnection.isInUse() && getMaxInactivity() !=-1 && poolConnection.getInactivityTime() > getMaxInactivity()))  //@B1C //@B3C
-            {
-              if (trace)
-                JDTrace.logInformation (this, "Removing expired connection from the pool.");  // @B5C
-
-              connections[i].remove();
-
-              // Stage the connection for closing.
-              synchronized (deadPool_)
-              {
-                deadPool_.addElement(poolConnection);
-              }
-
-              // Notify listeners that the connection expired
-              if (poolListeners_ != null)
-              {
-                ConnectionPoolEvent poolEvent = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_EXPIRED); //@A5C
-                poolListeners_.fireConnectionExpiredEvent(poolEvent);
-              }
-            }
-            else if (getMaxUseTime() > 0 &&
-                     poolConnection.getInUseTime() > getMaxUseTime())       // only valid with active connections.
-            {
-              if (trace)
-                JDTrace.logInformation (this, "Returning active connection to the pool.");  // @B5C
-
-              poolConnection.returned(); // invalidate the connection handle
-              availablePool_.add(poolConnection);
-              connections[i].remove();                  
-
-              // Notify listeners that the connection expired
-              if (poolListeners_ != null)
-              {
-                ConnectionPoolEvent poolEvent = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_EXPIRED); //@A5C
-                poolListeners_.fireConnectionExpiredEvent(poolEvent);
-              }
-            }
-          }   // 'while' loop
-        }  // 'for' loop
-      } // synchronized (activePool_)
-    } // synchronized (availablePool_)
+            ConnectionPoolEvent poolEvent = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_EXPIRED); //@A5C
+            poolListeners_.fireConnectionExpiredEvent(poolEvent);
+          }
+        }
+      }
+    }
 
-    // Close the removed connections.
-    synchronized (deadPool_)
+    long maxUseTime = getMaxUseTime();
+    long leakDetectionThreshold = leakDetectionThreshold_;
+    Iterator<Map.Entry<AS400JDBCPooledConnection, Checkout>> active = activePool_.entrySet().iterator();
+    while (active.hasNext())
     {
-      Iterator connections = deadPool_.iterator();
-      while (connections.hasNext())
-      {
-        AS400JDBCPooledConnection poolConnection = (AS400JDBCPooledConnection)connections.next();
+      Map.Entry<AS400JDBCPooledConnection, Checkout> entry = active.next();
+      AS400JDBCPooledConnection poolConnection = entry.getKey();
+
+      if (trace)
+        JDTrace.logInformation (this, poolConnection.toString());     // @B5C
 
-        if (trace)
-          JDTrace.logInformation (this, poolConnection.toString());
+      long inUseTime = poolConnection.getInUseTime();
+      if (maxUseTime > 0 && inUseTime > maxUseTime)       // only valid with active connections.
+      {
+        if (activePool_.remove(poolConnection) != null)
+        {
+          if (trace)
+            JDTrace.logInformation (this, "Returning active connection to the pool.");  // @B5C
 
-        if (trace)
-          JDTrace.logInformation (this, "Removing dead connection from the pool.");
+          poolConnection.returned(); // invalidate the connection handle
+          returnPooledConnection(poolConnection);
 
-        closePooledConnection(poolConnection);
-        connections.remove();
+          // Notify listeners that the connection expired
+          if (poolListeners_ != null)
+          {
+            ConnectionPoolEvent poolEvent = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_EXPIRED); //@A5C
+            poolListeners_.fireConnectionExpiredEvent(poolEvent);
+          }
+        }
+      }
+      else if (leakDetectionThreshold > 0 && inUseTime > leakDetectionThreshold)
+      {
+        Checkout checkout = entry.getValue();
+        if (!checkout.leakReported_)
+        {
+          checkout.leakReported_ = true;
+          metrics_.leakDetected();
+          if (trace)
+            JDTrace.logException (this, "Connection in use for " + inUseTime + " milliseconds, possible leak.  Obtained from the pool at:", checkout.stack_);
+        }
       }
     }
 
+    // Test the available connections and close the removed connections.
+    if (blocking)
+    {
+      validateAvailableConnections();
+      closeDeadConnections();
+    }
+    else if (validateIdleConnections_ || !deadPool_.isEmpty())
+    {
+      startMaintenanceWorker();
+    }
+
     // Notify listeners that the maintenance thread was run.
     if (poolListeners_ != null)
     {
@@ -200,13 +272,14 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     }
 
     // Check if maintenance should keep running.
-    synchronized (availablePool_)
+    if (connectionCount_.get() == 0 && waiters_.isEmpty())
     {
-      synchronized (activePool_)
+      synchronized (this)
       {
-        if (activePool_.isEmpty() && availablePool_.isEmpty())
+        if (connectionCount_.get() == 0 && waiters_.isEmpty())
         {
-          if (maintenance_ != null) maintenance_.setRunning(false);
+          running_ = false;
+          cancelMaintenance();
           setInUse(false);          // data source CAN be changed.
         }
       }
@@ -236,45 +309,125 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
       JDTrace.logInformation (this, "Active: " + activePool_.size());        // @B5C
     }
 
-    // Close all connections in the pool.
-    synchronized (availablePool_)
+    // Stop the maintenance, and fail the waiting requests.
+    synchronized (this)
     {
-      synchronized (activePool_)
-      {
-        synchronized (deadPool_)
-        {
-          Iterator[] connections = { availablePool_.iterator(), activePool_.iterator(), deadPool_.iterator()};
-
-          for (int i=0; i< connections.length; i++)
-          {
-            while (connections[i].hasNext())
-            {
-              AS400JDBCPooledConnection pooledConnection = (AS400JDBCPooledConnection)connections[i].next();
-              closePooledConnection(pooledConnection);
-              connections[i].remove();
-            }
-          }
-        }
-      }
+      cancelMaintenance();
+      running_ = false;
+      closed_ = true;
     }
+    Iterator<Waiter> waiters = waiters_.iterator();
+    while (waiters.hasNext())
+      LockSupport.unpark(waiters.next().thread_);
+
+    // Close all connections in the pool.
+    AS400JDBCPooledConnection pooledConnection;
+    while ((pooledConnection = availablePool_.pollFirst()) != null)
+      closePooledConnection(pooledConnection);
 
-    // Terminate the maintenance thread, if it's still alive.
-    if (maintenance_ != null && maintenance_.isAlive()) {
-      maintenance_.shutdown();  // tell the thread to terminate
+    Iterator<AS400JDBCPooledConnection> active = activePool_.keySet().iterator();
+    while (active.hasNext())
+    {
+      pooledConnection = active.next();
+      if (activePool_.remove(pooledConnection) != null)
+        closePooledConnection(pooledConnection);
     }
 
-    synchronized( this) { // @A7A  
+    closeDeadConnections();
+
+    synchronized( this) { // @A7A
       if (isInUse())
         setInUse(false);                     // data source CAN be changed.
     }
     // Notify the listeners.
     if (poolListeners_ != null)
     {
-      ConnectionPoolEvent event = new ConnectionPoolEvent(this, ConnectionPoolEvent.CONNECTION_POOL_CLOSED);  
+      ConnectionPoolEvent event = new ConnectionPoolEvent(this, ConnectionPoolEvent.CONNECTION_POOL_CLOSED);
       poolListeners_.fireClosedEvent(event);
     }
+  }
 
-    closed_ = true;
+  /**
+  *  Tests the available connections, if the pool validates idle connections, and stages those that are no longer alive to be closed.
+  **/
+  private void validateAvailableConnections()
+  {
+    if (!validateIdleConnections_)
+      return;
+
+    // Connections are only changed after they are removed from their pool,
+    // so a connection being handed out or returned at the same time is skipped.
+    Iterator<AS400JDBCPooledConnection> available = availablePool_.iterator();
+    while (available.hasNext())
+    {
+      AS400JDBCPooledConnection poolConnection = available.next();
+      if (!availablePool_.removeFirstOccurrence(poolConnection))
+        continue;
+
+      boolean alive;
+      try
+      {
+        alive = poolConnection.isConnectionAlive();
+      }
+      catch (SQLException e)
+      {
+        alive = false;
+      }
+
+      if (alive)
+      {
+        availablePool_.offerFirst(poolConnection);              // Keep its place as least recently used.
+        handOffAvailable();
+      }
+      else
+      {
+        if (JDTrace.isTraceOn())
+          JDTrace.logInformation (this, "Removing connection that failed validation from the pool.");
+        retirePooledConnection(poolConnection);
+      }
+    }
+  }
+
+  /**
+  *  Validates the available connections and closes the removed connections on a new thread,
+  *  unless a maintenance thread of this pool is still running.
+  **/
+  private void startMaintenanceWorker()
+  {
+    if (!maintenanceWorker_.compareAndSet(false, true))
+      return;
+    SharedScheduler.startThread(new Runnable()
+    {
+      public void run()
+      {
+        try
+        {
+          validateAvailableConnections();
+          closeDeadConnections();
+        }
+        finally
+        {
+          maintenanceWorker_.set(false);
+        }
+      }
+    }, "AS400JDBCConnectionPoolMaintenance");
+  }
+
+  /**
+  *  Closes the connections staged for removal.
+  **/
+  private void closeDeadConnections()
+  {
+    AS400JDBCPooledConnection poolConnection;
+    while ((poolConnection = deadPool_.poll()) != null)
+    {
+      if (JDTrace.isTraceOn())
+      {
+        JDTrace.logInformation (this, poolConnection.toString());
+        JDTrace.logInformation (this, "Removing dead connection from the pool.");
+      }
+      closePooledConnection(poolConnection);
+    }
   }
 
   /**
@@ -283,6 +436,9 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   **/
   void closePooledConnection(AS400JDBCPooledConnection pooledConnection)
   {
+    // A connection in error is still active, so it must stop counting as active before its slot is released.
+    activePool_.remove(pooledConnection);
+    removePooledConnection(pooledConnection);
     try
     {
       pooledConnection.close();
@@ -294,6 +450,30 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     }
   }
 
+  /**
+  *  Removes a connection from the count of connections, so that a new one can be created in its place.
+  *  Removing a connection more than once has no effect.
+  *  @param pooledConnection The pooled connection.
+  **/
+  private void removePooledConnection(AS400JDBCPooledConnection pooledConnection)
+  {
+    if (connections_.remove(pooledConnection))
+    {
+      metrics_.connectionClosed();
+      releaseConnection();
+    }
+  }
+
+  /**
+  *  Removes a connection from the pool and stages it to be closed by the maintenance.
+  *  @param pooledConnection The pooled connection.
+  **/
+  private void retirePooledConnection(AS400JDBCPooledConnection pooledConnection)
+  {
+    removePooledConnection(pooledConnection);
+    deadPool_.add(pooledConnection);
+  }
+
   /**
   *  Creates a pooledConnection for the pool.
   *  @return An AS400JDBCPooledConnection object.
@@ -311,6 +491,74 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     return pooledConnection;
   }
 
+  /**
+  *  Creates a connection for which a place in the pool has been reserved.
+  *  The place is released if the connection cannot be created.
+  *  @return The connection.
+  *  @exception ConnectionPoolException If a database error occurs creating the connection.
+  **/
+  private AS400JDBCPooledConnection newPooledConnection() throws ConnectionPoolException
+  {
+    long start = System.nanoTime();
+    AS400JDBCPooledConnection poolConnection = null;
+    try
+    {
+      poolConnection = createPooledConnection();
+    }
+    catch (SQLException e)
+    {
+      if (isRunMaintenance() && running_)
+        cleanupConnections();                 // re-check old connections.
+      throw new ConnectionPoolException(e);
+    }
+    finally
+    {
+      if (poolConnection == null)
+      {
+        metrics_.connectionCreateFailed();
+        releaseConnection();
+      }
+    }
+    metrics_.connectionCreated(System.nanoTime() - start);
+    connections_.add(poolConnection);
+
+    // Notify the listeners.
+    if (poolListeners_ != null)
+    {
+      ConnectionPoolEvent event = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_CREATED);  //@A5M @A5C
+      poolListeners_.fireConnectionCreatedEvent(event); //@A5M
+    }
+    return poolConnection;
+  }
+
+  /**
+  *  Reserves a place for a new connection, if the pool has not reached its maximum number of connections.
+  *  @return true if a place was reserved; false otherwise.
+  **/
+  private boolean reserveConnection()
+  {
+    while (true)
+    {
+      int count = connectionCount_.get();
+      int maxConnections = getMaxConnections();
+      if (maxConnections != -1 && count >= maxConnections)
+        return false;
+      if (connectionCount_.compareAndSet(count, count + 1))
+        return true;
+    }
+  }
+
+  /**
+  *  Releases the place of a connection, and wakes the oldest waiting request so it can create a new one.
+  **/
+  private void releaseConnection()
+  {
+    connectionCount_.decrementAndGet();
+    Waiter waiter = waiters_.peek();
+    if (waiter != null)
+      LockSupport.unpark(waiter.thread_);
+  }
+
   /**
   *  Fills the connection pool with the specified number of database connections.
   *  @param numberOfConnections The number of connections to add to the pool.
@@ -329,91 +577,70 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     int maxConnections = getMaxConnections();
     if (maxConnections != -1)
     {
-      if (numberOfConnections + getActiveConnectionCount() + getAvailableConnectionCount() > maxConnections)
+      if (numberOfConnections + connectionCount_.get() > maxConnections)
           throw new ConnectionPoolException(ConnectionPoolException.MAX_CONNECTIONS_REACHED); //@KBA    fix for JTOpen Bug 3655
         //@KBD throw new ExtendedIllegalArgumentException("numberOfConnections", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
     }
 
     // Add connections to the pool.
-    try
-    {
-      synchronized (availablePool_)
-      {
-        for (int i=0; i< numberOfConnections; i++)
-        { //@A5A
-          AS400JDBCPooledConnection poolConnection = createPooledConnection(); //@A5A
-          availablePool_.addElement(poolConnection); //@A5C
-
-          // Notify the listeners.
-          if (poolListeners_ != null)
-          {
-            ConnectionPoolEvent event = new ConnectionPoolEvent(poolConnection, ConnectionPoolEvent.CONNECTION_CREATED);  //@A5M @A5C
-            poolListeners_.fireConnectionCreatedEvent(event); //@A5M
-          }
-        } //@A5A
-      }
-    }
-    catch (SQLException e)
-    {
-      if (isRunMaintenance() && maintenance_ != null)
-        cleanupConnections();                 // re-check old connections.
-      throw new ConnectionPoolException(e);
-    }
+    for (int i=0; i< numberOfConnections; i++)
+    { //@A5A
+      if (!reserveConnection())
+        throw new ConnectionPoolException(ConnectionPoolException.MAX_CONNECTIONS_REACHED);
+      returnPooledConnection(newPooledConnection()); //@A5C
+    } //@A5A
+
+    start();
+  }
 
-    synchronized(this) { 
-    if (!isInUse())
-      {
-        setInUse(true);                   // Data source now can NOT be changed.
+  /**
+  *  Starts the pool if it is not running: marks it in use, and starts its maintenance.
+  **/
+  private synchronized void start()
+  {
+    if (running_)
+      return;
 
-        if (isClosed())
-          closed_ = false;                          // Set the state to OPEN if previously closed.
-      }
-    }
+    setInUse(true);                   // Data source now can NOT be changed.
+    closed_ = false;                  // Set the state to OPEN if previously closed.
+    running_ = true;
 
     if (isRunMaintenance() && isThreadUsed())
+      scheduleMaintenance(getCleanupInterval());
+    else if (isRunMaintenance() && !isThreadUsed())
+      lastSingleThreadRun_ = System.currentTimeMillis();
+  }
+
+  /**
+  *  Schedules the maintenance on the shared scheduler, replacing any scheduled maintenance.
+  *  @param initialDelay The number of milliseconds before the first run.
+  **/
+  private synchronized void scheduleMaintenance(long initialDelay)
+  {
+    cancelMaintenance();
+    long cleanupInterval = getCleanupInterval();
+    if (cleanupInterval > 0)
     {
-      if (maintenance_ == null)
+      maintenanceTask_ = SharedScheduler.scheduleWithFixedDelay(new Runnable()
       {
-        synchronized(this) //@CRS
+        public void run()
         {
-          if (maintenance_ == null) //@CRS
-          {
-            maintenance_ = new PoolMaintenance(this);
-            maintenance_.start();                     // Start the first time.
-            // Give thread a chance to start.                                      
-//            if (!maintenance_.isRunning())                                         //@A2C
-//            {
-//              try
-//              {                                                                //@A2A
-//                Thread.sleep(10);                                              //@A2A
-//              }                                                                  //@A2A
-//              catch (InterruptedException e)                                     //@A2A
-//              {
-                //Ignore  	        					   //@A2A
-//              }                                                                  //@A2A
-//            }                                                                      //@A2A
-            // If thread has still not started, keep giving it chances for 5 minutes.
-//            for (int i = 1; !maintenance_.isRunning() && i<6000; i++)              //@A2A
-//            {
-//              try
-//              {                  //@A2A
-//                Thread.sleep(50);                                              //@A2A
-//              }                  //@A2A
-//              catch (InterruptedException ie)            //@A2A
-//              {
-                //Ignore							   //@A2A
-//              }                  //@A2A
-//            }                    //@A2A
-//            if (!maintenance_.isRunning())             //@A2A
-//              JDTrace.logInformation (this, "maintenance thread failed to start");    //@A2A
-          }                     //@A2A
+          cleanupConnections(false);
         }
-      }
-//@CRS      else if (!maintenance_.isRunning())
-      if (!maintenance_.isRunning()) maintenance_.setRunning(true);            // Restart. @CRS
+      }, initialDelay, cleanupInterval);
+    }
+  }
+
+  /**
+  *  Cancels the scheduled maintenance.
+  **/
+  private synchronized void cancelMaintenance()
+  {
+    if (maintenanceTask_ != null)
+    {
+      maintenanceTask_.cancel(false);
+      maintenanceTask_ = null;
     }
-    else if (isRunMaintenance() && !isThreadUsed())
-      lastSingleThreadRun_ = System.currentTimeMillis();
   }
 
   /**
@@ -442,7 +669,16 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   **/
   public int getAvailableConnectionCount()
   {
-    return availablePool_.size();      
+    return availablePool_.size();
+  }
+
+  /**
+  *  Returns the number of requests waiting for a connection.
+  *  @return The number of waiting requests.
+  **/
+  int getWaitingRequestCount()
+  {
+    return waiters_.size();
   }
 
   /**
@@ -477,6 +713,33 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     return dataSource_;
   }
 
+  /**
+  *  Returns the time in use after which a connection is reported as a possible leak.
+  *  @return The number of milliseconds, or 0 if leak detection is off.
+  **/
+  public long getLeakDetectionThreshold()
+  {
+    return leakDetectionThreshold_;
+  }
+
+  /**
+  *  Returns the maximum time a request waits for a connection when the pool has reached its maximum number of connections.
+  *  @return The number of milliseconds, or 0 if requests do not wait.
+  **/
+  public long getMaxWaitTime()
+  {
+    return maxWaitTime_;
+  }
+
+  /**
+  *  Returns the metrics of the pool.
+  *  @return The metrics, which can be registered as a JMX MXBean.
+  **/
+  public AS400JDBCConnectionPoolMetricsMXBean getMetrics()
+  {
+    return metrics_;
+  }
+
 
   //@A3A
   /**
@@ -487,25 +750,18 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   **/
   AS400JDBCPooledConnection getPooledConnection() throws ConnectionPoolException
   {
+    long start = System.nanoTime();
+    if (!running_)
+      start();
+
     AS400JDBCPooledConnection pooledConnection = null;
 
-    final int maxTries = Math.max(getMaxConnections(), 1+availablePool_.size());
+    final int maxTries = Math.max(getMaxConnections(), 1+connectionCount_.get());
     int numTries = 0;
     while (pooledConnection == null &&
            ++numTries <= maxTries)  // eliminate any possibility of an infinite loop
     {
-      synchronized (availablePool_)
-      {
-        //@B2M Moved following two lines into the synchronization block.
-        if (availablePool_.isEmpty())                                    //@B2M
-          fill(1);                         // Add a new connection.    //@B2M
-
-        //@CRS pooledConnection = (AS400JDBCPooledConnection)availablePool_.firstElement();
-        pooledConnection = (AS400JDBCPooledConnection)availablePool_.lastElement(); //@CRS -- Most recently used.
-
-        // Remove the pooled connection from the available list.
-        availablePool_.removeElement(pooledConnection);    
-      }
+      pooledConnection = borrowPooledConnection(start);
 
       // Pre-test the connection, if the property is set.
       try
@@ -515,24 +771,20 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
           if (JDTrace.isTraceOn())
             JDTrace.logInformation (this, "Connection failed a pretest.");
 
-          synchronized (deadPool_)
-          {
-            deadPool_.addElement(pooledConnection);      
-          }
+          retirePooledConnection(pooledConnection);
           pooledConnection = null;
         }
       }
       catch (SQLException sql)
       {
+        retirePooledConnection(pooledConnection);
         throw new ConnectionPoolException(sql);
       }
 
       if (pooledConnection != null)
       {
-        synchronized (activePool_)
-        {
-          activePool_.addElement(pooledConnection);      
-        }
+        Exception stack = (leakDetectionThreshold_ > 0) ? new Exception("Connection obtained from the pool") : null;
+        activePool_.put(pooledConnection, new Checkout(stack));
       }
     }
 
@@ -542,6 +794,8 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
       throw new ConnectionPoolException(ConnectionPoolException.UNKNOWN_ERROR);
     }
 
+    metrics_.connectionRequested(System.nanoTime() - start);
+
     // Notify the listeners that a connection was released.
     if (poolListeners_ != null)
     {
@@ -551,6 +805,146 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     return pooledConnection;
   }
 
+  /**
+  *  Takes the most recently used available connection, or creates a connection, or waits for one.
+  *  Requests do not pass the requests already waiting.
+  *  @param start When the request started, from System.nanoTime().
+  *  @return The connection.
+  *  @exception ConnectionPoolException If a database error occurs, or no connection is available within the maximum wait time.
+  **/
+  private AS400JDBCPooledConnection borrowPooledConnection(long start) throws ConnectionPoolException
+  {
+    long maxWaitTime = maxWaitTime_;
+    if (waiters_.isEmpty() || maxWaitTime == 0)
+    {
+      AS400JDBCPooledConnection pooledConnection = availablePool_.pollLast();     //@CRS -- Most recently used.
+      if (pooledConnection != null)
+        return pooledConnection;
+      if (reserveConnection())
+        return newPooledConnection();
+      if (maxWaitTime == 0)
+        throw new ConnectionPoolException(ConnectionPoolException.MAX_CONNECTIONS_REACHED);
+    }
+
+    Waiter waiter = new Waiter();
+    waiters_.offer(waiter);
+    long deadline = start + maxWaitTime * 1000000L;
+    try
+    {
+      while (true)
+      {
+        Object handed = waiter.get();
+        if (handed != null)
+          return (AS400JDBCPooledConnection)handed;
+
+        if ((closed_ || Thread.currentThread().isInterrupted()) && waiter.cancel())
+        {
+          if (closed_)
+            throw new ConnectionPoolException(ConnectionPoolException.UNKNOWN_ERROR);
+          throw new ConnectionPoolException(new InterruptedException());
+        }
+
+        // The oldest request takes a connection that became available or a place
+        // that was released; the others wait for it to go first.
+        if (waiters_.peek() == waiter)
+        {
+          AS400JDBCPooledConnection pooledConnection = availablePool_.pollLast();
+          boolean create = (pooledConnection == null && reserveConnection());
+          if (pooledConnection != null || create)
+          {
+            if (waiter.cancel())
+              return (create) ? newPooledConnection() : pooledConnection;
+
+            // A connection was handed to this request at the same time.
+            if (create)
+              releaseConnection();
+            else
+              returnPooledConnection(pooledConnection);
+            continue;
+          }
+        }
+
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0)
+        {
+          if (waiter.cancel())
+          {
+            metrics_.requestTimedOut();
+            if (JDTrace.isTraceOn())
+              JDTrace.logInformation (this, "Timed out waiting " + maxWaitTime + " milliseconds for a connection.");
+            throw new ConnectionPoolException(ConnectionPoolException.MAX_CONNECTIONS_REACHED);
+          }
+          continue;
+        }
+        LockSupport.parkNanos(this, Math.min(remaining, POLL_NANOSECONDS));
+      }
+    }
+    finally
+    {
+      waiters_.remove(waiter);
+      Waiter next = waiters_.peek();
+      if (next != null)
+        LockSupport.unpark(next.thread_);
+    }
+  }
+
+  /**
+  *  Hands a connection to the oldest waiting request, or adds it to the available connections.
+  *  A connection that was already removed from the pool, for example because of an error, is not reused.
+  *  @param pooledConnection The pooled connection.
+  **/
+  void returnPooledConnection(AS400JDBCPooledConnection pooledConnection)
+  {
+    if (!connections_.contains(pooledConnection))
+    {
+      if (JDTrace.isTraceOn())
+        JDTrace.logInformation (this, "Not reusing a connection that was removed from the pool.");
+      return;
+    }
+    if (!waiters_.isEmpty() && handOff(pooledConnection))
+      return;
+    availablePool_.offerLast(pooledConnection);
+    handOffAvailable();
+  }
+
+  /**
+  *  Hands available connections to waiting requests.  A request can start waiting after a
+  *  connection was checked for waiting requests but before it was made available.
+  **/
+  private void handOffAvailable()
+  {
+    while (!waiters_.isEmpty())
+    {
+      AS400JDBCPooledConnection pooledConnection = availablePool_.pollLast();
+      if (pooledConnection == null)
+        return;
+      if (!handOff(pooledConnection))
+      {
+        availablePool_.offerLast(pooledConnection);
+        return;
+      }
+    }
+  }
+
+  /**
+  *  Hands a connection to the oldest waiting request.
+  *  @param pooledConnection The pooled connection.
+  *  @return true if the connection was handed to a request; false if no request is waiting.
+  **/
+  private boolean handOff(AS400JDBCPooledConnection pooledConnection)
+  {
+    Waiter waiter;
+    while ((waiter = waiters_.poll()) != null)
+    {
+      if (waiter.compareAndSet(null, pooledConnection))
+      {
+        LockSupport.unpark(waiter.thread_);
+        return true;
+      }
+    }
+    return false;
+  }
+
 
   /**
   *  Initializes the transient data.
@@ -559,9 +953,14 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   {
     eventListener_ = new PoolConnectionEventListener(this);
 
-    activePool_ = new Vector();
-    availablePool_ = new Vector();  
-    deadPool_ = new Vector();  
+    activePool_ = new ConcurrentHashMap<AS400JDBCPooledConnection, Checkout>();
+    availablePool_ = new ConcurrentLinkedDeque<AS400JDBCPooledConnection>();
+    deadPool_ = new ConcurrentLinkedQueue<AS400JDBCPooledConnection>();
+    connections_ = ConcurrentHashMap.newKeySet();
+    connectionCount_ = new AtomicInteger();
+    waiters_ = new ConcurrentLinkedQueue<Waiter>();
+    maintenanceWorker_ = new AtomicBoolean();
+    metrics_ = new JDConnectionPoolMetrics(this);
     closed_ = true;
 
     //@A1D Moved property change listener to parent; moved runMaintenance method below.
@@ -576,6 +975,15 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     return closed_;
   }
 
+  /**
+  *  Indicates whether the maintenance tests the available connections and removes those that are no longer alive.
+  *  @return true if available connections are validated; false otherwise.
+  **/
+  public boolean isValidateIdleConnections()
+  {
+    return validateIdleConnections_;
+  }
+
   /**
   *  Deserializes and initializes transient data.
   *  @exception IOException If a file I/O error occurs.
@@ -584,7 +992,7 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
   {
     in.defaultReadObject();
-    initializeTransient();      
+    initializeTransient();
   }
 
   /**
@@ -594,46 +1002,27 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
   **/
   private void reduceConnectionCount()
   {
-    synchronized (availablePool_)
-    {
-      synchronized (activePool_)
-      {
-        int current = availablePool_.size() + activePool_.size();
-        int required = getMaxConnections();
-
-        if (current > required)
-        {
-          if (JDTrace.isTraceOn())  // @B5C
-            JDTrace.logInformation (this, "Reducing number of connections... Current: " + current + "(" + availablePool_.size() + ") " + " Max: " + required);  // @B5C
-
-          int removed = 0;
-          int reduceBy = current - required;
-          while (removed < reduceBy && availablePool_.size() != 0)
-          {
-            AS400JDBCPooledConnection poolConnection = (AS400JDBCPooledConnection)availablePool_.remove(0);
-            removed++;
-            synchronized (deadPool_)
-            {
-              // Stage the connection for closing.
-              deadPool_.addElement(poolConnection);
-            }
-          }
-        }
-      }
-    }
+    int current = connectionCount_.get();
+    int required = getMaxConnections();
 
-    // Close the removed connections.
-    synchronized (deadPool_)
+    if (required != -1 && current > required)
     {
-      Iterator deadConnections = deadPool_.iterator();
-      while (deadConnections.hasNext())
+      if (JDTrace.isTraceOn())  // @B5C
+        JDTrace.logInformation (this, "Reducing number of connections... Current: " + current + "(" + availablePool_.size() + ") " + " Max: " + required);  // @B5C
+
+      int removed = 0;
+      int reduceBy = current - required;
+      AS400JDBCPooledConnection poolConnection;
+      while (removed < reduceBy && (poolConnection = availablePool_.pollFirst()) != null)   // Least recently used.
       {
-        AS400JDBCPooledConnection poolConnection = (AS400JDBCPooledConnection)deadConnections.next();
-        closePooledConnection(poolConnection);
-        deadConnections.remove();
+        removed++;
+        // Stage the connection for closing.
+        retirePooledConnection(poolConnection);
       }
     }
 
+    // Close the removed connections.
+    closeDeadConnections();
   }
 
   //@A1A
@@ -643,15 +1032,14 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
    **/
   void runMaintenance(boolean reduced)
   {
-    if (maintenance_ != null && maintenance_.isRunning())
+    synchronized (this)
     {
-      synchronized(maintenance_)
-      {
-        if (reduced)
-          reduceConnectionCount();     // Check to see if number of available connections needs adjusting.
-        maintenance_.notify();
-      }
+      if (maintenanceTask_ == null)
+        return;
     }
+    if (reduced)
+      reduceConnectionCount();     // Check to see if number of available connections needs adjusting.
+    scheduleMaintenance(0);
   }
 
   /**
@@ -676,4 +1064,76 @@ public class AS400JDBCConnectionPool extends ConnectionPool implements Serializa
     if(changes_ != null)                                       //@K1A
         changes_.firePropertyChange(property, old, dataSource);
   }
+
+  /**
+  *  Sets the time a connection can be in use before the maintenance reports it as a possible leak.
+  *  The report is written to the JDBC trace with the stack of the thread that obtained the connection,
+  *  and counted in the metrics of the pool.  The connection is not closed.
+  *  Capturing the stack adds some cost to each request for a connection.
+  *  The default value is 0, indicating that leak detection is off.
+  *  @param leakDetectionThreshold The number of milliseconds.
+  **/
+  public void setLeakDetectionThreshold(long leakDetectionThreshold)
+  {
+    String property = "leakDetectionThreshold";
+    if (leakDetectionThreshold < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    long old = leakDetectionThreshold_;
+    leakDetectionThreshold_ = leakDetectionThreshold;
+    if (changes_ != null)
+      changes_.firePropertyChange(property, Long.valueOf(old), Long.valueOf(leakDetectionThreshold));
+  }
+
+  /**
+  *  Sets the maximum time a request waits for a connection when the pool has reached its maximum number of connections.
+  *  Waiting requests get connections in the order they arrived.  If no connection is available within the time,
+  *  a ConnectionPoolException with the return code {@link ConnectionPoolException#MAX_CONNECTIONS_REACHED MAX_CONNECTIONS_REACHED} is thrown.
+  *  The default value is 0, indicating that the exception is thrown without waiting.
+  *  @param maxWaitTime The number of milliseconds.
+  **/
+  public void setMaxWaitTime(long maxWaitTime)
+  {
+    String property = "maxWaitTime";
+    if (maxWaitTime < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    long old = maxWaitTime_;
+    maxWaitTime_ = maxWaitTime;
+    if (changes_ != null)
+      changes_.firePropertyChange(property, Long.valueOf(old), Long.valueOf(maxWaitTime));
+  }
+
+  /**
+  *  Sets whether the Toolbox does periodic maintenance on the connection pool to clean up
+  *  expired connections.  The maintenance of all pools runs on one shared thread.
+  *  @param cleanup If expired connections are cleaned up by the maintenance daemon.
+  **/
+  public void setRunMaintenance(boolean cleanup)
+  {
+    super.setRunMaintenance(cleanup);
+    synchronized (this)
+    {
+      if (!cleanup)
+        cancelMaintenance();
+      else if (running_ && isThreadUsed() && maintenanceTask_ == null)
+        scheduleMaintenance(getCleanupInterval());
+    }
+  }
+
+  /**
+  *  Sets whether the maintenance tests the available connections and removes those that are no longer alive,
+  *  so that fewer connections fail the pretest when they are requested.
+  *  The default value is false.
+  *  @param validate true to validate available connections; false otherwise.
+  *  @see #setPretestConnections
+  **/
+  public void setValidateIdleConnections(boolean validate)
+  {
+    String property = "validateIdleConnections";
+    boolean old = validateIdleConnections_;
+    validateIdleConnections_ = validate;
+    if (changes_ != null)
+      changes_.firePropertyChange(property, Boolean.valueOf(old), Boolean.valueOf(validate));
+  }
 }
@@ -0,0 +1,119 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  AS400JDBCConnectionPoolMetricsMXBean.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+ * Represents the metrics of an {@link AS400JDBCConnectionPool AS400JDBCConnectionPool}.
+ * The metrics can be registered as a JMX MXBean:
+ * <pre>
+ *  ManagementFactory.getPlatformMBeanServer().registerMBean(pool.getMetrics(),
+ *      new ObjectName("com.ibm.as400.access:type=AS400JDBCConnectionPool,name=myPool"));
+ * </pre>
+ * <p>The counts are kept from the time the pool is created, and are not synchronized
+ * with each other.
+**/
+public interface AS400JDBCConnectionPoolMetricsMXBean
+{
+  /**
+   * Returns the number of connections in use.
+   * @return The number of active connections.
+  **/
+  public int getActiveConnectionCount();
+
+  /**
+   * Returns the number of connections available in the pool.
+   * @return The number of idle connections.
+  **/
+  public int getAvailableConnectionCount();
+
+  /**
+   * Returns the number of requests waiting for a connection.
+   * @return The number of waiting requests.
+  **/
+  public int getWaitingRequestCount();
+
+  /**
+   * Returns the number of connections handed out by the pool.
+   * @return The number of requests.
+  **/
+  public long getRequestCount();
+
+  /**
+   * Returns the number of requests that failed because no connection
+   * became available within the maximum wait time.
+   * @return The number of timeouts.
+  **/
+  public long getTimeoutCount();
+
+  /**
+   * Returns the average time to get a connection from the pool, in milliseconds.
+   * This includes the time to create a connection when none is available.
+   * @return The average wait time.
+  **/
+  public double getAverageWaitTime();
+
+  /**
+   * Returns the number of requests by the time they took to get a connection.
+   * Element i counts the requests that took less than element i of
+   * {@link #getWaitTimeHistogramLimits getWaitTimeHistogramLimits()} milliseconds
+   * and at least the previous limit.  The last element counts the requests
+   * that took at least the last limit.
+   * @return The counts.
+  **/
+  public long[] getWaitTimeHistogram();
+
+  /**
+   * Returns the upper limits of the elements of the wait time histogram, in milliseconds.
+   * @return The limits.
+  **/
+  public long[] getWaitTimeHistogramLimits();
+
+  /**
+   * Returns the number of connections created.
+   * @return The number of connections.
+  **/
+  public long getConnectionsCreated();
+
+  /**
+   * Returns the number of connections that could not be created.
+   * @return The number of failures.
+  **/
+  public long getConnectionCreateFailures();
+
+  /**
+   * Returns the number of connections closed by the pool.
+   * @return The number of connections.
+  **/
+  public long getConnectionsClosed();
+
+  /**
+   * Returns the average time to create a connection, in milliseconds.
+   * @return The average create time.
+  **/
+  public double getAverageCreateTime();
+
+  /**
+   * Returns the longest time taken to create a connection, in milliseconds.
+   * @return The maximum create time.
+  **/
+  public double getMaximumCreateTime();
+
+  /**
+   * Returns the number of connections that were in use longer than the
+   * leak detection threshold.
+   * @return The number of possible leaks.
+   * @see AS400JDBCConnectionPool#setLeakDetectionThreshold
+  **/
+  public long getLeakCount();
+}
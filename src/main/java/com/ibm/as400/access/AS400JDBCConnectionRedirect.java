@@ -20,6 +20,7 @@ import java.util.Hashtable;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 /* ifdef JDBC40 */
 import java.util.concurrent.locks.ReentrantLock;
@@ -1790,6 +1791,28 @@ extends AS400JDBCConnection {
 
   }
 
+  public synchronized CompletableFuture<DataStream> sendAsync(DBBaseRequestDS request, int id)
+      throws SQLException {
+    boolean retryOperation = true;
+    while (retryOperation) {
+      try {
+        return currentConnection_.sendAsync(request, id);
+      } catch (SQLException e) {
+        retryOperation = handleException(e);
+      }
+    }
+    JDError.throwSQLException(JDError.EXC_INTERNAL); /* should not be reached */
+    return null;
+
+  }
+
+  // The reply can only be received from the connection that sent the request,
+  // so the operation is not retried.
+  public DBReplyRequestedDS receiveAsync(CompletableFuture<DataStream> future)
+      throws SQLException {
+    return currentConnection_.receiveAsync(future);
+  }
+
   public synchronized DBReplyRequestedDS sendAndMultiReceive(DBBaseRequestDS request)
       throws SQLException {
     boolean retryOperation = true;
@@ -2307,6 +2330,18 @@ extends AS400JDBCConnection {
 
   }
 
+  public synchronized AS400JDBCStatementCache getStatementCache() {
+    return currentConnection_.getStatementCache();
+  }
+
+  public synchronized AS400JDBCMetaDataCache getMetaDataCache() {
+    return currentConnection_.getMetaDataCache();
+  }
+
+  synchronized String getCurrentSchema() throws SQLException {
+    return currentConnection_.getCurrentSchema();
+  }
+
   public synchronized String getSchema() throws SQLException {
     boolean retryOperation = true;
     while (retryOperation) {
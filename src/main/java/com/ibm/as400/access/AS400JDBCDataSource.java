@@ -519,6 +519,80 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
         return properties_.getInt(JDProperties.BLOCK_SIZE);
     }
 
+    /**
+    *  Returns the percentage of a block of a forward-only result set that is
+    *  read before the next block is requested from the system in the background.
+    *  @return The block prefetch threshold.  The default value is 0, which means
+    *  that blocks are not requested in the background.
+    **/
+    public int getBlockPrefetchThreshold()
+    {
+        return properties_.getInt(JDProperties.BLOCK_PREFETCH_THRESHOLD);
+    }
+
+    /**
+    *  Returns the largest block size in kilobytes that is used when the block size
+    *  of forward-only, read-only result sets is adjusted to the speed of the connection.
+    *  @return The maximum block size.  The default value is 0, which means that
+    *  the block size is not adjusted.
+    *  @see AS400JDBCFetchMetrics
+    **/
+    public int getMaximumBlockSize()
+    {
+        return properties_.getInt(JDProperties.MAXIMUM_BLOCK_SIZE);
+    }
+
+    /**
+    *  Returns the number of rows added to the batch of a prepared statement
+    *  after which the rows are sent to the system before executeBatch() is called.
+    *  @return The batch flush rows.  The default value is 0, which means that
+    *  rows are not sent before executeBatch() is called.
+    **/
+    public int getBatchFlushRows()
+    {
+        return properties_.getInt(JDProperties.BATCH_FLUSH_ROWS);
+    }
+
+    /**
+    *  Returns the size in kilobytes of the rows added to the batch of a prepared
+    *  statement after which the rows are sent to the system before executeBatch() is called.
+    *  @return The batch flush size.  The default value is 0, which means that
+    *  rows are not sent before executeBatch() is called.
+    **/
+    public int getBatchFlushSize()
+    {
+        return properties_.getInt(JDProperties.BATCH_FLUSH_SIZE);
+    }
+
+    /**
+    *  Returns the maximum number of DatabaseMetaData results kept in the metadata cache.
+    *  @return The metadata cache size.  The default value is 0, which means that
+    *  the results are not cached.
+    **/
+    public int getMetadataCacheSize()
+    {
+        return properties_.getInt(JDProperties.METADATA_CACHE_SIZE);
+    }
+
+    /**
+    *  Returns the number of seconds that a cached DatabaseMetaData result is reused.
+    *  @return The metadata cache time.  The default value is 300.
+    **/
+    public int getMetadataCacheTime()
+    {
+        return properties_.getInt(JDProperties.METADATA_CACHE_TIME);
+    }
+
+    /**
+    *  Returns the size of the blocks that LOB locator streams read from and write to the system.
+    *  @return The LOB block size (in kilobytes).  The default value is 0, which means that
+    *  the data is read and written as the application requests it.
+    **/
+    public int getLobBlockSize()
+    {
+        return properties_.getInt(JDProperties.LOB_BLOCK_SIZE);
+    }
+
     /**
      * Returns the behavior to use when character truncation occurs
      * 
@@ -1071,6 +1145,18 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
         return properties_.getInt(JDProperties.LOB_THRESHOLD);
     }
 
+    /**
+    *  Returns the maximum number of closed prepared statements that each connection
+    *  keeps prepared for reuse.
+    *  @return The statement cache size.  The default value is 0, which means that
+    *  statements are not cached.
+    *  @see AS400JDBCStatementCache
+    **/
+    public int getStatementCacheSize()
+    {
+        return properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+    }
+
     /**
     *  Returns the timeout value in seconds.
     *  Note: This value is not used or supported.
@@ -2565,6 +2651,195 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
         } 
     }
 
+    /**
+    *  Sets the percentage of a block of a forward-only result set that is read
+    *  before the next block is requested from the system in the background.
+    *  While the application reads the rest of the block, the next block is
+    *  transferred from the system, so that next() does not wait for it.
+    *  At most one block is requested ahead.
+    *
+    *  @param threshold The block prefetch threshold, from 0 to 100.  The default
+    *  value is 0, which means that blocks are not requested in the background.
+    **/
+    public void setBlockPrefetchThreshold(int threshold)
+    {
+        String property = "blockPrefetchThreshold";
+        if (threshold < 0 || threshold > 100)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getBlockPrefetchThreshold());
+        Integer newValue = Integer.valueOf(threshold);
+
+        properties_.setString(JDProperties.BLOCK_PREFETCH_THRESHOLD, Integer.toString(threshold));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + threshold);
+    }
+
+    /**
+    *  Sets the largest block size in kilobytes that is used when the block size
+    *  of forward-only, read-only result sets is adjusted to the speed of the connection.
+    *  When this is set, each such result set starts with the "block size" property
+    *  and then requests blocks between 8 kilobytes and this size, chosen from the
+    *  row length, the measured round trip time and transfer rate, and the rate at
+    *  which the application reads the rows.
+    *
+    *  @param size The maximum block size in kilobytes, from 0 to 16000, the largest
+    *  block size that the system accepts.  The default value is 0, which means that
+    *  the block size is not adjusted.
+    *  @see AS400JDBCFetchMetrics
+    **/
+    public void setMaximumBlockSize(int size)
+    {
+        String property = "maximumBlockSize";
+        if (size < 0 || size > JDProperties.BLOCK_SIZE_MAX_INT)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getMaximumBlockSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.MAXIMUM_BLOCK_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
+    /**
+    *  Sets the number of rows added to the batch of a prepared statement after
+    *  which the rows are sent to the system before executeBatch() is called.
+    *  This only applies to statements that are run with block insert or block
+    *  update requests, and keeps large batches from being held in memory.
+    *  The rows that were sent are included in the update counts returned by
+    *  executeBatch(), and are not removed by clearBatch().
+    *
+    *  @param rows The batch flush rows.  The default value is 0, which means
+    *  that rows are not sent before executeBatch() is called.
+    **/
+    public void setBatchFlushRows(int rows)
+    {
+        String property = "batchFlushRows";
+        if (rows < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getBatchFlushRows());
+        Integer newValue = Integer.valueOf(rows);
+
+        properties_.setString(JDProperties.BATCH_FLUSH_ROWS, Integer.toString(rows));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + rows);
+    }
+
+    /**
+    *  Sets the size in kilobytes of the rows added to the batch of a prepared
+    *  statement after which the rows are sent to the system before executeBatch()
+    *  is called.  The size of the rows is the row length of the parameter markers
+    *  multiplied by the number of rows.  This only applies to statements that are
+    *  run with block insert or block update requests.
+    *
+    *  @param size The batch flush size in kilobytes.  The default value is 0,
+    *  which means that rows are not sent before executeBatch() is called.
+    **/
+    public void setBatchFlushSize(int size)
+    {
+        String property = "batchFlushSize";
+        if (size < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getBatchFlushSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.BATCH_FLUSH_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
+    /**
+    *  Sets the maximum number of DatabaseMetaData results kept in the metadata cache.
+    *  When the size is greater than 0, the results of getColumns(), getPrimaryKeys(),
+    *  getTables() and getIndexInfo() are kept on the client and reused by the
+    *  connections to the same system with the same user and metadata properties.
+    *  See {@link AS400JDBCMetaDataCache AS400JDBCMetaDataCache}.
+    *
+    *  @param size The metadata cache size.  The default value is 0, which means
+    *  that the results are not cached.
+    **/
+    public void setMetadataCacheSize(int size)
+    {
+        String property = "metadataCacheSize";
+        if (size < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getMetadataCacheSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.METADATA_CACHE_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
+    /**
+    *  Sets the number of seconds that a cached DatabaseMetaData result is reused.
+    *  This property has no effect unless the metadata cache size is greater than 0.
+    *
+    *  @param seconds The metadata cache time.  The default value is 300.
+    **/
+    public void setMetadataCacheTime(int seconds)
+    {
+        String property = "metadataCacheTime";
+        if (seconds < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getMetadataCacheTime());
+        Integer newValue = Integer.valueOf(seconds);
+
+        properties_.setString(JDProperties.METADATA_CACHE_TIME, Integer.toString(seconds));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + seconds);
+    }
+
+    /**
+    *  Sets the size of the blocks that LOB locator streams read from and write to the system.
+    *  When the size is greater than 0, the input streams and readers of locator-based
+    *  Blob and Clob objects request the next block while the application reads the
+    *  current one, and the output streams and writers send the data a block at a time,
+    *  when the block is full and when the stream is flushed or closed.
+    *
+    *  @param size The LOB block size (in kilobytes).  The default value is 0, which means
+    *  that the data is read and written as the application requests it.
+    **/
+    public void setLobBlockSize(int size)
+    {
+        String property = "lobBlockSize";
+        if (size < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getLobBlockSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.LOB_BLOCK_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
     /**
     * Sets the character truncation property, which indicates how
     * the driver should handle character truncation errors. 
@@ -3329,6 +3604,33 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
             JDTrace.logInformation (this, property + ": " + threshold);  //@A8C
     }
 
+    /**
+    *  Sets the maximum number of closed prepared statements that each connection
+    *  keeps prepared for reuse.  A statement is reused when prepareStatement() is
+    *  called with the same SQL text, result set type, result set concurrency, and
+    *  result set holdability.
+    *
+    *  @param size The statement cache size.  The default value is 0, which means
+    *  that statements are not cached.
+    *  @see AS400JDBCStatementCache
+    **/
+    public void setStatementCacheSize(int size)
+    {
+        String property = "statementCacheSize";
+        if (size < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getStatementCacheSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.STATEMENT_CACHE_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
     /**
     *  Sets the maximum time in seconds that this data source can wait while attempting to connect to a database.
     *  A value of zero specifies that the timeout is the system default if one exists; otherwise it specifies that
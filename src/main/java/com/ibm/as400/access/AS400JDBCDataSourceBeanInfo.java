@@ -513,6 +513,62 @@ public class AS400JDBCDataSourceBeanInfo extends SimpleBeanInfo {
 			virtualThreads.setConstrained(false);
 			virtualThreads.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_VIRTUAL_THREADS", null));
 			virtualThreads.setShortDescription(AS400JDBCDriver.getResource("VIRTUAL_THREADS_DESC", null));
+
+			PropertyDescriptor statementCacheSize = new PropertyDescriptor("statementCacheSize", beanClass,
+					"getStatementCacheSize", "setStatementCacheSize");
+			statementCacheSize.setBound(true);
+			statementCacheSize.setConstrained(false);
+			statementCacheSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_STATEMENT_CACHE_SIZE", null));
+			statementCacheSize.setShortDescription(AS400JDBCDriver.getResource("STATEMENT_CACHE_SIZE_DESC", null));
+
+			PropertyDescriptor blockPrefetchThreshold = new PropertyDescriptor("blockPrefetchThreshold", beanClass,
+					"getBlockPrefetchThreshold", "setBlockPrefetchThreshold");
+			blockPrefetchThreshold.setBound(true);
+			blockPrefetchThreshold.setConstrained(false);
+			blockPrefetchThreshold.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_BLOCK_PREFETCH_THRESHOLD", null));
+			blockPrefetchThreshold.setShortDescription(AS400JDBCDriver.getResource("BLOCK_PREFETCH_THRESHOLD_DESC", null));
+
+			PropertyDescriptor maximumBlockSize = new PropertyDescriptor("maximumBlockSize", beanClass,
+					"getMaximumBlockSize", "setMaximumBlockSize");
+			maximumBlockSize.setBound(true);
+			maximumBlockSize.setConstrained(false);
+			maximumBlockSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_MAXIMUM_BLOCK_SIZE", null));
+			maximumBlockSize.setShortDescription(AS400JDBCDriver.getResource("MAXIMUM_BLOCK_SIZE_DESC", null));
+
+			PropertyDescriptor batchFlushRows = new PropertyDescriptor("batchFlushRows", beanClass,
+					"getBatchFlushRows", "setBatchFlushRows");
+			batchFlushRows.setBound(true);
+			batchFlushRows.setConstrained(false);
+			batchFlushRows.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_BATCH_FLUSH_ROWS", null));
+			batchFlushRows.setShortDescription(AS400JDBCDriver.getResource("BATCH_FLUSH_ROWS_DESC", null));
+
+			PropertyDescriptor batchFlushSize = new PropertyDescriptor("batchFlushSize", beanClass,
+					"getBatchFlushSize", "setBatchFlushSize");
+			batchFlushSize.setBound(true);
+			batchFlushSize.setConstrained(false);
+			batchFlushSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_BATCH_FLUSH_SIZE", null));
+			batchFlushSize.setShortDescription(AS400JDBCDriver.getResource("BATCH_FLUSH_SIZE_DESC", null));
+
+			PropertyDescriptor metadataCacheSize = new PropertyDescriptor("metadataCacheSize", beanClass,
+					"getMetadataCacheSize", "setMetadataCacheSize");
+			metadataCacheSize.setBound(true);
+			metadataCacheSize.setConstrained(false);
+			metadataCacheSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_METADATA_CACHE_SIZE", null));
+			metadataCacheSize.setShortDescription(AS400JDBCDriver.getResource("METADATA_CACHE_SIZE_DESC", null));
+
+			PropertyDescriptor metadataCacheTime = new PropertyDescriptor("metadataCacheTime", beanClass,
+					"getMetadataCacheTime", "setMetadataCacheTime");
+			metadataCacheTime.setBound(true);
+			metadataCacheTime.setConstrained(false);
+			metadataCacheTime.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_METADATA_CACHE_TIME", null));
+			metadataCacheTime.setShortDescription(AS400JDBCDriver.getResource("METADATA_CACHE_TIME_DESC", null));
+
+			PropertyDescriptor lobBlockSize = new PropertyDescriptor("lobBlockSize", beanClass,
+					"getLobBlockSize", "setLobBlockSize");
+			lobBlockSize.setBound(true);
+			lobBlockSize.setConstrained(false);
+			lobBlockSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_LOB_BLOCK_SIZE", null));
+			lobBlockSize.setShortDescription(AS400JDBCDriver.getResource("LOB_BLOCK_SIZE_DESC", null));
 		
 			PropertyDescriptor keepAlive = new PropertyDescriptor("keepAlive", beanClass, "isKeepAlive",
 					"setKeepAlive");
@@ -965,7 +1021,9 @@ public class AS400JDBCDataSourceBeanInfo extends SimpleBeanInfo {
 					portNumber, enableClientAffinitiesList, clientRerouteAlternateServerName,
 					clientRerouteAlternatePortNumber, affinityFailbackInterval, maxRetriesForClientReroute,
 					retryIntervalForClientReroute, enableSeamlessFailover, additionalAuthenticationFactor, stayAlive,tlsTruststore,tlsTruststorePassword,
-					useSock5, virtualThreads, trimCharFields };
+					useSock5, virtualThreads, trimCharFields, statementCacheSize, blockPrefetchThreshold,
+					maximumBlockSize, batchFlushRows, batchFlushSize, metadataCacheSize, metadataCacheTime,
+					lobBlockSize };
 
 		} catch (Exception e) {
 			throw new Error(e);
@@ -1052,7 +1052,29 @@ implements DatabaseMetaData
     @exception  SQLException    If the connection is not open
                                 or an error occurs.
     **/
-    public ResultSet getColumns (String catalog,
+    public ResultSet getColumns (String catalog, String schemaPattern, String tablePattern, String columnPattern)
+    throws SQLException
+    {
+        connection_.checkOpen ();
+
+        AS400JDBCMetaDataCache cache = connection_.getMetaDataCache ();
+        if (cache == null)
+            return getColumnsFromSystem (catalog, schemaPattern, tablePattern, columnPattern);
+
+        String key = AS400JDBCMetaDataCache.getKey ("getColumns", catalog, schemaPattern, tablePattern, columnPattern, connection_);
+        ResultSet rs = cache.get (key, connection_);
+        if (rs == null)
+        {
+            long generation = cache.getGeneration ();
+            rs = cache.put (key, schemaPattern, tablePattern, generation, getColumnsFromSystem (catalog, schemaPattern, tablePattern, columnPattern), connection_);
+        }
+        return rs;
+    }
+
+
+
+    // Returns the columns from the system, without the metadata cache.
+    private ResultSet getColumnsFromSystem (String catalog,
                                  String schemaPattern,
                                  String tablePattern,
                                  String columnPattern)
@@ -2632,7 +2654,29 @@ implements DatabaseMetaData
     @exception  SQLException    If the connection is not open
                                 or an error occurs.
     **/
-    public ResultSet getIndexInfo (String catalog,
+    public ResultSet getIndexInfo (String catalog, String schema, String table, boolean unique, boolean approximate)
+    throws SQLException
+    {
+        connection_.checkOpen ();
+
+        AS400JDBCMetaDataCache cache = connection_.getMetaDataCache ();
+        if (cache == null)
+            return getIndexInfoFromSystem (catalog, schema, table, unique, approximate);
+
+        String key = AS400JDBCMetaDataCache.getKey ("getIndexInfo", catalog, schema, table, unique ? "1" : "0", connection_);
+        ResultSet rs = cache.get (key, connection_);
+        if (rs == null)
+        {
+            long generation = cache.getGeneration ();
+            rs = cache.put (key, schema, table, generation, getIndexInfoFromSystem (catalog, schema, table, unique, approximate), connection_);
+        }
+        return rs;
+    }
+
+
+
+    // Returns the indexes from the system, without the metadata cache.
+    private ResultSet getIndexInfoFromSystem (String catalog,
                                    String schema,
                                    String table,
                                    boolean unique,
@@ -3294,7 +3338,29 @@ implements DatabaseMetaData
     @exception  SQLException    If the connection is not open
                                 or an error occurs.
     **/
-    public ResultSet getPrimaryKeys (String catalog,
+    public ResultSet getPrimaryKeys (String catalog, String schema, String table)
+    throws SQLException
+    {
+        connection_.checkOpen ();
+
+        AS400JDBCMetaDataCache cache = connection_.getMetaDataCache ();
+        if (cache == null)
+            return getPrimaryKeysFromSystem (catalog, schema, table);
+
+        String key = AS400JDBCMetaDataCache.getKey ("getPrimaryKeys", catalog, schema, table, null, connection_);
+        ResultSet rs = cache.get (key, connection_);
+        if (rs == null)
+        {
+            long generation = cache.getGeneration ();
+            rs = cache.put (key, schema, table, generation, getPrimaryKeysFromSystem (catalog, schema, table), connection_);
+        }
+        return rs;
+    }
+
+
+
+    // Returns the primary key columns from the system, without the metadata cache.
+    private ResultSet getPrimaryKeysFromSystem (String catalog,
                                      String schema,
                                      String table)
     throws SQLException
@@ -4537,7 +4603,42 @@ implements DatabaseMetaData
     @exception  SQLException    If the connection is not open
                                 or an error occurs.
     **/
-    public ResultSet getTables (String catalog,
+    public ResultSet getTables (String catalog, String schemaPattern, String tablePattern, String tableTypes[])
+    throws SQLException
+    {
+        connection_.checkOpen ();
+
+        AS400JDBCMetaDataCache cache = connection_.getMetaDataCache ();
+        if (cache == null)
+            return getTablesFromSystem (catalog, schemaPattern, tablePattern, tableTypes);
+
+        String key = AS400JDBCMetaDataCache.getKey ("getTables", catalog, schemaPattern, tablePattern, getTypesKey (tableTypes), connection_);
+        ResultSet rs = cache.get (key, connection_);
+        if (rs == null)
+        {
+            long generation = cache.getGeneration ();
+            rs = cache.put (key, schemaPattern, tablePattern, generation, getTablesFromSystem (catalog, schemaPattern, tablePattern, tableTypes), connection_);
+        }
+        return rs;
+    }
+
+
+
+    // Returns the table types as one argument of a metadata cache key.
+    private static String getTypesKey (String[] tableTypes)
+    {
+        if (tableTypes == null)
+            return null;
+        StringBuilder buffer = new StringBuilder ();
+        for (int i = 0; i < tableTypes.length; ++i)
+            buffer.append (tableTypes[i]).append (',');
+        return buffer.toString ();
+    }
+
+
+
+    // Returns the tables from the system, without the metadata cache.
+    private ResultSet getTablesFromSystem (String catalog,
                                 String schemaPattern,
                                 String tablePattern,
                                 String tableTypes[])
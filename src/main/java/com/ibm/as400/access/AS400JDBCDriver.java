@@ -971,6 +971,36 @@ endif JAVA9 */
 
 
 
+
+	/**
+	Returns the metrics of the shared scheduler that runs the query
+	timeouts, isValid timeouts and connection pool maintenance of the driver.
+
+	@return         The scheduler metrics.
+	**/
+	public static AS400SchedulerMetricsMXBean getSchedulerMetrics ()
+	{
+		return SharedScheduler.getMetrics ();
+	}
+
+
+
+
+	/**
+	Returns the execution statistics that the driver collects for each SQL statement.
+	Statistics are only collected when the
+	{@link SystemProperties#JDBC_STATEMENT_STATISTICS com.ibm.as400.access.JDBC.statementStatistics}
+	system property, or the maximum statement count of the returned object, is greater than 0.
+
+	@return         The statement statistics.
+	**/
+	public static AS400JDBCStatementStatisticsMXBean getStatementStatistics ()
+	{
+		return JDStatementStatistics.getMetrics ();
+	}
+
+
+
 	/**
 	Returns the driver's minor version number.
 	
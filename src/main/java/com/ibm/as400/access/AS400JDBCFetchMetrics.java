@@ -0,0 +1,83 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  AS400JDBCFetchMetrics.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+ * Represents the block sizes chosen for a result set when the "maximum block size"
+ * connection property is set.  The driver then adjusts the block size of each
+ * forward-only, read-only result set between 8 kilobytes and the maximum block size,
+ * based on the row length, the measured round trip time and transfer rate of the
+ * connection, and the rate at which the application reads the rows.
+ * <p>To get the metrics of a result set, call
+ * {@link AS400JDBCResultSet#getFetchMetrics AS400JDBCResultSet.getFetchMetrics()}.
+ * The values are updated as blocks are received and are not synchronized with the
+ * thread reading the result set.
+**/
+public interface AS400JDBCFetchMetrics
+{
+  /**
+   * Returns the size in bytes of the next block that will be requested.
+   * @return The block size.
+  **/
+  public int getBlockSize();
+
+  /**
+   * Returns the number of rows in the next block that will be requested.
+   * @return The blocking factor.
+  **/
+  public int getBlockingFactor();
+
+  /**
+   * Returns the largest block size in bytes that can be requested.
+   * @return The maximum block size.
+  **/
+  public int getMaximumBlockSize();
+
+  /**
+   * Returns the number of blocks received.
+   * @return The number of blocks.
+  **/
+  public long getBlockCount();
+
+  /**
+   * Returns the number of bytes received in blocks.
+   * @return The number of bytes.
+  **/
+  public long getBytesReceived();
+
+  /**
+   * Returns the round trip time of the last block, in nanoseconds.
+   * @return The round trip time.
+  **/
+  public long getLastRoundTripTime();
+
+  /**
+   * Returns the estimated latency of the connection, in nanoseconds.
+   * This is the smallest round trip time observed.
+   * @return The latency, or -1 if no block has been received.
+  **/
+  public long getLatency();
+
+  /**
+   * Returns the estimated transfer rate of the connection, in bytes per second.
+   * @return The transfer rate, or 0 if it is not known yet.
+  **/
+  public double getTransferRate();
+
+  /**
+   * Returns the rate at which the application reads the rows, in bytes per second.
+   * @return The read rate, or 0 if it is not known yet.
+  **/
+  public double getReadRate();
+}
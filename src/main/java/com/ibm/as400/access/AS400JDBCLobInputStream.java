@@ -0,0 +1,403 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCLobInputStream.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+<p>The AS400JDBCLobInputStream class provides access to binary data
+using an input stream.  The data is valid only within the current
+transaction.
+**/
+//
+// Implementation notes:
+//
+// 1.  This stream is used instead of AS400JDBCInputStream when the
+//     "lob block size" property is set.  The data is retrieved from the
+//     system with the locator handle, one block at a time.
+//
+// 2.  While the caller reads a block, the request for the next block is
+//     already sent, so the system reads ahead of the caller.  Connections
+//     without a read thread receive the next block when it is needed.
+//
+// 3.  The data is copied to the caller's array straight from the reply.
+//     The reply is returned to the pool when the caller has read it.
+//
+// 4.  Like AS400JDBCInputStream, the position and length are in
+//     LOB-characters, which are two bytes for graphic LOBs.
+//
+class AS400JDBCLobInputStream extends InputStream
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+  private boolean               closed_;
+  private JDLobLocator          locator_;
+  private int                   unit_;          // bytes per LOB-character
+  private int                   blockSize_;     // LOB-characters per request
+  private long                  position_;      // bytes
+  private long                  end_;           // bytes
+  private long                  mark_;          // bytes
+
+  // The block being read.
+  private DBReplyRequestedDS    block_;
+  private DBLobData             blockData_;
+  private long                  blockStart_;    // bytes
+  private int                   blockLength_;   // bytes
+
+  // The block read ahead.
+  private CompletableFuture<DataStream> pending_;
+  private long                  pendingStart_;  // bytes
+
+
+
+/**
+Constructs an AS400JDBCLobInputStream object.
+
+@param  locator             The locator.
+**/
+  AS400JDBCLobInputStream(JDLobLocator locator)
+  {
+    this(locator, 0, Long.MAX_VALUE);
+  }
+
+
+
+/**
+Constructs an AS400JDBCLobInputStream object.
+
+@param  locator             The locator.
+@param  pos                 The starting position.
+@param  length              The length of the stream.
+**/
+  AS400JDBCLobInputStream(JDLobLocator locator, long pos, long length)
+  {
+    locator_        = locator;
+    unit_           = locator.isGraphic() ? 2 : 1;
+    blockSize_      = Math.max(1, locator.getBlockSize() / unit_);
+    closed_         = false;
+    long actualLen;
+    try
+    {
+      actualLen = locator.getLength();
+    }
+    catch (SQLException e)
+    {
+      actualLen = 0;
+      closed_ = true;
+    }
+    if (length > actualLen)
+      length = actualLen;
+    position_       = pos * unit_;
+    end_            = length * unit_;
+    mark_           = position_;
+  }
+
+
+
+/**
+Returns the number of bytes that can be read without blocking.
+
+@return The number of bytes that can be read without blocking.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized int available() throws IOException
+  {
+    if (closed_) throw new ExtendedIOException(ExtendedIOException.RESOURCE_NOT_AVAILABLE);
+
+    long returnValue = (end_ - position_) / unit_;
+    if (returnValue < 0) returnValue = 0;
+    if (returnValue > 0x7FFFFFFF) returnValue = 0x7FFFFFFF;
+
+    return(int)returnValue;
+  }
+
+
+
+/**
+Closes the stream and releases any associated system resources.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized void close() throws IOException
+  {
+    closed_ = true;
+    releaseBlock();
+    discardPending();
+  }
+
+
+
+/**
+Marks the current position in the stream.
+
+@param readLimit    The read limit.
+@see #reset()
+**/
+  public synchronized void mark(int readLimit)
+  {
+    mark_ = position_;
+  }
+
+
+
+/**
+Indicates if mark() and reset() are supported.
+
+@return true
+**/
+  public boolean markSupported()
+  {
+    return true;
+  }
+
+
+
+/**
+Reads the next byte of data.  This method blocks until data is
+available, the end of the stream is detected, or an exception
+is thrown.
+
+@return The next byte of data as an int in the range 0 to 255,
+        or -1 if no more data is available.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized int read() throws IOException
+  {
+    if (closed_) throw new ExtendedIOException(ExtendedIOException.RESOURCE_NOT_AVAILABLE);
+
+    if (!fill()) return -1;
+
+    int returnValue = blockData_.getRawBytes()[blockData_.getOffset() + (int)(position_ - blockStart_)] & 0x00FF;
+    ++position_;
+    return returnValue;
+  }
+
+
+
+/**
+Reads bytes of data.  This method blocks until
+data is available, the end of the stream is detected, or an
+exception is thrown.
+
+@param  data    The byte array to fill with data.  This method
+                will read as much data as possible to fill
+                the array.
+@return         The number of bytes of data read,
+                or -1 if no more data is available.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized int read(byte[] data) throws IOException
+  {
+    return read(data, 0, data.length);
+  }
+
+
+
+/**
+Reads bytes of data.  This method blocks until
+data is available, the end of the stream is detected, or an
+exception is thrown.  The bytes are read from the current block,
+so fewer bytes than requested may be returned.
+
+@param  data    The byte array to fill with data.
+@param  start   The start position in the array.
+@param  length  The maximum number of bytes to read.
+@return         The number of bytes of data read,
+                or -1 if no more data is available.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized int read(byte[] data, int start, int length) throws IOException
+  {
+    if (data == null) throw new NullPointerException("data");
+
+    if (closed_) throw new ExtendedIOException(ExtendedIOException.RESOURCE_NOT_AVAILABLE);
+
+    if ((start < 0) || (start > data.length))
+    {
+      throw new ExtendedIllegalArgumentException("start", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    if ((length < 0) || (start + length > data.length))
+    {
+      throw new ExtendedIllegalArgumentException("length", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+
+    if (length == 0)
+    {
+      return 0;
+    }
+
+    if (!fill()) return -1;
+
+    int blockOffset = (int)(position_ - blockStart_);
+    int lengthRead = Math.min(length, blockLength_ - blockOffset);
+    System.arraycopy(blockData_.getRawBytes(), blockData_.getOffset() + blockOffset, data, start, lengthRead);
+    position_ += lengthRead;
+    return lengthRead;
+  }
+
+
+
+/**
+Repositions to the marked position.
+If mark() has not been called, repositions to the starting position of the stream.
+
+@exception IOException      If an input/output error occurs.
+@see #mark(int)
+**/
+  public synchronized void reset() throws IOException
+  {
+    position_ = mark_;
+  }
+
+
+
+/**
+Skips over and discards data.  The skipped data is not retrieved
+from the system, unless it is in a block already read.
+
+@param  length  The maximum number of bytes to skip.  If negative,
+                no bytes are skipped.
+@return         The number of bytes skipped.
+
+@exception IOException      If an input/output error occurs.
+**/
+  public synchronized long skip(long length) throws IOException
+  {
+    if (closed_)
+    {
+      throw new ExtendedIOException(ExtendedIOException.RESOURCE_NOT_AVAILABLE);
+    }
+    if (length < 0)
+    {
+      throw new ExtendedIllegalArgumentException("length", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    if (length == 0) return 0;
+
+    if (length > end_ - position_)
+      length = Math.max(0, end_ - position_);
+    position_ += length;
+    return length;
+  }
+
+
+
+  // Makes the block that contains the current position the current block,
+  // and requests the block after it.  Returns false at the end of the stream.
+  private boolean fill() throws IOException
+  {
+    if (block_ != null && position_ >= blockStart_ && position_ < blockStart_ + blockLength_)
+      return true;
+
+    releaseBlock();
+    if (position_ >= end_)
+      return false;
+
+    try
+    {
+      // A block starts at a LOB-character, even when the position does not.
+      long start = (position_ / unit_) * unit_;
+      CompletableFuture<DataStream> future;
+      if (pending_ != null && pendingStart_ == start)
+      {
+        future = pending_;
+        pending_ = null;
+      }
+      else
+      {
+        discardPending();
+        future = request(start);
+      }
+
+      block_ = locator_.receiveData(future);
+      blockData_ = block_.getLOBData();
+      blockStart_ = start;
+      blockLength_ = (blockData_ == null) ? 0 : blockData_.getLength();
+      if (blockLength_ == 0)
+      {
+        releaseBlock();
+        closed_ = true;
+        return false;
+      }
+
+      long next = blockStart_ + blockLength_;
+      if (next < end_)
+      {
+        pending_ = request(next);
+        pendingStart_ = next;
+      }
+      return position_ < blockStart_ + blockLength_;
+    }
+    catch (SQLException e)
+    {
+      if (JDTrace.isTraceOn())
+      {
+        JDTrace.logInformation(this, "Error in read" + e.getMessage());
+      }
+      closed_ = true;
+      releaseBlock();
+      discardPending();
+      throw new IOException(e);
+    }
+  }
+
+
+
+  // Sends the request for the block that starts at a byte position.
+  private CompletableFuture<DataStream> request(long start) throws SQLException
+  {
+    long length = Math.min(blockSize_, (end_ - start + unit_ - 1) / unit_);
+    return locator_.retrieveDataAsync(start / unit_, (int)length);
+  }
+
+
+
+  // Returns the reply of the current block to the pool.
+  private void releaseBlock()
+  {
+    if (block_ != null)
+    {
+      block_.releaseReplyBuffer();
+      block_.returnToPool();
+      block_ = null;
+    }
+    blockData_ = null;
+    blockLength_ = 0;
+  }
+
+
+
+  // Frees the reply of the block read ahead when it arrives.
+  private void discardPending()
+  {
+    if (pending_ != null)
+    {
+      pending_.thenAccept(new Consumer<DataStream>()
+      {
+        public void accept(DataStream reply)
+        {
+          ClassDecoupler.freeDBReplyStream(reply);
+        }
+      });
+      pending_ = null;
+    }
+  }
+}
@@ -664,6 +664,86 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     return properties_.getInt(JDProperties.BLOCK_SIZE);
   }
 
+  /**
+   * Returns the percentage of a block of a forward-only result set that is read
+   * before the next block is requested from the system in the background.
+   *
+   * @return The block prefetch threshold. The default value is 0, which means
+   *         that blocks are not requested in the background.
+   **/
+  public int getBlockPrefetchThreshold() {
+    return properties_.getInt(JDProperties.BLOCK_PREFETCH_THRESHOLD);
+  }
+
+  /**
+   * Returns the largest block size in kilobytes that is used when the block
+   * size of forward-only, read-only result sets is adjusted to the speed of the
+   * connection.
+   *
+   * @return The maximum block size. The default value is 0, which means that
+   *         the block size is not adjusted.
+   * @see AS400JDBCFetchMetrics
+   **/
+  public int getMaximumBlockSize() {
+    return properties_.getInt(JDProperties.MAXIMUM_BLOCK_SIZE);
+  }
+
+  /**
+   * Returns the number of rows added to the batch of a prepared statement after
+   * which the rows are sent to the system before executeBatch() is called.
+   *
+   * @return The batch flush rows. The default value is 0, which means that rows
+   *         are not sent before executeBatch() is called.
+   **/
+  public int getBatchFlushRows() {
+    return properties_.getInt(JDProperties.BATCH_FLUSH_ROWS);
+  }
+
+  /**
+   * Returns the size in kilobytes of the rows added to the batch of a prepared
+   * statement after which the rows are sent to the system before executeBatch()
+   * is called.
+   *
+   * @return The batch flush size. The default value is 0, which means that rows
+   *         are not sent before executeBatch() is called.
+   **/
+  public int getBatchFlushSize() {
+    return properties_.getInt(JDProperties.BATCH_FLUSH_SIZE);
+  }
+
+  /**
+   * Returns the maximum number of DatabaseMetaData results kept in the metadata
+   * cache.
+   *
+   * @return The metadata cache size. The default value is 0, which means that the
+   *         results are not cached.
+   **/
+  public int getMetadataCacheSize() {
+    return properties_.getInt(JDProperties.METADATA_CACHE_SIZE);
+  }
+
+  /**
+   * Returns the number of seconds that a cached DatabaseMetaData result is
+   * reused.
+   *
+   * @return The metadata cache time. The default value is 300.
+   **/
+  public int getMetadataCacheTime() {
+    return properties_.getInt(JDProperties.METADATA_CACHE_TIME);
+  }
+
+  /**
+   * Returns the size of the blocks that LOB locator streams read from and write
+   * to the system.
+   *
+   * @return The LOB block size (in kilobytes). The default value is 0, which
+   *         means that the data is read and written as the application requests
+   *         it.
+   **/
+  public int getLobBlockSize() {
+    return properties_.getInt(JDProperties.LOB_BLOCK_SIZE);
+  }
+
   /**
    * Returns the behavior to use when character truncation occurs
    * 
@@ -1238,6 +1318,18 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     return properties_.getInt(JDProperties.LOB_THRESHOLD);
   }
 
+  /**
+   * Returns the maximum number of closed prepared statements that each
+   * connection keeps prepared for reuse.
+   *
+   * @return The statement cache size. The default value is 0, which means that
+   *         statements are not cached.
+   * @see AS400JDBCStatementCache
+   **/
+  public int getStatementCacheSize() {
+    return properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+  }
+
   // method required by javax.sql.DataSource
   /**
    * Returns the timeout value in seconds. <br>
@@ -2858,6 +2950,137 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
 
   }
 
+  /**
+   * Sets the percentage of a block of a forward-only result set that is read
+   * before the next block is requested from the system in the background.
+   * While the application reads the rest of the block, the next block is
+   * transferred from the system, so that next() does not wait for it. At most
+   * one block is requested ahead.
+   *
+   * @param threshold The block prefetch threshold, from 0 to 100. The default
+   *                  value is 0, which means that blocks are not requested in
+   *                  the background.
+   **/
+  public void setBlockPrefetchThreshold(int threshold) {
+    final String property = "blockPrefetchThreshold";
+    if (threshold < 0 || threshold > 100)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.BLOCK_PREFETCH_THRESHOLD, Integer.toString(threshold));
+  }
+
+  /**
+   * Sets the largest block size in kilobytes that is used when the block size
+   * of forward-only, read-only result sets is adjusted to the speed of the
+   * connection. When this is set, each such result set starts with the "block
+   * size" property and then requests blocks between 8 kilobytes and this size,
+   * chosen from the row length, the measured round trip time and transfer rate,
+   * and the rate at which the application reads the rows.
+   *
+   * @param size The maximum block size in kilobytes, from 0 to 16000, the
+   *             largest block size that the system accepts. The default value
+   *             is 0, which means that the block size is not adjusted.
+   * @see AS400JDBCFetchMetrics
+   **/
+  public void setMaximumBlockSize(int size) {
+    final String property = "maximumBlockSize";
+    if (size < 0 || size > JDProperties.BLOCK_SIZE_MAX_INT)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.MAXIMUM_BLOCK_SIZE, Integer.toString(size));
+  }
+
+  /**
+   * Sets the number of rows added to the batch of a prepared statement after
+   * which the rows are sent to the system before executeBatch() is called. This
+   * only applies to statements that are run with block insert or block update
+   * requests, and keeps large batches from being held in memory. The rows that
+   * were sent are included in the update counts returned by executeBatch(), and
+   * are not removed by clearBatch().
+   *
+   * @param rows The batch flush rows. The default value is 0, which means that
+   *             rows are not sent before executeBatch() is called.
+   **/
+  public void setBatchFlushRows(int rows) {
+    final String property = "batchFlushRows";
+    if (rows < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.BATCH_FLUSH_ROWS, Integer.toString(rows));
+  }
+
+  /**
+   * Sets the size in kilobytes of the rows added to the batch of a prepared
+   * statement after which the rows are sent to the system before executeBatch()
+   * is called. The size of the rows is the row length of the parameter markers
+   * multiplied by the number of rows. This only applies to statements that are
+   * run with block insert or block update requests.
+   *
+   * @param size The batch flush size in kilobytes. The default value is 0, which
+   *             means that rows are not sent before executeBatch() is called.
+   **/
+  public void setBatchFlushSize(int size) {
+    final String property = "batchFlushSize";
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.BATCH_FLUSH_SIZE, Integer.toString(size));
+  }
+
+  /**
+   * Sets the maximum number of DatabaseMetaData results kept in the metadata
+   * cache. When the size is greater than 0, the results of getColumns(),
+   * getPrimaryKeys(), getTables() and getIndexInfo() are kept on the client and
+   * reused by the connections to the same system with the same user and
+   * metadata properties. See {@link AS400JDBCMetaDataCache
+   * AS400JDBCMetaDataCache}.
+   *
+   * @param size The metadata cache size. The default value is 0, which means
+   *             that the results are not cached.
+   **/
+  public void setMetadataCacheSize(int size) {
+    final String property = "metadataCacheSize";
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.METADATA_CACHE_SIZE, Integer.toString(size));
+  }
+
+  /**
+   * Sets the number of seconds that a cached DatabaseMetaData result is reused.
+   * This property has no effect unless the metadata cache size is greater than
+   * 0.
+   *
+   * @param seconds The metadata cache time. The default value is 300.
+   **/
+  public void setMetadataCacheTime(int seconds) {
+    final String property = "metadataCacheTime";
+    if (seconds < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.METADATA_CACHE_TIME, Integer.toString(seconds));
+  }
+
+  /**
+   * Sets the size of the blocks that LOB locator streams read from and write to
+   * the system. When the size is greater than 0, the input streams and readers
+   * of locator-based Blob and Clob objects request the next block while the
+   * application reads the current one, and the output streams and writers send
+   * the data a block at a time, when the block is full and when the stream is
+   * flushed or closed.
+   *
+   * @param size The LOB block size (in kilobytes). The default value is 0, which
+   *             means that the data is read and written as the application
+   *             requests it.
+   **/
+  public void setLobBlockSize(int size) {
+    final String property = "lobBlockSize";
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.LOB_BLOCK_SIZE, Integer.toString(size));
+  }
+
   /**
    * Sets the character truncation property, which indicates how the driver should
    * handle character truncation errors.
@@ -3465,6 +3688,24 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     properties_.setString(JDProperties.LOB_THRESHOLD, Integer.toString(threshold));
   }
 
+  /**
+   * Sets the maximum number of closed prepared statements that each connection
+   * keeps prepared for reuse. A statement is reused when prepareStatement() is
+   * called with the same SQL text, result set type, result set concurrency, and
+   * result set holdability.
+   *
+   * @param size The statement cache size. The default value is 0, which means
+   *             that statements are not cached.
+   * @see AS400JDBCStatementCache
+   **/
+  public void setStatementCacheSize(int size) {
+    final String property = "statementCacheSize";
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.STATEMENT_CACHE_SIZE, Integer.toString(size));
+  }
+
   // method required by javax.sql.DataSource
   /**
    * Sets the maximum time in seconds that this data source can wait while
@@ -0,0 +1,452 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCMetaDataCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+The AS400JDBCMetaDataCache class is a cache of DatabaseMetaData results.
+It is used when the "metadata cache size" connection property is greater than 0.
+
+<p>The results of getColumns(), getPrimaryKeys(), getTables() and getIndexInfo()
+are kept on the client, by method and arguments.  A later call with the same
+arguments returns a scrollable, read-only copy of the result without a request to
+the system.  A result is reused for the number of seconds set by the "metadata cache
+time" connection property.  When the cache is full, the least recently used result
+is dropped.
+
+<p>The cache is shared by the open connections to the same system with the same user,
+libraries, naming, metadata source, database name, and metadata cache properties,
+such as the connections created by one data source.  The cache is dropped when the
+last of these connections is closed.
+A result for a null schema is kept for the current schema of the connection, which
+is the default schema set by the libraries property, or the schema set by setSchema().
+A connection that changes its current schema with an SQL SET SCHEMA statement
+should pass the schema name.
+
+<p>The cache does not see changes made to the tables.  After creating, altering, or
+dropping a table, call {@link #invalidate(String, String) invalidate()}, or an earlier
+result may be returned.  To get the cache of a connection, cast the connection to
+AS400JDBCConnectionImpl, AS400JDBCConnectionHandle, or AS400JDBCConnectionRedirect
+and call getMetaDataCache():
+<blockquote><pre>
+AS400JDBCMetaDataCache cache = ((AS400JDBCConnectionImpl)connection).getMetaDataCache();
+cache.invalidate("MYLIB", "MYTABLE");
+</pre></blockquote>
+**/
+public final class AS400JDBCMetaDataCache
+{
+    static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+    // The caches shared by open connections, by system, user, and properties.
+    private static final HashMap<String, AS400JDBCMetaDataCache> caches_ = new HashMap<String, AS400JDBCMetaDataCache>();
+
+    // The properties that change the results of the cached methods.
+    private static final int[] KEY_PROPERTIES_ = { JDProperties.LIBRARIES, JDProperties.NAMING,
+        JDProperties.METADATA_SOURCE, JDProperties.DATABASE_NAME, JDProperties.USE_DRDA_METADATA_VERSION,
+        JDProperties.METADATA_CACHE_SIZE, JDProperties.METADATA_CACHE_TIME };
+
+    private final String key_;            // in caches_
+    private int connections_;             // open connections using the cache, guarded by caches_
+    private final int maximumSize_;
+    private final long timeToLive_;       // milliseconds
+    // Results in least recently used order.
+    private final LinkedHashMap<String, Entry> entries_;
+    // Incremented by each invalidation, so that a result read before it is not stored.
+    private long generation_;
+
+    private long hits_;
+    private long misses_;
+    private long evictions_;
+
+
+
+    // A cached result.
+    private static final class Entry
+    {
+        final JDSimpleRowCache rows_;
+        final String catalog_;
+        final String cursorName_;
+        final String schema_;
+        final String table_;
+        final long expires_;
+
+        Entry (JDSimpleRowCache rows, String catalog, String cursorName, String schema, String table, long expires)
+        {
+            rows_ = rows;
+            catalog_ = catalog;
+            cursorName_ = cursorName;
+            schema_ = schema;
+            table_ = table;
+            expires_ = expires;
+        }
+    }
+
+
+
+    private AS400JDBCMetaDataCache (String key, int maximumSize, long timeToLive)
+    {
+        key_ = key;
+        maximumSize_ = maximumSize;
+        timeToLive_ = timeToLive;
+        entries_ = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    }
+
+
+
+    // Returns the cache for a connection, or null if the "metadata cache size" property is 0.
+    // The connection must call release() when it is closed.
+    static AS400JDBCMetaDataCache getCache (JDProperties properties, String systemName, String userId)
+    {
+        int maximumSize = properties.getInt(JDProperties.METADATA_CACHE_SIZE);
+        if (maximumSize <= 0)
+            return null;
+
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(systemName).append('\u0000').append(userId);
+        for (int i = 0; i < KEY_PROPERTIES_.length; ++i)
+            buffer.append('\u0000').append(properties.getString(KEY_PROPERTIES_[i]));
+        String key = buffer.toString();
+
+        synchronized (caches_)
+        {
+            AS400JDBCMetaDataCache cache = caches_.get(key);
+            if (cache == null)
+            {
+                long timeToLive = properties.getInt(JDProperties.METADATA_CACHE_TIME) * 1000L;
+                cache = new AS400JDBCMetaDataCache(key, maximumSize, timeToLive);
+                caches_.put(key, cache);
+            }
+            ++cache.connections_;
+            return cache;
+        }
+    }
+
+
+
+    // Called when a connection that got the cache from getCache() is closed.
+    // The cache is dropped when no open connection uses it.
+    void release ()
+    {
+        synchronized (caches_)
+        {
+            if (--connections_ == 0 && caches_.get(key_) == this)
+                caches_.remove(key_);
+        }
+    }
+
+
+
+    // Returns the key of a result.  A null argument is kept apart from an empty one,
+    // since the methods treat them differently.  A null schema is kept apart for each
+    // current schema of the connection, since the result may depend on it.
+    static String getKey (String method, String catalog, String schema, String table, String other,
+                          AS400JDBCConnection connection)
+    throws SQLException
+    {
+        StringBuilder buffer = new StringBuilder(method);
+        appendKey(buffer, catalog);
+        appendKey(buffer, schema);
+        if (schema == null)
+            appendKey(buffer, connection.getCurrentSchema());
+        appendKey(buffer, table);
+        appendKey(buffer, other);
+        return buffer.toString();
+    }
+
+
+
+    private static void appendKey (StringBuilder buffer, String value)
+    {
+        buffer.append('\u0000');
+        if (value == null)
+            buffer.append('\u0001');
+        else
+            buffer.append(value);
+    }
+
+
+
+    // Returns the invalidation generation, to be passed to put() for a result read afterwards.
+    synchronized long getGeneration ()
+    {
+        return generation_;
+    }
+
+
+
+    // Returns a copy of the cached result for a key, or null if there is none or it has expired.
+    ResultSet get (String key, AS400JDBCConnection connection)
+    throws SQLException
+    {
+        Entry entry;
+        synchronized (this)
+        {
+            entry = entries_.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.expires_ >= 0)
+            {
+                entries_.remove(key);
+                entry = null;
+            }
+            if (entry == null)
+            {
+                ++misses_;
+                return null;
+            }
+            ++hits_;
+        }
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation(this, "Returning cached metadata result for " + entry.cursorName_);
+        return newResultSet(entry, connection);
+    }
+
+
+
+    // Reads a result from the system into the cache, closes it, and returns a copy.
+    // The result is not stored if the cache was invalidated after the generation was read,
+    // since it may be out of date.
+    ResultSet put (String key, String schema, String table, long generation, ResultSet resultSet, AS400JDBCConnection connection)
+    throws SQLException
+    {
+        if (!(resultSet instanceof AS400JDBCResultSet))
+            return resultSet;
+
+        AS400JDBCResultSet rs = (AS400JDBCResultSet) resultSet;
+        JDSimpleRowCache rows;
+        String cursorName;
+        try
+        {
+            cursorName = rs.getCursorName();
+            rows = new JDSimpleRowCache(rs.getRowCache());
+        }
+        finally
+        {
+            rs.close();
+        }
+
+        Entry entry = new Entry(rows, connection.getCatalog(), cursorName, schema, table,
+                                System.currentTimeMillis() + timeToLive_);
+        synchronized (this)
+        {
+            if (generation == generation_)
+            {
+                entries_.put(key, entry);
+                if (entries_.size() > maximumSize_)
+                {
+                    Iterator<Entry> iterator = entries_.values().iterator();
+                    iterator.next();
+                    iterator.remove();
+                    ++evictions_;
+                }
+            }
+        }
+        return newResultSet(entry, connection);
+    }
+
+
+
+    private static ResultSet newResultSet (Entry entry, AS400JDBCConnection connection)
+    throws SQLException
+    {
+        return new AS400JDBCResultSet(entry.rows_.copy(), entry.catalog_, entry.cursorName_, connection, null);
+    }
+
+
+
+    // Indicates if a schema or table argument of a cached result may match a name.
+    // The arguments are LIKE patterns, and null matches every name.
+    private static boolean matches (String pattern, String name)
+    {
+        if (pattern == null || name == null || pattern.indexOf('\\') >= 0)
+            return true;
+        return like(pattern.toUpperCase(), 0, name.toUpperCase(), 0);
+    }
+
+
+
+    private static boolean like (String pattern, int p, String name, int n)
+    {
+        while (p < pattern.length())
+        {
+            char c = pattern.charAt(p);
+            if (c == '%')
+            {
+                for (int i = n; i <= name.length(); ++i)
+                {
+                    if (like(pattern, p + 1, name, i))
+                        return true;
+                }
+                return false;
+            }
+            if (n >= name.length() || (c != '_' && c != name.charAt(n)))
+                return false;
+            ++p;
+            ++n;
+        }
+        return n == name.length();
+    }
+
+
+
+    /**
+    Removes all of the results from the cache.
+    **/
+    public synchronized void invalidate ()
+    {
+        ++generation_;
+        entries_.clear();
+    }
+
+
+
+    /**
+    Removes the results that may describe a table from the cache.  This includes
+    the results for patterns that match the table, and for a null schema or table.
+
+    @param  schema  The schema name, or null for all schemas.
+    @param  table   The table name, or null for all tables.
+    **/
+    public synchronized void invalidate (String schema, String table)
+    {
+        ++generation_;
+        Iterator<Entry> iterator = entries_.values().iterator();
+        while (iterator.hasNext())
+        {
+            Entry entry = iterator.next();
+            if (matches(entry.schema_, schema) && matches(entry.table_, table))
+                iterator.remove();
+        }
+    }
+
+
+
+    /**
+    Removes all of the results from every metadata cache.
+    **/
+    public static void invalidateAll ()
+    {
+        ArrayList<AS400JDBCMetaDataCache> caches;
+        synchronized (caches_)
+        {
+            caches = new ArrayList<AS400JDBCMetaDataCache>(caches_.values());
+        }
+        for (int i = 0; i < caches.size(); ++i)
+            caches.get(i).invalidate();
+    }
+
+
+
+    /**
+    Returns the maximum number of results kept in the cache.
+
+    @return     The maximum size.
+    **/
+    public int getMaximumSize ()
+    {
+        return maximumSize_;
+    }
+
+
+
+    /**
+    Returns the number of seconds that a cached result is reused.
+
+    @return     The time to live, in seconds.
+    **/
+    public int getTimeToLive ()
+    {
+        return (int) (timeToLive_ / 1000);
+    }
+
+
+
+    /**
+    Returns the number of results in the cache, including expired results
+    that have not been removed yet.
+
+    @return     The number of results.
+    **/
+    public synchronized int size ()
+    {
+        return entries_.size();
+    }
+
+
+
+    /**
+    Returns the number of calls that were answered from the cache.
+
+    @return     The number of hits.
+    **/
+    public synchronized long getHitCount ()
+    {
+        return hits_;
+    }
+
+
+
+    /**
+    Returns the number of calls that were sent to the system because no result
+    was cached for the arguments, or the cached result had expired.
+
+    @return     The number of misses.
+    **/
+    public synchronized long getMissCount ()
+    {
+        return misses_;
+    }
+
+
+
+    /**
+    Returns the number of results that were dropped because the cache was full.
+
+    @return     The number of evictions.
+    **/
+    public synchronized long getEvictionCount ()
+    {
+        return evictions_;
+    }
+
+
+
+    /**
+    Resets the hit, miss, and eviction counts to zero.
+    **/
+    public synchronized void resetCounters ()
+    {
+        hits_ = 0;
+        misses_ = 0;
+        evictions_ = 0;
+    }
+
+
+
+    /**
+    Returns a string with the size and counts of the cache.
+
+    @return     The string.
+    **/
+    public synchronized String toString ()
+    {
+        return "size=" + entries_.size() + ", maximumSize=" + maximumSize_ + ", hits=" + hits_
+            + ", misses=" + misses_ + ", evictions=" + evictions_;
+    }
+}
@@ -0,0 +1,36 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCPartitionVisitor.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ *  The AS400JDBCPartitionVisitor interface receives the partitions read by an
+ *  {@link AS400JDBCPartitionedReader AS400JDBCPartitionedReader}.
+ *  <p>The method is called on the worker threads of the reader, so calls for different partitions run at the same
+ *  time and must not share state without synchronization.
+ **/
+public interface AS400JDBCPartitionVisitor
+{
+    /**
+     *  Called for each partition, with a forward-only, read-only result set of its rows.  The result set and its
+     *  connection are closed when this method returns.
+     *  @param  partition  The partition number, from 0 to the number of partitions minus 1.
+     *  @param  resultSet  The rows of the partition.
+     *  @return  true to continue the read; false to end it.  Partitions being read by other workers are finished.
+     *  @exception  SQLException  If an error occurs.  The read ends and the exception is thrown by read().
+     **/
+    public abstract boolean visitPartition(int partition, ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,730 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCPartitionedReader.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+/**
+ *  Reads the rows of a table or query in partitions, running several partitions at the same time.
+ *  <p>Each of a number of worker threads gets its own connection from the data source, and runs one partition
+ *  after another until all partitions have been read.  A partition is the source with an added condition:
+ *  <ul>
+ *  <li>{@link #PARTITION_RRN PARTITION_RRN} splits a table into ranges of relative record numbers.
+ *  <li>{@link #PARTITION_RANGE PARTITION_RANGE} splits the rows into ranges of the values of a numeric column.
+ *  <li>{@link #PARTITION_HASH PARTITION_HASH} splits the rows by the remainder of an integer column divided by the
+ *  number of partitions.
+ *  </ul>
+ *  For the range partitionings, the smallest and largest values are first read with a query over the whole source,
+ *  and the ranges between them are of equal width.  Rows whose partitioning column is null are read with partition 0.
+ *  <p>The rows are handed to the caller either one partition at a time through an
+ *  {@link AS400JDBCPartitionVisitor AS400JDBCPartitionVisitor}, or merged into a
+ *  {@link java.util.stream.Stream Stream}.  For a stream, at most {@link #setQueueCapacity(int) the queue capacity}
+ *  rows are held for the caller.  When the caller falls behind, the workers stop fetching until it catches up.
+ *  <p>The order in which rows are returned is not defined.  The partitions are read in separate transactions, so
+ *  changes made to the source while it is read can be seen by some partitions and not by others.
+ *  <p>The following example reads a table over 8 connections:
+ *  <pre>
+ *  AS400JDBCPartitionedReader reader = new AS400JDBCPartitionedReader(dataSource, "MYLIB.ORDERS");
+ *  reader.setParallelism(8);
+ *  reader.setPartitioning(AS400JDBCPartitionedReader.PARTITION_RANGE, "ORDER_ID");
+ *  Stream&lt;Object[]&gt; rows = reader.stream();
+ *  try
+ *  {
+ *      ...
+ *  }
+ *  finally
+ *  {
+ *      rows.close();
+ *  }
+ *  </pre>
+ **/
+public class AS400JDBCPartitionedReader
+{
+    /**
+     *  Partitioning by ranges of relative record numbers.  The source must be a table.
+     **/
+    public static final int PARTITION_RRN = 0;
+    /**
+     *  Partitioning by ranges of the values of a numeric column.
+     **/
+    public static final int PARTITION_RANGE = 1;
+    /**
+     *  Partitioning by the remainder of the value of an integer column divided by the number of partitions.
+     **/
+    public static final int PARTITION_HASH = 2;
+
+    private static final int MAX_PARALLELISM = 64;
+    // Time that blocked workers wait before checking whether the read was closed.
+    private static final long POLL_MILLISECONDS = 100;
+    // Correlation name of the source.
+    private static final String CORRELATION = "T";
+
+    private final DataSource dataSource_;
+    private final String source_;
+    private final boolean query_;
+    private String columns_ = "*";
+    private String condition_ = null;
+    private int partitioning_ = PARTITION_RRN;
+    private String column_ = null;
+    private int parallelism_ = 4;
+    private int partitionCount_ = 0;
+    private int queueCapacity_ = 1024;
+    private int fetchSize_ = 0;
+
+    /**
+     *  Constructs an AS400JDBCPartitionedReader object.
+     *  @param  dataSource  The data source of the connections.  Each worker gets its own connection.
+     *  @param  source  The table to read, or a SELECT statement whose rows are read.
+     **/
+    public AS400JDBCPartitionedReader(DataSource dataSource, String source)
+    {
+        if (dataSource == null)
+            throw new NullPointerException("dataSource");
+        if (source == null)
+            throw new NullPointerException("source");
+        dataSource_ = dataSource;
+        source_ = source.trim();
+        String upper = source_.toUpperCase();
+        query_ = upper.startsWith("SELECT") || upper.startsWith("(");
+        if (query_)
+            partitioning_ = PARTITION_HASH;
+    }
+
+    /**
+     *  Returns the columns that are read.
+     *  @return  The select list.
+     **/
+    public String getColumns()
+    {
+        return columns_;
+    }
+
+    /**
+     *  Sets the columns that are read.  The default is "*".
+     *  @param  columns  The select list.  The source has the correlation name T.
+     **/
+    public void setColumns(String columns)
+    {
+        if (columns == null)
+            throw new NullPointerException("columns");
+        columns_ = columns;
+    }
+
+    /**
+     *  Returns the condition that the rows must meet.
+     *  @return  The search condition, or null if all rows are read.
+     **/
+    public String getCondition()
+    {
+        return condition_;
+    }
+
+    /**
+     *  Sets a condition that the rows must meet.
+     *  @param  condition  The search condition, or null to read all rows.  The source has the correlation name T.
+     **/
+    public void setCondition(String condition)
+    {
+        condition_ = condition;
+    }
+
+    /**
+     *  Returns the partitioning.
+     *  @return  The partitioning.  Possible values are {@link #PARTITION_RRN PARTITION_RRN},
+     *  {@link #PARTITION_RANGE PARTITION_RANGE} and {@link #PARTITION_HASH PARTITION_HASH}.
+     **/
+    public int getPartitioning()
+    {
+        return partitioning_;
+    }
+
+    /**
+     *  Returns the column whose values partition the rows.
+     *  @return  The column, or null for {@link #PARTITION_RRN PARTITION_RRN}.
+     **/
+    public String getPartitioningColumn()
+    {
+        return column_;
+    }
+
+    /**
+     *  Sets how the rows are partitioned.  The default is {@link #PARTITION_RRN PARTITION_RRN} for a table and
+     *  {@link #PARTITION_HASH PARTITION_HASH} of the first column for a query.
+     *  @param  partitioning  The partitioning.  Possible values are {@link #PARTITION_RRN PARTITION_RRN},
+     *  {@link #PARTITION_RANGE PARTITION_RANGE} and {@link #PARTITION_HASH PARTITION_HASH}.
+     *  @param  column  The column or expression whose values partition the rows.  It is ignored for
+     *  {@link #PARTITION_RRN PARTITION_RRN}.
+     **/
+    public void setPartitioning(int partitioning, String column)
+    {
+        switch (partitioning)
+        {
+            case PARTITION_RRN:
+                if (query_)
+                    throw new ExtendedIllegalArgumentException("partitioning", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+                column = null;
+                break;
+            case PARTITION_RANGE:
+            case PARTITION_HASH:
+                if (column == null)
+                    throw new NullPointerException("column");
+                break;
+            default:
+                throw new ExtendedIllegalArgumentException("partitioning", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+        }
+        partitioning_ = partitioning;
+        column_ = column;
+    }
+
+    /**
+     *  Returns the number of partitions that are read at the same time.
+     *  @return  The number of worker connections.
+     **/
+    public int getParallelism()
+    {
+        return parallelism_;
+    }
+
+    /**
+     *  Sets the number of partitions that are read at the same time.  Each uses its own connection.  The default is 4.
+     *  @param  parallelism  The number of worker connections, from 1 to 64.
+     **/
+    public void setParallelism(int parallelism)
+    {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM)
+            throw new ExtendedIllegalArgumentException("parallelism", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        parallelism_ = parallelism;
+    }
+
+    /**
+     *  Returns the number of partitions.
+     *  @return  The number of partitions, or 0 if it is the parallelism.
+     **/
+    public int getPartitionCount()
+    {
+        return partitionCount_;
+    }
+
+    /**
+     *  Sets the number of partitions.  More partitions than workers let a worker that finishes early take on more of
+     *  the rows.  A range partitioning can have fewer partitions when the range of values is small.
+     *  @param  partitionCount  The number of partitions, or 0 for the parallelism.  The default is 0.
+     **/
+    public void setPartitionCount(int partitionCount)
+    {
+        if (partitionCount < 0)
+            throw new ExtendedIllegalArgumentException("partitionCount", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        partitionCount_ = partitionCount;
+    }
+
+    /**
+     *  Returns the number of rows that are held for the caller of {@link #stream() stream()} before the workers wait.
+     *  @return  The queue capacity.
+     **/
+    public int getQueueCapacity()
+    {
+        return queueCapacity_;
+    }
+
+    /**
+     *  Sets the number of rows that are held for the caller of {@link #stream() stream()} before the workers wait.
+     *  The default is 1024.
+     *  @param  queueCapacity  The queue capacity.  Must be greater than zero.
+     **/
+    public void setQueueCapacity(int queueCapacity)
+    {
+        if (queueCapacity < 1)
+            throw new ExtendedIllegalArgumentException("queueCapacity", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        queueCapacity_ = queueCapacity;
+    }
+
+    /**
+     *  Returns the fetch size of the result sets.
+     *  @return  The fetch size, or 0 if the connection default is used.
+     **/
+    public int getFetchSize()
+    {
+        return fetchSize_;
+    }
+
+    /**
+     *  Sets the fetch size of the result sets.
+     *  @param  fetchSize  The fetch size, or 0 to use the connection default.  The default is 0.
+     **/
+    public void setFetchSize(int fetchSize)
+    {
+        if (fetchSize < 0)
+            throw new ExtendedIllegalArgumentException("fetchSize", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        fetchSize_ = fetchSize;
+    }
+
+    /**
+     *  Reads the partitions, calling the visitor for each.  This method returns when all partitions have been read,
+     *  or when the visitor ends the read.
+     *  @param  visitor  The visitor.  It is called on the worker threads.
+     *  @exception  SQLException  If a partition cannot be read, the visitor throws it, or this thread is interrupted.
+     **/
+    public void read(AS400JDBCPartitionVisitor visitor) throws SQLException
+    {
+        if (visitor == null)
+            throw new NullPointerException("visitor");
+
+        Read read = new Read(visitor);
+        read.join();
+    }
+
+    /**
+     *  Returns a stream of the rows of all partitions.  The read starts when this method is called.  The stream must
+     *  be closed to end the read early.  Each row is an array of the column values, as returned by
+     *  ResultSet.getObject().  A partition that cannot be read ends the stream with a RuntimeException whose cause is
+     *  the SQLException.
+     *  @return  The stream.
+     *  @exception  SQLException  If the partitions cannot be determined.
+     **/
+    public Stream<Object[]> stream() throws SQLException
+    {
+        final Read read = new Read(null);
+        Iterator<Object[]> iterator = new Iterator<Object[]>()
+        {
+            private Object[] next_;
+
+            @Override
+            public boolean hasNext()
+            {
+                if (next_ != null) return true;
+                try
+                {
+                    next_ = read.take();
+                }
+                catch (SQLException e)
+                {
+                    read.close();
+                    throw new RuntimeException(e);
+                }
+                return next_ != null;
+            }
+
+            @Override
+            public Object[] next()
+            {
+                if (!hasNext()) throw new NoSuchElementException();
+                Object[] result = next_;
+                next_ = null;
+                return result;
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false).onClose(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                read.close();
+            }
+        });
+    }
+
+    // Returns the source with the correlation name.
+    private String getFrom()
+    {
+        return (query_ ? "(" + source_ + ")" : source_) + " AS " + CORRELATION;
+    }
+
+    // Returns the expression that partitions the rows.
+    private String getKey()
+    {
+        return (partitioning_ == PARTITION_RRN) ? "RRN(" + CORRELATION + ")" : column_;
+    }
+
+    // Returns the partitions, reading the range of the key over the connection if needed.
+    private Partition[] getPartitions(Connection connection) throws SQLException
+    {
+        int count = (partitionCount_ == 0) ? parallelism_ : partitionCount_;
+        String key = getKey();
+        if (key == null)
+        {
+            // A query has no relative record numbers, so use its first column.
+            key = getFirstColumn(connection);
+        }
+
+        if (partitioning_ == PARTITION_HASH)
+        {
+            Partition[] partitions = new Partition[count];
+            for (int i = 0; i < count; ++i)
+            {
+                String predicate = (count == 1) ? null : "ABS(MOD(" + key + ", " + count + ")) = " + i;
+                partitions[i] = new Partition(getSQL(predicate, i == 0 ? key : null), null);
+            }
+            return partitions;
+        }
+
+        // Split the range of values into partitions of equal width.  The first and last
+        // partitions are open ended, so values outside of the integer boundaries are read.
+        long[] range = getRange(connection, key);
+        if (range == null)
+            count = 1;
+        else
+        {
+            BigInteger span = BigInteger.valueOf(range[1]).subtract(BigInteger.valueOf(range[0])).add(BigInteger.ONE);
+            if (span.compareTo(BigInteger.valueOf(count)) < 0)
+                count = span.intValue();
+            long[] bounds = new long[count];
+            for (int i = 1; i < count; ++i)
+                bounds[i] = BigInteger.valueOf(range[0]).add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValue();
+
+            if (count > 1)
+            {
+                Partition[] partitions = new Partition[count];
+                for (int i = 0; i < count; ++i)
+                {
+                    if (i == 0)
+                        partitions[i] = new Partition(getSQL(key + " < ?", key), new long[] { bounds[1] });
+                    else if (i == count - 1)
+                        partitions[i] = new Partition(getSQL(key + " >= ?", null), new long[] { bounds[i] });
+                    else
+                        partitions[i] = new Partition(getSQL(key + " >= ? AND " + key + " < ?", null), new long[] { bounds[i], bounds[i + 1] });
+                }
+                return partitions;
+            }
+        }
+        return new Partition[] { new Partition(getSQL(null, null), null) };
+    }
+
+    // Returns the statement that reads the rows that meet a predicate, and the rows with a null key if a key is given.
+    private String getSQL(String predicate, String nullKey)
+    {
+        StringBuffer buffer = new StringBuffer("SELECT ");
+        buffer.append(columns_).append(" FROM ").append(getFrom());
+        String and = " WHERE ";
+        if (predicate != null)
+        {
+            buffer.append(and);
+            if (nullKey != null && partitioning_ != PARTITION_RRN)
+                buffer.append("(").append(predicate).append(" OR ").append(nullKey).append(" IS NULL)");
+            else
+                buffer.append(predicate);
+            and = " AND ";
+        }
+        if (condition_ != null)
+            buffer.append(and).append("(").append(condition_).append(")");
+        return buffer.toString();
+    }
+
+    // Returns the smallest and largest values of the key, or null if there are none.
+    private long[] getRange(Connection connection, String key) throws SQLException
+    {
+        String sql = "SELECT MIN(" + key + "), MAX(" + key + ") FROM " + getFrom();
+        if (condition_ != null)
+            sql += " WHERE (" + condition_ + ")";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try
+        {
+            ResultSet resultSet = statement.executeQuery();
+            try
+            {
+                if (!resultSet.next())
+                    return null;
+                long minimum = resultSet.getLong(1);
+                if (resultSet.wasNull())
+                    return null;
+                long maximum = resultSet.getLong(2);
+                if (JDTrace.isTraceOn())
+                    JDTrace.logInformation(this, "Range of " + key + ": " + minimum + " to " + maximum);
+                return new long[] { minimum, maximum };
+            }
+            finally
+            {
+                resultSet.close();
+            }
+        }
+        finally
+        {
+            statement.close();
+        }
+    }
+
+    // Returns the name of the first column of the query.
+    private String getFirstColumn(Connection connection) throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + getFrom());
+        try
+        {
+            String name = statement.getMetaData().getColumnName(1);
+            return CORRELATION + ".\"" + name + "\"";
+        }
+        finally
+        {
+            statement.close();
+        }
+    }
+
+    // The statement that reads a partition, and the values of its parameter markers.
+    private static final class Partition
+    {
+        final String sql_;
+        final long[] parameters_;
+
+        Partition(String sql, long[] parameters)
+        {
+            sql_ = sql;
+            parameters_ = parameters;
+        }
+    }
+
+    // One read of the partitions.  Workers take the next partition number from next_ until all are read.  For a
+    // stream, the rows are put into rows_; the last worker to finish marks the end of the read.
+    private final class Read
+    {
+        private final Object END = new Object();
+
+        private final AS400JDBCPartitionVisitor visitor_;
+        private final Partition[] partitions_;
+        private final ArrayBlockingQueue<Object> rows_;
+        private final Thread[] workers_;
+        private final AtomicInteger next_ = new AtomicInteger(0);
+        private final AtomicInteger running_;
+        private volatile boolean closed_ = false;
+        private volatile boolean ended_ = false;
+        private volatile Exception failure_ = null;
+
+        Read(AS400JDBCPartitionVisitor visitor) throws SQLException
+        {
+            visitor_ = visitor;
+            rows_ = (visitor == null) ? new ArrayBlockingQueue<Object>(queueCapacity_) : null;
+
+            // The first connection determines the partitions, and then reads them like the others.
+            Connection first = dataSource_.getConnection();
+            try
+            {
+                partitions_ = getPartitions(first);
+            }
+            catch (SQLException e)
+            {
+                closeConnection(first);
+                throw e;
+            }
+            if (JDTrace.isTraceOn())
+                JDTrace.logInformation(this, "Reading " + partitions_.length + " partitions of " + source_);
+
+            int count = Math.min(parallelism_, partitions_.length);
+            running_ = new AtomicInteger(count);
+            workers_ = new Thread[count];
+            boolean virtual = (dataSource_ instanceof AS400JDBCDataSource) && ((AS400JDBCDataSource)dataSource_).isVirtualThreads();
+            for (int i = 0; i < count; ++i)
+            {
+                final Connection connection = (i == 0) ? first : null;
+                workers_[i] = AS400ThreadedServer.newThread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        work(connection);
+                    }
+                }, "AS400JDBCPartitionedReader-" + i, virtual);
+                workers_[i].start();
+            }
+        }
+
+        // Waits for the workers to finish, and throws the first failure.
+        void join() throws SQLException
+        {
+            try
+            {
+                for (int i = 0; i < workers_.length; ++i)
+                    workers_[i].join();
+            }
+            catch (InterruptedException e)
+            {
+                close();
+                JDError.throwSQLException(this, JDError.EXC_OPERATION_CANCELLED, e);
+            }
+            throwFailure();
+        }
+
+        // Returns the next row, or null at the end of the read.
+        Object[] take() throws SQLException
+        {
+            if (ended_) return null;
+            try
+            {
+                Object entry = rows_.take();
+                if (entry != END) return (Object[])entry;
+                ended_ = true;
+                throwFailure();
+                return null;
+            }
+            catch (InterruptedException e)
+            {
+                close();
+                JDError.throwSQLException(this, JDError.EXC_OPERATION_CANCELLED, e);
+                return null;
+            }
+        }
+
+        // Stops the workers.  A worker that is fetching stops after the current row.
+        void close()
+        {
+            closed_ = true;
+            ended_ = true;
+            if (rows_ != null)
+                rows_.clear();
+        }
+
+        private synchronized void fail(Exception e)
+        {
+            if (failure_ == null)
+                failure_ = e;
+            closed_ = true;
+        }
+
+        private synchronized void throwFailure() throws SQLException
+        {
+            if (failure_ instanceof SQLException)
+                throw (SQLException)failure_;
+            if (failure_ != null)
+                throw (RuntimeException)failure_;
+        }
+
+        private void work(Connection connection)
+        {
+            try
+            {
+                if (connection == null && !closed_)
+                    connection = dataSource_.getConnection();
+                int partition;
+                while (!closed_ && (partition = next_.getAndIncrement()) < partitions_.length)
+                    read(connection, partition);
+            }
+            catch (SQLException e)
+            {
+                fail(e);
+            }
+            catch (RuntimeException e)
+            {
+                fail(e);
+            }
+            catch (InterruptedException e)
+            {
+                if (JDTrace.isTraceOn()) JDTrace.logInformation(this, "Worker interrupted");
+            }
+            finally
+            {
+                closeConnection(connection);
+                if (running_.decrementAndGet() == 0 && rows_ != null)
+                {
+                    try
+                    {
+                        // The end is always queued, after any rows, unless the read was closed.
+                        while (!ended_ && !rows_.offer(END, POLL_MILLISECONDS, TimeUnit.MILLISECONDS))
+                        {
+                            if (closed_ && failure_ == null) break;
+                        }
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // The read is not waited for.
+                    }
+                }
+            }
+        }
+
+        private void read(Connection connection, int partition) throws SQLException, InterruptedException
+        {
+            Partition p = partitions_[partition];
+            if (JDTrace.isTraceOn())
+                JDTrace.logInformation(this, "Reading partition " + partition + ": " + p.sql_);
+            PreparedStatement statement = connection.prepareStatement(p.sql_, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try
+            {
+                if (p.parameters_ != null)
+                {
+                    for (int i = 0; i < p.parameters_.length; ++i)
+                        statement.setLong(i + 1, p.parameters_[i]);
+                }
+                if (fetchSize_ > 0)
+                    statement.setFetchSize(fetchSize_);
+                ResultSet resultSet = statement.executeQuery();
+                try
+                {
+                    if (visitor_ != null)
+                    {
+                        if (!visitor_.visitPartition(partition, resultSet))
+                            closed_ = true;
+                    }
+                    else
+                    {
+                        int columnCount = resultSet.getMetaData().getColumnCount();
+                        while (!closed_ && resultSet.next())
+                        {
+                            Object[] row = new Object[columnCount];
+                            for (int i = 0; i < columnCount; ++i)
+                                row[i] = resultSet.getObject(i + 1);
+                            put(row);
+                        }
+                    }
+                }
+                finally
+                {
+                    resultSet.close();
+                }
+            }
+            finally
+            {
+                statement.close();
+            }
+        }
+
+        // Waits for room in the row queue, or for the read to be closed.
+        private void put(Object row) throws InterruptedException
+        {
+            while (!closed_)
+            {
+                if (rows_.offer(row, POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) return;
+            }
+        }
+
+        private void closeConnection(Connection connection)
+        {
+            if (connection == null) return;
+            try
+            {
+                connection.close();
+            }
+            catch (SQLException e)
+            {
+                if (JDTrace.isTraceOn()) JDTrace.logException(this, "Closing worker connection failed", e);
+            }
+        }
+    }
+}
@@ -368,7 +368,7 @@ public class AS400JDBCPooledConnection implements PooledConnection
   **/
   boolean isConnectionAlive() throws SQLException
   {
-    return connection_.getAS400().isConnectionAlive(AS400.DATABASE);
+    return ConnectionLivenessProbe.isAlive(connection_.getAS400(), AS400.DATABASE);
   }
 
 
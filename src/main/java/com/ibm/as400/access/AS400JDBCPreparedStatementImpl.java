@@ -138,9 +138,20 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
                                  // length // @H1A
   private boolean containsArrayParameter_ = false; /* @G7A */
   private boolean preserveParameters_ = false; 
+  // The statement cache of the connection and the key of this statement in it,
+  // or null if this statement is deleted on the system when it is closed.
+  private AS400JDBCStatementCache statementCache_;
+  private String statementCacheKey_;
   private boolean saveParameterValues_ = false;   // save the parameters so that can be
                                              // reset in a Client Affinities environment
   
+  // The rows of the batch that were already run because the batch reached
+  // the "batch flush rows" or "batch flush size" property.
+  private int batchFlushRows_;
+  private long batchFlushBytes_;
+  private int batchFlushedRows_ = 0;
+  private long batchFlushedUpdateCount_ = 0;
+
   private int containsLocator_ = LOCATOR_UNKNOWN;
   private static final int LOCATOR_UNKNOWN = -1;
   private static final int LOCATOR_NOT_FOUND = 0;
@@ -317,6 +328,8 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       isjvm16Synchronizer = true; // @dmy@C6C
 
     batchExecute_ = false; // @G9A
+    batchFlushRows_ = connection_.getProperties().getInt(JDProperties.BATCH_FLUSH_ROWS);
+    batchFlushBytes_ = connection_.getProperties().getInt(JDProperties.BATCH_FLUSH_SIZE) * 1024L;
     outputParametersExpected_ = outputParametersExpected;
     parameterCount_ = sqlStatement.countParameters();
     parameterInputCount_ = 0; // @array4 calculate while we prepare
@@ -373,9 +386,17 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
   /**
    * Adds the set of parameters to the current batch.
    * 
+   * <p>If the "batch flush rows" or "batch flush size" connection property is
+   * set and the batch reaches it, the rows of the batch are run before this
+   * method returns.  They are included in the update counts returned by
+   * executeBatch().
+   * 
    * @exception SQLException
    *              If the statement is not open or an input parameter has not
    *              been set.
+   * @exception BatchUpdateException
+   *              If the rows of the batch are run and an error occurs.  The
+   *              batch is cleared.
    **/
   public void addBatch() throws SQLException {
       try 
@@ -451,6 +472,8 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       if (JDTrace.isTraceOn())
         JDTrace.logInformation(this, "addBatch()");
       batch_.addElement(parameters);
+      if (isBatchFlushNeeded())
+        flushBatch();
     }
     finally
     {
@@ -475,6 +498,26 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
     JDError.throwSQLException(this, JDError.EXC_FUNCTION_SEQUENCE); // @B1C
   }
 
+  // JDBC 2.0
+  /**
+   * Clears the current batch of parameter sets. The update counts of the rows
+   * that were already run because the batch reached the "batch flush rows" or
+   * "batch flush size" property are discarded.
+   *
+   * @exception SQLException
+   *              If the statement is not open.
+   **/
+  public void clearBatch() throws SQLException {
+    try {
+      internalLock.lock();
+      super.clearBatch();
+      batchFlushedRows_ = 0;
+      batchFlushedUpdateCount_ = 0;
+    } finally {
+      internalLock.unlock();
+    }
+  }
+
   // @BAA
   /**
    * Creates or changes the descriptor, which describes the parameter marker
@@ -646,6 +689,7 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
    *              If an error occurs.
    **/
   public void close() throws SQLException {
+      AS400JDBCPreparedStatementImpl evicted = null;
       try 
       {
           internalLock.lock();
@@ -659,6 +703,28 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       if (isClosed())
         return;
 
+      // Keep the statement prepared in the statement cache of the connection.
+      // Statements closed by the finalizer are not cached, since they cannot
+      // be reused and no replies can be received in a finalizer.  Statements
+      // that the application marked as not poolable are not cached either.
+      if (statementCache_ != null && !connection_.inFinalizer_ && isPoolable()) {
+        clearParameters();
+        if (batch_ != null)
+          batch_.removeAllElements();
+        batchFlushedRows_ = 0;
+        batchFlushedUpdateCount_ = 0;
+        if (closeForReuse()) {
+          evicted = statementCache_.put(statementCacheKey_, this);
+          if (evicted == this) {
+            clearClosedForReuse();
+            statementCache_ = null;
+            evicted = null;
+          } else {
+            return;
+          }
+        }
+      }
+
       // If a descriptor was created somewhere along
       // the lines, then delete it now.
       if (descriptorHandle_ != 0) {
@@ -698,9 +764,32 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       finally
       {
           internalLock.unlock();
+          // Delete the statement that no longer fits in the statement cache.
+          if (evicted != null)
+            evicted.closeUncached();
       }
   }
 
+  // Sets the statement cache that this statement is kept in when it is closed.
+  // A prepared statement is poolable when it is created, as JDBC specifies.
+  void setStatementCache(AS400JDBCStatementCache statementCache, String key) throws SQLException {
+    statementCache_ = statementCache;
+    statementCacheKey_ = key;
+    setPoolable(true);
+  }
+
+  // Deletes a statement taken out of the statement cache on the system.
+  void closeUncached() throws SQLException {
+    try {
+      internalLock.lock();
+      statementCache_ = null;
+      clearClosedForReuse();
+      close();
+    } finally {
+      internalLock.unlock();
+    }
+  }
+
   /**
    * Performs common operations needed after an execute.
    * 
@@ -1558,12 +1647,14 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
           internalLock.lock();
       checkOpen();
 
-      if (batch_ == null || batch_.size() == 0)
+      if (batch_ == null)
+        batch_ = new Vector();
+      if (batch_.size() == 0 && batchFlushedRows_ == 0)
         return new int[0];
 
-      batchParameterRows_ = new Vector();
+      batchParameterRows_ = new Vector<Object[]>();
 
-      int batchSize = batch_.size();
+      int batchSize = batchFlushedRows_ + batch_.size();
       int[] updateCounts = new int[batchSize];
 
       int numSuccessful = 0; // Number of successfully executed statements in
@@ -1590,6 +1681,11 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
         if (containsLocator_ == LOCATOR_FOUND) {
           canBatch = false;
         }
+        // Rows that were flushed by addBatch() were run with block requests,
+        // so the rest of the batch is too.
+        if (batchFlushedRows_ > 0) {
+          canBatch = true;
+        }
 
         // Set the batch execute flag so common execute knows to use the list
         // @G9A
@@ -1597,106 +1693,11 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
         batchExecute_ = true; // @G9A
         rowsInserted_ = 0; // @G9A
 
-        // Prepare the statement if it is not already done.
-        if (!prepared_) {
-          // @H7 Native type should ONLY be BLOCK_INSERT if the statement is of
-          // type
-          // @H7 "INSERT INTO MYTABLE ? ROWS VALUES (?,?)" with a ROWS VALUES
-          // clause,
-          // @H7 not just if we are going to send the values as a batch to the
-          // system.
-          // @H7 We determine whether the statement is of that form in
-          // @H7 JDSQLStatement.java, not here.
-          // @H7D sqlStatement_.setNativeType(JDSQLStatement.TYPE_BLOCK_INSERT);
-          // // @G9A
-          resultRow_ = commonPrepare(sqlStatement_);
-          prepared_ = true;
-          // See if the prepare returned a ResultSet. If so, error out now to
-          // avoid
-          // opening a cursor. Note some stored procedures won't return a
-          // ResultSet
-          // until the execute, so we check in both places.
-          if (resultSet_ != null) {
-            closeResultSet(JDCursor.REUSE_YES);
-            JDError.throwSQLException(this, JDError.EXC_CURSOR_STATE_INVALID);
-          }
-        }
+        prepareBatch();
 
         // Execute.
         if (canBatch) {
-          int maximumBlockedInputRows = connection_
-              .getMaximumBlockedInputRows();
-          Enumeration list = batch_.elements();
-          int count = 0; // @K1A Added support for allowing more than 32000 SQL
-                         // Statements to be batched and run
-          int totalUpdateCount = 0; /* @A4A */
-          while (list.hasMoreElements()) {
-            batchParameterRows_.add(list.nextElement());
-            count++; // @K1A
-            if (count == maximumBlockedInputRows && list.hasMoreElements())// @K1A
-                                                                           // Checks
-                                                                           // if
-                                                                           // 32000
-                                                                           // statements
-                                                                           // have
-                                                                           // been
-                                                                           // added
-                                                                           // to
-                                                                           // the
-                                                                           // batch,
-                                                                           // if
-                                                                           // so
-                                                                           // execute
-                                                                           // the
-                                                                           // first
-                                                                           // 32000,
-                                                                           // then
-                                                                           // continue
-                                                                           // processing
-                                                                           // the
-                                                                           // batch
-            { // @K1A
-              if (JDTrace.isTraceOn())
-                JDTrace.logInformation(this,
-                    "Begin batching via server-side with "
-                        + batchParameterRows_.size() + " rows."); // @K1A
-              executingBatchedStatement_ = true; /* @DAA */
-              commonExecute(sqlStatement_, resultRow_); // @K1A
-              executingBatchedStatement_ = false; /* @DAA */
-              totalUpdateCount += updateCount_; /* @A4A */
-              batchParameterRows_.clear(); // @K1A
-
-              if (resultSet_ != null) // @K1A
-              { // @K1A
-                closeResultSet(JDCursor.REUSE_YES); // @K1A
-                JDError.throwSQLException(this,
-                    JDError.EXC_CURSOR_STATE_INVALID); // @K1A
-              } // @K1A
-              count = 0; // @K1A set the count for the number of statements in
-                         // the batch back to zero
-            } // @K1A
-          }
-          if (JDTrace.isTraceOn())
-            JDTrace.logInformation(this, "Begin batching via server-side with "
-                + batchParameterRows_.size() + " rows.");
-
-          //
-          // There is a quirk that if clearParameters is called after addBatch
-          // but before executeBatch then
-          // the commonExecute fails because it doesn't think the parameters are
-          // set.
-          // Set a flag that we are doing server side batching.
-          //
-          executingBatchedStatement_ = true; /* @DAA */
-          commonExecute(sqlStatement_, resultRow_);
-          executingBatchedStatement_ = false; /* @DAA */
-
-          totalUpdateCount += updateCount_; /* @A4A */
-          batchParameterRows_.clear();
-          if (resultSet_ != null) {
-            closeResultSet(JDCursor.REUSE_YES);
-            JDError.throwSQLException(this, JDError.EXC_CURSOR_STATE_INVALID);
-          }
+          long totalUpdateCount = batchFlushedUpdateCount_ + executeBlockedBatch();
           numSuccessful = batchSize;
           // The host server does not currently report the update counts for
           // each statement in
@@ -1745,48 +1746,11 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
         }
         executed_ = true;
       } catch (SQLException e) {
-        // The specification says that if we get an error,
-        // then the size of the update counts array should
-        // reflect the number of statements that were
-        // executed without error.
-        int[] counts = null;
-        if (canBatch) {
-          // @CRS - We must be an INSERT...?? But we don't know which statement
-          // in the batch
-          // caused the exception, so all we can do is return an array of size 1
-          // with the
-          // number of rows inserted/updated according to the host server.
-          // After some investigation, the above is not true. See below: //@550
-          // If autocommit is on and we are running under *NONE, then
-          // rowsInserted_ contains the number //@550
-          // of inserts that executed successfully before the error.
-          // rowsInserted_ is set from the //@550
-          // the value in SQLERRD3. If autocommit is running under an isolation
-          // level other than *NONE, //@550
-          // or autocommit is off, no rows are committed. Thus rowsInserted_
-          // will be zero. //@550
-          // Since we don't have any update counts for each statement, use
-          // Statement.SUCCESS_NO_INFO //@550
-          // @550D counts = new int[] { rowsInserted_};
-          counts = new int[rowsInserted_]; // @550 batch update support
-          for (int i = 0; i < counts.length; i++)
-            // @550
-            counts[i] = Statement.SUCCESS_NO_INFO; // @550
-
-        } else {
-          // @CRS - Since we haven't really been batching, we've been keeping
-          // track of everything
-          // per execute, so we can return more useful information.
-          counts = new int[numSuccessful];
-          System.arraycopy(updateCounts, 0, counts, 0, numSuccessful);
-        }
-        BatchUpdateException batchUpdateException = new BatchUpdateException(
-            e.getMessage(), e.getSQLState(), e.getErrorCode(), counts);
-        batchUpdateException.initCause(e);
-
-        throw batchUpdateException;
+        throw newBatchUpdateException(e, canBatch, updateCounts, numSuccessful);
       } finally {
         batch_.removeAllElements();
+        batchFlushedRows_ = 0;
+        batchFlushedUpdateCount_ = 0;
         batchExecute_ = false; // @K1A
         if (JDTrace.isTraceOn())
           JDTrace.logInformation(this, "Done batching.");
@@ -1799,6 +1763,234 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       }
   }
 
+  /**
+   * Prepares the statement for the batch, if it is not already prepared.
+   * 
+   * @exception SQLException
+   *              If an error occurs.
+   **/
+  private void prepareBatch() throws SQLException {
+    // Prepare the statement if it is not already done.
+    if (!prepared_) {
+      // @H7 Native type should ONLY be BLOCK_INSERT if the statement is of
+      // type
+      // @H7 "INSERT INTO MYTABLE ? ROWS VALUES (?,?)" with a ROWS VALUES
+      // clause,
+      // @H7 not just if we are going to send the values as a batch to the
+      // system.
+      // @H7 We determine whether the statement is of that form in
+      // @H7 JDSQLStatement.java, not here.
+      // @H7D sqlStatement_.setNativeType(JDSQLStatement.TYPE_BLOCK_INSERT);
+      // // @G9A
+      resultRow_ = commonPrepare(sqlStatement_);
+      prepared_ = true;
+      // See if the prepare returned a ResultSet. If so, error out now to
+      // avoid
+      // opening a cursor. Note some stored procedures won't return a
+      // ResultSet
+      // until the execute, so we check in both places.
+      if (resultSet_ != null) {
+        closeResultSet(JDCursor.REUSE_YES);
+        JDError.throwSQLException(this, JDError.EXC_CURSOR_STATE_INVALID);
+      }
+    }
+  }
+
+  /**
+   * Runs the parameter rows of the batch with block insert or block update
+   * requests.
+   * 
+   * @return The total update count.
+   * @exception SQLException
+   *              If an error occurs.
+   **/
+  private long executeBlockedBatch() throws SQLException {
+      if (batch_.size() == 0)
+        return 0;
+      int maximumBlockedInputRows = connection_
+          .getMaximumBlockedInputRows();
+      Enumeration list = batch_.elements();
+      int count = 0; // @K1A Added support for allowing more than 32000 SQL
+                     // Statements to be batched and run
+      long totalUpdateCount = 0; /* @A4A */
+      while (list.hasMoreElements()) {
+        batchParameterRows_.add(list.nextElement());
+        count++; // @K1A
+        if (count == maximumBlockedInputRows && list.hasMoreElements())// @K1A
+                                                                       // Checks
+                                                                       // if
+                                                                       // 32000
+                                                                       // statements
+                                                                       // have
+                                                                       // been
+                                                                       // added
+                                                                       // to
+                                                                       // the
+                                                                       // batch,
+                                                                       // if
+                                                                       // so
+                                                                       // execute
+                                                                       // the
+                                                                       // first
+                                                                       // 32000,
+                                                                       // then
+                                                                       // continue
+                                                                       // processing
+                                                                       // the
+                                                                       // batch
+        { // @K1A
+          if (JDTrace.isTraceOn())
+            JDTrace.logInformation(this,
+                "Begin batching via server-side with "
+                    + batchParameterRows_.size() + " rows."); // @K1A
+          executingBatchedStatement_ = true; /* @DAA */
+          commonExecute(sqlStatement_, resultRow_); // @K1A
+          executingBatchedStatement_ = false; /* @DAA */
+          totalUpdateCount += updateCount_; /* @A4A */
+          batchParameterRows_.clear(); // @K1A
+
+          if (resultSet_ != null) // @K1A
+          { // @K1A
+            closeResultSet(JDCursor.REUSE_YES); // @K1A
+            JDError.throwSQLException(this,
+                JDError.EXC_CURSOR_STATE_INVALID); // @K1A
+          } // @K1A
+          count = 0; // @K1A set the count for the number of statements in
+                     // the batch back to zero
+        } // @K1A
+      }
+      if (JDTrace.isTraceOn())
+        JDTrace.logInformation(this, "Begin batching via server-side with "
+            + batchParameterRows_.size() + " rows.");
+
+      //
+      // There is a quirk that if clearParameters is called after addBatch
+      // but before executeBatch then
+      // the commonExecute fails because it doesn't think the parameters are
+      // set.
+      // Set a flag that we are doing server side batching.
+      //
+      executingBatchedStatement_ = true; /* @DAA */
+      commonExecute(sqlStatement_, resultRow_);
+      executingBatchedStatement_ = false; /* @DAA */
+
+      totalUpdateCount += updateCount_; /* @A4A */
+      batchParameterRows_.clear();
+      if (resultSet_ != null) {
+        closeResultSet(JDCursor.REUSE_YES);
+        JDError.throwSQLException(this, JDError.EXC_CURSOR_STATE_INVALID);
+      }
+      return totalUpdateCount;
+  }
+
+  /**
+   * Indicates if the rows added to the batch have reached the "batch flush
+   * rows" or "batch flush size" property, and can be run with block requests.
+   * 
+   * @return true if the batch should be flushed.
+   * @exception SQLException
+   *              If an error occurs.
+   **/
+  private boolean isBatchFlushNeeded() throws SQLException {
+    if (batchFlushRows_ == 0 && batchFlushBytes_ == 0)
+      return false;
+    if (!sqlStatement_.canBatch() || containsLocator_ == LOCATOR_FOUND)
+      return false;
+
+    int rows = batch_.size();
+    if (batchFlushRows_ > 0 && rows >= batchFlushRows_)
+      return true;
+    return batchFlushBytes_ > 0 && parameterCount_ > 0 && parameterRow_ != null
+        && (long) rows * parameterRow_.getRowLength() >= batchFlushBytes_;
+  }
+
+  /**
+   * Runs the rows added to the batch so far, so that a large batch is not held
+   * in memory until executeBatch() is called. The rows are counted in the
+   * update counts returned by executeBatch().
+   * 
+   * @exception BatchUpdateException
+   *              If an error occurs. The batch is cleared.
+   **/
+  private void flushBatch() throws SQLException {
+    int rows = batch_.size();
+    batchParameterRows_ = new Vector<Object[]>();
+    batchExecute_ = true;
+    rowsInserted_ = 0;
+    try {
+      if (JDTrace.isTraceOn())
+        JDTrace.logInformation(this, "Flushing batch of " + rows + " rows.");
+      prepareBatch();
+      batchFlushedUpdateCount_ += executeBlockedBatch();
+      batchFlushedRows_ += rows;
+    } catch (SQLException e) {
+      BatchUpdateException batchUpdateException = newBatchUpdateException(e, true, null, 0);
+      batchFlushedRows_ = 0;
+      batchFlushedUpdateCount_ = 0;
+      throw batchUpdateException;
+    } finally {
+      batch_.removeAllElements();
+      batchExecute_ = false;
+    }
+  }
+
+  /**
+   * Creates the exception thrown when the batch fails.
+   * 
+   * @param e
+   *          The exception.
+   * @param canBatch
+   *          true if the batch was run with block requests.
+   * @param updateCounts
+   *          The update counts of the statements that were run one at a time.
+   * @param numSuccessful
+   *          The number of statements that were run one at a time.
+   * @return The exception.
+   **/
+  private BatchUpdateException newBatchUpdateException(SQLException e,
+      boolean canBatch, int[] updateCounts, int numSuccessful) {
+    // The specification says that if we get an error,
+    // then the size of the update counts array should
+    // reflect the number of statements that were
+    // executed without error.
+    int[] counts = null;
+    if (canBatch) {
+      // @CRS - We must be an INSERT...?? But we don't know which statement
+      // in the batch
+      // caused the exception, so all we can do is return an array of size 1
+      // with the
+      // number of rows inserted/updated according to the host server.
+      // After some investigation, the above is not true. See below: //@550
+      // If autocommit is on and we are running under *NONE, then
+      // rowsInserted_ contains the number //@550
+      // of inserts that executed successfully before the error.
+      // rowsInserted_ is set from the //@550
+      // the value in SQLERRD3. If autocommit is running under an isolation
+      // level other than *NONE, //@550
+      // or autocommit is off, no rows are committed. Thus rowsInserted_
+      // will be zero. //@550
+      // Since we don't have any update counts for each statement, use
+      // Statement.SUCCESS_NO_INFO //@550
+      // @550D counts = new int[] { rowsInserted_};
+      // Rows flushed by addBatch() were run before the error.
+      counts = new int[batchFlushedRows_ + rowsInserted_]; // @550 batch update support
+      for (int i = 0; i < counts.length; i++)
+        // @550
+        counts[i] = Statement.SUCCESS_NO_INFO; // @550
+
+    } else {
+      // @CRS - Since we haven't really been batching, we've been keeping
+      // track of everything
+      // per execute, so we can return more useful information.
+      counts = new int[numSuccessful];
+      System.arraycopy(updateCounts, 0, counts, 0, numSuccessful);
+    }
+    BatchUpdateException batchUpdateException = new BatchUpdateException(
+        e.getMessage(), e.getSQLState(), e.getErrorCode(), counts);
+    batchUpdateException.initCause(e);
+    return batchUpdateException;
+  }
+
   /**
    * Runs the SQL statement that returns a single result set. This closes the
    * current result set and clears warnings before executing the SQL statement
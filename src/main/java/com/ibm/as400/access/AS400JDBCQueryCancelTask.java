@@ -0,0 +1,75 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCQueryCancelTask.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 1997-2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+Cancels a statement whose query timeout expired.  The task is scheduled
+on the SharedScheduler when the query starts, and the timeout is cancelled
+when the query ends, so no thread is created unless the query must be cancelled.
+**/
+class AS400JDBCQueryCancelTask implements Runnable
+{
+  static final String copyright = "Copyright (C) 1996-2026 International Business Machines Corporation and others.";
+
+  volatile AS400JDBCStatement statement_;   // Set to null when the query ends.
+  private SharedScheduler.Timeout timeout_;
+
+  AS400JDBCQueryCancelTask(AS400JDBCStatement s)
+  {
+    statement_ = s;
+  }
+
+  // Schedules the cancel after the query timeout of the statement.
+  void start()
+  {
+    AS400JDBCStatement statement = statement_;
+    if (statement != null)
+      timeout_ = SharedScheduler.scheduleTimeout(this, statement.getInternalQueryTimeout() * 1000L);
+  }
+
+  // Detaches the task from the statement and cancels the timeout.
+  void end()
+  {
+    statement_ = null;
+    if (timeout_ != null)
+      timeout_.cancel();
+  }
+
+  // Runs on the scheduler thread when the timeout expires.  The cancel request
+  // blocks, so it is sent from its own thread.
+  public void run()
+  {
+    boolean traceOn = JDTrace.isTraceOn();
+    final AS400JDBCStatement statement = statement_;
+    if ((statement != null) && (statement.isQueryRunning())) {
+      if (traceOn)
+        JDTrace.logInformation(this, "NOTE:  AS400JDBCQueryCancelTask is cancelling a statement by user request.");
+      SharedScheduler.startThread(new Runnable()
+      {
+        public void run()
+        {
+          try {
+            // The query may have ended since the timeout expired.
+            if (statement_ == statement && statement.isQueryRunning())
+              statement.cancel();
+          } catch (Exception e) {
+            if (JDTrace.isTraceOn()) JDTrace.logInformation(AS400JDBCQueryCancelTask.this, "Exception "+e+" caught");
+          }
+        }
+      }, "AS400JDBCQueryCancel");
+    } else {
+      if (traceOn) JDTrace.logInformation(this, "Doing nothing since query not running");
+    }
+  }
+}
@@ -219,6 +219,7 @@ implements ResultSet
     private InputStream                 openInputStream_;
     private Reader                      openReader_;
     private JDRow                       row_;
+    private JDServerRow                 fastRow_;          // row_, if it can be read directly
     private JDRowCache                  rowCache_;
     private String                      selectTable_;
     private SQLWarning                  sqlWarning_;
@@ -303,6 +304,7 @@ implements ResultSet
         openInputStream_        = null;
         openReader_             = null;
         row_                    = rowCache.getRow ();
+        fastRow_                = (row_ instanceof JDServerRow) ? (JDServerRow) row_ : null;
         rowCache_               = rowCache;
         sqlWarning_             = null;
         statement_              = statement;
@@ -314,6 +316,8 @@ implements ResultSet
         
         /* @D9A Make sure that warning are provided to this result set object */ 
         rowCache_.setResultSet(this); 
+        if (rowCache_ instanceof JDServerRowCache)
+            ((JDServerRowCache) rowCache_).setSQLStatement(sqlStatement);
         rowCache_.open ();
         extendedDescriptors_ = extendedDescriptors; /*@P6A*/
         
@@ -727,6 +731,23 @@ implements ResultSet
 
 
 
+    /**
+    Returns the block sizes that the driver chose for this result set.
+    The block size is chosen by the driver when the "maximum block size"
+    connection property is set and the result set is forward-only and
+    read-only.
+    
+    @return The metrics, or null if the block size of this result set is fixed.
+    **/
+    public AS400JDBCFetchMetrics getFetchMetrics ()
+    {
+        if (rowCache_ instanceof JDServerRowCache)
+            return ((JDServerRowCache) rowCache_).getFetchMetrics ();
+        return null;
+    }
+
+
+
     /**
     Returns the row cache.
     
@@ -2414,6 +2435,12 @@ void postWarningSQLState(String sqlState)  {
         {                                            // @D1A
             internalLock.lock();
             // Get the data and check for SQL NULL.
+            if(isFastValue (columnIndex))
+            {
+                BigDecimal value = fastRow_.readFastBigDecimal (columnIndex);
+                if(value != null)
+                    return value;
+            }
             SQLData data = getValue (columnIndex);
             BigDecimal value = (data == null) ? null : data.getBigDecimal (-1);
             testDataTruncation (columnIndex, data, false); //@trunc getBigDecimal(int) can set truncation_!=0, but we should not throw an SQLEception
@@ -3149,6 +3176,8 @@ void postWarningSQLState(String sqlState)  {
         {                                            // @D1A
             internalLock.lock();
             // Get the data and check for SQL NULL.
+            if(isFastValue (columnIndex) && fastRow_.readFastDouble (columnIndex))
+                return fastRow_.getFastDouble ();
             SQLData data = getValue (columnIndex);
             double value = (data == null) ? 0 : data.getDouble ();
             testDataTruncation (columnIndex, data, true); //@trunc
@@ -3265,6 +3294,8 @@ void postWarningSQLState(String sqlState)  {
         {                                            // @D1A
             internalLock.lock();
             // Get the data and check for SQL NULL.
+            if(isFastValue (columnIndex) && fastRow_.readFastLong (columnIndex, true))
+                return (int) fastRow_.getFastLong ();
             SQLData data = getValue (columnIndex);
             int value = (data == null) ? 0 : data.getInt ();
             testDataTruncation (columnIndex, data, true); //@trunc
@@ -3323,6 +3354,8 @@ void postWarningSQLState(String sqlState)  {
         {                                            // @D1A
             internalLock.lock();
             // Get the data and check for SQL NULL.
+            if(isFastValue (columnIndex) && fastRow_.readFastLong (columnIndex, false))
+                return fastRow_.getFastLong ();
             SQLData data = getValue (columnIndex);
             long value = (data == null) ? 0 : data.getLong ();
             testDataTruncation (columnIndex, data, true); //@trunc
@@ -4052,6 +4085,47 @@ void postWarningSQLState(String sqlState)  {
 
 
 
+    /**
+    Indicates if a piece of row data for the specified index can be
+    read directly from the row, without its SQLData object.  This
+    performs the same validation as getValue().  If the value can be
+    read directly, it is not SQL NULL and had no data mapping error.
+    
+    @param  columnIndex   The column index (1-based).
+    @return               true if the value can be read directly.
+    
+    @exception  SQLException    If the result set is not open,
+                                the cursor is not positioned on a row,
+                                or the column index is not valid.
+    **/
+    private boolean isFastValue (int columnIndex)
+    throws SQLException
+    {
+        // Updates and the insert row are only in the SQLData objects.
+        if(fastRow_ == null || concurrency_ == CONCUR_UPDATABLE || positionInsert_)
+            return false;
+
+        checkOpen ();
+        clearCurrentValue ();
+
+        if(positionValid_ == false)
+            JDError.throwSQLException (JDError.EXC_CURSOR_POSITION_INVALID);
+        if(columnIndex < 1)
+            JDError.throwSQLException (JDError.EXC_DESCRIPTOR_INDEX_INVALID, columnIndex+"<1");
+        if (columnIndex > columnCount_)
+          JDError.throwSQLException (JDError.EXC_DESCRIPTOR_INDEX_INVALID, columnIndex+">"+columnCount_);
+
+        // isNull() is also true for a data mapping error.
+        if(!fastRow_.isFastAccess (columnIndex) || fastRow_.isNull (columnIndex))
+            return false;
+
+        wasNull_ = false;
+        wasDataMappingError_ = false;
+        return true;
+    }
+
+
+
     /**
     Tests if a DataTruncation occurred on the read of a piece of
     data and posts a DataTruncation warning if so.
@@ -0,0 +1,190 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  AS400JDBCSQLStatistics.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+ * Represents the execution statistics of one SQL statement, as collected by
+ * {@link AS400JDBCStatementStatisticsMXBean AS400JDBCStatementStatisticsMXBean}.
+ * The values are read when the object is created, and are not synchronized with each other.
+**/
+public final class AS400JDBCSQLStatistics
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private final String sql_;
+  private final long   executions_;
+  private final long   prepares_;
+  private final double totalTime_;
+  private final double minimumTime_;
+  private final double maximumTime_;
+  private final long[] histogram_;
+  private final long   rowsFetched_;
+  private final long   fetches_;
+  private final long   bytesSent_;
+  private final long   bytesReceived_;
+
+
+
+  AS400JDBCSQLStatistics (String sql, long executions, long prepares, double totalTime,
+                          double minimumTime, double maximumTime, long[] histogram,
+                          long rowsFetched, long fetches, long bytesSent, long bytesReceived)
+  {
+    sql_            = sql;
+    executions_     = executions;
+    prepares_       = prepares;
+    totalTime_      = totalTime;
+    minimumTime_    = minimumTime;
+    maximumTime_    = maximumTime;
+    histogram_      = histogram;
+    rowsFetched_    = rowsFetched;
+    fetches_        = fetches;
+    bytesSent_      = bytesSent;
+    bytesReceived_  = bytesReceived;
+  }
+
+
+
+  /**
+   * Returns the SQL text, with its literals replaced by <code>?</code>.
+   * @return The SQL text.
+  **/
+  public String getSql ()
+  {
+    return sql_;
+  }
+
+  /**
+   * Returns the number of times the statement was executed.
+   * @return The number of executions.
+  **/
+  public long getExecutionCount ()
+  {
+    return executions_;
+  }
+
+  /**
+   * Returns the number of times the statement was prepared on the system.
+   * Statements found in the SQL package are not counted.
+   * @return The number of prepares.
+  **/
+  public long getPrepareCount ()
+  {
+    return prepares_;
+  }
+
+  /**
+   * Returns the total time spent executing the statement, in milliseconds.
+   * This does not include the time to fetch the rows after the first block.
+   * @return The total execution time.
+  **/
+  public double getTotalTime ()
+  {
+    return totalTime_;
+  }
+
+  /**
+   * Returns the shortest time taken to execute the statement, in milliseconds.
+   * @return The minimum execution time, or 0 if the statement was not executed.
+  **/
+  public double getMinimumTime ()
+  {
+    return minimumTime_;
+  }
+
+  /**
+   * Returns the longest time taken to execute the statement, in milliseconds.
+   * @return The maximum execution time.
+  **/
+  public double getMaximumTime ()
+  {
+    return maximumTime_;
+  }
+
+  /**
+   * Returns the average time taken to execute the statement, in milliseconds.
+   * @return The average execution time.
+  **/
+  public double getAverageTime ()
+  {
+    return (executions_ == 0) ? 0 : totalTime_ / executions_;
+  }
+
+  /**
+   * Returns the number of executions by the time they took.
+   * Element i counts the executions that took less than element i of
+   * {@link AS400JDBCStatementStatisticsMXBean#getExecutionTimeHistogramLimits getExecutionTimeHistogramLimits()}
+   * milliseconds and at least the previous limit.  The last element counts the executions
+   * that took at least the last limit.
+   * @return The counts.
+  **/
+  public long[] getExecutionTimeHistogram ()
+  {
+    return histogram_.clone ();
+  }
+
+  /**
+   * Returns the number of rows received from the system for the result sets of the statement.
+   * @return The number of rows.
+  **/
+  public long getRowsFetched ()
+  {
+    return rowsFetched_;
+  }
+
+  /**
+   * Returns the number of fetch requests sent to the system for the result sets of the statement.
+   * The first block of rows returned with the execution is not counted.
+   * @return The number of fetch requests.
+  **/
+  public long getFetchCount ()
+  {
+    return fetches_;
+  }
+
+  /**
+   * Returns the number of bytes sent to the system to prepare and execute the statement,
+   * and to fetch its rows.
+   * @return The number of bytes.
+  **/
+  public long getBytesSent ()
+  {
+    return bytesSent_;
+  }
+
+  /**
+   * Returns the number of bytes received from the system to prepare and execute the statement,
+   * and to fetch its rows.
+   * @return The number of bytes.
+  **/
+  public long getBytesReceived ()
+  {
+    return bytesReceived_;
+  }
+
+  /**
+   * Returns the statistics as one line of text.
+   * @return The text.
+  **/
+  public String toString ()
+  {
+    return "executions=" + executions_ + ", prepares=" + prepares_
+        + ", totalTime=" + totalTime_ + ", minimumTime=" + minimumTime_
+        + ", maximumTime=" + maximumTime_ + ", averageTime=" + getAverageTime ()
+        + ", rowsFetched=" + rowsFetched_ + ", fetches=" + fetches_
+        + ", bytesSent=" + bytesSent_ + ", bytesReceived=" + bytesReceived_
+        + ", sql=" + sql_;
+  }
+}
@@ -149,9 +149,9 @@ implements Statement
     private DBReplyRequestedDS normalPrepareReply = null;
     private DBReplyRequestedDS getMoreResultsReply = null;
 
-    private boolean queryRunning_;    // Used to determine whether or not we need to track}
-                                        // a QueryCancelThread.  @D4A
-    private AS400JDBCQueryCancelThread cancelThread_;    /*@D4A*/
+    private volatile boolean queryRunning_;    // Used to determine whether or not we need to track}
+                                        // a query cancel task.  @D4A
+    private AS400JDBCQueryCancelTask cancelTask_;    /*@D4A*/
 
 
     boolean disableRllCompression_ = false; //@L9A 
@@ -321,7 +321,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    //@G4C
             currentJDSQLStatement_ = sqlStatement; 
@@ -991,7 +991,11 @@ implements Statement
                     if (disableRllCompression_) {  //@L9A
                       connection_.setDisableCompression(true); 
                     }
+                    JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry(sqlStatement);
+                    long executeStart = (statistics != null) ? System.nanoTime() : 0;
                     commonExecuteReply = connection_.sendAndReceive(request, id_);    //@P0C
+                    if (statistics != null)
+                        statistics.executed(System.nanoTime() - executeStart, request, commonExecuteReply);
                     if (disableRllCompression_) {  //@L9A
                       connection_.setDisableCompression(false); 
                     }
@@ -1617,7 +1621,15 @@ implements Statement
                     }
 
                     if (execImmediateReply != null) { execImmediateReply.returnToPool(); execImmediateReply=null;}
+                    JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry(sqlStatement);
+                    long executeStart = (statistics != null) ? System.nanoTime() : 0;
                     execImmediateReply = connection_.sendAndReceive (request, id_);    //@P0C
+                    if (statistics != null)
+                    {
+                        // The prepare and the execute are one request.
+                        statistics.prepared(null, null);
+                        statistics.executed(System.nanoTime() - executeStart, request, execImmediateReply);
+                    }
 
                     int errorClass = execImmediateReply.getErrorClass();
                     int returnCode = execImmediateReply.getReturnCode();
@@ -1828,6 +1840,9 @@ implements Statement
 
                     if (normalPrepareReply != null) { normalPrepareReply.returnToPool(); normalPrepareReply=null; }
                     normalPrepareReply = connection_.sendAndReceive (request, id_);    //@P0C
+                    JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry(sqlStatement);
+                    if (statistics != null)
+                        statistics.prepared(request, normalPrepareReply);
 
                     int errorClass = normalPrepareReply.getErrorClass();
                     int returnCode = normalPrepareReply.getReturnCode();
@@ -2120,7 +2135,7 @@ implements Statement
       {
           internalLock.lock();
           checkOpen();
-          JDSQLStatement sqlStatement = new JDSQLStatement(sql,
+          JDSQLStatement sqlStatement = JDSQLStatement.getStatement(sql,
               settings_.getDecimalSeparator(), escapeProcessing_,
               packageCriteria_, connection_); // @A1A @G4C
           currentJDSQLStatement_ = sqlStatement;
@@ -2211,7 +2226,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                                   settings_.getDecimalSeparator (), escapeProcessing_,
                                                                   packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2235,7 +2250,7 @@ implements Statement
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql);
                     //Construct the new JDSQLStatement object
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
                     sqlStatement.setSelectFromInsert(true);
@@ -2303,7 +2318,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2327,7 +2342,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, columnIndexes, null);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -2398,7 +2413,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2422,7 +2437,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, null, columnNames);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
 
                     if(JDTrace.isTraceOn())
@@ -2581,7 +2596,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    // @A1A @G4C
             currentJDSQLStatement_ = sqlStatement; 
@@ -2647,7 +2662,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    // @A1A @G4A
             currentJDSQLStatement_ = sqlStatement; 
@@ -2736,7 +2751,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql,
                                                                   settings_.getDecimalSeparator (), escapeProcessing_,
                                                                   packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2760,7 +2775,7 @@ implements Statement
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql);
                     //Create a new JDSQLStatement
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
                     currentJDSQLStatement_ = sqlStatement; 
@@ -2839,7 +2854,7 @@ implements Statement
                 checkOpen ();
 
                 //create the sql statement object.
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
 
                 if(JDTrace.isTraceOn())
@@ -2862,7 +2877,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, columnIndexes, null);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -2947,7 +2962,7 @@ implements Statement
                 checkOpen ();
 
                 //create the sql statement object.
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                JDSQLStatement sqlStatement = JDSQLStatement.getStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
 
                 if(JDTrace.isTraceOn())
@@ -2970,7 +2985,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, null, columnNames);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatement.getStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -4649,16 +4664,10 @@ implements Statement
 
                     queryRunning_ = true;
 
-                    // Create a thread to do the cancel if needed.  Start the thread.
-                    cancelThread_ = new AS400JDBCQueryCancelThread(this);
-
-                    // Uncommented this @A7A ..
-                    // this is needed to prevent job from hanging if the extra threads
-                    // we started don't end.
-                    //
-                    cancelThread_.setDaemon(true);
-
-                    cancelThread_.start();
+                    // Schedule a task to do the cancel if needed.  The task runs on the
+                    // shared scheduler, so no thread is started for each query.
+                    cancelTask_ = new AS400JDBCQueryCancelTask(this);
+                    cancelTask_.start();
             }
         }
 
@@ -4676,11 +4685,11 @@ implements Statement
                     // Set the flag saying the query is no longer running.
                     queryRunning_ = false;
 
-                    // Detach the thread from the statement.
-                    cancelThread_.statement_ = null;
-
-                    // Interrupt the thread so that it wakes up and dies.
-                    cancelThread_.interrupt();
+                    // Detach the task from the statement and cancel its timeout.
+                    if (cancelTask_ != null) {
+                      cancelTask_.end();
+                      cancelTask_ = null;
+                    }
             }
         }
 
@@ -4898,6 +4907,57 @@ implements Statement
   }
 
 
+
+  // Closes the result sets of a statement that is being kept in the statement cache of the
+  // connection, resets the attributes the application may have changed, and marks the statement
+  // closed without deleting its RPB and ORS.  Returns false, without changing the statement,
+  // if the statement cannot be reused.  The caller must hold the internal lock.
+  boolean closeForReuse()
+  throws SQLException
+  {
+      if (closed_ || queryTimeoutSet_ || (maxFieldSize_ != 0) || (numberOfResults_ > 1)
+          || isAssociatedWithLocators() || !cursor_.getName().equals(cursorDefaultName_))
+          return false;
+
+      closeResultSet (JDCursor.REUSE_YES);
+
+      if (generatedKeys_ != null)
+      {
+          generatedKeys_.close();
+          generatedKeys_ = null;
+      }
+
+      escapeProcessing_ = true;
+      fetchDirection_ = ResultSet.FETCH_FORWARD;
+      fetchSize_ = 0;
+      maxRows_ = 0;
+      longMaxRows_ = 0;
+      closeOnCompletion_ = false;
+      sqlWarning_ = null;
+      closed_ = true;
+      return true;
+  }
+
+
+
+  // Reopens a statement that was kept in the statement cache of the connection.
+  void reopenFromCache()
+  {
+      closed_ = false;
+      if (JDTrace.isTraceOn())
+          JDTrace.logInformation (this, "Reusing cached statement [" + currentJDSQLStatement_ + "]");
+  }
+
+
+
+  // Clears the closed flag of a statement taken out of the statement cache,
+  // so that close() deletes its RPB and ORS.
+  void clearClosedForReuse()
+  {
+      closed_ = false;
+  }
+
+
   JDCursor getCursor() {
     return cursor_; 
   }
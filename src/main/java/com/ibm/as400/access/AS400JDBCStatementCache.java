@@ -0,0 +1,268 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400JDBCStatementCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+The AS400JDBCStatementCache class is a cache of prepared statements
+that belongs to one connection.  It is used when the "statement cache size"
+connection property is greater than 0.
+
+<p>When a prepared statement created by prepareStatement() is closed, it is
+kept in the cache instead of being deleted on the system.  A later call
+to prepareStatement() with the same SQL text, result set type, result set
+concurrency, and result set holdability returns the cached statement
+without preparing and describing the statement again.  The statement
+keeps its parameter and column descriptions, but its parameters, batch,
+warnings, and attributes such as the maximum rows and fetch size are reset
+when it is closed.
+
+<p>Statements that set a query timeout, a maximum field size, or a cursor
+name, statements that return more than one result set, and statements
+kept open for locators are not cached.  When the cache is full, the least
+recently used statement is deleted on the system.
+
+<p>Statements are prepared once, so a statement that uses unqualified
+names keeps the names resolved when it was first prepared.  The cache is
+cleared when the connection's schema is changed by setSchema(),
+but not when it is changed by running an SQL statement.
+
+<p>To get the cache of a connection, cast the connection to
+AS400JDBCConnectionImpl, AS400JDBCConnectionHandle, or
+AS400JDBCConnectionRedirect and call getStatementCache():
+<blockquote><pre>
+AS400JDBCStatementCache cache = ((AS400JDBCConnectionImpl)connection).getStatementCache();
+</pre></blockquote>
+**/
+public final class AS400JDBCStatementCache
+{
+    static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+    private final int maximumSize_;
+    // Idle statements in least recently used order.
+    private final LinkedHashMap<String, AS400JDBCPreparedStatementImpl> statements_;
+    private boolean closed_;
+
+    private long hits_;
+    private long misses_;
+    private long evictions_;
+
+
+
+    AS400JDBCStatementCache (int maximumSize)
+    {
+        maximumSize_ = maximumSize;
+        statements_ = new LinkedHashMap<String, AS400JDBCPreparedStatementImpl>(16, 0.75f, true);
+    }
+
+
+
+    // Returns the key of a statement.  The result set attributes come first,
+    // so that they cannot be confused with the end of the SQL text.
+    static String getKey (String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+    {
+        StringBuilder buffer = new StringBuilder(sql.length() + 16);
+        buffer.append(resultSetType).append(',').append(resultSetConcurrency).append(',');
+        buffer.append(resultSetHoldability).append(':').append(sql);
+        return buffer.toString();
+    }
+
+
+
+    // Removes and returns the idle statement for a key, or null if there is none.
+    synchronized AS400JDBCPreparedStatementImpl get (String key)
+    {
+        AS400JDBCPreparedStatementImpl statement = statements_.remove(key);
+        if (statement == null)
+            ++misses_;
+        else
+            ++hits_;
+        return statement;
+    }
+
+
+
+    // Adds an idle statement.  Returns the statement that the caller must delete on the system:
+    // the statement itself if the cache is closed or already has a statement for the key,
+    // the least recently used statement if the cache was full, or null.
+    synchronized AS400JDBCPreparedStatementImpl put (String key, AS400JDBCPreparedStatementImpl statement)
+    {
+        if (closed_ || statements_.containsKey(key))
+            return statement;
+        statements_.put(key, statement);
+        if (statements_.size() <= maximumSize_)
+            return null;
+        Iterator<AS400JDBCPreparedStatementImpl> iterator = statements_.values().iterator();
+        AS400JDBCPreparedStatementImpl eldest = iterator.next();
+        iterator.remove();
+        ++evictions_;
+        return eldest;
+    }
+
+
+
+    // Deletes the least recently used statement on the system, so that its id can be used
+    // by a new statement.  Returns false if the cache is empty.
+    boolean closeEldest ()
+    throws SQLException
+    {
+        AS400JDBCPreparedStatementImpl eldest;
+        synchronized (this)
+        {
+            if (statements_.isEmpty())
+                return false;
+            Iterator<AS400JDBCPreparedStatementImpl> iterator = statements_.values().iterator();
+            eldest = iterator.next();
+            iterator.remove();
+            ++evictions_;
+        }
+        eldest.closeUncached();
+        return true;
+    }
+
+
+
+    // Stops caching statements when the connection is closed.  The idle statements are
+    // not deleted on the system, since ending the connection releases them.
+    synchronized void close ()
+    {
+        closed_ = true;
+        statements_.clear();
+    }
+
+
+
+    /**
+    Deletes all of the idle statements on the system and removes them from the cache.
+
+    @exception  SQLException    If an error occurs deleting a statement.  All of the
+                                statements are removed even if an error occurs.
+    **/
+    public void clear ()
+    throws SQLException
+    {
+        ArrayList<AS400JDBCPreparedStatementImpl> statements;
+        synchronized (this)
+        {
+            statements = new ArrayList<AS400JDBCPreparedStatementImpl>(statements_.values());
+            statements_.clear();
+        }
+
+        SQLException first = null;
+        for (int i = 0; i < statements.size(); ++i)
+        {
+            try
+            {
+                statements.get(i).closeUncached();
+            }
+            catch (SQLException e)
+            {
+                if (first == null) first = e;
+            }
+        }
+        if (first != null)
+            throw first;
+    }
+
+
+
+    /**
+    Returns the maximum number of idle statements kept in the cache.
+
+    @return     The maximum size.
+    **/
+    public int getMaximumSize ()
+    {
+        return maximumSize_;
+    }
+
+
+
+    /**
+    Returns the number of idle statements in the cache.
+
+    @return     The number of idle statements.
+    **/
+    public synchronized int size ()
+    {
+        return statements_.size();
+    }
+
+
+
+    /**
+    Returns the number of prepareStatement() calls that were answered from the cache.
+
+    @return     The number of hits.
+    **/
+    public synchronized long getHitCount ()
+    {
+        return hits_;
+    }
+
+
+
+    /**
+    Returns the number of prepareStatement() calls that prepared a new statement
+    because no idle statement was cached for the SQL text and attributes.
+
+    @return     The number of misses.
+    **/
+    public synchronized long getMissCount ()
+    {
+        return misses_;
+    }
+
+
+
+    /**
+    Returns the number of idle statements that were deleted on the system
+    because the cache was full or a statement id was needed.
+
+    @return     The number of evictions.
+    **/
+    public synchronized long getEvictionCount ()
+    {
+        return evictions_;
+    }
+
+
+
+    /**
+    Resets the hit, miss, and eviction counts to zero.
+    **/
+    public synchronized void resetCounters ()
+    {
+        hits_ = 0;
+        misses_ = 0;
+        evictions_ = 0;
+    }
+
+
+
+    /**
+    Returns a string with the size and counts of the cache.
+
+    @return     The string.
+    **/
+    public synchronized String toString ()
+    {
+        return "size=" + statements_.size() + ", maximumSize=" + maximumSize_ + ", hits=" + hits_
+            + ", misses=" + misses_ + ", evictions=" + evictions_;
+    }
+}
@@ -0,0 +1,84 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  AS400JDBCStatementStatisticsMXBean.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+ * Represents the execution statistics that the JDBC driver collects for each SQL statement.
+ * The statistics are collected by the SQL text with its literals replaced by <code>?</code>,
+ * so the executions of a statement with different literal values are counted together.
+ * <p>Statistics are collected for at most {@link #getMaximumStatementCount getMaximumStatementCount()}
+ * statements.  The maximum is set by the
+ * {@link SystemProperties#JDBC_STATEMENT_STATISTICS com.ibm.as400.access.JDBC.statementStatistics}
+ * system property, and is 0 by default, which does not collect statistics.
+ * <p>To get the statistics, call
+ * {@link AS400JDBCDriver#getStatementStatistics AS400JDBCDriver.getStatementStatistics()}.
+ * The statistics can be registered as a JMX MXBean:
+ * <pre>
+ *  ManagementFactory.getPlatformMBeanServer().registerMBean(AS400JDBCDriver.getStatementStatistics(),
+ *      new ObjectName("com.ibm.as400.access:type=AS400JDBCStatementStatistics"));
+ * </pre>
+**/
+public interface AS400JDBCStatementStatisticsMXBean
+{
+  /**
+   * Returns the maximum number of statements for which statistics are collected.
+   * @return The maximum number of statements.  0 means that statistics are not collected.
+  **/
+  public int getMaximumStatementCount();
+
+  /**
+   * Sets the maximum number of statements for which statistics are collected.
+   * Lowering the maximum does not remove the statistics already collected.
+   * @param count The maximum number of statements.  0 stops collecting statistics.
+  **/
+  public void setMaximumStatementCount(int count);
+
+  /**
+   * Returns the number of statements for which statistics are collected.
+   * @return The number of statements.
+  **/
+  public int getStatementCount();
+
+  /**
+   * Returns the number of prepares, executions and fetches that were not counted
+   * because statistics were already collected for the maximum number of statements.
+   * @return The number of operations.
+  **/
+  public long getDroppedCount();
+
+  /**
+   * Returns the statistics of the statements, by descending total execution time.
+   * @return The statistics.
+  **/
+  public AS400JDBCSQLStatistics[] getStatistics();
+
+  /**
+   * Returns the upper limits of the elements of the execution time histograms, in milliseconds.
+   * @return The limits.
+   * @see AS400JDBCSQLStatistics#getExecutionTimeHistogram
+  **/
+  public long[] getExecutionTimeHistogramLimits();
+
+  /**
+   * Returns the statistics of the statements as text, one line for each statement,
+   * by descending total execution time.
+   * @return The text.
+  **/
+  public String dump();
+
+  /**
+   * Removes the statistics of all statements.
+  **/
+  public void reset();
+}
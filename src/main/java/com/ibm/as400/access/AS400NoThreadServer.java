@@ -241,6 +241,7 @@ class AS400NoThreadServer extends AS400Server
                         ds = ClientAccessDataStream.construct(inStream_, instanceReplyStreams_, replyStreams_, system_, connectionID_);
                     else
                         ds = DDMDataStream.construct(inStream_, replyStreams_, system_, connectionID_);
+                    lastReplyTime_ = System.currentTimeMillis();
     
                     if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "run(): reply received..." + ds.toString());
     
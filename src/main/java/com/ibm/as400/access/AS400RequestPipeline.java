@@ -0,0 +1,101 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400RequestPipeline.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+// Keeps a bounded number of requests outstanding on one host server connection.
+// Each call to submit() sends its request with AS400Server.sendAsync() and returns immediately, unless the window is
+// full, in which case it waits until an earlier reply arrives.  Over high latency links this lets a caller overlap the
+// round trips of independent requests instead of paying one full round trip per request.
+// Only requests that are answered by a single reply may be submitted.
+class AS400RequestPipeline
+{
+    private final AS400Server server_;
+    private final int maxInFlight_;
+    private final Semaphore window_;
+
+    // Returns a permit to the window when a reply arrives or the request fails.
+    private final BiConsumer<DataStream, Throwable> release_ = new BiConsumer<DataStream, Throwable>()
+    {
+        @Override
+        public void accept(DataStream reply, Throwable failure)
+        {
+            window_.release();
+        }
+    };
+
+    // Constructs an AS400RequestPipeline object.
+    // @param  server  The connection on which to send requests.
+    // @param  maxInFlight  The maximum number of requests that may be waiting for a reply.
+    AS400RequestPipeline(AS400Server server, int maxInFlight)
+    {
+        if (server == null) throw new NullPointerException("server");
+        if (maxInFlight < 1) throw new ExtendedIllegalArgumentException("maxInFlight", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        server_ = server;
+        maxInFlight_ = maxInFlight;
+        window_ = new Semaphore(maxInFlight);
+    }
+
+    // Sends a request, waiting first if the maximum number of requests are already outstanding.
+    // @param  requestStream  The request data stream.
+    // @return  A future that is completed with the reply.
+    // @exception  IOException  If the request cannot be sent.
+    // @exception  InterruptedException  If the thread is interrupted while waiting for room in the window.
+    CompletableFuture<DataStream> submit(DataStream requestStream) throws IOException, InterruptedException
+    {
+        window_.acquire();
+        CompletableFuture<DataStream> future;
+        try
+        {
+            future = server_.sendAsync(requestStream);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            window_.release();
+            throw e;
+        }
+        future.whenComplete(release_);
+        return future;
+    }
+
+    // Waits until every submitted request has received its reply or failed.
+    // @exception  InterruptedException  If the thread is interrupted while waiting.
+    void drain() throws InterruptedException
+    {
+        window_.acquire(maxInFlight_);
+        window_.release(maxInFlight_);
+    }
+
+    // Returns the number of requests that are waiting for a reply.
+    int getInFlight()
+    {
+        return maxInFlight_ - window_.availablePermits();
+    }
+
+    // Returns the maximum number of requests that may be waiting for a reply.
+    int getMaxInFlight()
+    {
+        return maxInFlight_;
+    }
+
+    // Returns the connection used by this pipeline.
+    AS400Server getServer()
+    {
+        return server_;
+    }
+}
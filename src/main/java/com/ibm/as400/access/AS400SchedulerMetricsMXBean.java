@@ -0,0 +1,62 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  AS400SchedulerMetricsMXBean.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+ * Represents the metrics of the shared scheduler that runs the query timeouts,
+ * the isValid timeouts and the connection pool maintenance of the driver on one
+ * background thread.  A thread is only created when a query timeout expires
+ * and the query must be cancelled.
+ * <p>To get the metrics, call
+ * {@link AS400JDBCDriver#getSchedulerMetrics AS400JDBCDriver.getSchedulerMetrics()}.
+ * The metrics can be registered as a JMX MXBean.
+**/
+public interface AS400SchedulerMetricsMXBean
+{
+  /**
+   * Returns the number of timeouts scheduled.
+   * @return The number of timeouts.
+  **/
+  public long getTimeoutsScheduled();
+
+  /**
+   * Returns the number of timeouts cancelled because the operation completed in time.
+   * @return The number of timeouts.
+  **/
+  public long getTimeoutsCancelled();
+
+  /**
+   * Returns the number of timeouts that expired.
+   * @return The number of timeouts.
+  **/
+  public long getTimeoutsExpired();
+
+  /**
+   * Returns the number of tasks waiting to run.
+   * @return The number of tasks.
+  **/
+  public int getPendingTaskCount();
+
+  /**
+   * Returns the number of threads started to handle expired timeouts.
+   * @return The number of threads.
+  **/
+  public long getThreadsStarted();
+
+  /**
+   * Returns the average time spent scheduling and cancelling a timeout, in microseconds.
+   * @return The average scheduling time.
+  **/
+  public double getAverageSchedulingTime();
+}
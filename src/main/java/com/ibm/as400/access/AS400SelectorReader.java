@@ -0,0 +1,357 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: AS400SelectorReader.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shared reply reader for AS400ThreadedServer connections.
+// When the com.ibm.as400.access.AS400.selectorThreads system property is set, host server connections are
+// registered with a fixed number of selector threads instead of each starting its own read daemon.  A selector
+// thread reads whatever bytes are available, frames complete client access data streams using the length in the
+// header, and hands each reply to the owning server, which stores it in its ReplyList exactly as the read daemon does.
+final class AS400SelectorReader implements Runnable
+{
+    private static final int HEADER_LENGTH = 20;
+    // Initial per-connection receive buffer.  Larger replies grow the buffer, and it shrinks back once drained.
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 65536;
+    // Longest reply accepted.  A longer length in a header is taken as a corrupt data stream, and only fails its
+    // connection, instead of making the shared selector thread allocate a buffer for it.
+    private static final int MAX_REPLY_LENGTH = 256 * 1024 * 1024;
+    // How often the selector wakes up to check socket timeouts, in milliseconds.
+    private static final long TIMEOUT_CHECK_INTERVAL = 1000;
+
+    private static final int selectorThreads_ = getSelectorThreadsProperty();
+    private static AS400SelectorReader[] readers_ = null;
+    private static final Object readersLock_ = new Object();
+    // Completes the sendAsync futures of the connections, created when first used.
+    private static ThreadPoolExecutor completionExecutor_ = null;
+
+    private final Selector selector_;
+    private final Thread thread_;
+    private final AtomicInteger connectionCount_ = new AtomicInteger(0);
+    // Registrations waiting to be added to or removed from the selector by the selector thread.
+    private final ArrayList<Registration> pendingAdds_ = new ArrayList<Registration>();
+    private final ArrayList<Registration> pendingCancels_ = new ArrayList<Registration>();
+
+    // A host server connection served by a selector thread.
+    static final class Registration
+    {
+        private final AS400ThreadedServer server_;
+        private final SocketContainer socket_;
+        private final AS400SelectorReader reader_;
+        private SelectionKey key_;
+        private ByteBuffer buffer_ = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private long lastReadTime_ = System.currentTimeMillis();
+        private volatile boolean cancelled_ = false;
+
+        private Registration(AS400ThreadedServer server, SocketContainer socket, AS400SelectorReader reader)
+        {
+            server_ = server;
+            socket_ = socket;
+            reader_ = reader;
+        }
+
+        // Stop reading for this connection.  Called when the server is disconnected.
+        void cancel()
+        {
+            if (cancelled_) return;
+            cancelled_ = true;
+            reader_.connectionCount_.decrementAndGet();
+            synchronized (reader_.pendingCancels_)
+            {
+                reader_.pendingCancels_.add(this);
+            }
+            reader_.selector_.wakeup();
+        }
+
+        // Read every byte currently available and deliver each complete reply.  Runs on the selector thread.
+        private void readAvailable()
+        {
+            try
+            {
+                while (!cancelled_)
+                {
+                    if (!buffer_.hasRemaining()) grow(buffer_.capacity() * 2);
+                    int count = socket_.read(buffer_);
+                    if (count < 0)
+                    {
+                        if (Trace.traceOn_) Trace.log(Trace.ERROR, "Failed to read all of the data stream header.");
+                        throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+                    }
+                    if (count == 0) break;
+                    lastReadTime_ = System.currentTimeMillis();
+                    deliverReplies();
+                }
+            }
+            catch (IOException e)
+            {
+                fail();
+                server_.readFailed(e);
+            }
+            catch (RuntimeException e)
+            {
+                fail();
+                server_.readFailed(e);
+            }
+        }
+
+        private void deliverReplies() throws IOException
+        {
+            while (buffer_.position() >= HEADER_LENGTH)
+            {
+                // A length below the header size is left to ClientAccessDataStream.construct to report.
+                int length = Math.max(buffer_.getInt(0), HEADER_LENGTH);
+                if (length > MAX_REPLY_LENGTH)
+                {
+                    Trace.log(Trace.ERROR, "Reply data stream length is not valid:", length);
+                    throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+                }
+                if (buffer_.position() < length)
+                {
+                    if (buffer_.capacity() < length) grow(length);
+                    return;
+                }
+                byte[] data = buffer_.array();
+                DataStream reply = server_.constructReply(new ByteArrayInputStream(data, 0, length));
+                int remaining = buffer_.position() - length;
+                System.arraycopy(data, length, data, 0, remaining);
+                buffer_.position(remaining);
+                server_.replyReceived(reply);
+            }
+            if (buffer_.position() == 0 && buffer_.capacity() > MAX_RETAINED_BUFFER_SIZE)
+            {
+                buffer_ = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            }
+        }
+
+        private void grow(int capacity)
+        {
+            ByteBuffer larger = ByteBuffer.allocate(capacity);
+            buffer_.flip();
+            larger.put(buffer_);
+            buffer_ = larger;
+        }
+
+        // Deregister after a read failure.  Runs on the selector thread.
+        private void fail()
+        {
+            if (key_ != null) key_.cancel();
+            if (!cancelled_)
+            {
+                cancelled_ = true;
+                reader_.connectionCount_.decrementAndGet();
+            }
+        }
+    }
+
+    private AS400SelectorReader(int index) throws IOException
+    {
+        selector_ = Selector.open();
+        thread_ = AS400ThreadedServer.newThread(this, "AS400 Selector Reader [" + index + "]", false);
+        thread_.start();
+    }
+
+    // Indicates if host server replies are read by shared selector threads.
+    static boolean isEnabled()
+    {
+        return selectorThreads_ > 0;
+    }
+
+    // Register a connection with the least loaded selector thread.
+    // The socket is switched to non-blocking mode before this method returns, so the caller must obtain its output stream afterward.
+    // @param  server  The server that receives the replies.
+    // @param  socket  The socket of the server; its getSelectableChannel() must not return null.
+    // @return  The registration, used to cancel reading when the server is disconnected.
+    static Registration register(AS400ThreadedServer server, SocketContainer socket) throws IOException
+    {
+        AS400SelectorReader reader = getReader();
+        socket.configureNonBlocking();
+        Registration registration = new Registration(server, socket, reader);
+        reader.connectionCount_.incrementAndGet();
+        synchronized (reader.pendingAdds_)
+        {
+            reader.pendingAdds_.add(registration);
+        }
+        reader.selector_.wakeup();
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "AS400SelectorReader: registered job " + server.getJobString() + " with " + reader.thread_.getName());
+        return registration;
+    }
+
+    // Returns the executor that completes the sendAsync futures of connections served by selector threads.
+    // A selector thread reads for many connections, so a dependent action of a future must not run on it, where a
+    // slow or blocking action would stall the reads of every other connection.  Idle threads end after a minute.
+    static Executor getCompletionExecutor()
+    {
+        synchronized (readersLock_)
+        {
+            if (completionExecutor_ == null)
+            {
+                completionExecutor_ = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory()
+                {
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        return AS400ThreadedServer.newThread(runnable, "AS400 Selector Completion", false);
+                    }
+                });
+            }
+            return completionExecutor_;
+        }
+    }
+
+    private static AS400SelectorReader getReader() throws IOException
+    {
+        synchronized (readersLock_)
+        {
+            if (readers_ == null) readers_ = new AS400SelectorReader[selectorThreads_];
+            AS400SelectorReader best = null;
+            for (int i = 0; i < readers_.length; ++i)
+            {
+                if (readers_[i] == null) readers_[i] = new AS400SelectorReader(i);
+                if (best == null || readers_[i].connectionCount_.get() < best.connectionCount_.get()) best = readers_[i];
+            }
+            return best;
+        }
+    }
+
+    private static int getSelectorThreadsProperty()
+    {
+        String value = SystemProperties.getProperty(SystemProperties.AS400_SELECTOR_THREADS);
+        if (value == null) return 0;
+        try
+        {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        }
+        catch (NumberFormatException e)
+        {
+            Trace.log(Trace.WARNING, "Error retrieving selectorThreads property value:", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        while (true)
+        {
+            try
+            {
+                selector_.select(TIMEOUT_CHECK_INTERVAL);
+                processPending();
+
+                Iterator<SelectionKey> keys = selector_.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isReadable()) ((Registration)key.attachment()).readAvailable();
+                }
+
+                checkTimeouts();
+            }
+            catch (IOException e)
+            {
+                Trace.log(Trace.ERROR, "AS400SelectorReader: select failed:", e);
+            }
+            catch (RuntimeException e)
+            {
+                Trace.log(Trace.ERROR, "AS400SelectorReader: unexpected exception:", e);
+            }
+        }
+    }
+
+    private void processPending()
+    {
+        Registration[] cancels;
+        synchronized (pendingCancels_)
+        {
+            cancels = pendingCancels_.toArray(new Registration[pendingCancels_.size()]);
+            pendingCancels_.clear();
+        }
+        for (int i = 0; i < cancels.length; ++i)
+        {
+            Registration registration = cancels[i];
+            if (registration.key_ != null) registration.key_.cancel();
+        }
+
+        Registration[] adds;
+        synchronized (pendingAdds_)
+        {
+            adds = pendingAdds_.toArray(new Registration[pendingAdds_.size()]);
+            pendingAdds_.clear();
+        }
+        for (int i = 0; i < adds.length; ++i)
+        {
+            Registration registration = adds[i];
+            if (registration.cancelled_) continue;
+            try
+            {
+                registration.key_ = registration.socket_.getSelectableChannel().register(selector_, SelectionKey.OP_READ, registration);
+            }
+            catch (ClosedChannelException e)
+            {
+                registration.fail();
+                registration.server_.readFailed(e);
+                continue;
+            }
+            // Secure connections may already hold decrypted bytes that will not make the channel readable again.
+            registration.readAvailable();
+        }
+    }
+
+    // Emulate the socket timeout of a blocking read daemon: a connection that has received nothing for longer than
+    // its SO_TIMEOUT fails with a SocketTimeoutException.
+    private void checkTimeouts()
+    {
+        long now = System.currentTimeMillis();
+        Iterator<SelectionKey> keys = selector_.keys().iterator();
+        while (keys.hasNext())
+        {
+            SelectionKey key = keys.next();
+            if (!key.isValid()) continue;
+            Registration registration = (Registration)key.attachment();
+            int timeout;
+            try
+            {
+                timeout = registration.socket_.getSoTimeout();
+            }
+            catch (SocketException e)
+            {
+                continue;
+            }
+            if (timeout > 0 && now - registration.lastReadTime_ > timeout)
+            {
+                registration.fail();
+                registration.server_.readFailed(new SocketTimeoutException("Read timed out"));
+            }
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketException;
 import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /** Abstract class representing an IBM i server job.
@@ -34,6 +35,7 @@ public abstract class AS400Server
     protected String            jobString_;
     protected int               service_;
     protected AtomicInteger     referenceCount_ = new AtomicInteger(1);
+    protected volatile long     lastReplyTime_;   // when the last reply was read, from System.currentTimeMillis()
 
 
     final int getConnectionID() {
@@ -50,6 +52,11 @@ public abstract class AS400Server
     final int getService() { 
         return service_; 
     }
+
+    // Returns when the last reply was read from the server job, or 0 if no reply has been read.
+    final long getLastReplyTime() {
+        return lastReplyTime_;
+    }
     
     final String getLocalAddress() {
         return socket_.getLocalAddress();
@@ -69,6 +76,31 @@ public abstract class AS400Server
     abstract void send(DataStream requestStream, int correlationId) throws IOException;
     abstract DataStream receive(int correlationId) throws IOException, InterruptedException;
     abstract void forceDisconnect();
+
+    // Sends a request and returns a future that is completed with its reply.
+    // The caller does not wait for the round trip, so several requests may be outstanding on the connection at once;
+    // use AS400RequestPipeline to bound how many.  Servers with a read daemon complete the future from that thread, so
+    // dependent actions should not block; servers read by a shared selector thread complete it on a separate completion
+    // thread; servers that do not use threads complete the future before this method returns.
+    // If the server sends a chain of replies with the same correlation ID, the future is completed with the first reply
+    // and the rest of the chain is left for receive(int); callers that expect a chain must use send and receive instead.
+    // @param  requestStream  The request data stream.
+    // @return  A future that is completed with the reply, or completed exceptionally if the connection fails.
+    // @exception  IOException  If the request cannot be sent.
+    CompletableFuture<DataStream> sendAsync(DataStream requestStream) throws IOException
+    {
+        CompletableFuture<DataStream> future = new CompletableFuture<DataStream>();
+        try
+        {
+            future.complete(sendAndReceive(requestStream));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
     
     int getSoTimeout() throws SocketException {
         return socket_.getSoTimeout(); 
@@ -14,9 +14,14 @@
 package com.ibm.as400.access;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.SocketException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
 
 final class AS400ThreadedServer extends AS400Server implements Runnable
 {
@@ -34,6 +39,8 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
     private Hashtable instanceReplyStreams_ = new Hashtable();
 
     private Thread readDaemon_ = null;
+    // Set instead of readDaemon_ when replies are read by a shared AS400SelectorReader thread.
+    private AS400SelectorReader.Registration selectorRegistration_ = null;
     private IOException readDaemonException_ = null;
     private RuntimeException unlikelyException_ = null;
 
@@ -130,6 +137,11 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
 
     private final DiscardList discardList_ = new DiscardList();
 
+    // Futures from sendAsync, keyed by correlation ID.  A reply whose correlation ID is found here completes the future
+    // instead of being added to the reply list.
+    private final HashMap<Integer, CompletableFuture<DataStream>> pendingFutures_ = new HashMap<Integer, CompletableFuture<DataStream>>();
+    private volatile int pendingFutureCount_ = 0;
+
     private static final class DiscardList
     {
         int[] ids_ = new int[8];
@@ -254,8 +266,17 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
         if (jobString != null && jobString.length() != 0) jobID = jobString;
         else jobID = AS400.getServerName(service) + "/" + (++threadCount_);
 
-        readDaemon_ = newThread(this, "AS400 Read Daemon [system:"+system.getSystemName() + ";job:" + jobID + "]", virtual);
-        readDaemon_.start();
+        if (AS400SelectorReader.isEnabled() && service != AS400.RECORDACCESS && socket.getSelectableChannel() != null)
+        {
+            selectorRegistration_ = AS400SelectorReader.register(this, socket);
+            // The channel is now non-blocking, so requests must be written through the channel output stream.
+            outStream_ = socket_.getOutputStream();
+        }
+        else
+        {
+            readDaemon_ = newThread(this, "AS400 Read Daemon [system:"+system.getSystemName() + ";job:" + jobID + "]", virtual);
+            readDaemon_.start();
+        }
     }
 
     // Print is the only service that uses this method.
@@ -279,6 +300,7 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
         
         if (readDaemonException_ == null)
             readDaemonException_ = new ConnectionDroppedException(ConnectionDroppedException.DISCONNECT_RECEIVED);
+        failPendingFutures(readDaemonException_);
 
         if (service_ == AS400.DATABASE || service_ == AS400.COMMAND 
                 || service_ == AS400.CENTRAL|| service_ == AS400.SIGNON || service_ == AS400.HOSTCNN)
@@ -293,6 +315,25 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
             }
         }
         
+        if (selectorRegistration_ != null)
+        {
+            selectorRegistration_.cancel();
+            try {
+                socket_.close();
+            }
+            catch (IOException e) {
+                Trace.log(Trace.ERROR, "Socket close failed:", e);
+            }
+
+            // The selector no longer reads this connection, so it never calls readFailed().
+            // Wake up the threads waiting in receive(), which then throw readDaemonException_.
+            synchronized (receiveLock_)
+            {
+                receiveLock_.notifyAll();
+            }
+            return;
+        }
+
         Trace.log(Trace.INFORMATION , "forceDisconnect calling readDaemon_.interrupt"); 
         readDaemon_.interrupt();
 
@@ -384,62 +425,18 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
             {
                 if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Waiting for reply...");
 
-                DataStream reply = null;
-
-                // If client access server, construct ClientAccessDataStream.
-                if (service_ != AS400.RECORDACCESS)
-                    reply = ClientAccessDataStream.construct(inStream_, instanceReplyStreams_, replyStreams_, system_, connectionID_);
-                else  // Construct a DDMDataStream.
-                    reply = ClassDecoupler.constructDDMDataStream(inStream_, replyStreams_, system_, connectionID_);
+                // Note: the thread is blocked on this call if the inputStream has nothing to receive.
+                DataStream reply = constructReply(inStream_);
 
-                // Note: the thread is blocked on the above call if the inputStream has nothing to receive.
-
-                int correlation = reply.getCorrelation();
-
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Adding reply:", correlation);
-                replyList_.add(reply);
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads.");
-                synchronized (receiveLock_)
-                {
-                    receiveLock_.notifyAll();  // Notify all waiting threads.
-                }
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified.");
+                replyReceived(reply);
             }
             catch (IOException e)
             {
-                if (Trace.traceOn_)
-                {
-                    if (disconnecting_ && e instanceof SocketException) {
-                        // It's an expected consequence of a client-initiated disconnect.
-                        Trace.log(Trace.DIAGNOSTIC, "run(): Caught SocketException during disconnect:", e);
-                    } else
-                        Trace.log(Trace.ERROR, "run(): Caught IOException:", e);
-                }
-
-                // At this point, all waiting threads must be notified that the connection has ended...
-                if (readDaemonException_ == null)
-                    readDaemonException_ = e;
-
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after IOException.");
-                synchronized (receiveLock_)
-                {
-                    receiveLock_.notifyAll();  // Notify all waiting threads.
-                }
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after IOException.");
+                readFailed(e);
             }
             catch (RuntimeException e)
             {
-                if (Trace.traceOn_) Trace.log(Trace.ERROR, "run(): Caught RuntimeException:", e);
-                
-                if (unlikelyException_ == null)
-                    unlikelyException_ = e;
-
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after RuntimeException.");
-                synchronized (receiveLock_)
-                {
-                    receiveLock_.notifyAll();
-                }
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after RuntimeException.");
+                readFailed(e);
             }
             //@socket2 removed finally close because we were doing double closes. 
             //@socket2finally
@@ -457,6 +454,169 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
         }
     }
 
+    // Construct the next reply from the input stream.  Called by the read daemon, and by AS400SelectorReader with a stream over one complete reply.
+    final DataStream constructReply(InputStream in) throws IOException
+    {
+        // If client access server, construct ClientAccessDataStream.
+        if (service_ != AS400.RECORDACCESS)
+            return ClientAccessDataStream.construct(in, instanceReplyStreams_, replyStreams_, system_, connectionID_);
+        else  // Construct a DDMDataStream.
+            return ClassDecoupler.constructDDMDataStream(in, replyStreams_, system_, connectionID_);
+    }
+
+    // Make a received reply available to receive() and wake up the waiting threads.
+    final void replyReceived(DataStream reply)
+    {
+        lastReplyTime_ = System.currentTimeMillis();
+        int correlation = reply.getCorrelation();
+
+        if (pendingFutureCount_ != 0)
+        {
+            CompletableFuture<DataStream> future;
+            synchronized (pendingFutures_)
+            {
+                future = pendingFutures_.remove(Integer.valueOf(correlation));
+                pendingFutureCount_ = pendingFutures_.size();
+            }
+            if (future != null)
+            {
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Completing future for reply:", correlation);
+                completeFuture(future, reply, null);
+                return;
+            }
+        }
+
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Adding reply:", correlation);
+        replyList_.add(reply);
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads.");
+        synchronized (receiveLock_)
+        {
+            receiveLock_.notifyAll();  // Notify all waiting threads.
+        }
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified.");
+    }
+
+    // Record that reading from the connection failed and wake up the waiting threads.
+    final void readFailed(IOException e)
+    {
+        if (Trace.traceOn_)
+        {
+            if (disconnecting_ && (e instanceof SocketException || e instanceof ClosedChannelException)) {
+                // It's an expected consequence of a client-initiated disconnect.
+                Trace.log(Trace.DIAGNOSTIC, "run(): Caught SocketException during disconnect:", e);
+            } else
+                Trace.log(Trace.ERROR, "run(): Caught IOException:", e);
+        }
+
+        // At this point, all waiting threads must be notified that the connection has ended...
+        if (readDaemonException_ == null)
+            readDaemonException_ = e;
+        failPendingFutures(readDaemonException_);
+
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after IOException.");
+        synchronized (receiveLock_)
+        {
+            receiveLock_.notifyAll();  // Notify all waiting threads.
+        }
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after IOException.");
+    }
+
+    // Record an unexpected failure while constructing a reply and wake up the waiting threads.
+    final void readFailed(RuntimeException e)
+    {
+        if (Trace.traceOn_) Trace.log(Trace.ERROR, "run(): Caught RuntimeException:", e);
+        
+        if (unlikelyException_ == null)
+            unlikelyException_ = e;
+        failPendingFutures(unlikelyException_);
+
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after RuntimeException.");
+        synchronized (receiveLock_)
+        {
+            receiveLock_.notifyAll();
+        }
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after RuntimeException.");
+    }
+
+    // Complete every outstanding sendAsync future with the failure that ended the connection.
+    private void failPendingFutures(Throwable e)
+    {
+        ArrayList<CompletableFuture<DataStream>> futures;
+        synchronized (pendingFutures_)
+        {
+            if (pendingFutures_.isEmpty()) return;
+            futures = new ArrayList<CompletableFuture<DataStream>>(pendingFutures_.values());
+            pendingFutures_.clear();
+            pendingFutureCount_ = 0;
+        }
+        for (int i = 0; i < futures.size(); ++i)
+        {
+            completeFuture(futures.get(i), null, e);
+        }
+    }
+
+    // Complete a sendAsync future with a reply, or exceptionally if failure is not null.
+    // Dependent actions run on the completing thread, so when a shared selector thread reads the replies, the future is
+    // completed on another thread, where a slow action cannot stall the reads of the other connections.
+    private void completeFuture(final CompletableFuture<DataStream> future, final DataStream reply, final Throwable failure)
+    {
+        if (selectorRegistration_ == null)
+        {
+            complete(future, reply, failure);
+            return;
+        }
+        AS400SelectorReader.getCompletionExecutor().execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                complete(future, reply, failure);
+            }
+        });
+    }
+
+    private static void complete(CompletableFuture<DataStream> future, DataStream reply, Throwable failure)
+    {
+        if (failure != null) future.completeExceptionally(failure);
+        else future.complete(reply);
+    }
+
+    @Override
+    final CompletableFuture<DataStream> sendAsync(DataStream requestStream) throws IOException
+    {
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "send async(): ...");
+        int correlationID = newCorrelationId();
+        CompletableFuture<DataStream> future = new CompletableFuture<DataStream>();
+        // Register before sending, since the read daemon may receive the reply before send() returns.
+        synchronized (pendingFutures_)
+        {
+            pendingFutures_.put(Integer.valueOf(correlationID), future);
+            pendingFutureCount_ = pendingFutures_.size();
+        }
+        try
+        {
+            send(requestStream, correlationID);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            synchronized (pendingFutures_)
+            {
+                pendingFutures_.remove(Integer.valueOf(correlationID));
+                pendingFutureCount_ = pendingFutures_.size();
+            }
+            throw e;
+        }
+        // The connection may have failed between registering the future and sending the request.
+        if (!isConnected())
+        {
+            Throwable cause = (readDaemonException_ != null) ? (Throwable)readDaemonException_ : unlikelyException_;
+            // The connection can also end without a read failure, e.g. when it is disconnected.
+            if (cause == null) cause = new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_NOT_ACTIVE);
+            failPendingFutures(cause);
+        }
+        return future;
+    }
+
     @Override
     final int send(DataStream requestStream) throws IOException
     {
@@ -0,0 +1,82 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: ChannelOutputStream.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+// OutputStream over a SocketChannel that may be in non-blocking mode.
+// Once a host server connection is handed to AS400SelectorReader its channel is non-blocking, and the
+// java.net.Socket output stream can no longer be used.  This stream waits for the channel to become
+// writable whenever the socket send buffer is full, so callers still see blocking write semantics.
+class ChannelOutputStream extends OutputStream
+{
+    private final SocketChannel channel_;
+    // Private selector used only to wait for OP_WRITE, created on the first stalled write.
+    private Selector writeSelector_;
+
+    ChannelOutputStream(SocketChannel channel)
+    {
+        channel_ = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        write(new byte[] { (byte)b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        writeFully(ByteBuffer.wrap(b, off, len));
+    }
+
+    // Write all remaining bytes of the buffer to the channel.
+    // @param  buffer  The bytes to write.
+    // @exception  IOException  If the channel cannot be written.
+    synchronized void writeFully(ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel_.write(buffer) == 0 && buffer.hasRemaining())
+            {
+                // The send buffer is full.  Wait until the channel is writable again.
+                if (writeSelector_ == null)
+                {
+                    writeSelector_ = Selector.open();
+                    channel_.register(writeSelector_, SelectionKey.OP_WRITE);
+                }
+                writeSelector_.select();
+                writeSelector_.selectedKeys().clear();
+                if (!channel_.isOpen()) throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+            }
+        }
+    }
+
+    // Closes the private write selector.  The channel itself is closed by the owning SocketContainer.
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (writeSelector_ != null)
+        {
+            writeSelector_.close();
+            writeSelector_ = null;
+        }
+    }
+}
@@ -54,7 +54,11 @@ public class ClassDecoupler
     static void freeDBReplyStream(DataStream ds)
     {
         if (ds instanceof DBReplyRequestedDS)
+        {
+            // A discarded reply was never handed to a caller, so its buffer can be reused.
+            ((DBReplyRequestedDS)ds).releaseReplyBuffer();
             ((DBReplyRequestedDS)ds).returnToPool();
+        }
     }
 
     // TODO so much duplication in this method!!
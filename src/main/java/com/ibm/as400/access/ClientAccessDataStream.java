@@ -38,6 +38,9 @@ public class ClientAccessDataStream extends DataStream
   boolean inUse_; //@P0A 
   private CADSPool fromPool_ = null;
   private int fromPoolIndex_ = 0;
+  // Buffer from ReplyBufferPool that this reply was received into, or null.  While it is set, data_ may be
+  // longer than the data stream, so the length must be taken from the header.
+  private byte[] pooledReplyBuffer_ = null;
 
 
   // Note: The following method is called by AS400ThreadedServer and AS400NoThreadServer.
@@ -196,17 +199,15 @@ public class ClientAccessDataStream extends DataStream
       //	}
       //}
       
-      // 
-      // TODO:   Restructure this code so that a new byte array is not always allocated.
-      // 
-      newDataStream.data_ = new byte[nowLength];
+      // Replies that release their data when consumed are received into a pooled buffer.
+      newDataStream.data_ = newDataStream.allocateReplyBuffer(nowLength);
       System.arraycopy(baseDataStream.data_, 0, newDataStream.data_, 0, HEADER_LENGTH);
 
       
-      if (newDataStream.data_.length - HEADER_LENGTH > 0)
+      if (nowLength - HEADER_LENGTH > 0)
       {
         // Receive any remaining bytes.
-    	// The number of bytes to read is calculated from newDataStream.data_.length - HEADER_LENGTH 
+    	// The number of bytes to read is calculated from the length in the header.
         newDataStream.readAfterHeader(is);
       }
       return newDataStream;
@@ -219,6 +220,54 @@ public class ClientAccessDataStream extends DataStream
     }
   }
 
+  // Allocate the array that a reply of the given length is received into.
+  // Subclasses whose consumers call releaseReplyBuffer() override this to call allocatePooledReplyBuffer().
+  // @param  length  The length of the reply data stream.
+  byte[] allocateReplyBuffer(int length)
+  {
+    return new byte[length];
+  }
+
+  // Returns a buffer from ReplyBufferPool if pooling is enabled; otherwise a new array of exactly the given length.
+  final byte[] allocatePooledReplyBuffer(int length)
+  {
+    if (!ReplyBufferPool.isEnabled()) return new byte[length];
+    pooledReplyBuffer_ = ReplyBufferPool.allocate(length);
+    return pooledReplyBuffer_;
+  }
+
+  // Return the pooled buffer of this reply for reuse.  Call this only when no object references the reply data any more.
+  final void releaseReplyBuffer()
+  {
+    if (pooledReplyBuffer_ != null)
+    {
+      ReplyBufferPool.release(pooledReplyBuffer_);
+      pooledReplyBuffer_ = null;
+    }
+  }
+
+  // Forget the pooled buffer without reusing it, because other objects may still reference the reply data.
+  final void dropReplyBuffer()
+  {
+    pooledReplyBuffer_ = null;
+  }
+
+  // Read the rest of a reply after the header.  A pooled buffer may be longer than the reply, so the length comes from the header.
+  @Override
+  protected int readAfterHeader(java.io.InputStream in) throws IOException
+  {
+    if (pooledReplyBuffer_ == null || data_ != pooledReplyBuffer_) return super.readAfterHeader(in);
+
+    int length = getLength() - headerLength_;
+    int bytesRead = readFromStream(in, data_, headerLength_, length);
+    if (bytesRead < length)
+    {
+      if (Trace.traceOn_) Trace.log(Trace.ERROR, "Failed to read all of the data stream.");
+      throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+    }
+    return bytesRead;
+  }
+
   // Constructs an empty ClientAccessDataStream object. 
   protected ClientAccessDataStream()
   {
@@ -369,7 +369,7 @@ final class ConnectionList
     {
         if (item.isFailedPretest())
             return false;
-        else if (item.getAS400Object().isConnectionAlive())
+        else if (ConnectionLivenessProbe.isAlive(item.getAS400Object()))
             return true;
 
         item.setFailedPretest();  // Mark it for removal from pool.
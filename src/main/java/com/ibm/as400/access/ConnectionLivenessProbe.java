@@ -0,0 +1,89 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: ConnectionLivenessProbe.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+/**
+The ConnectionLivenessProbe class tests pooled connections before they
+are handed out by a connection pool.
+
+<p>A connection whose socket is closed fails the test without any request
+to the system.  A connection whose server job has replied within the
+last {@link SystemProperties#CONNECTIONPOOL_PRETEST_CACHE_TIME pretest cache time}
+passes the test, also without any request.  Only the remaining connections
+are pinged, and the reply to the ping starts a new cache time.
+**/
+final class ConnectionLivenessProbe
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private static long cacheTime_ = 1000;      // milliseconds
+  static
+  {
+    String propVal = SystemProperties.getProperty (SystemProperties.CONNECTIONPOOL_PRETEST_CACHE_TIME);
+    if (propVal != null)
+    {
+      try
+      {
+        cacheTime_ = Math.max (0, Long.parseLong (propVal.trim ()));
+      }
+      catch (NumberFormatException e)
+      {
+        Trace.log (Trace.WARNING, "Error retrieving pretest cache time property value:", e);
+      }
+    }
+  }
+
+
+
+  private ConnectionLivenessProbe ()
+  {
+  }
+
+
+
+/**
+Indicates if the connection to a service is alive.
+
+@param  system      The system.
+@param  service     The service.
+@return             true if the connection is alive; false otherwise.
+**/
+  static boolean isAlive (AS400Impl system, int service)
+  {
+    if (system instanceof AS400ImplRemote)
+      return ((AS400ImplRemote) system).isConnectionAlive (service, cacheTime_);
+
+    // The proxy server pings the connection on the other side.
+    return system.isConnectionAlive (service);
+  }
+
+
+
+/**
+Indicates if the connection to any service is alive.
+
+@param  system      The system.
+@return             true if the connection is alive; false otherwise.
+**/
+  static boolean isAlive (AS400 system)
+  {
+    AS400Impl impl = system.getImpl ();
+    if (impl instanceof AS400ImplRemote)
+      return ((AS400ImplRemote) impl).isConnectionAlive (cacheTime_);
+
+    return system.isConnectionAlive ();
+  }
+}
@@ -276,7 +276,7 @@ four bytes, and sixteen bytes per line.
 **/
   void dump(PrintStream ps)
   {
-    DBBaseRequestDS.dump(ps, data_, data_.length);        
+    DBBaseRequestDS.dump(ps, data_, getLength());        
 
     // Report whether or not the datastream was compressed.                    @E3A
     if (rleCompressed_)                                                     // @E3A
@@ -975,7 +975,17 @@ Parses the datastream.
 	  inPool_ = inPool; 
   } /*@B5A*/ 
   
+  // Database replies may be received into pooled buffers.  Consumers that know the reply data is no longer
+  // referenced call releaseReplyBuffer() before returnToPool(); otherwise the buffer is simply not reused.
+  @Override
+  byte[] allocateReplyBuffer(int length)
+  {
+    return allocatePooledReplyBuffer(length);
+  }
+
   synchronized void returnToPool() {
+	  // Objects such as data formats may still reference a pooled reply buffer, so it is not reused here.
+	  dropReplyBuffer();
 	  //
 	  // Note:  At this point the data_ pointer contains memory that was allocated
 	  // in the static ClientAccessDataStream.construct().  This data_ pointer has
@@ -0,0 +1,319 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSAttributeCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  A cache of integrated file system object attributes that is shared by all of the {@link IFSFile IFSFile} objects
+ *  of one {@link AS400 AS400} object.
+ *  <p>Without this cache, methods such as exists(), isDirectory(), isFile(), length(), lastModified(), created() and
+ *  lastAccessed() of each new IFSFile object send a request to the system.  When the cache is enabled for a system,
+ *  the attributes returned for a path, including the fact that it does not exist, are kept for a limited time and
+ *  are used to answer those methods for any IFSFile object of the same system and path name.
+ *  <p>Entries expire after the time to live, and the least recently used entries are discarded when the cache is
+ *  full.  Deleting, renaming, creating, writing to, or changing the attributes of an object through the same AS400
+ *  object removes the entries for its path, and for the paths beneath it when it is a directory.  Changes made
+ *  through other AS400 objects or by other jobs are seen once the entries expire.
+ *  <p>Paths are compared exactly as they are specified, so two spellings of the same path have separate entries.
+ *  Methods that change attributes, such as setReadOnly(), always read the current attributes from the system.
+ *  <p>A cache can be enabled for every AS400 object with the
+ *  <tt>com.ibm.as400.access.IFSFile.attributeCacheTimeout</tt> and <tt>com.ibm.as400.access.IFSFile.attributeCacheSize</tt>
+ *  system properties, or for one AS400 object with {@link #enable(AS400, long, int) enable()}.
+ **/
+public final class IFSAttributeCache
+{
+    private static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final long timeToLive_;
+    private final int maximumSize_;
+    // Entries in least recently used order.
+    private final LinkedHashMap<String, Entry> entries_;
+    // Incremented by every invalidation.  An entry read from the system is stored only if no invalidation happened
+    // while it was being read, so that a reply that raced with a change is not cached.
+    private final AtomicLong generation_ = new AtomicLong();
+
+    private final AtomicLong hits_ = new AtomicLong();
+    private final AtomicLong misses_ = new AtomicLong();
+    private final AtomicLong evictions_ = new AtomicLong();
+    private final AtomicLong invalidations_ = new AtomicLong();
+
+    // The attributes of one path.  The attributes are null if the object did not exist.
+    static final class Entry
+    {
+        final IFSListAttrsRep attributes_;
+        final long expiration_;
+
+        Entry(IFSListAttrsRep attributes, long expiration)
+        {
+            attributes_ = attributes;
+            expiration_ = expiration;
+        }
+    }
+
+    private IFSAttributeCache(long timeToLive, int maximumSize)
+    {
+        timeToLive_ = timeToLive;
+        maximumSize_ = maximumSize;
+        entries_ = new LinkedHashMap<String, Entry>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IFSAttributeCache.Entry> eldest)
+            {
+                if (size() <= maximumSize_) return false;
+                evictions_.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    // Returns the cache that a new AS400 implementation object starts with, as configured by the system properties.
+    static IFSAttributeCache createDefault()
+    {
+        long timeToLive = getLongProperty(SystemProperties.IFSFILE_ATTRIBUTE_CACHE_TIMEOUT, 0);
+        if (timeToLive <= 0) return null;
+        long maximumSize = getLongProperty(SystemProperties.IFSFILE_ATTRIBUTE_CACHE_SIZE, DEFAULT_MAXIMUM_SIZE);
+        return new IFSAttributeCache(timeToLive, (int)Math.max(1, Math.min(Integer.MAX_VALUE, maximumSize)));
+    }
+
+    private static AS400ImplRemote getImplRemote(AS400 system)
+    {
+        if (system == null)
+            throw new NullPointerException("system");
+        AS400Impl impl = system.getImpl();
+        return (impl instanceof AS400ImplRemote) ? (AS400ImplRemote)impl : null;
+    }
+
+    /**
+     *  Returns the attribute cache of a system.
+     *  @param  system  The system.
+     *  @return  The cache, or null if no cache is enabled for the system.
+     **/
+    public static IFSAttributeCache getCache(AS400 system)
+    {
+        AS400ImplRemote impl = getImplRemote(system);
+        return (impl == null) ? null : impl.getIFSAttributeCache();
+    }
+
+    /**
+     *  Enables an attribute cache for a system, replacing any cache it already has.
+     *  A cache is not used when the system is accessed through a proxy server.
+     *  @param  system  The system.
+     *  @param  timeToLive  The number of milliseconds that attributes are kept.  Must be greater than zero.
+     *  @param  maximumSize  The maximum number of paths kept.  Must be greater than zero.
+     *  @return  The cache, or null if a cache cannot be used for the system.
+     **/
+    public static IFSAttributeCache enable(AS400 system, long timeToLive, int maximumSize)
+    {
+        if (timeToLive <= 0)
+            throw new ExtendedIllegalArgumentException("timeToLive", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        if (maximumSize <= 0)
+            throw new ExtendedIllegalArgumentException("maximumSize", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        AS400ImplRemote impl = getImplRemote(system);
+        if (impl == null) return null;
+        IFSAttributeCache cache = new IFSAttributeCache(timeToLive, maximumSize);
+        impl.setIFSAttributeCache(cache);
+        return cache;
+    }
+
+    /**
+     *  Disables the attribute cache of a system.
+     *  @param  system  The system.
+     **/
+    public static void disable(AS400 system)
+    {
+        AS400ImplRemote impl = getImplRemote(system);
+        if (impl != null) impl.setIFSAttributeCache(null);
+    }
+
+    /**
+     *  Returns the number of milliseconds that attributes are kept.
+     *  @return  The time to live.
+     **/
+    public long getTimeToLive()
+    {
+        return timeToLive_;
+    }
+
+    /**
+     *  Returns the maximum number of paths kept.
+     *  @return  The maximum size.
+     **/
+    public int getMaximumSize()
+    {
+        return maximumSize_;
+    }
+
+    /**
+     *  Returns the number of paths currently in the cache, including any that have expired but have not been removed.
+     *  @return  The number of entries.
+     **/
+    public synchronized int size()
+    {
+        return entries_.size();
+    }
+
+    /**
+     *  Removes all entries.
+     **/
+    public void clear()
+    {
+        generation_.incrementAndGet();
+        synchronized (this)
+        {
+            entries_.clear();
+        }
+    }
+
+    /**
+     *  Returns the number of attribute lookups that were answered from the cache.
+     *  @return  The number of hits.
+     **/
+    public long getHitCount()
+    {
+        return hits_.get();
+    }
+
+    /**
+     *  Returns the number of attribute lookups that were sent to the system because the path was not cached or had expired.
+     *  @return  The number of misses.
+     **/
+    public long getMissCount()
+    {
+        return misses_.get();
+    }
+
+    /**
+     *  Returns the number of entries that were discarded because the cache was full.
+     *  @return  The number of evictions.
+     **/
+    public long getEvictionCount()
+    {
+        return evictions_.get();
+    }
+
+    /**
+     *  Returns the number of times entries were removed because an object was changed through the system object.
+     *  @return  The number of invalidations.
+     **/
+    public long getInvalidationCount()
+    {
+        return invalidations_.get();
+    }
+
+    /**
+     *  Resets the hit, miss, eviction and invalidation counters to zero.
+     **/
+    public void resetCounters()
+    {
+        hits_.set(0);
+        misses_.set(0);
+        evictions_.set(0);
+        invalidations_.set(0);
+    }
+
+    // Returns the unexpired entry for a path, or null.
+    Entry get(String path)
+    {
+        Entry entry;
+        synchronized (this)
+        {
+            entry = entries_.get(path);
+            if (entry != null && entry.expiration_ - System.currentTimeMillis() <= 0)
+            {
+                entries_.remove(path);
+                entry = null;
+            }
+        }
+        if (entry == null)
+            misses_.incrementAndGet();
+        else
+            hits_.incrementAndGet();
+        return entry;
+    }
+
+    // Returns the value to pass to put() for attributes that are about to be read from the system.
+    long getGeneration()
+    {
+        return generation_.get();
+    }
+
+    // Stores the attributes read for a path, unless an invalidation happened since the generation was obtained.
+    void put(String path, IFSListAttrsRep attributes, long generation)
+    {
+        Entry entry = new Entry(attributes, System.currentTimeMillis() + timeToLive_);
+        synchronized (this)
+        {
+            if (generation_.get() == generation) entries_.put(path, entry);
+        }
+    }
+
+    // Removes the entry for a path.
+    void invalidate(String path)
+    {
+        generation_.incrementAndGet();
+        invalidations_.incrementAndGet();
+        synchronized (this)
+        {
+            entries_.remove(path);
+        }
+    }
+
+    // Removes the entries for a path and every path beneath it.
+    void invalidateTree(String path)
+    {
+        generation_.incrementAndGet();
+        invalidations_.incrementAndGet();
+        String prefix = path.endsWith("/") ? path : path + "/";
+        synchronized (this)
+        {
+            entries_.remove(path);
+            for (Iterator<String> iterator = entries_.keySet().iterator(); iterator.hasNext(); )
+            {
+                if (iterator.next().startsWith(prefix)) iterator.remove();
+            }
+        }
+    }
+
+    // Removes the entry for the parent directory of a path that was created, deleted or renamed, since the
+    // modification time of the directory changed.
+    void invalidateParent(String path)
+    {
+        int separator = path.lastIndexOf('/');
+        if (separator > 0)
+            invalidate(path.substring(0, separator));
+        else if (separator == 0 && path.length() > 1)
+            invalidate("/");
+    }
+
+    private static long getLongProperty(String name, long defaultValue)
+    {
+        String value = SystemProperties.getProperty(name);
+        if (value == null) return defaultValue;
+        try
+        {
+            return Long.parseLong(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            Trace.log(Trace.WARNING, "Error retrieving " + name + " property value:", e);
+            return defaultValue;
+        }
+    }
+}
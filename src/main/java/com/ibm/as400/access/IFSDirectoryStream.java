@@ -0,0 +1,112 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSDirectoryStream.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// A directory stream for IFSFileSystemProvider.
+// The entries are listed by an IFSFileEnumeration, which requests them from the file server one block at a time
+// using the restart name or restart ID of the previous block, so a large directory is never held in memory.
+// Each entry is returned as an IFSPath that carries the listed IFSFile, so that reading its basic attributes
+// does not require another request.
+final class IFSDirectoryStream implements DirectoryStream<Path>
+{
+    private final IFSPath directory_;
+    private final IFSFileEnumeration enumeration_;
+    private final DirectoryStream.Filter<? super Path> filter_;
+    private boolean closed_ = false;
+    private boolean iteratorReturned_ = false;
+
+    IFSDirectoryStream(IFSPath directory, IFSFileEnumeration enumeration, DirectoryStream.Filter<? super Path> filter)
+    {
+        directory_ = directory;
+        enumeration_ = enumeration;
+        filter_ = filter;
+    }
+
+    @Override
+    public synchronized Iterator<Path> iterator()
+    {
+        if (closed_) throw new IllegalStateException("Directory stream is closed");
+        if (iteratorReturned_) throw new IllegalStateException("Iterator already obtained");
+        iteratorReturned_ = true;
+
+        return new Iterator<Path>()
+        {
+            private Path next_;
+
+            @Override
+            public boolean hasNext()
+            {
+                if (next_ != null) return true;
+                next_ = readNext();
+                return next_ != null;
+            }
+
+            @Override
+            public Path next()
+            {
+                if (!hasNext()) throw new NoSuchElementException();
+                Path result = next_;
+                next_ = null;
+                return result;
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    // Returns the next entry accepted by the filter, or null at the end of the directory or once the stream is closed.
+    private Path readNext()
+    {
+        try
+        {
+            while (true)
+            {
+                synchronized (this)
+                {
+                    if (closed_ || !enumeration_.hasMoreElements()) return null;
+                }
+                IFSFile file = enumeration_.nextFile();
+                Path entry = new IFSPath((IFSFileSystem)directory_.getFileSystem(), directory_.resolve(file.getName()).toString(), file);
+                if (filter_ == null || filter_.accept(entry)) return entry;
+            }
+        }
+        catch (AS400SecurityException e)
+        {
+            Trace.log(Trace.ERROR, "Security exception listing directory " + directory_, e);
+            throw new DirectoryIteratorException(IFSFileSystemProvider.toIOException(directory_, e));
+        }
+        catch (IOException e)
+        {
+            throw new DirectoryIteratorException(e);
+        }
+    }
+
+    // Entries that were listed but not yet returned are discarded.  No request is outstanding between blocks.
+    @Override
+    public synchronized void close()
+    {
+        closed_ = true;
+    }
+}
@@ -0,0 +1,107 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSFileAttributes.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+// The basic attributes of an IFS object, for IFSFileSystemProvider.
+// All values are read when the object is created.  When the IFSFile was returned by a directory listing, they come
+// from its IFSCachedAttributes and no request is sent to the file server.
+final class IFSFileAttributes implements BasicFileAttributes
+{
+    private final boolean isDirectory_;
+    private final boolean isRegularFile_;
+    private final boolean isSymbolicLink_;
+    private final long size_;
+    private final long lastModified_;
+    private final long lastAccessed_;
+    private final long created_;
+
+    IFSFileAttributes(IFSFile file, boolean followLinks) throws IOException, AS400SecurityException
+    {
+        isSymbolicLink_ = file.isSymbolicLink();
+        // IFSFile resolves symbolic links when determining the type of the object.
+        if (isSymbolicLink_ && !followLinks)
+        {
+            isDirectory_ = false;
+            isRegularFile_ = false;
+        }
+        else
+        {
+            isDirectory_ = file.isDirectory();
+            isRegularFile_ = !isDirectory_ && file.isFile();
+        }
+        size_ = file.length();
+        lastModified_ = file.lastModified();
+        lastAccessed_ = file.lastAccessed();
+        created_ = file.created();
+    }
+
+    @Override
+    public FileTime lastModifiedTime()
+    {
+        return FileTime.fromMillis(lastModified_);
+    }
+
+    @Override
+    public FileTime lastAccessTime()
+    {
+        return FileTime.fromMillis(lastAccessed_);
+    }
+
+    @Override
+    public FileTime creationTime()
+    {
+        return FileTime.fromMillis(created_);
+    }
+
+    @Override
+    public boolean isRegularFile()
+    {
+        return isRegularFile_;
+    }
+
+    @Override
+    public boolean isDirectory()
+    {
+        return isDirectory_;
+    }
+
+    @Override
+    public boolean isSymbolicLink()
+    {
+        return isSymbolicLink_;
+    }
+
+    @Override
+    public boolean isOther()
+    {
+        return !isDirectory_ && !isRegularFile_ && !isSymbolicLink_;
+    }
+
+    @Override
+    public long size()
+    {
+        return size_;
+    }
+
+    // The file server does not return a file key.
+    @Override
+    public Object fileKey()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,545 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSFileChannel.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ A {@link java.nio.channels.FileChannel FileChannel} for reading and writing an integrated file system file with ByteBuffers.
+ Use {@link IFSRandomAccessFile#getChannel IFSRandomAccessFile.getChannel()} to obtain a channel.
+ <p>When the file is accessed through a direct connection to the system, file data is copied from the reply
+ received from the file server straight into the caller's buffer, and from the caller's buffer straight into the
+ write request, so heap and direct buffers are handled without intermediate arrays.
+ <p>The position of the channel is the file pointer of the IFSRandomAccessFile.  The positional read and write
+ methods do not change the position.  Memory mapping is not supported.
+ <p>The following example copies a stream file to a local file:
+ <pre>
+ AS400 system = new AS400("mySystem");
+ IFSRandomAccessFile file = new IFSRandomAccessFile(system, "/home/me/report.pdf", "r");
+ FileChannel in = file.getChannel();
+ FileChannel out = FileChannel.open(Paths.get("report.pdf"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+ long position = 0;
+ long size = in.size();
+ while (position &lt; size)
+   position += in.transferTo(position, size - position, out);
+ out.close();
+ in.close();
+ </pre>
+ **/
+public class IFSFileChannel extends FileChannel
+{
+  // Size of the buffer used by transferTo() and transferFrom().
+  private static final int TRANSFER_SIZE = 262144;
+
+  private final IFSRandomAccessFile file_;
+  // The descriptor for buffer I/O, or null when the file is accessed through a proxy server.
+  private final IFSFileDescriptorImplRemote fd_;
+  private final boolean readable_;
+  private final boolean writable_;
+  // Serializes the methods that use or change the position.
+  private final Object positionLock_ = new Object();
+
+  /**
+   Constructs an IFSFileChannel object for an open file.
+   @param file The file.
+   **/
+  IFSFileChannel(IFSRandomAccessFile file)
+  {
+    file_ = file;
+    IFSRandomAccessFileImpl impl = file.getImpl();
+    fd_ = (impl instanceof IFSRandomAccessFileImplRemote) ? ((IFSRandomAccessFileImplRemote)impl).getFileDescriptor() : null;
+    String mode = file.getMode();
+    readable_ = mode.indexOf('r') >= 0;
+    writable_ = mode.indexOf('w') >= 0;
+  }
+
+  /**
+   Returns the random access file of this channel.
+   @return The file.
+   **/
+  public IFSRandomAccessFile getFile()
+  {
+    return file_;
+  }
+
+  /**
+   Reads a sequence of bytes from this channel into the given buffer, starting at the current position.
+   @param dst The buffer into which bytes are to be transferred.
+   @return The number of bytes read, possibly zero, or -1 if the channel has reached end-of-stream.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public int read(ByteBuffer dst)
+    throws IOException
+  {
+    ensureReadable();
+    synchronized (positionLock_)
+    {
+      long position = file_.getFilePointer();
+      int bytesRead = readAt(dst, position);
+      if (bytesRead > 0)
+        file_.seek(position + bytesRead);
+      return bytesRead;
+    }
+  }
+
+  /**
+   Reads a sequence of bytes from this channel into a subsequence of the given buffers, starting at the current position.
+   @param dsts The buffers into which bytes are to be transferred.
+   @param offset The offset within the buffer array of the first buffer.
+   @param length The maximum number of buffers to be accessed.
+   @return The number of bytes read, possibly zero, or -1 if the channel has reached end-of-stream.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public long read(ByteBuffer[] dsts, int offset, int length)
+    throws IOException
+  {
+    checkBounds(dsts.length, offset, length);
+    ensureReadable();
+    long totalBytesRead = 0;
+    synchronized (positionLock_)
+    {
+      for (int i = offset; i < offset + length; ++i)
+      {
+        if (!dsts[i].hasRemaining()) continue;
+        int bytesRead = read(dsts[i]);
+        if (bytesRead < 0)
+          return (totalBytesRead == 0 ? -1 : totalBytesRead);
+        totalBytesRead += bytesRead;
+        if (dsts[i].hasRemaining()) break;
+      }
+    }
+    return totalBytesRead;
+  }
+
+  /**
+   Writes a sequence of bytes to this channel from the given buffer, starting at the current position.
+   @param src The buffer from which bytes are to be retrieved.
+   @return The number of bytes written.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public int write(ByteBuffer src)
+    throws IOException
+  {
+    ensureWritable();
+    synchronized (positionLock_)
+    {
+      long position = file_.getFilePointer();
+      int bytesWritten = writeAt(src, position);
+      file_.seek(position + bytesWritten);
+      return bytesWritten;
+    }
+  }
+
+  /**
+   Writes a sequence of bytes to this channel from a subsequence of the given buffers, starting at the current position.
+   @param srcs The buffers from which bytes are to be retrieved.
+   @param offset The offset within the buffer array of the first buffer.
+   @param length The maximum number of buffers to be accessed.
+   @return The number of bytes written.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public long write(ByteBuffer[] srcs, int offset, int length)
+    throws IOException
+  {
+    checkBounds(srcs.length, offset, length);
+    ensureWritable();
+    long totalBytesWritten = 0;
+    synchronized (positionLock_)
+    {
+      for (int i = offset; i < offset + length; ++i)
+      {
+        totalBytesWritten += write(srcs[i]);
+      }
+    }
+    return totalBytesWritten;
+  }
+
+  /**
+   Returns the position of this channel.
+   @return The position, which is the file pointer of the file.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public long position()
+    throws IOException
+  {
+    ensureOpen();
+    synchronized (positionLock_)
+    {
+      return file_.getFilePointer();
+    }
+  }
+
+  /**
+   Sets the position of this channel.
+   @param newPosition The new position.
+   @return This channel.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public FileChannel position(long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0)
+      throw new ExtendedIllegalArgumentException("newPosition (" + newPosition + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureOpen();
+    synchronized (positionLock_)
+    {
+      file_.seek(newPosition);
+    }
+    return this;
+  }
+
+  /**
+   Returns the current size of the file.
+   @return The size, in bytes.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public long size()
+    throws IOException
+  {
+    ensureOpen();
+    return file_.length();
+  }
+
+  /**
+   Truncates the file to the given size.  If the position is greater than the given size, it is set to that size.
+   @param size The new size.
+   @return This channel.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public FileChannel truncate(long size)
+    throws IOException
+  {
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException("size (" + size + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureWritable();
+    synchronized (positionLock_)
+    {
+      if (size < file_.length())
+        file_.setLength(size);
+      if (file_.getFilePointer() > size)
+        file_.seek(size);
+    }
+    return this;
+  }
+
+  /**
+   Forces any updates to the file to be written to storage.
+   @param metaData Ignored; the file server commits both data and attributes.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public void force(boolean metaData)
+    throws IOException
+  {
+    ensureOpen();
+    file_.flush();
+  }
+
+  /**
+   Transfers bytes from this channel's file to the given writable byte channel.
+   The position of this channel is not changed.
+   @param position The position within the file at which the transfer is to begin.
+   @param count The maximum number of bytes to be transferred.
+   @param target The target channel.
+   @return The number of bytes actually transferred, possibly zero.
+   @exception IOException If an error occurs while communicating with the system or writing the target.
+   **/
+  public long transferTo(long position, long count, WritableByteChannel target)
+    throws IOException
+  {
+    if (position < 0)
+      throw new ExtendedIllegalArgumentException("position (" + position + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    if (count < 0)
+      throw new ExtendedIllegalArgumentException("count (" + count + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureReadable();
+    if (count == 0) return 0;
+
+    ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(count, TRANSFER_SIZE));
+    long totalBytesTransferred = 0;
+    while (totalBytesTransferred < count)
+    {
+      buffer.clear();
+      buffer.limit((int)Math.min(buffer.capacity(), count - totalBytesTransferred));
+      int bytesRead = readAt(buffer, position + totalBytesTransferred);
+      if (bytesRead <= 0) break;
+      buffer.flip();
+      while (buffer.hasRemaining())
+      {
+        // A non-blocking target may accept fewer bytes; the rest are left in the file.
+        if (target.write(buffer) == 0) break;
+      }
+      totalBytesTransferred += buffer.position();
+      if (buffer.hasRemaining()) break;
+    }
+    return totalBytesTransferred;
+  }
+
+  /**
+   Transfers bytes into this channel's file from the given readable byte channel.
+   The position of this channel is not changed.  Nothing is transferred if the position is greater than the size of the file.
+   @param src The source channel.
+   @param position The position within the file at which the transfer is to begin.
+   @param count The maximum number of bytes to be transferred.
+   @return The number of bytes actually transferred, possibly zero.
+   @exception IOException If an error occurs while communicating with the system or reading the source.
+   **/
+  public long transferFrom(ReadableByteChannel src, long position, long count)
+    throws IOException
+  {
+    if (position < 0)
+      throw new ExtendedIllegalArgumentException("position (" + position + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    if (count < 0)
+      throw new ExtendedIllegalArgumentException("count (" + count + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureWritable();
+    if (count == 0 || position > file_.length()) return 0;
+
+    ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(count, TRANSFER_SIZE));
+    long totalBytesTransferred = 0;
+    while (totalBytesTransferred < count)
+    {
+      buffer.clear();
+      buffer.limit((int)Math.min(buffer.capacity(), count - totalBytesTransferred));
+      int bytesRead = src.read(buffer);
+      if (bytesRead <= 0) break;
+      buffer.flip();
+      totalBytesTransferred += writeAt(buffer, position + totalBytesTransferred);
+    }
+    return totalBytesTransferred;
+  }
+
+  /**
+   Reads a sequence of bytes from this channel into the given buffer, starting at the given file position.
+   The position of this channel is not changed.
+   @param dst The buffer into which bytes are to be transferred.
+   @param position The file position at which the transfer is to begin.
+   @return The number of bytes read, possibly zero, or -1 if the given position is greater than or equal to the file's current size.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public int read(ByteBuffer dst, long position)
+    throws IOException
+  {
+    if (position < 0)
+      throw new ExtendedIllegalArgumentException("position (" + position + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureReadable();
+    return readAt(dst, position);
+  }
+
+  /**
+   Writes a sequence of bytes to this channel from the given buffer, starting at the given file position.
+   The position of this channel is not changed.
+   @param src The buffer from which bytes are to be transferred.
+   @param position The file position at which the transfer is to begin.
+   @return The number of bytes written.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public int write(ByteBuffer src, long position)
+    throws IOException
+  {
+    if (position < 0)
+      throw new ExtendedIllegalArgumentException("position (" + position + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    ensureWritable();
+    return writeAt(src, position);
+  }
+
+  /**
+   Memory mapping is not supported for integrated file system files.
+   @exception UnsupportedOperationException Always.
+   **/
+  public MappedByteBuffer map(FileChannel.MapMode mode, long position, long size)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   Locks a region of this channel's file.
+   The file server does not support shared locks, so the lock is always exclusive.  The file server does not wait
+   for a conflicting lock to be released; the request fails instead.
+   Note: This method is not supported for files under QSYS.
+   @param position The position at which the locked region is to start.
+   @param size The size of the locked region.
+   @param shared Ignored; the lock is exclusive.
+   @return The lock.
+   @exception IOException If an error occurs while communicating with the system, or the region is already locked.
+   **/
+  public FileLock lock(long position, long size, boolean shared)
+    throws IOException
+  {
+    ensureOpen();
+    IFSKey key = file_.lock(position, size);
+    return new IFSFileLock(this, position, size, key);
+  }
+
+  /**
+   Attempts to lock a region of this channel's file.
+   Note: This method is not supported for files under QSYS.
+   @param position The position at which the locked region is to start.
+   @param size The size of the locked region.
+   @param shared Ignored; the lock is exclusive.
+   @return The lock, or null if the region is locked by another program.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public FileLock tryLock(long position, long size, boolean shared)
+    throws IOException
+  {
+    try
+    {
+      return lock(position, size, shared);
+    }
+    catch (ExtendedIOException e)
+    {
+      if (e.getReturnCode() == ExtendedIOException.LOCK_VIOLATION) return null;
+      throw e;
+    }
+  }
+
+  /**
+   Closes the file.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  protected void implCloseChannel()
+    throws IOException
+  {
+    file_.close();
+  }
+
+  // Read at a file position.  Buffer I/O goes straight to the file descriptor; through a proxy server it goes
+  // through the byte array methods of the file.
+  private int readAt(ByteBuffer dst, long position)
+    throws IOException
+  {
+    if (!dst.hasRemaining()) return 0;
+    if (fd_ != null)
+    {
+      try
+      {
+        return fd_.readAt(dst, position);
+      }
+      catch (AS400SecurityException e)
+      {
+        throw new IOException(e);
+      }
+    }
+
+    synchronized (positionLock_)
+    {
+      long savedPosition = file_.getFilePointer();
+      byte[] data = new byte[Math.min(dst.remaining(), TRANSFER_SIZE)];
+      try
+      {
+        file_.seek(position);
+        int bytesRead = file_.read(data, 0, data.length);
+        if (bytesRead > 0) dst.put(data, 0, bytesRead);
+        return bytesRead;
+      }
+      finally
+      {
+        file_.seek(savedPosition);
+      }
+    }
+  }
+
+  // Write at a file position.
+  private int writeAt(ByteBuffer src, long position)
+    throws IOException
+  {
+    if (fd_ != null)
+    {
+      try
+      {
+        return fd_.writeAt(src, position);
+      }
+      catch (AS400SecurityException e)
+      {
+        throw new IOException(e);
+      }
+    }
+
+    synchronized (positionLock_)
+    {
+      long savedPosition = file_.getFilePointer();
+      byte[] data = new byte[src.remaining()];
+      src.get(data);
+      try
+      {
+        file_.seek(position);
+        file_.write(data, 0, data.length);
+        return data.length;
+      }
+      finally
+      {
+        file_.seek(savedPosition);
+      }
+    }
+  }
+
+  private void ensureOpen()
+    throws ClosedChannelException
+  {
+    if (!isOpen()) throw new ClosedChannelException();
+  }
+
+  private void ensureReadable()
+    throws ClosedChannelException
+  {
+    ensureOpen();
+    if (!readable_) throw new NonReadableChannelException();
+  }
+
+  private void ensureWritable()
+    throws ClosedChannelException
+  {
+    ensureOpen();
+    if (!writable_) throw new NonWritableChannelException();
+  }
+
+  private static void checkBounds(int arrayLength, int offset, int length)
+  {
+    if (offset < 0 || length < 0 || offset > arrayLength - length)
+      throw new IndexOutOfBoundsException();
+  }
+
+  // A lock on a region of the file, released through the file server.
+  private static final class IFSFileLock extends FileLock
+  {
+    private IFSKey key_;
+
+    IFSFileLock(IFSFileChannel channel, long position, long size, IFSKey key)
+    {
+      super(channel, position, size, false);
+      key_ = key;
+    }
+
+    public synchronized boolean isValid()
+    {
+      return key_ != null && channel().isOpen();
+    }
+
+    public synchronized void release()
+      throws IOException
+    {
+      if (key_ == null) return;
+      if (!channel().isOpen()) throw new ClosedChannelException();
+      ((IFSFileChannel)channel()).file_.unlock(key_);
+      key_ = null;
+    }
+  }
+}
@@ -29,6 +29,7 @@ package com.ibm.as400.access;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.util.Vector;
 
 
@@ -38,7 +39,7 @@ import java.util.Vector;
 class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
 {
     private static final int UNINITIALIZED = -1;
-    private static final int MAX_BYTES_PER_READ = 16000000;  // limit of file server
+    static final int MAX_BYTES_PER_READ = 16000000;  // limit of file server
 
     // Note: We allow direct access to some of these fields, for performance.
     ConverterImplRemote converter_;
@@ -70,6 +71,14 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
   
     String fileOwnerName_ = null;
 
+    // Read-ahead state for sequential reads, or null if read-ahead is not enabled.
+    private IFSReadAhead readAhead_;
+    // Write-behind state for file output streams, or null if write-behind is not in use.
+    private IFSWriteBehind writeBehind_;
+    // Set when the file has been opened for writing, written or truncated, so that closing it removes it from the
+    // system's shared attribute cache.
+    private boolean modified_ = false;
+
     static
     {
         // Add all byte stream reply data streams of interest to the
@@ -129,9 +138,42 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
 
   public void close0() throws IOException 
   {
-      isOpen_ = false;
-      close(fileHandle_);
-      fileHandle_ = UNINITIALIZED;
+      discardReadAhead();
+      try {
+          completeWrites();
+      }
+      catch (AS400SecurityException e) {
+          throw new IOException(e);
+      }
+      finally {
+          isOpen_ = false;
+          close(fileHandle_);
+          fileHandle_ = UNINITIALIZED;
+          if (modified_)
+          {
+              modified_ = false;
+              invalidateCachedAttributes(false);
+          }
+      }
+  }
+
+  // Records that the file has been opened for writing, written or truncated, and removes it from the system's shared
+  // attribute cache.  An open that may have created the file also removes the parent directory.
+  void setModified(boolean created)
+  {
+      modified_ = true;
+      invalidateCachedAttributes(created);
+  }
+
+  private void invalidateCachedAttributes(boolean created)
+  {
+      IFSAttributeCache cache = (system_ == null) ? null : system_.getIFSAttributeCache();
+      if (cache == null)
+          return;
+
+      cache.invalidate(path_);
+      if (created)
+          cache.invalidateParent(path_);
   }
 
   void close(int fileHandle) throws IOException
@@ -535,6 +577,8 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
    **/
   void flush()  throws IOException, AS400SecurityException
   {
+      completeWrites();
+
       // Request that changes be committed to disk.
       IFSCommitReq req = new IFSCommitReq(fileHandle_);
       ClientAccessDataStream ds = null;
@@ -734,6 +778,10 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       return fileDataCCSID_;
   }
 
+  int getMaxDataBlockSize() {
+    return maxDataBlockSize_;
+  }
+
   int getFileHandle() {
     return fileHandle_;
   }
@@ -1075,6 +1123,17 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       if (length == 0)
           return 0;
 
+      completeWrites();
+
+      // Sequential reads are served from replies to requests that were sent ahead of time.
+      if (IFSReadAhead.isEnabled())
+      {
+          if (readAhead_ == null)
+              readAhead_ = new IFSReadAhead(this);
+          if (readAhead_.isSequential(fileOffset_))
+              return readAhead_.read(data, dataOffset, length);
+      }
+
       int totalBytesRead = 0;
       int bytesRemainingToRead = length;
       boolean endOfFile = false;
@@ -1106,89 +1165,241 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
           }
 
           // Receive replies until the end of chain.
-          boolean endOfChain = false;
-          int bytesReadByThisRequest = 0;
-          
-          do
+          int bytesReadByThisRequest = receiveReadReplies(ds, req.getCorrelation(), ByteBuffer.wrap(data, dataOffset, bytesToReadThisTime));
+          if (bytesReadByThisRequest < 0)
+              endOfFile = true;
+
+          // Advance the file pointer.
+          if (bytesReadByThisRequest > 0)
           {
-              if (ds instanceof IFSReadRep)
+              incrementFileOffset(bytesReadByThisRequest);
+              totalBytesRead += bytesReadByThisRequest;
+              bytesRemainingToRead -= bytesReadByThisRequest;
+              dataOffset += bytesReadByThisRequest;
+          }
+      }
+
+      if (readAhead_ != null)
+          readAhead_.setExpectedOffset(fileOffset_);
+
+      // If we have read zero bytes and hit end-of-file, indicate that by returning -1.
+      // Otherwise return total number of bytes read.
+      return (endOfFile && totalBytesRead == 0 ? -1 : totalBytesRead);
+  }
+
+  // Copy the data from the chain of replies to a read request into a buffer.
+  // @param ds The first reply.
+  // @param correlation The correlation ID of the read request.
+  // @param buffer The buffer, which must have room for the number of bytes requested.
+  // @return The number of bytes copied, or -1 if the end of file was reached.
+  int receiveReadReplies(ClientAccessDataStream ds, int correlation, ByteBuffer buffer) throws IOException, AS400SecurityException
+  {
+      boolean endOfChain = false;
+      int bytesReadByThisRequest = 0;
+      
+      do
+      {
+          if (ds instanceof IFSReadRep)
+          {
+              // Copy the data from the reply to the buffer.
+              int bytesCopied = ((IFSReadRep) ds).copyData(buffer);
+              ((IFSReadRep) ds).releaseReplyBuffer();
+              if (bytesCopied > 0)
               {
-                  // Copy the data from the reply to the data parameter.
-                  byte[] buffer = ((IFSReadRep) ds).getData();
-                  if (buffer.length > 0)
-                  {
-                      System.arraycopy(buffer, 0, data, dataOffset, buffer.length);
-                      bytesReadByThisRequest += buffer.length;
-                      dataOffset += buffer.length;
-                  }
-                  else // no data returned. This implies end-of-file (e.g. if file is empty).
-                  {
-                      bytesReadByThisRequest = -1;
-                      endOfFile = true;
-                  }
+                  bytesReadByThisRequest += bytesCopied;
               }
-              else if (ds instanceof IFSReturnCodeRep)
+              else // no data returned. This implies end-of-file (e.g. if file is empty).
               {
-                  // Check for failure.
-                  int rc = ((IFSReturnCodeRep) ds).getReturnCode();
+                  bytesReadByThisRequest = -1;
+              }
+          }
+          else if (ds instanceof IFSReturnCodeRep)
+          {
+              // Check for failure.
+              int rc = ((IFSReturnCodeRep) ds).getReturnCode();
 
-                  if (rc == IFSReturnCodeRep.SUCCESS)
-                  {  // It worked, so nothing special to do here.
-                  }
-                  else if (rc == IFSReturnCodeRep.NO_MORE_DATA)
-                  {
-                      // End of file.
-                      bytesReadByThisRequest = -1;
-                      endOfFile = true;
-                  }
-                  else  // none of the above
-                  {
-                      throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
-                      Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
-                      throw new ExtendedIOException(path_, rc);
-                  }
+              if (rc == IFSReturnCodeRep.SUCCESS)
+              {  // It worked, so nothing special to do here.
               }
-              else
+              else if (rc == IFSReturnCodeRep.NO_MORE_DATA)
+              {
+                  // End of file.
+                  bytesReadByThisRequest = -1;
+              }
+              else  // none of the above
               {
-                  Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
-                  throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
+                  throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
+                  Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
+                  throw new ExtendedIOException(path_, rc);
               }
+          }
+          else
+          {
+              Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
+              throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
+          }
 
-              // Get the next reply if not end of chain.
-              endOfChain = ((IFSDataStream) ds).isEndOfChain();
-              if (!endOfChain)
+          // Get the next reply if not end of chain.
+          endOfChain = ((IFSDataStream) ds).isEndOfChain();
+          if (!endOfChain)
+          {
+              try {
+                  ds = (ClientAccessDataStream) server_.receive(correlation);
+              }
+              catch(ConnectionDroppedException e)
               {
-                  try {
-                      ds = (ClientAccessDataStream) server_.receive(req.getCorrelation());
-                  }
-                  catch(ConnectionDroppedException e)
-                  {
-                      Trace.log(Trace.ERROR, "Byte stream server connection lost");
-                      connectionDropped(e);
-                  }
-                  catch(InterruptedException e)
-                  {
-                      Trace.log(Trace.ERROR, "Interrupted", e);
-                      InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
-                      throwException.initCause(e);
-                      throw throwException;
-                  }
+                  Trace.log(Trace.ERROR, "Byte stream server connection lost");
+                  connectionDropped(e);
+              }
+              catch(InterruptedException e)
+              {
+                  Trace.log(Trace.ERROR, "Interrupted", e);
+                  InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+                  throwException.initCause(e);
+                  throw throwException;
               }
           }
-          while (!endOfChain);
+      }
+      while (!endOfChain);
 
-          // Advance the file pointer.
-          if (bytesReadByThisRequest > 0)
+      return bytesReadByThisRequest;
+  }
+
+  // Discard any data that was read ahead, and wait for the replies to outstanding read-ahead requests.
+  void discardReadAhead()
+  {
+      if (readAhead_ != null)
+          readAhead_.reset();
+  }
+
+  // Read into a buffer from the specified file offset.  The file offset of this descriptor is not changed.
+  // The data is copied from the reply straight into the buffer, which may be a direct buffer.
+  // @param buffer The buffer.  At most its remaining bytes are read.
+  // @param position The file offset at which to start reading.
+  // @return The number of bytes read, or -1 if the position is at or beyond the end of file.
+  int readAt(ByteBuffer buffer, long position) throws IOException, AS400SecurityException
+  {
+      int length = Math.min(buffer.remaining(), MAX_BYTES_PER_READ);
+      if (length == 0)
+          return 0;
+
+      completeWrites();
+
+      IFSReadReq req = new IFSReadReq(fileHandle_, position, length, serverDatastreamLevel_);
+      ClientAccessDataStream ds = null;
+      try {
+          ds = (ClientAccessDataStream) server_.sendAndReceive(req);
+      }
+      catch(ConnectionDroppedException e)
+      {
+          Trace.log(Trace.ERROR, "Byte stream server connection lost");
+          connectionDropped(e);
+      }
+      catch(InterruptedException e)
+      {
+          Trace.log(Trace.ERROR, "Interrupted", e);
+          InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+          throwException.initCause(e);
+          throw throwException;
+      }
+
+      return receiveReadReplies(ds, req.getCorrelation(), buffer);
+  }
+
+  // Write the remaining bytes of a buffer at the specified file offset.  The file offset of this descriptor is not changed.
+  // @param buffer The buffer, which may be a direct buffer.  Its position is advanced past the bytes written.
+  // @param position The file offset at which to start writing.
+  // @return The number of bytes written.
+  int writeAt(ByteBuffer buffer, long position) throws IOException, AS400SecurityException
+  {
+      // Data that was read ahead may be overwritten.
+      discardReadAhead();
+      completeWrites();
+      setModified(false);
+
+      int totalBytesWritten = 0;
+      while (buffer.hasRemaining())
+      {
+          int writeLength = Math.min(buffer.remaining(), maxDataBlockSize_);
+          IFSWriteReq req = new IFSWriteReq(fileHandle_, position + totalBytesWritten,
+                                            buffer, writeLength,
+                                            0xffff, false, serverDatastreamLevel_);
+          if (buffer.hasRemaining())
           {
-              incrementFileOffset(bytesReadByThisRequest);
-              totalBytesRead += bytesReadByThisRequest;
-              bytesRemainingToRead -= bytesReadByThisRequest;
+              // Indicate that there is more to write.
+              req.setChainIndicator(1);
+          }
+
+          ClientAccessDataStream ds = null;
+          try {
+              ds = (ClientAccessDataStream) server_.sendAndReceive(req);
           }
+          catch(ConnectionDroppedException e)
+          {
+              Trace.log(Trace.ERROR, "Byte stream server connection lost");
+              connectionDropped(e);
+          }
+          catch(InterruptedException e)
+          {
+              Trace.log(Trace.ERROR, "Interrupted", e);
+              InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+              throwException.initCause(e);
+              throw throwException;
+          }
+
+          checkWriteReply(ds, writeLength);
+          totalBytesWritten += writeLength;
       }
+      return totalBytesWritten;
+  }
 
-      // If we have read zero bytes and hit end-of-file, indicate that by returning -1.
-      // Otherwise return total number of bytes read.
-      return (endOfFile && totalBytesRead == 0 ? -1 : totalBytesRead);
+  // Wait for the replies to write requests that were sent without waiting, and throw the first failure.
+  void completeWrites() throws IOException, AS400SecurityException
+  {
+      if (writeBehind_ != null)
+          writeBehind_.completeAll();
+  }
+
+  // Check the reply to a write request.  An exception is thrown unless all of the data was written.
+  // @param ds The reply.
+  // @param writeLength The number of bytes in the request.
+  void checkWriteReply(ClientAccessDataStream ds, int writeLength) throws IOException, AS400SecurityException
+  {
+      if (ds instanceof IFSWriteRep)
+      {
+          IFSWriteRep rep = (IFSWriteRep) ds;
+          int rc = rep.getReturnCode();
+          if (rc != 0)
+          {
+              Trace.log(Trace.ERROR, "IFSWriteRep return code", rc);
+              throw new ExtendedIOException(path_, rc);
+          }
+
+          // Ensure that all data requested was written.
+          int lengthWritten = writeLength - rep.getLengthNotWritten();
+          if (lengthWritten != writeLength)
+          {
+              Trace.log(Trace.ERROR, "Incomplete write.  Only " +
+                                     Integer.toString(lengthWritten) + " bytes of a requested " +
+                                     Integer.toString(writeLength) + " were written.");
+              throw new ExtendedIOException(path_, ExtendedIOException.UNKNOWN_ERROR);
+          }
+      }
+      else if (ds instanceof IFSReturnCodeRep)
+      {
+          int rc = ((IFSReturnCodeRep) ds).getReturnCode();
+          if (rc != IFSReturnCodeRep.SUCCESS)
+          {
+              throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
+              Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
+              throw new ExtendedIOException(path_, rc);
+          }
+      }
+      else
+      {
+          Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
+          throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
+      }
   }
 
   void setConverter(ConverterImplRemote converter) {
@@ -1210,6 +1421,10 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
   {
       // Assume that we are connected to the server.
 
+      discardReadAhead();
+      completeWrites();
+      setModified(false);
+
       // Prepare to issue a 'change attributes' request.
       ClientAccessDataStream ds = null;
       int fileHandle = UNINITIALIZED;
@@ -1402,6 +1617,19 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
   {
       // Assume the arguments have been validated by the caller.
 
+      // Data that was read ahead may be overwritten.
+      discardReadAhead();
+      setModified(false);
+
+      // File output streams may send write requests without waiting for each reply.
+      if (writeBehind_ == null && IFSWriteBehind.isEnabled() && parent_ instanceof IFSFileOutputStreamImplRemote)
+          writeBehind_ = new IFSWriteBehind(this);
+      if (writeBehind_ != null)
+      {
+          writeBehind_.write(data, dataOffset, length, forceToStorage);
+          return;
+      }
+
       // Send write requests until all data has been written.
       while(length > 0)
       {
@@ -1437,47 +1665,11 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
               throw throwException;
           }
 
-          // Check the reply.
-          if (ds instanceof IFSWriteRep)
-          {
-               IFSWriteRep rep = (IFSWriteRep) ds;
-               int rc = rep.getReturnCode();
-               if (rc != 0)
-               {
-                   Trace.log(Trace.ERROR, "IFSWriteRep return code", rc);
-                   throw new ExtendedIOException(path_, rc);
-               }
-
-               // Advance the file pointer the length of the data written.
-               int lengthWritten = writeLength - rep.getLengthNotWritten();
-               incrementFileOffset(lengthWritten);
-               dataOffset += lengthWritten;
-               length -= lengthWritten;
-
-               // Ensure that all data requested was written.
-               if (lengthWritten != writeLength)
-               {
-                   Trace.log(Trace.ERROR, "Incomplete write.  Only " +
-                                          Integer.toString(lengthWritten) + " bytes of a requested " +
-                                          Integer.toString(writeLength) + " were written.");
-                   throw new ExtendedIOException(path_, ExtendedIOException.UNKNOWN_ERROR);
-               }
-          }
-          else if (ds instanceof IFSReturnCodeRep)
-          {
-              int rc = ((IFSReturnCodeRep) ds).getReturnCode();
-              if (rc != IFSReturnCodeRep.SUCCESS)
-              {
-                  throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
-                  Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
-                  throw new ExtendedIOException(path_, rc);
-              }
-          }
-          else
-          {
-              Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
-              throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
-          }
+          // Check the reply, and advance the file pointer the length of the data written.
+          checkWriteReply(ds, writeLength);
+          incrementFileOffset(writeLength);
+          dataOffset += writeLength;
+          length -= writeLength;
       }
   }
   
@@ -212,18 +212,28 @@ class IFSFileEnumeration implements Enumeration<IFSFile>
 
     @Override
     public IFSFile nextElement()
+    {
+        try {
+            return nextFile();
+        }
+        catch (AS400SecurityException e) {
+            throw new NoSuchElementException();
+        }
+        catch (IOException e) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    // Returns the next element, reporting a failure to load the next block instead of ending the enumeration.
+    // Used by IFSDirectoryStream.
+    IFSFile nextFile() throws AS400SecurityException, IOException
     {
         if (index_ < contents_.length)
             return contents_[index_++];
         else if (contentsPending_ == null)
             throw new NoSuchElementException();
 
-        try {
-            getNextBlock();
-        }
-        catch (Exception e) {
-            throw new NoSuchElementException();
-        }
+        getNextBlock();
         
         return contents_[index_++];
     }
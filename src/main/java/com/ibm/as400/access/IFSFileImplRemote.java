@@ -401,7 +401,12 @@ class IFSFileImplRemote implements IFSFileImpl
       if (isDirectory() == IFSReturnCodeRep.SUCCESS && exists(destinationPath) == IFSReturnCodeRep.SUCCESS)
           throw new ObjectAlreadyExistsException(destinationPath, ObjectAlreadyExistsException.OBJECT_ALREADY_EXISTS);
 
-      return fd_.copyTo(destinationPath, replace);
+      try {
+          return fd_.copyTo(destinationPath, replace);
+      }
+      finally {
+          invalidateCachedAttributes(destinationPath, true);
+      }
   }
 
 
@@ -414,8 +419,8 @@ class IFSFileImplRemote implements IFSFileImpl
       long creationDate = 0L;
 
       // Attempt to list the attributes of the specified file.
-      // Note: Do not use cached attributes, since they may be out of date.
-      IFSListAttrsRep attrs = getAttributeSetFromServer(fd_.path_);
+      // Note: Do not use attributesReply_, since it may be out of date.  The shared attribute cache expires its entries.
+      IFSListAttrsRep attrs = getAttributeSet(fd_.path_);
       if (attrs != null) {
           attributesReply_ = attrs;
           creationDate = attrs.getCreationDate();
@@ -430,7 +435,11 @@ class IFSFileImplRemote implements IFSFileImpl
       // Ensure that we are connected to the server.
       fd_.connect();
 
-      return (fd_.checkAccess(IFSOpenReq.WRITE_ACCESS, IFSOpenReq.OPEN_OPTION_CREATE_FAIL));
+      int returnCode = fd_.checkAccess(IFSOpenReq.WRITE_ACCESS, IFSOpenReq.OPEN_OPTION_CREATE_FAIL);
+      if (returnCode == IFSReturnCodeRep.SUCCESS)
+          invalidateCachedAttributes(fd_.path_, true);
+
+      return returnCode;
   }
 
   @Override
@@ -500,6 +509,8 @@ class IFSFileImplRemote implements IFSFileImpl
 
       // Clear any cached file attributes.
       attributesReply_ = null;
+      if (rc == IFSReturnCodeRep.SUCCESS)
+          invalidateCachedAttributes(fd_.path_, true);
 
       return (rc);
   }
@@ -591,7 +602,7 @@ class IFSFileImplRemote implements IFSFileImpl
       // Attempt to list the attributes of the specified file.
       try
       {
-          IFSListAttrsRep attrs = getAttributeSetFromServer(name);
+          IFSListAttrsRep attrs = getAttributeSet(name);
           if (attrs != null)
           {
               returnCode = IFSReturnCodeRep.SUCCESS;
@@ -620,6 +631,41 @@ class IFSFileImplRemote implements IFSFileImpl
       return fd_.path_;
   }
 
+  // Returns the attributes of a path from the system's shared attribute cache, if it has one, reading them from the
+  // server when they are not cached.  Used by the methods that only report attributes.
+  private IFSListAttrsRep getAttributeSet(String filePath) throws IOException, AS400SecurityException
+  {
+      IFSAttributeCache cache = fd_.system_.getIFSAttributeCache();
+      if (cache == null)
+          return getAttributeSetFromServer(filePath);
+
+      IFSAttributeCache.Entry entry = cache.get(filePath);
+      if (entry != null)
+          return entry.attributes_;
+
+      long generation = cache.getGeneration();
+      IFSListAttrsRep reply = getAttributeSetFromServer(filePath);
+      cache.put(filePath, reply, generation);
+      return reply;
+  }
+
+  // Removes a changed path from the system's shared attribute cache.  When the path was created, deleted or renamed,
+  // the paths beneath it and its parent directory, whose modification time changed, are removed as well.
+  private void invalidateCachedAttributes(String path, boolean parentChanged)
+  {
+      IFSAttributeCache cache = fd_.system_.getIFSAttributeCache();
+      if (cache == null)
+          return;
+
+      if (!parentChanged)
+          cache.invalidate(path);
+      else
+      {
+          cache.invalidateTree(path);
+          cache.invalidateParent(path);
+      }
+  }
+
   /**
    Get a list attribute reply from the server for a single entity (get the attributes
    of a specific object, not the attributes of every file in a directory).
@@ -1442,7 +1488,7 @@ public String getOwnerName() throws IOException, AS400SecurityException
       int returnCode = IFSReturnCodeRep.FILE_NOT_FOUND;
 
       if (attributesReply_ == null)
-          attributesReply_ = getAttributeSetFromServer(fd_.path_);
+          attributesReply_ = getAttributeSet(fd_.path_);
 
       if (attributesReply_ != null)
           if (determineIsDirectory(attributesReply_))
@@ -1460,7 +1506,7 @@ public String getOwnerName() throws IOException, AS400SecurityException
       int returnCode = IFSReturnCodeRep.FILE_NOT_FOUND;
 
       if (attributesReply_ == null)
-          attributesReply_ = getAttributeSetFromServer(fd_.path_);
+          attributesReply_ = getAttributeSet(fd_.path_);
 
       if (attributesReply_ != null)
           if (determineIsFile(attributesReply_))
@@ -1479,7 +1525,7 @@ public String getOwnerName() throws IOException, AS400SecurityException
 
       // Attempt to get the attributes of this object if we do not have them.
       if (attributesReply_ == null)
-          attributesReply_ = getAttributeSetFromServer(fd_.path_);
+          attributesReply_ = getAttributeSet(fd_.path_);
 
       // Determine if the file attributes indicate hidden.
       if (attributesReply_ != null)
@@ -1506,7 +1552,7 @@ public String getOwnerName() throws IOException, AS400SecurityException
 
       // Attempt to get the attributes of this object if we do not have them.
       if (attributesReply_ == null)
-          attributesReply_ = getAttributeSetFromServer(fd_.path_);
+          attributesReply_ = getAttributeSet(fd_.path_);
 
       // Determine if the file attributes indicate hidden.
       if (attributesReply_ != null)
@@ -1591,8 +1637,8 @@ public String getOwnerName() throws IOException, AS400SecurityException
       long accessDate = 0L;
 
       // Attempt to list the attributes of the specified file.
-      // Note: Do not use cached attributes, since they may be out of date.
-      IFSListAttrsRep attrs = getAttributeSetFromServer(fd_.path_);
+      // Note: Do not use attributesReply_, since it may be out of date.  The shared attribute cache expires its entries.
+      IFSListAttrsRep attrs = getAttributeSet(fd_.path_);
       if (attrs != null)
       {
           attributesReply_ = attrs;
@@ -1611,8 +1657,8 @@ public String getOwnerName() throws IOException, AS400SecurityException
       long modificationDate = 0L;
 
       // Attempt to list the attributes of the specified file.
-      // Note: Do not use cached attributes, since they may be out of date.
-      IFSListAttrsRep attrs = getAttributeSetFromServer(fd_.path_);
+      // Note: Do not use attributesReply_, since it may be out of date.  The shared attribute cache expires its entries.
+      IFSListAttrsRep attrs = getAttributeSet(fd_.path_);
       if (attrs != null)
       {
           attributesReply_ = attrs;
@@ -1633,8 +1679,8 @@ public String getOwnerName() throws IOException, AS400SecurityException
       if (fd_.getSystemVRM() >> 8 != 0x00000502)
       {
           // Attempt to list the attributes of the specified file.
-          // Note: Do not use cached attributes, since they may be out of date.
-          IFSListAttrsRep attrs = getAttributeSetFromServer(fd_.path_);
+          // Note: Do not use attributesReply_, since it may be out of date.  The shared attribute cache expires its entries.
+          IFSListAttrsRep attrs = getAttributeSet(fd_.path_);
 
           if (attrs != null)
           {
@@ -1879,6 +1925,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
           throw throwException;
       }
 
+      if (returnCode == IFSReturnCodeRep.SUCCESS)
+          invalidateCachedAttributes(directory, true);
+
       return returnCode;
   }
 
@@ -1979,6 +2028,8 @@ public String getOwnerName() throws IOException, AS400SecurityException
 
       if (success)
       {
+          invalidateCachedAttributes(fd_.path_, true);
+          invalidateCachedAttributes(otherFile.getAbsolutePath(), true);
           fd_.path_ = otherFile.getAbsolutePath();
 
           // Clear any cached attributes.
@@ -2058,6 +2109,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
           throw new InternalErrorException(InternalErrorException.DATA_STREAM_UNKNOWN, Integer.toHexString(ds.getReqRepID()), null);
       }
 
+      if (success)
+          invalidateCachedAttributes(fd_.path_, false);
+
       return success;
   }
 
@@ -2110,6 +2164,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
       // Clear any cached attributes.
       attributesReply_ = null;
 
+      if (success)
+          invalidateCachedAttributes(fd_.path_, false);
+
       return success;
   }
 
@@ -2191,6 +2248,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
               success = true;
       }
       
+      if (success)
+          invalidateCachedAttributes(fd_.path_, false);
+
       return success;
   }
 
@@ -2299,6 +2359,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
               fd_.close(fileHandle);
       }
 
+      if (success)
+          invalidateCachedAttributes(fd_.path_, false);
+
       return success;
   }
 
@@ -2421,6 +2484,9 @@ public String getOwnerName() throws IOException, AS400SecurityException
               success = true;
       }
       
+      if (success)
+          invalidateCachedAttributes(fd_.path_, false);
+
       return success;
   }
 
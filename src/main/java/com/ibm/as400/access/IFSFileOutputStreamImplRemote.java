@@ -227,6 +227,7 @@ implements IFSFileOutputStreamImpl
       IFSOpenRep rep = (IFSOpenRep) ds;
       fd_.setOpen(true, rep.getFileHandle());
       fd_.setOpenAllowed(false);
+      fd_.setModified(true);
       if (append_)
       {
         // We must append to the file.
@@ -0,0 +1,269 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSFileSystem.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ *  The integrated file system of an IBM i system, for use with the java.nio.file API.
+ *  <p>An IFSFileSystem is obtained from {@link IFSFileSystemProvider IFSFileSystemProvider}, for example through
+ *  <tt>FileSystems.newFileSystem(URI.create("ifs://myUser@mySystem/"), env)</tt>.  Paths are separated by "/",
+ *  and relative paths are resolved against the root directory.
+ *  <p>Only the "basic" file attribute view is supported.  Watch services, file stores and user principal lookup
+ *  are not supported.
+ **/
+public final class IFSFileSystem extends FileSystem
+{
+    private final IFSFileSystemProvider provider_;
+    private final AS400 system_;
+    private final String key_;
+    // Indicates if the file server connection is disconnected when this file system is closed.
+    private final boolean ownsSystem_;
+    private volatile boolean open_ = true;
+
+    IFSFileSystem(IFSFileSystemProvider provider, AS400 system, String key, boolean ownsSystem)
+    {
+        provider_ = provider;
+        system_ = system;
+        key_ = key;
+        ownsSystem_ = ownsSystem;
+    }
+
+    /**
+     *  Returns the system object used to access the integrated file system.
+     *  @return  The system.
+     **/
+    public AS400 getSystem()
+    {
+        return system_;
+    }
+
+    // Returns the authority component of URIs for this file system, of the form user@system.
+    String getAuthority()
+    {
+        String user = system_.getUserId();
+        String host = system_.getSystemName();
+        return (user == null || user.length() == 0) ? host : user + "@" + host;
+    }
+
+    // Returns the key under which the provider registered this file system.
+    String getKey()
+    {
+        return key_;
+    }
+
+    void checkOpen()
+    {
+        if (!open_) throw new ClosedFileSystemException();
+    }
+
+    @Override
+    public FileSystemProvider provider()
+    {
+        return provider_;
+    }
+
+    /**
+     *  Closes this file system.  If the file system created its own system object, all of its connections
+     *  are disconnected.
+     **/
+    @Override
+    public void close()
+    {
+        if (!open_) return;
+        open_ = false;
+        provider_.removeFileSystem(this);
+        if (ownsSystem_) system_.disconnectAllServices();
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return open_;
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return false;
+    }
+
+    @Override
+    public String getSeparator()
+    {
+        return "/";
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories()
+    {
+        return Collections.<Path>singletonList(new IFSPath(this, "/"));
+    }
+
+    /**
+     *  File stores are not supported.
+     *  @return  An empty collection.
+     **/
+    @Override
+    public Iterable<FileStore> getFileStores()
+    {
+        return Collections.<FileStore>emptyList();
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews()
+    {
+        return Collections.singleton("basic");
+    }
+
+    @Override
+    public Path getPath(String first, String... more)
+    {
+        if (more.length == 0) return new IFSPath(this, first);
+        StringBuilder buffer = new StringBuilder(first);
+        for (int i = 0; i < more.length; ++i)
+        {
+            if (more[i].length() == 0) continue;
+            if (buffer.length() > 0) buffer.append('/');
+            buffer.append(more[i]);
+        }
+        return new IFSPath(this, buffer.toString());
+    }
+
+    /**
+     *  Returns a path matcher for the "glob" and "regex" syntaxes.
+     **/
+    @Override
+    public PathMatcher getPathMatcher(String syntaxAndPattern)
+    {
+        int colon = syntaxAndPattern.indexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException(syntaxAndPattern);
+        String syntax = syntaxAndPattern.substring(0, colon);
+        String pattern = syntaxAndPattern.substring(colon + 1);
+        String regex;
+        if (syntax.equalsIgnoreCase("glob"))
+            regex = globToRegex(pattern);
+        else if (syntax.equalsIgnoreCase("regex"))
+            regex = pattern;
+        else
+            throw new UnsupportedOperationException("Syntax '" + syntax + "' not recognized");
+
+        final Pattern compiled = Pattern.compile(regex);
+        return new PathMatcher()
+        {
+            @Override
+            public boolean matches(Path path)
+            {
+                return compiled.matcher(path.toString()).matches();
+            }
+        };
+    }
+
+    // Converts a glob pattern to a regular expression.  Supports *, **, ?, [...] and {...,...}.
+    private static String globToRegex(String glob)
+    {
+        StringBuilder regex = new StringBuilder("^");
+        boolean inGroup = false;
+        for (int i = 0; i < glob.length(); ++i)
+        {
+            char c = glob.charAt(i);
+            switch (c)
+            {
+                case '\\':
+                    if (++i >= glob.length()) throw new PatternSyntaxException("No character to escape", glob, i - 1);
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+                    break;
+                case '*':
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*')
+                    {
+                        regex.append(".*");
+                        ++i;
+                    }
+                    else
+                    {
+                        regex.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                case '[':
+                {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) throw new PatternSyntaxException("Missing ']'", glob, i);
+                    String set = glob.substring(i + 1, end);
+                    if (set.startsWith("!")) set = "^" + set.substring(1);
+                    regex.append('[').append(set.replace("\\", "\\\\")).append(']');
+                    i = end;
+                    break;
+                }
+                case '{':
+                    if (inGroup) throw new PatternSyntaxException("Cannot nest groups", glob, i);
+                    regex.append("(?:");
+                    inGroup = true;
+                    break;
+                case '}':
+                    if (inGroup)
+                    {
+                        regex.append(')');
+                        inGroup = false;
+                    }
+                    else
+                    {
+                        regex.append("\\}");
+                    }
+                    break;
+                case ',':
+                    regex.append(inGroup ? "|" : ",");
+                    break;
+                default:
+                    if (".^$+()|".indexOf(c) >= 0) regex.append('\\');
+                    regex.append(c);
+            }
+        }
+        if (inGroup) throw new PatternSyntaxException("Missing '}'", glob, glob.length() - 1);
+        return regex.append('$').toString();
+    }
+
+    /**
+     *  User principal lookup is not supported.
+     *  @exception  UnsupportedOperationException  Always.
+     **/
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *  Watch services are not supported.
+     *  @exception  UnsupportedOperationException  Always.
+     **/
+    @Override
+    public WatchService newWatchService()
+    {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,726 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSFileSystemProvider.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *  A java.nio.file provider for the integrated file system of IBM i systems, for the "ifs" URI scheme.
+ *  <p>URIs have the form <tt>ifs://[user@]system/path</tt>.  A file system is created with
+ *  {@link java.nio.file.FileSystems#newFileSystem(URI, Map) FileSystems.newFileSystem()}, using these environment keys:
+ *  <ul>
+ *  <li>"system" - An {@link AS400 AS400} object to use.  The file system does not disconnect it when closed.
+ *  <li>"user" - The user ID, if the URI does not specify one.
+ *  <li>"password" - The password, as a String or char[].
+ *  </ul>
+ *  If no system object is given, the file system creates one and disconnects its file server connection when closed.
+ *  <p>Directory streams list the entries of a directory from the file server one block at a time, and the paths they
+ *  return carry the attributes from the listing, so reading the basic attributes of each entry, as
+ *  {@link java.nio.file.Files#walk(Path, java.nio.file.FileVisitOption...) Files.walk()} does, costs no further requests.
+ *  Looking up the attributes of any other path costs one request.
+ *  <p>Byte channels are {@link IFSFileChannel IFSFileChannel} objects.  Only the "basic" attribute view is supported,
+ *  and only its last modified time can be set.  File stores, watch services and symbolic link creation are not supported.
+ **/
+public class IFSFileSystemProvider extends FileSystemProvider
+{
+    static final String SCHEME = "ifs";
+
+    // Open file systems, keyed by user@system.
+    private final HashMap<String, IFSFileSystem> fileSystems_ = new HashMap<String, IFSFileSystem>();
+
+    /**
+     *  Constructs an IFSFileSystemProvider object.  Normally the provider is loaded by the java.nio.file API.
+     **/
+    public IFSFileSystemProvider()
+    {
+    }
+
+    /**
+     *  Returns the URI scheme of this provider.
+     *  @return  "ifs".
+     **/
+    @Override
+    public String getScheme()
+    {
+        return SCHEME;
+    }
+
+    private void checkUri(URI uri)
+    {
+        if (!SCHEME.equalsIgnoreCase(uri.getScheme())) throw new IllegalArgumentException("URI scheme is not '" + SCHEME + "'");
+        if (uri.getHost() == null) throw new IllegalArgumentException("URI does not specify a system");
+    }
+
+    private static String getKey(String user, String host)
+    {
+        return (user == null ? "" : user.toUpperCase()) + "@" + host.toUpperCase();
+    }
+
+    /**
+     *  Creates a file system for the system named by the URI.
+     *  @param  uri  The URI, of the form ifs://[user@]system/.
+     *  @param  env  The environment.  See the class description.
+     *  @return  The file system.
+     *  @exception  FileSystemAlreadyExistsException  If a file system for the user and system is already open.
+     **/
+    @Override
+    public FileSystem newFileSystem(URI uri, Map<String, ?> env) throws IOException
+    {
+        checkUri(uri);
+        AS400 system = (AS400)env.get("system");
+        boolean ownsSystem = (system == null);
+        String user = uri.getUserInfo();
+        if (system == null)
+        {
+            if (user == null) user = (String)env.get("user");
+            Object password = env.get("password");
+            if (password instanceof String) password = ((String)password).toCharArray();
+            if (user == null)
+                system = new AS400(uri.getHost());
+            else if (password == null)
+                system = new AS400(uri.getHost(), user);
+            else
+                system = new AS400(uri.getHost(), user, (char[])password);
+        }
+        else if (user == null)
+        {
+            user = system.getUserId();
+        }
+
+        String key = getKey(user, uri.getHost());
+        synchronized (fileSystems_)
+        {
+            if (fileSystems_.containsKey(key)) throw new FileSystemAlreadyExistsException(key);
+            IFSFileSystem fileSystem = new IFSFileSystem(this, system, key, ownsSystem);
+            fileSystems_.put(key, fileSystem);
+            return fileSystem;
+        }
+    }
+
+    /**
+     *  Returns the open file system for the user and system named by the URI.
+     *  @param  uri  The URI.
+     *  @return  The file system.
+     *  @exception  FileSystemNotFoundException  If no file system for the user and system is open.
+     **/
+    @Override
+    public FileSystem getFileSystem(URI uri)
+    {
+        checkUri(uri);
+        String key = getKey(uri.getUserInfo(), uri.getHost());
+        synchronized (fileSystems_)
+        {
+            IFSFileSystem fileSystem = fileSystems_.get(key);
+            if (fileSystem == null && uri.getUserInfo() == null)
+            {
+                // Without a user in the URI, accept the only file system open for the system.
+                String suffix = "@" + uri.getHost().toUpperCase();
+                for (IFSFileSystem candidate : fileSystems_.values())
+                {
+                    if (!candidate.getKey().endsWith(suffix)) continue;
+                    if (fileSystem != null) throw new FileSystemNotFoundException(key);
+                    fileSystem = candidate;
+                }
+            }
+            if (fileSystem == null) throw new FileSystemNotFoundException(key);
+            return fileSystem;
+        }
+    }
+
+    void removeFileSystem(IFSFileSystem fileSystem)
+    {
+        synchronized (fileSystems_)
+        {
+            if (fileSystems_.get(fileSystem.getKey()) == fileSystem) fileSystems_.remove(fileSystem.getKey());
+        }
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        return getFileSystem(uri).getPath(uri.getPath());
+    }
+
+    private static IFSPath toIFSPath(Path path)
+    {
+        if (path == null) throw new NullPointerException();
+        if (!(path instanceof IFSPath)) throw new ProviderMismatchException();
+        IFSPath ifsPath = (IFSPath)path;
+        ((IFSFileSystem)ifsPath.getFileSystem()).checkOpen();
+        return ifsPath;
+    }
+
+    private static AS400 getSystem(IFSPath path)
+    {
+        return ((IFSFileSystem)path.getFileSystem()).getSystem();
+    }
+
+    private static String getAbsolutePath(IFSPath path)
+    {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    // Returns the java.nio.file exception for a file server return code.
+    static IOException toIOException(Path path, int returnCode)
+    {
+        String file = path.toString();
+        switch (returnCode)
+        {
+            case IFSReturnCodeRep.FILE_NOT_FOUND:
+            case IFSReturnCodeRep.PATH_NOT_FOUND:
+                return new NoSuchFileException(file);
+            case IFSReturnCodeRep.DUPLICATE_DIR_ENTRY_NAME:
+                return new FileAlreadyExistsException(file);
+            case IFSReturnCodeRep.ACCESS_DENIED_TO_DIR_ENTRY:
+            case IFSReturnCodeRep.ACCESS_DENIED_TO_REQUEST:
+                return new AccessDeniedException(file);
+            case IFSReturnCodeRep.DIR_IS_NOT_EMPTY:
+                return new DirectoryNotEmptyException(file);
+            default:
+                return new ExtendedIOException(file, returnCode);
+        }
+    }
+
+    static IOException toIOException(Path path, AS400SecurityException e)
+    {
+        IOException exception = new AccessDeniedException(path.toString(), null, e.getMessage());
+        exception.initCause(e);
+        return exception;
+    }
+
+    // Replaces an ExtendedIOException with the matching java.nio.file exception, if there is one.
+    private static IOException toIOException(Path path, IOException e)
+    {
+        if (!(e instanceof ExtendedIOException)) return e;
+        IOException exception = toIOException(path, ((ExtendedIOException)e).getReturnCode());
+        if (exception instanceof ExtendedIOException) return e;
+        exception.initCause(e);
+        return exception;
+    }
+
+    private static void check(Path path, int returnCode) throws IOException
+    {
+        if (returnCode != IFSReturnCodeRep.SUCCESS) throw toIOException(path, returnCode);
+    }
+
+    // Returns an IFSFile for the path that can answer attribute queries without another request.  A path from a
+    // directory stream carries one.  Otherwise the parent directory is listed with the file name as the pattern, which
+    // returns the object with its attributes in one request.
+    private static IFSFile getFile(IFSPath path) throws IOException
+    {
+        IFSFile cached = path.getCachedFile();
+        if (cached != null) return cached;
+
+        AS400 system = getSystem(path);
+        String absolutePath = getAbsolutePath(path);
+        try
+        {
+            int separator = absolutePath.lastIndexOf('/');
+            String name = absolutePath.substring(separator + 1);
+            if (name.length() == 0 || name.indexOf('*') >= 0 || name.indexOf('?') >= 0)
+            {
+                // The root, or a name that cannot be used as a list pattern.
+                IFSFile file = new IFSFile(system, absolutePath);
+                check(path, file.exists0());
+                return file;
+            }
+            String parent = (separator == 0) ? "/" : absolutePath.substring(0, separator);
+            IFSFile[] files = new IFSFile(system, parent).listFiles0(null, name);
+            if (files == null || files.length == 0) throw new NoSuchFileException(path.toString());
+            return files[0];
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+        catch (IOException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        if (attrs.length > 0) throw new UnsupportedOperationException("File attributes are not supported");
+        if (options.contains(StandardOpenOption.DELETE_ON_CLOSE)) throw new UnsupportedOperationException("DELETE_ON_CLOSE is not supported");
+
+        boolean append = options.contains(StandardOpenOption.APPEND);
+        boolean write = append || options.contains(StandardOpenOption.WRITE);
+        boolean read = options.contains(StandardOpenOption.READ) || !write;
+        if (append && read) throw new IllegalArgumentException("READ + APPEND not allowed");
+        boolean truncate = !append && options.contains(StandardOpenOption.TRUNCATE_EXISTING);
+
+        String mode = (read && write) ? "rw" : (write ? "w" : "r");
+        int existenceOption;
+        if (!write)
+            existenceOption = IFSRandomAccessFile.OPEN_OR_FAIL;
+        else if (options.contains(StandardOpenOption.CREATE_NEW))
+            existenceOption = IFSRandomAccessFile.FAIL_OR_CREATE;
+        else if (options.contains(StandardOpenOption.CREATE))
+            existenceOption = truncate ? IFSRandomAccessFile.REPLACE_OR_CREATE : IFSRandomAccessFile.OPEN_OR_CREATE;
+        else
+            existenceOption = truncate ? IFSRandomAccessFile.REPLACE_OR_FAIL : IFSRandomAccessFile.OPEN_OR_FAIL;
+
+        try
+        {
+            IFSRandomAccessFile file = new IFSRandomAccessFile(getSystem(ifsPath), getAbsolutePath(ifsPath), mode, IFSRandomAccessFile.SHARE_ALL, existenceOption);
+            IFSFileChannel channel = file.getChannel();
+            // The file server has no append mode, so the channel is positioned at the end of the file once.
+            if (append) channel.position(channel.size());
+            return channel;
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+        catch (IOException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    // Opens an IFSFileInputStream, which reads ahead when sequential reads are detected.
+    @Override
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        for (int i = 0; i < options.length; ++i)
+        {
+            if (options[i] != StandardOpenOption.READ) return super.newInputStream(path, options);
+        }
+        try
+        {
+            return new IFSFileInputStream(getSystem(ifsPath), getAbsolutePath(ifsPath), IFSFileInputStream.SHARE_ALL);
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+        catch (IOException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    // Opens an IFSFileOutputStream, which writes behind when enabled, if the options are ones it can honor.
+    @Override
+    public OutputStream newOutputStream(Path path, OpenOption... options) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        Set<OpenOption> set = new HashSet<OpenOption>(Arrays.asList(options));
+        if (set.isEmpty())
+        {
+            set.add(StandardOpenOption.CREATE);
+            set.add(StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        set.remove(StandardOpenOption.WRITE);
+        boolean append = set.remove(StandardOpenOption.APPEND);
+        boolean create = set.remove(StandardOpenOption.CREATE);
+        boolean truncate = set.remove(StandardOpenOption.TRUNCATE_EXISTING);
+        if (!create || !set.isEmpty() || (!append && !truncate)) return super.newOutputStream(path, options);
+        try
+        {
+            return new IFSFileOutputStream(getSystem(ifsPath), getAbsolutePath(ifsPath), IFSFileOutputStream.SHARE_ALL, append);
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+        catch (IOException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(dir);
+        try
+        {
+            IFSFileEnumeration enumeration = new IFSFileEnumeration(new IFSFile(getSystem(ifsPath), getAbsolutePath(ifsPath)), null, "*");
+            // An empty listing is also what a missing directory or a file produces.
+            if (!enumeration.hasMoreElements() && !getFile(ifsPath).isDirectory())
+                throw new NotDirectoryException(dir.toString());
+            return new IFSDirectoryStream(ifsPath, enumeration, filter);
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(dir, e);
+        }
+        catch (IOException e)
+        {
+            throw toIOException(dir, e);
+        }
+    }
+
+    @Override
+    public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(dir);
+        if (attrs.length > 0) throw new UnsupportedOperationException("File attributes are not supported");
+        String absolutePath = getAbsolutePath(ifsPath);
+        try
+        {
+            check(dir, new IFSFile(getSystem(ifsPath), absolutePath).mkdir0(absolutePath));
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(dir, e);
+        }
+    }
+
+    @Override
+    public void delete(Path path) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        try
+        {
+            check(path, new IFSFile(getSystem(ifsPath), getAbsolutePath(ifsPath)).delete0());
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    private static boolean isSameFileSystem(Path source, Path target)
+    {
+        return source instanceof IFSPath && target instanceof IFSPath && source.getFileSystem() == target.getFileSystem();
+    }
+
+    /**
+     *  Copies a file.  Within one file system the file server copies the data.  A directory is copied as an empty directory.
+     *  File attributes are not copied.
+     **/
+    @Override
+    public void copy(Path source, Path target, CopyOption... options) throws IOException
+    {
+        boolean replace = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+        if (!isSameFileSystem(source, target))
+        {
+            copyAcross(source, target, replace);
+            return;
+        }
+
+        IFSPath sourcePath = toIFSPath(source);
+        IFSPath targetPath = toIFSPath(target);
+        if (isSameFile(source, target)) return;
+        IFSFile sourceFile = getFile(sourcePath);
+        // An existing file target is replaced by the file server.
+        boolean targetIsFile = deleteTarget(targetPath, replace);
+        try
+        {
+            if (sourceFile.isDirectory())
+            {
+                if (targetIsFile) delete(target);
+                createDirectory(target);
+            }
+            else if (!sourceFile.copyTo(getAbsolutePath(targetPath), replace))
+            {
+                throw new ExtendedIOException(target.toString(), ExtendedIOException.UNKNOWN_ERROR);
+            }
+        }
+        catch (ObjectAlreadyExistsException e)
+        {
+            IOException exception = new FileAlreadyExistsException(target.toString());
+            exception.initCause(e);
+            throw exception;
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(source, e);
+        }
+    }
+
+    // Prepares the target of a copy or move.  An existing target is an error unless it may be replaced, in which case
+    // a directory target is deleted.  Returns true if the target exists and is a file.
+    private boolean deleteTarget(IFSPath target, boolean replace) throws IOException
+    {
+        IFSFile targetFile;
+        try
+        {
+            targetFile = getFile(target);
+        }
+        catch (NoSuchFileException e)
+        {
+            return false;
+        }
+        if (!replace) throw new FileAlreadyExistsException(target.toString());
+        if (targetFile.isDirectory())
+        {
+            delete(target);
+            return false;
+        }
+        return true;
+    }
+
+    // Copies a file between file systems through streams.
+    private static void copyAcross(Path source, Path target, boolean replace) throws IOException
+    {
+        if (Files.isDirectory(source))
+        {
+            if (replace) Files.deleteIfExists(target);
+            Files.createDirectory(target);
+            return;
+        }
+        InputStream in = Files.newInputStream(source);
+        try
+        {
+            if (replace)
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            else
+                Files.copy(in, target);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     *  Moves or renames a file.  Within one file system the file server renames the object.
+     **/
+    @Override
+    public void move(Path source, Path target, CopyOption... options) throws IOException
+    {
+        boolean replace = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+        if (!isSameFileSystem(source, target))
+        {
+            copyAcross(source, target, replace);
+            Files.delete(source);
+            return;
+        }
+
+        IFSPath sourcePath = toIFSPath(source);
+        IFSPath targetPath = toIFSPath(target);
+        if (isSameFile(source, target)) return;
+        if (deleteTarget(targetPath, replace)) delete(target);
+        AS400 system = getSystem(sourcePath);
+        try
+        {
+            check(source, new IFSFile(system, getAbsolutePath(sourcePath)).renameTo0(new IFSFile(system, getAbsolutePath(targetPath))));
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(source, e);
+        }
+        catch (PropertyVetoException e)
+        {
+            // No listeners are registered on these IFSFile objects.
+            Trace.log(Trace.ERROR, "Unexpected exception renaming " + source, e);
+            throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+        }
+    }
+
+    @Override
+    public boolean isSameFile(Path path, Path path2) throws IOException
+    {
+        if (path.equals(path2)) return true;
+        if (!isSameFileSystem(path, path2)) return false;
+        return path.toAbsolutePath().normalize().equals(path2.toAbsolutePath().normalize());
+    }
+
+    @Override
+    public boolean isHidden(Path path) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        try
+        {
+            return getFile(ifsPath).isHidden();
+        }
+        catch (AS400SecurityException e)
+        {
+            throw toIOException(path, e);
+        }
+    }
+
+    /**
+     *  File stores are not supported.
+     *  @exception  UnsupportedOperationException  Always.
+     **/
+    @Override
+    public FileStore getFileStore(Path path) throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void checkAccess(Path path, AccessMode... modes) throws IOException
+    {
+        IFSPath ifsPath = toIFSPath(path);
+        IFSFile file = getFile(ifsPath);
+        for (int i = 0; i < modes.length; ++i)
+        {
+            boolean allowed;
+            switch (modes[i])
+            {
+                case READ:
+                    allowed = file.canRead();
+                    break;
+                case WRITE:
+                    allowed = file.canWrite();
+                    break;
+                default:
+                    allowed = file.canExecute();
+            }
+            if (!allowed) throw new AccessDeniedException(path.toString());
+        }
+    }
+
+    private static boolean followLinks(LinkOption... options)
+    {
+        return !Arrays.asList(options).contains(LinkOption.NOFOLLOW_LINKS);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options)
+    {
+        if (type != BasicFileAttributeView.class) return null;
+        return (V)new BasicView(toIFSPath(path), followLinks(options));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options) throws IOException
+    {
+        if (type != BasicFileAttributes.class) throw new UnsupportedOperationException(type.getName());
+        return (A)new BasicView(toIFSPath(path), followLinks(options)).readAttributes();
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException
+    {
+        String names = attributes;
+        int colon = attributes.indexOf(':');
+        if (colon >= 0)
+        {
+            if (!attributes.substring(0, colon).equals("basic")) throw new UnsupportedOperationException(attributes);
+            names = attributes.substring(colon + 1);
+        }
+        BasicFileAttributes attrs = readAttributes(path, BasicFileAttributes.class, options);
+        HashMap<String, Object> map = new HashMap<String, Object>();
+        boolean all = names.equals("*");
+        Set<String> requested = new HashSet<String>(Arrays.asList(names.split(",")));
+        if (all || requested.remove("lastModifiedTime")) map.put("lastModifiedTime", attrs.lastModifiedTime());
+        if (all || requested.remove("lastAccessTime")) map.put("lastAccessTime", attrs.lastAccessTime());
+        if (all || requested.remove("creationTime")) map.put("creationTime", attrs.creationTime());
+        if (all || requested.remove("size")) map.put("size", Long.valueOf(attrs.size()));
+        if (all || requested.remove("isRegularFile")) map.put("isRegularFile", Boolean.valueOf(attrs.isRegularFile()));
+        if (all || requested.remove("isDirectory")) map.put("isDirectory", Boolean.valueOf(attrs.isDirectory()));
+        if (all || requested.remove("isSymbolicLink")) map.put("isSymbolicLink", Boolean.valueOf(attrs.isSymbolicLink()));
+        if (all || requested.remove("isOther")) map.put("isOther", Boolean.valueOf(attrs.isOther()));
+        if (all || requested.remove("fileKey")) map.put("fileKey", attrs.fileKey());
+        if (!all && !requested.isEmpty()) throw new IllegalArgumentException("'" + requested.iterator().next() + "' not recognized");
+        return map;
+    }
+
+    /**
+     *  Sets an attribute.  Only "basic:lastModifiedTime" can be set.
+     **/
+    @Override
+    public void setAttribute(Path path, String attribute, Object value, LinkOption... options) throws IOException
+    {
+        if (!attribute.equals("lastModifiedTime") && !attribute.equals("basic:lastModifiedTime"))
+            throw new UnsupportedOperationException(attribute);
+        new BasicView(toIFSPath(path), followLinks(options)).setTimes((FileTime)value, null, null);
+    }
+
+    // The basic attribute view of an IFS object.
+    private static final class BasicView implements BasicFileAttributeView
+    {
+        private final IFSPath path_;
+        private final boolean followLinks_;
+
+        BasicView(IFSPath path, boolean followLinks)
+        {
+            path_ = path;
+            followLinks_ = followLinks;
+        }
+
+        @Override
+        public String name()
+        {
+            return "basic";
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes() throws IOException
+        {
+            try
+            {
+                return new IFSFileAttributes(getFile(path_), followLinks_);
+            }
+            catch (AS400SecurityException e)
+            {
+                throw toIOException(path_, e);
+            }
+        }
+
+        // The file server can set only the last modified time.  The other times are ignored.
+        @Override
+        public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime) throws IOException
+        {
+            if (lastModifiedTime == null) return;
+            try
+            {
+                if (!new IFSFile(getSystem(path_), getAbsolutePath(path_)).setLastModified(lastModifiedTime.toMillis()))
+                    throw new NoSuchFileException(path_.toString());
+            }
+            catch (PropertyVetoException e)
+            {
+                Trace.log(Trace.ERROR, "Unexpected exception setting last modified time of " + path_, e);
+                throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+            }
+        }
+    }
+}
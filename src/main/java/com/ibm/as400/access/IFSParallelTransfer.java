@@ -0,0 +1,494 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSParallelTransfer.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Copies a large stream file between the integrated file system and the local file system over several file server
+ *  connections at the same time.
+ *  <p>The file is divided into ranges of {@link #setRangeSize(long) the range size}.  Each of
+ *  {@link #setConnections(int) a number of} worker threads opens the file on its own connection, using a copy of the
+ *  system object, and transfers one range at a time with positional reads and writes.  The local file is accessed
+ *  through a FileChannel with positional reads and writes, so the ranges can complete in any order.
+ *  <p>If a connection is dropped or a request fails, the worker reconnects and continues its range from the last
+ *  block that was completed, up to {@link #setMaxRetries(int) the maximum number of retries} for each range.  If
+ *  the retries run out, the transfer fails, and the ranges that were completed are kept.  {@link #resume()} then
+ *  continues the failed transfer with the ranges that remain, without truncating or replacing the target file.
+ *  <p>The number of bytes transferred, the elapsed time and the throughput can be read while a transfer is running
+ *  and after it ends.
+ *  <p>The following example downloads a file over 8 connections:
+ *  <pre>
+ *  IFSParallelTransfer transfer = new IFSParallelTransfer(system);
+ *  transfer.setConnections(8);
+ *  transfer.download("/home/myUser/backup.savf", new File("backup.savf"));
+ *  System.out.println(transfer.getThroughput() + " bytes per second");
+ *  </pre>
+ **/
+public class IFSParallelTransfer
+{
+    private static final int MAX_CONNECTIONS = 64;
+    private static final long DEFAULT_RANGE_SIZE = 8L * 1024 * 1024;
+    // Size of each read or write request.
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    private final AS400 system_;
+    private int connections_ = 4;
+    private long rangeSize_ = DEFAULT_RANGE_SIZE;
+    private int maxRetries_ = 3;
+
+    private final AtomicLong bytesTransferred_ = new AtomicLong();
+    private volatile long startTime_ = 0;
+    private volatile long endTime_ = 0;
+    // The most recent transfer that failed, kept for resume().
+    private Transfer failedTransfer_ = null;
+
+    /**
+     *  Constructs an IFSParallelTransfer object.
+     *  @param  system  The system that contains the integrated file system files.  Worker connections use copies
+     *                  of this object.
+     **/
+    public IFSParallelTransfer(AS400 system)
+    {
+        if (system == null)
+            throw new NullPointerException("system");
+        system_ = system;
+    }
+
+    /**
+     *  Returns the number of connections that transfer ranges at the same time.
+     *  @return  The number of connections.
+     **/
+    public int getConnections()
+    {
+        return connections_;
+    }
+
+    /**
+     *  Sets the number of connections that transfer ranges at the same time.  The default is 4.
+     *  @param  connections  The number of connections, from 1 to 64.
+     **/
+    public void setConnections(int connections)
+    {
+        if (connections < 1 || connections > MAX_CONNECTIONS)
+            throw new ExtendedIllegalArgumentException("connections", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        connections_ = connections;
+    }
+
+    /**
+     *  Returns the size of the ranges that the file is divided into.
+     *  @return  The range size, in bytes.
+     **/
+    public long getRangeSize()
+    {
+        return rangeSize_;
+    }
+
+    /**
+     *  Sets the size of the ranges that the file is divided into.  The default is 8 MB.
+     *  @param  rangeSize  The range size, in bytes.  Must be at least 64 KB.
+     **/
+    public void setRangeSize(long rangeSize)
+    {
+        if (rangeSize < 65536)
+            throw new ExtendedIllegalArgumentException("rangeSize", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        rangeSize_ = rangeSize;
+    }
+
+    /**
+     *  Returns the number of times a range is resumed on a new connection after a failure.
+     *  @return  The maximum number of retries.
+     **/
+    public int getMaxRetries()
+    {
+        return maxRetries_;
+    }
+
+    /**
+     *  Sets the number of times a range is resumed on a new connection after a failure.  The default is 3.
+     *  @param  maxRetries  The maximum number of retries.  Must be zero or greater.
+     **/
+    public void setMaxRetries(int maxRetries)
+    {
+        if (maxRetries < 0)
+            throw new ExtendedIllegalArgumentException("maxRetries", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        maxRetries_ = maxRetries;
+    }
+
+    /**
+     *  Returns the number of bytes transferred by the current or most recent transfer.  After {@link #resume()},
+     *  only the bytes transferred by the resumed call are counted.
+     *  @return  The number of bytes.
+     **/
+    public long getBytesTransferred()
+    {
+        return bytesTransferred_.get();
+    }
+
+    /**
+     *  Returns the time taken by the current or most recent transfer.
+     *  @return  The elapsed time, in milliseconds.
+     **/
+    public long getElapsedTime()
+    {
+        if (startTime_ == 0) return 0;
+        long end = (endTime_ == 0) ? System.currentTimeMillis() : endTime_;
+        return end - startTime_;
+    }
+
+    /**
+     *  Returns the aggregate throughput of the current or most recent transfer, over all connections.
+     *  @return  The throughput, in bytes per second.
+     **/
+    public long getThroughput()
+    {
+        long elapsed = getElapsedTime();
+        return (elapsed == 0) ? 0 : getBytesTransferred() * 1000 / elapsed;
+    }
+
+    /**
+     *  Copies an integrated file system file to a local file.  The local file is created or replaced.
+     *  @param  path  The path name of the integrated file system file.
+     *  @param  localFile  The local file.
+     *  @exception  AS400SecurityException  If a security or authority error occurs.
+     *  @exception  IOException  If an error occurs while communicating with the system or writing the local file.
+     **/
+    public void download(String path, File localFile) throws AS400SecurityException, IOException
+    {
+        if (path == null)
+            throw new NullPointerException("path");
+        if (localFile == null)
+            throw new NullPointerException("localFile");
+
+        IFSFile file = new IFSFile(system_, path);
+        if (!file.exists())
+            throw new ExtendedIOException(path, ExtendedIOException.FILE_NOT_FOUND);
+        long size = file.length();
+        run(new Transfer(path, "r", localFile, size, true), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     *  Copies a local file to an integrated file system file.  The integrated file system file is created or replaced.
+     *  @param  localFile  The local file.
+     *  @param  path  The path name of the integrated file system file.
+     *  @exception  AS400SecurityException  If a security or authority error occurs.
+     *  @exception  IOException  If an error occurs while communicating with the system or reading the local file.
+     **/
+    public void upload(File localFile, String path) throws AS400SecurityException, IOException
+    {
+        if (localFile == null)
+            throw new NullPointerException("localFile");
+        if (path == null)
+            throw new NullPointerException("path");
+
+        if (!localFile.isFile())
+            throw new ExtendedIOException(localFile.getPath(), ExtendedIOException.FILE_NOT_FOUND);
+        long size = localFile.length();
+        // Create or replace the file and extend it to its final length before the ranges are written.
+        IFSRandomAccessFile file = new IFSRandomAccessFile(system_, path, "rw", IFSRandomAccessFile.SHARE_ALL, IFSRandomAccessFile.REPLACE_OR_CREATE);
+        try
+        {
+            file.setLength(size);
+        }
+        finally
+        {
+            file.close();
+        }
+        run(new Transfer(path, "w", localFile, size, false), StandardOpenOption.READ);
+    }
+
+    /**
+     *  Continues the most recent download or upload that failed.  Only the ranges that were not completed are
+     *  transferred, and the target file is neither truncated nor replaced.  Neither file is expected to change
+     *  between the failed call and this one.  If this call fails too, it can be resumed again.
+     *  @exception  AS400SecurityException  If a security or authority error occurs.
+     *  @exception  IOException  If an error occurs while communicating with the system or accessing the local file.
+     *  @exception  ExtendedIllegalStateException  If there is no failed transfer to resume.
+     **/
+    public void resume() throws AS400SecurityException, IOException
+    {
+        Transfer transfer = failedTransfer_;
+        if (transfer == null)
+            throw new ExtendedIllegalStateException("transfer", ExtendedIllegalStateException.PROPERTY_NOT_SET);
+        transfer.reset();
+        if (transfer.download_)
+            run(transfer, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        else
+            run(transfer, StandardOpenOption.READ);
+    }
+
+    // Opens the local file, runs the workers of a transfer on the calling thread and worker threads, and throws the
+    // first failure.  A failed transfer is kept for resume().
+    private void run(final Transfer transfer, StandardOpenOption... options) throws AS400SecurityException, IOException
+    {
+        failedTransfer_ = null;
+        bytesTransferred_.set(0);
+        endTime_ = 0;
+        startTime_ = System.currentTimeMillis();
+        boolean succeeded = false;
+        try
+        {
+            transfer.local_ = FileChannel.open(transfer.localFile_.toPath(), options);
+            int workers = (int)Math.min(connections_, transfer.rangeCount_);
+            Thread[] threads = new Thread[Math.max(0, workers - 1)];
+            boolean virtual = system_.isVirtualThreads();
+            for (int i = 0; i < threads.length; ++i)
+            {
+                threads[i] = AS400ThreadedServer.newThread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        transfer.work();
+                    }
+                }, "IFSParallelTransfer-" + (i + 1), virtual);
+                threads[i].start();
+            }
+            if (workers > 0) transfer.work();
+
+            for (int i = 0; i < threads.length; ++i)
+            {
+                try
+                {
+                    threads[i].join();
+                }
+                catch (InterruptedException e)
+                {
+                    transfer.failed(e);
+                    for (int j = i; j < threads.length; ++j) threads[j].interrupt();
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            transfer.throwFailure();
+            succeeded = true;
+        }
+        finally
+        {
+            if (transfer.local_ != null)
+            {
+                try
+                {
+                    transfer.local_.close();
+                }
+                catch (IOException e)
+                {
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "IFSParallelTransfer: error closing " + transfer.localFile_ + ":", e);
+                }
+                transfer.local_ = null;
+            }
+            if (!succeeded) failedTransfer_ = transfer;
+            endTime_ = System.currentTimeMillis();
+        }
+    }
+
+    // One download or upload.  Workers claim ranges in order from nextRange_, and skip the ranges that an earlier
+    // call completed.
+    private final class Transfer
+    {
+        private final String path_;
+        private final String mode_;
+        final File localFile_;
+        // Open only while the transfer runs.
+        FileChannel local_;
+        private final long size_;
+        final boolean download_;
+        // The range size is fixed when the transfer is created, so a resumed transfer uses the same ranges.
+        private final long rangeSize_;
+        final long rangeCount_;
+        private final BitSet completed_ = new BitSet();
+        private final AtomicLong nextRange_ = new AtomicLong();
+        private Throwable failure_ = null;
+
+        Transfer(String path, String mode, File localFile, long size, boolean download)
+        {
+            path_ = path;
+            mode_ = mode;
+            localFile_ = localFile;
+            size_ = size;
+            download_ = download;
+            rangeSize_ = IFSParallelTransfer.this.rangeSize_;
+            rangeCount_ = (size + rangeSize_ - 1) / rangeSize_;
+        }
+
+        // Prepares the ranges that were not completed to be transferred again.
+        synchronized void reset()
+        {
+            failure_ = null;
+            nextRange_.set(0);
+        }
+
+        private synchronized boolean isCompleted(long range)
+        {
+            return completed_.get((int)range);
+        }
+
+        private synchronized void completed(long range)
+        {
+            completed_.set((int)range);
+        }
+
+        synchronized void failed(Throwable e)
+        {
+            if (failure_ == null) failure_ = e;
+        }
+
+        synchronized boolean hasFailed()
+        {
+            return failure_ != null;
+        }
+
+        synchronized void throwFailure() throws AS400SecurityException, IOException
+        {
+            if (failure_ == null) return;
+            if (failure_ instanceof AS400SecurityException) throw (AS400SecurityException)failure_;
+            if (failure_ instanceof IOException) throw (IOException)failure_;
+            if (failure_ instanceof InterruptedException)
+            {
+                InterruptedIOException throwException = new InterruptedIOException(failure_.getMessage());
+                throwException.initCause(failure_);
+                throw throwException;
+            }
+            if (failure_ instanceof RuntimeException) throw (RuntimeException)failure_;
+            throw (Error)failure_;
+        }
+
+        // Transfers ranges until none remain or the transfer has failed.
+        void work()
+        {
+            Connection connection = new Connection();
+            try
+            {
+                long range;
+                while (!hasFailed() && (range = nextRange_.getAndIncrement()) < rangeCount_)
+                {
+                    if (isCompleted(range)) continue;
+                    long start = range * rangeSize_;
+                    if (transferRange(connection, start, Math.min(size_, start + rangeSize_))) completed(range);
+                }
+            }
+            catch (Throwable e)
+            {
+                Trace.log(Trace.ERROR, "IFSParallelTransfer failed for " + path_, e);
+                failed(e);
+            }
+            finally
+            {
+                connection.close();
+            }
+        }
+
+        // Transfers one range block by block.  After a failure, the range is resumed from the block that failed
+        // on a new connection.  Returns false if the range was abandoned because another range failed.
+        private boolean transferRange(Connection connection, long start, long end) throws AS400SecurityException, IOException
+        {
+            ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(BLOCK_SIZE, end - start));
+            long offset = start;
+            int retries = 0;
+            while (offset < end)
+            {
+                if (hasFailed()) return false;
+                int length = (int)Math.min(buffer.capacity(), end - offset);
+                try
+                {
+                    IFSFileChannel remote = connection.open();
+                    buffer.clear();
+                    buffer.limit(length);
+                    if (download_)
+                    {
+                        readFully(remote, buffer, offset);
+                        buffer.flip();
+                        while (buffer.hasRemaining()) local_.write(buffer, offset + buffer.position());
+                    }
+                    else
+                    {
+                        readFully(local_, buffer, offset);
+                        buffer.flip();
+                        while (buffer.hasRemaining()) remote.write(buffer, offset + buffer.position());
+                    }
+                }
+                catch (InterruptedIOException e)
+                {
+                    throw e;
+                }
+                catch (IOException e)
+                {
+                    if (retries++ >= maxRetries_) throw e;
+                    if (Trace.traceOn_) Trace.log(Trace.WARNING, "IFSParallelTransfer: resuming " + path_ + " at offset " + offset + " after failure:", e);
+                    connection.close();
+                    continue;
+                }
+                offset += length;
+                bytesTransferred_.addAndGet(length);
+            }
+            return true;
+        }
+
+        // Reads until the buffer is full.  The file is not expected to change during the transfer.
+        private void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException
+        {
+            while (buffer.hasRemaining())
+            {
+                int count = channel.read(buffer, offset + buffer.position());
+                if (count < 0) throw new EOFException(path_);
+            }
+        }
+
+        // The file opened on a worker's own connection.  It is opened when first needed and after a failure.
+        private final class Connection
+        {
+            private AS400 connectionSystem_;
+            private IFSRandomAccessFile file_;
+            private IFSFileChannel channel_;
+
+            IFSFileChannel open() throws AS400SecurityException, IOException
+            {
+                if (channel_ == null)
+                {
+                    connectionSystem_ = new AS400(system_);
+                    file_ = new IFSRandomAccessFile(connectionSystem_, path_, mode_, IFSRandomAccessFile.SHARE_ALL, IFSRandomAccessFile.OPEN_OR_FAIL);
+                    channel_ = file_.getChannel();
+                }
+                return channel_;
+            }
+
+            void close()
+            {
+                if (file_ != null)
+                {
+                    try
+                    {
+                        file_.close();
+                    }
+                    catch (IOException e)
+                    {
+                        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "IFSParallelTransfer: error closing " + path_ + ":", e);
+                    }
+                }
+                if (connectionSystem_ != null) connectionSystem_.disconnectAllServices();
+                connectionSystem_ = null;
+                file_ = null;
+                channel_ = null;
+            }
+        }
+    }
+}
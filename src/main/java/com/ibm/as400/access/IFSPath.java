@@ -0,0 +1,425 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSPath.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+// A path in an IFSFileSystem.
+// Paths are "/" separated.  A path returned by a directory stream also carries the IFSFile that was built from
+// the directory listing, so that its basic attributes can be read without another request to the file server.
+// The attributes are not part of the identity of the path.
+final class IFSPath implements Path
+{
+    private final IFSFileSystem fileSystem_;
+    private final String path_;
+    // The file with attributes cached by a directory listing, or null.
+    private final IFSFile file_;
+    // The name elements, computed when first needed.
+    private volatile String[] names_;
+
+    IFSPath(IFSFileSystem fileSystem, String path)
+    {
+        this(fileSystem, path, null);
+    }
+
+    IFSPath(IFSFileSystem fileSystem, String path, IFSFile file)
+    {
+        fileSystem_ = fileSystem;
+        path_ = normalizeSeparators(path);
+        file_ = file;
+    }
+
+    // Removes repeated and trailing separators.
+    private static String normalizeSeparators(String path)
+    {
+        int length = path.length();
+        StringBuilder buffer = null;
+        char previous = 0;
+        for (int i = 0; i < length; ++i)
+        {
+            char c = path.charAt(i);
+            boolean skip = (c == '/' && (previous == '/' || (i == length - 1 && i > 0)));
+            if (skip && buffer == null)
+            {
+                buffer = new StringBuilder(length);
+                buffer.append(path, 0, i);
+            }
+            if (!skip && buffer != null) buffer.append(c);
+            previous = c;
+        }
+        if (buffer == null) return path;
+        // A trailing separator after a repeated separator may be left behind.
+        int end = buffer.length();
+        if (end > 1 && buffer.charAt(end - 1) == '/') buffer.setLength(end - 1);
+        return buffer.toString();
+    }
+
+    // Returns the file built from a directory listing, or null.
+    IFSFile getCachedFile()
+    {
+        return file_;
+    }
+
+    private String[] getNames()
+    {
+        String[] names = names_;
+        if (names == null)
+        {
+            ArrayList<String> list = new ArrayList<String>();
+            if (path_.length() == 0)
+            {
+                list.add("");
+            }
+            else
+            {
+                int start = (path_.charAt(0) == '/') ? 1 : 0;
+                while (start < path_.length())
+                {
+                    int end = path_.indexOf('/', start);
+                    if (end < 0) end = path_.length();
+                    list.add(path_.substring(start, end));
+                    start = end + 1;
+                }
+            }
+            names = list.toArray(new String[list.size()]);
+            names_ = names;
+        }
+        return names;
+    }
+
+    private IFSPath toIFSPath(Path other)
+    {
+        if (other == null) throw new NullPointerException();
+        if (!(other instanceof IFSPath)) throw new ProviderMismatchException();
+        return (IFSPath)other;
+    }
+
+    private static String join(String[] names, int begin, int end, boolean absolute)
+    {
+        StringBuilder buffer = new StringBuilder();
+        if (absolute) buffer.append('/');
+        for (int i = begin; i < end; ++i)
+        {
+            if (i > begin) buffer.append('/');
+            buffer.append(names[i]);
+        }
+        return buffer.toString();
+    }
+
+    @Override
+    public FileSystem getFileSystem()
+    {
+        return fileSystem_;
+    }
+
+    @Override
+    public boolean isAbsolute()
+    {
+        return path_.startsWith("/");
+    }
+
+    @Override
+    public Path getRoot()
+    {
+        return isAbsolute() ? new IFSPath(fileSystem_, "/") : null;
+    }
+
+    @Override
+    public Path getFileName()
+    {
+        if (path_.equals("/")) return null;
+        if (path_.length() == 0) return this;
+        String[] names = getNames();
+        return new IFSPath(fileSystem_, names[names.length - 1]);
+    }
+
+    @Override
+    public Path getParent()
+    {
+        int count = getNameCount();
+        if (count == 0 || path_.length() == 0) return null;
+        if (count == 1) return getRoot();
+        return new IFSPath(fileSystem_, join(getNames(), 0, count - 1, isAbsolute()));
+    }
+
+    @Override
+    public int getNameCount()
+    {
+        return path_.equals("/") ? 0 : getNames().length;
+    }
+
+    @Override
+    public Path getName(int index)
+    {
+        if (index < 0 || index >= getNameCount()) throw new IllegalArgumentException();
+        return new IFSPath(fileSystem_, getNames()[index]);
+    }
+
+    @Override
+    public Path subpath(int beginIndex, int endIndex)
+    {
+        if (beginIndex < 0 || beginIndex >= getNameCount() || endIndex > getNameCount() || beginIndex >= endIndex)
+            throw new IllegalArgumentException();
+        return new IFSPath(fileSystem_, join(getNames(), beginIndex, endIndex, false));
+    }
+
+    @Override
+    public boolean startsWith(Path other)
+    {
+        if (!(other instanceof IFSPath) || ((IFSPath)other).fileSystem_ != fileSystem_) return false;
+        IFSPath that = (IFSPath)other;
+        if (that.isAbsolute() != isAbsolute()) return false;
+        int count = that.getNameCount();
+        if (count > getNameCount()) return false;
+        if (count == 0) return isAbsolute() || that.path_.equals(path_);
+        String[] names = getNames();
+        String[] thatNames = that.getNames();
+        for (int i = 0; i < count; ++i)
+        {
+            if (!names[i].equals(thatNames[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean startsWith(String other)
+    {
+        return startsWith(fileSystem_.getPath(other));
+    }
+
+    @Override
+    public boolean endsWith(Path other)
+    {
+        if (!(other instanceof IFSPath) || ((IFSPath)other).fileSystem_ != fileSystem_) return false;
+        IFSPath that = (IFSPath)other;
+        if (that.isAbsolute()) return that.path_.equals(path_);
+        int count = that.getNameCount();
+        int offset = getNameCount() - count;
+        if (count == 0 || offset < 0) return that.path_.equals(path_);
+        String[] names = getNames();
+        String[] thatNames = that.getNames();
+        for (int i = 0; i < count; ++i)
+        {
+            if (!names[offset + i].equals(thatNames[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endsWith(String other)
+    {
+        return endsWith(fileSystem_.getPath(other));
+    }
+
+    @Override
+    public Path normalize()
+    {
+        int count = getNameCount();
+        if (count == 0) return this;
+        String[] names = getNames();
+        ArrayList<String> kept = new ArrayList<String>(count);
+        boolean changed = false;
+        for (int i = 0; i < count; ++i)
+        {
+            String name = names[i];
+            if (name.equals("."))
+            {
+                changed = true;
+            }
+            else if (name.equals(".."))
+            {
+                int last = kept.size() - 1;
+                if (last >= 0 && !kept.get(last).equals(".."))
+                {
+                    kept.remove(last);
+                    changed = true;
+                }
+                else if (isAbsolute())
+                {
+                    // The parent of the root is the root.
+                    changed = true;
+                }
+                else
+                {
+                    kept.add(name);
+                }
+            }
+            else
+            {
+                kept.add(name);
+            }
+        }
+        if (!changed) return this;
+        String[] keptNames = kept.toArray(new String[kept.size()]);
+        return new IFSPath(fileSystem_, join(keptNames, 0, keptNames.length, isAbsolute()));
+    }
+
+    @Override
+    public Path resolve(Path other)
+    {
+        IFSPath that = toIFSPath(other);
+        if (that.isAbsolute()) return that;
+        if (that.path_.length() == 0) return this;
+        if (path_.length() == 0) return that;
+        return new IFSPath(fileSystem_, path_.equals("/") ? "/" + that.path_ : path_ + "/" + that.path_);
+    }
+
+    @Override
+    public Path resolve(String other)
+    {
+        return resolve(fileSystem_.getPath(other));
+    }
+
+    @Override
+    public Path resolveSibling(Path other)
+    {
+        if (other == null) throw new NullPointerException();
+        Path parent = getParent();
+        return (parent == null) ? other : parent.resolve(other);
+    }
+
+    @Override
+    public Path resolveSibling(String other)
+    {
+        return resolveSibling(fileSystem_.getPath(other));
+    }
+
+    @Override
+    public Path relativize(Path other)
+    {
+        IFSPath that = toIFSPath(other);
+        if (that.isAbsolute() != isAbsolute()) throw new IllegalArgumentException("'other' is different type of Path");
+        if (that.path_.equals(path_)) return new IFSPath(fileSystem_, "");
+
+        int count = getNameCount();
+        int thatCount = that.getNameCount();
+        String[] names = (count == 0) ? new String[0] : getNames();
+        String[] thatNames = (thatCount == 0) ? new String[0] : that.getNames();
+        if (path_.length() == 0) count = 0;
+
+        int common = 0;
+        while (common < count && common < thatCount && names[common].equals(thatNames[common])) ++common;
+
+        StringBuilder buffer = new StringBuilder();
+        for (int i = common; i < count; ++i)
+        {
+            if (buffer.length() > 0) buffer.append('/');
+            buffer.append("..");
+        }
+        for (int i = common; i < thatCount; ++i)
+        {
+            if (buffer.length() > 0) buffer.append('/');
+            buffer.append(thatNames[i]);
+        }
+        return new IFSPath(fileSystem_, buffer.toString());
+    }
+
+    @Override
+    public URI toUri()
+    {
+        try
+        {
+            return new URI(IFSFileSystemProvider.SCHEME, fileSystem_.getAuthority(), ((IFSPath)toAbsolutePath()).path_, null, null);
+        }
+        catch (URISyntaxException e)
+        {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    // The working directory of an IFS file system is the root.
+    @Override
+    public Path toAbsolutePath()
+    {
+        if (isAbsolute()) return this;
+        return new IFSPath(fileSystem_, "/" + path_);
+    }
+
+    @Override
+    public Path toRealPath(LinkOption... options) throws IOException
+    {
+        Path realPath = toAbsolutePath().normalize();
+        fileSystem_.provider().checkAccess(realPath);
+        return realPath;
+    }
+
+    // Returns an IFSJavaFile for this path.
+    @Override
+    public File toFile()
+    {
+        return new IFSJavaFile(fileSystem_.getSystem(), ((IFSPath)toAbsolutePath()).path_);
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>... events)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Path> iterator()
+    {
+        int count = getNameCount();
+        ArrayList<Path> list = new ArrayList<Path>(count);
+        for (int i = 0; i < count; ++i)
+        {
+            list.add(getName(i));
+        }
+        return list.iterator();
+    }
+
+    @Override
+    public int compareTo(Path other)
+    {
+        return path_.compareTo(((IFSPath)other).path_);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof IFSPath)) return false;
+        IFSPath that = (IFSPath)obj;
+        return that.fileSystem_ == fileSystem_ && that.path_.equals(path_);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return path_.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return path_;
+    }
+}
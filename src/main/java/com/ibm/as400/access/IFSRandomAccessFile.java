@@ -106,6 +106,7 @@ implements java.io.DataInput, java.io.DataOutput, java.io.Serializable
   transient private byte[] bytes4;
   transient private byte[] bytes8;
   transient private IFSRandomAccessFileImpl impl_;
+  transient private IFSFileChannel channel_;
 
 
   /**
@@ -373,6 +374,13 @@ implements java.io.DataInput, java.io.DataOutput, java.io.Serializable
   public void close()
     throws IOException
   {
+    // Closing the channel closes this file.
+    if (channel_ != null && channel_.isOpen())
+    {
+      channel_.close();
+      return;
+    }
+
     if (fd_.isOpen())
     {
       if (impl_ != null)
@@ -451,6 +459,23 @@ implements java.io.DataInput, java.io.DataOutput, java.io.Serializable
     impl_.flush();
   }
 
+  /**
+   Returns the unique {@link IFSFileChannel IFSFileChannel} object associated with this file.
+   The position of the channel is the file pointer of this file, and closing either one closes the other.
+   @return The file channel associated with this file.
+   @exception IOException If an error occurs while communicating with the system.
+   **/
+  public synchronized IFSFileChannel getChannel()
+    throws IOException
+  {
+    // Ensure that the file is open.
+    open();
+
+    if (channel_ == null)
+      channel_ = new IFSFileChannel(this);
+    return channel_;
+  }
+
   /**
    Returns the existence option for this object.
    @return The existence option.
@@ -498,6 +523,15 @@ implements java.io.DataInput, java.io.DataOutput, java.io.Serializable
     return impl_;  // Note: This may be null.
   }
 
+  /**
+   Returns the access mode.
+   @return The access mode.
+   **/
+  String getMode()
+  {
+    return mode_;
+  }
+
 
   /**
    Returns the integrated file system path name of the object represented by
@@ -360,6 +360,8 @@ implements IFSRandomAccessFileImpl
       IFSOpenRep rep = (IFSOpenRep) ds;
       fd_.setOpen(true, rep.getFileHandle());
       fd_.setOpenAllowed(false);
+      if ((accessIntent & IFSOpenReq.WRITE_ACCESS) != 0)
+        fd_.setModified(true);
     }
     else if (ds instanceof IFSReturnCodeRep)
     {
@@ -749,6 +751,12 @@ implements IFSRandomAccessFileImpl
   }
 
 
+  // Returns the file descriptor, used by IFSFileChannel for buffer I/O.
+  IFSFileDescriptorImplRemote getFileDescriptor()
+  {
+    return fd_;
+  }
+
   public void setFD(IFSFileDescriptorImpl fd)
   {
     // Assume the argument has been validated by the public class.
@@ -0,0 +1,248 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSReadAhead.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Read-ahead for sequential reads of a stream file.
+// Once two consecutive reads of an IFSFileDescriptorImplRemote are contiguous, this class keeps a number of
+// read requests outstanding on the file server connection for the data that follows, and satisfies
+// reads from their replies in order.  The number of outstanding requests and the size of each are set by the
+// com.ibm.as400.access.IFSFile.readAheadDepth and com.ibm.as400.access.IFSFile.readAheadChunkSize system properties.
+// A read that does not continue where the previous one ended, a write, or a change of file length discards
+// whatever was read ahead.
+final class IFSReadAhead
+{
+    private static final int DEFAULT_CHUNK_SIZE = 262144;
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    private static final int depth_ = getIntProperty(SystemProperties.IFSFILE_READ_AHEAD_DEPTH, 0, 0, 64);
+    private static final int chunkSize_ = getIntProperty(SystemProperties.IFSFILE_READ_AHEAD_CHUNK_SIZE, DEFAULT_CHUNK_SIZE, MIN_CHUNK_SIZE, IFSFileDescriptorImplRemote.MAX_BYTES_PER_READ);
+
+    private final IFSFileDescriptorImplRemote fd_;
+    // Requests in file offset order.  The first chunk is the one being consumed.
+    private final ArrayDeque<Chunk> chunks_ = new ArrayDeque<Chunk>();
+    // Buffers of consumed chunks, reused for new requests.
+    private final ArrayDeque<byte[]> freeBuffers_ = new ArrayDeque<byte[]>();
+    // File offset of the next read-ahead request.
+    private long nextRequestOffset_;
+    // File offset at which the previous read ended, or -1.
+    private long expectedOffset_ = -1;
+
+    // One read-ahead request and, once received, its data.
+    private static final class Chunk
+    {
+        final int correlation_;
+        final CompletableFuture<DataStream> future_;
+        byte[] data_;
+        boolean received_ = false;
+        int count_ = 0;  // Number of bytes received, or -1 at end of file.
+        int position_ = 0;  // Number of bytes consumed.
+
+        Chunk(int correlation, CompletableFuture<DataStream> future, byte[] data)
+        {
+            correlation_ = correlation;
+            future_ = future;
+            data_ = data;
+        }
+    }
+
+    IFSReadAhead(IFSFileDescriptorImplRemote fd)
+    {
+        fd_ = fd;
+    }
+
+    // Indicates if sequential reads are read ahead.
+    static boolean isEnabled()
+    {
+        return depth_ > 0;
+    }
+
+    // Determine if a read that starts at the given offset continues the previous read.  If it does not, anything
+    // that was read ahead is discarded.
+    boolean isSequential(long offset)
+    {
+        if (offset == expectedOffset_) return true;
+        reset();
+        return false;
+    }
+
+    // Record where a read that was not served by this object ended.
+    void setExpectedOffset(long offset)
+    {
+        expectedOffset_ = offset;
+        nextRequestOffset_ = offset;
+    }
+
+    // Read from the replies to the read-ahead requests, sending new requests as chunks are consumed.
+    // @return  The number of bytes read, or -1 if the end of file was reached before any bytes were read.
+    int read(byte[] data, int dataOffset, int length) throws IOException, AS400SecurityException
+    {
+        int totalBytesRead = 0;
+        boolean endOfFile = false;
+        try
+        {
+            while (totalBytesRead < length && !endOfFile)
+            {
+                fill();
+                Chunk chunk = chunks_.getFirst();
+                receive(chunk);
+
+                if (chunk.count_ < 0)
+                {
+                    // End of file.  Requests beyond it are discarded, so that data appended later can still be read.
+                    endOfFile = true;
+                    discardChunks();
+                    nextRequestOffset_ = fd_.getFileOffset();
+                    break;
+                }
+
+                int bytesToCopy = Math.min(chunk.count_ - chunk.position_, length - totalBytesRead);
+                System.arraycopy(chunk.data_, chunk.position_, data, dataOffset + totalBytesRead, bytesToCopy);
+                chunk.position_ += bytesToCopy;
+                totalBytesRead += bytesToCopy;
+                fd_.incrementFileOffset(bytesToCopy);
+
+                if (chunk.position_ == chunk.count_)
+                {
+                    chunks_.removeFirst();
+                    freeBuffers_.addLast(chunk.data_);
+                    if (chunk.count_ < chunk.data_.length)
+                    {
+                        // A short reply leaves a gap before the requests that follow it, so they are sent again.
+                        discardChunks();
+                        nextRequestOffset_ = fd_.getFileOffset();
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            reset();
+            throw e;
+        }
+        catch (AS400SecurityException e)
+        {
+            reset();
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            reset();
+            throw e;
+        }
+        expectedOffset_ = fd_.getFileOffset();
+        return (endOfFile && totalBytesRead == 0 ? -1 : totalBytesRead);
+    }
+
+    // Discard everything that was read ahead.  Replies to outstanding requests are received and dropped.
+    void reset()
+    {
+        discardChunks();
+        expectedOffset_ = -1;
+    }
+
+    // Send read requests until the configured number are outstanding.
+    private void fill() throws IOException
+    {
+        while (chunks_.size() < depth_)
+        {
+            byte[] buffer = freeBuffers_.isEmpty() ? new byte[chunkSize_] : freeBuffers_.removeFirst();
+            IFSReadReq req = new IFSReadReq(fd_.getFileHandle(), nextRequestOffset_, chunkSize_, fd_.serverDatastreamLevel_);
+            CompletableFuture<DataStream> future = null;
+            try
+            {
+                future = fd_.server_.sendAsync(req);
+            }
+            catch (ConnectionDroppedException e)
+            {
+                Trace.log(Trace.ERROR, "Byte stream server connection lost");
+                fd_.connectionDropped(e);
+            }
+            chunks_.addLast(new Chunk(req.getCorrelation(), future, buffer));
+            nextRequestOffset_ += chunkSize_;
+        }
+    }
+
+    // Wait for the replies to a request and copy their data into the chunk.
+    private void receive(Chunk chunk) throws IOException, AS400SecurityException
+    {
+        if (chunk.received_) return;
+        ClientAccessDataStream ds = null;
+        try
+        {
+            ds = (ClientAccessDataStream)chunk.future_.get();
+        }
+        catch (InterruptedException e)
+        {
+            Trace.log(Trace.ERROR, "Interrupted", e);
+            InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+            throwException.initCause(e);
+            throw throwException;
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConnectionDroppedException)
+            {
+                Trace.log(Trace.ERROR, "Byte stream server connection lost");
+                fd_.connectionDropped((ConnectionDroppedException)cause);
+            }
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            Trace.log(Trace.ERROR, "Unexpected exception reading ahead", cause);
+            throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+        }
+        chunk.received_ = true;
+        chunk.count_ = fd_.receiveReadReplies(ds, chunk.correlation_, ByteBuffer.wrap(chunk.data_));
+    }
+
+    // Receive and drop the replies to every outstanding request.
+    private void discardChunks()
+    {
+        while (!chunks_.isEmpty())
+        {
+            Chunk chunk = chunks_.removeFirst();
+            try
+            {
+                receive(chunk);
+                freeBuffers_.addLast(chunk.data_);
+            }
+            catch (Exception e)
+            {
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "IFSReadAhead: discarded read-ahead request failed:", e);
+            }
+        }
+    }
+
+    private static int getIntProperty(String name, int defaultValue, int minimum, int maximum)
+    {
+        String value = SystemProperties.getProperty(name);
+        if (value == null) return defaultValue;
+        try
+        {
+            return Math.max(minimum, Math.min(maximum, Integer.parseInt(value.trim())));
+        }
+        catch (NumberFormatException e)
+        {
+            Trace.log(Trace.WARNING, "Error retrieving " + name + " property value:", e);
+            return defaultValue;
+        }
+    }
+}
@@ -57,6 +57,26 @@ Get the data.
     return dataRead;
   }
 
+/**
+Copy the data into a buffer, which may be a direct buffer.
+@param buffer the buffer to copy the data into; its position is advanced by the number of bytes copied
+@return the number of bytes copied
+**/
+  int copyData(java.nio.ByteBuffer buffer)
+  {
+    int bytesRead = get32bit( FILE_DATA_LL_OFFSET) - 6;
+    buffer.put(data_, FILE_DATA_OFFSET, bytesRead);
+    return bytesRead;
+  }
+
+/**
+Read replies are copied into the caller's buffer and then released, so they are received into pooled buffers.
+**/
+  byte[] allocateReplyBuffer(int length)
+  {
+    return allocatePooledReplyBuffer(length);
+  }
+
 /**
 Generates a hash code for this data stream.
 @return the hash code
@@ -0,0 +1,43 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSTreeVisitor.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+
+/**
+ *  The IFSTreeVisitor interface receives the entries found by an {@link IFSTreeWalker IFSTreeWalker}.
+ *  The methods are called on the thread that called {@link IFSTreeWalker#walk(IFSTreeVisitor) walk()}, one at a time.
+ **/
+public interface IFSTreeVisitor
+{
+    /**
+     *  Called for each file, directory or other object found by the walk.  The attributes that come with a directory
+     *  listing, such as the length, the type and the time stamps, are cached in the IFSFile object and can be read
+     *  without a request to the system.
+     *  @param  file  The object.
+     *  @return  true to continue the walk; false to end it.
+     *  @exception  IOException  If an error occurs.  The walk ends and the exception is thrown by walk().
+     *  @exception  AS400SecurityException  If a security or authority error occurs.  The walk ends and the exception is thrown by walk().
+     **/
+    public abstract boolean visitFile(IFSFile file) throws IOException, AS400SecurityException;
+
+    /**
+     *  Called when a directory cannot be listed.  The objects in the directory are not visited.
+     *  @param  directory  The path name of the directory.
+     *  @param  exception  The exception.
+     *  @return  true to continue the walk; false to end it.
+     *  @exception  IOException  To end the walk with an exception thrown by walk().
+     **/
+    public abstract boolean visitFailed(String directory, IOException exception) throws IOException;
+}
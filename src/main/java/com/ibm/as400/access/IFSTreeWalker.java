@@ -0,0 +1,448 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSTreeWalker.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ *  Walks an integrated file system directory tree, listing several directories at the same time.
+ *  <p>Each of a number of worker threads lists directories over its own file server connection, using a copy of the
+ *  system object.  The objects found are handed to the caller as they arrive, either through an
+ *  {@link IFSTreeVisitor IFSTreeVisitor} or as a {@link java.util.stream.Stream Stream}.  The attributes that come
+ *  with a directory listing are cached in each IFSFile, so reading them costs no further requests.  The returned
+ *  IFSFile objects use the system object given to this walker for any other operation.
+ *  <p>At most {@link #setQueueCapacity(int) the queue capacity} objects are held for the caller.  When the caller
+ *  falls behind, the workers stop listing until it catches up.  Directories that remain to be listed are held by
+ *  path name.
+ *  <p>The order in which objects are returned is not defined.  The root directory itself is not returned.
+ *  Symbolic links to directories are not followed unless {@link #setFollowSymbolicLinks(boolean) requested}.
+ *  <p>The following example totals the size of the files in a tree:
+ *  <pre>
+ *  final long[] total = new long[1];
+ *  IFSTreeWalker walker = new IFSTreeWalker(system, "/home");
+ *  walker.setParallelism(8);
+ *  walker.walk(new IFSTreeVisitor()
+ *  {
+ *      public boolean visitFile(IFSFile file) throws IOException
+ *      {
+ *          if (file.isFile()) total[0] += file.length();
+ *          return true;
+ *      }
+ *      public boolean visitFailed(String directory, IOException exception)
+ *      {
+ *          return true;
+ *      }
+ *  });
+ *  </pre>
+ **/
+public class IFSTreeWalker
+{
+    private static final int MAX_PARALLELISM = 64;
+    // Time that blocked workers wait before checking whether the walk was closed.
+    private static final long POLL_MILLISECONDS = 100;
+
+    private final AS400 system_;
+    private final String path_;
+    private int parallelism_ = 4;
+    private int queueCapacity_ = 1024;
+    private int maxDepth_ = Integer.MAX_VALUE;
+    private boolean followSymbolicLinks_ = false;
+    private IFSFileFilter directoryFilter_ = null;
+
+    /**
+     *  Constructs an IFSTreeWalker object.
+     *  @param  system  The system that contains the directory tree.  Worker connections use copies of this object.
+     *  @param  path  The path name of the root directory of the tree.
+     **/
+    public IFSTreeWalker(AS400 system, String path)
+    {
+        if (system == null)
+            throw new NullPointerException("system");
+        if (path == null)
+            throw new NullPointerException("path");
+        system_ = system;
+        path_ = path;
+    }
+
+    /**
+     *  Returns the number of directories that are listed at the same time.
+     *  @return  The number of worker connections.
+     **/
+    public int getParallelism()
+    {
+        return parallelism_;
+    }
+
+    /**
+     *  Sets the number of directories that are listed at the same time.  Each uses its own file server connection.
+     *  The default is 4.
+     *  @param  parallelism  The number of worker connections, from 1 to 64.
+     **/
+    public void setParallelism(int parallelism)
+    {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM)
+            throw new ExtendedIllegalArgumentException("parallelism", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        parallelism_ = parallelism;
+    }
+
+    /**
+     *  Returns the number of objects that are held for the caller before the workers wait.
+     *  @return  The queue capacity.
+     **/
+    public int getQueueCapacity()
+    {
+        return queueCapacity_;
+    }
+
+    /**
+     *  Sets the number of objects that are held for the caller before the workers wait.  The default is 1024.
+     *  @param  queueCapacity  The queue capacity.  Must be greater than zero.
+     **/
+    public void setQueueCapacity(int queueCapacity)
+    {
+        if (queueCapacity < 1)
+            throw new ExtendedIllegalArgumentException("queueCapacity", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        queueCapacity_ = queueCapacity;
+    }
+
+    /**
+     *  Returns the maximum number of directory levels below the root that are visited.
+     *  @return  The maximum depth.
+     **/
+    public int getMaxDepth()
+    {
+        return maxDepth_;
+    }
+
+    /**
+     *  Sets the maximum number of directory levels below the root that are visited.  A depth of 1 visits only the
+     *  objects in the root directory.  The default is no limit.
+     *  @param  maxDepth  The maximum depth.  Must be greater than zero.
+     **/
+    public void setMaxDepth(int maxDepth)
+    {
+        if (maxDepth < 1)
+            throw new ExtendedIllegalArgumentException("maxDepth", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+        maxDepth_ = maxDepth;
+    }
+
+    /**
+     *  Indicates if symbolic links to directories are followed.
+     *  @return  true if symbolic links are followed; false otherwise.
+     **/
+    public boolean isFollowSymbolicLinks()
+    {
+        return followSymbolicLinks_;
+    }
+
+    /**
+     *  Sets whether symbolic links to directories are followed.  A followed link can lead to an object being
+     *  visited more than once, or to a cycle that ends only at the maximum depth.  The default is false.
+     *  @param  followSymbolicLinks  true to follow symbolic links; false otherwise.
+     **/
+    public void setFollowSymbolicLinks(boolean followSymbolicLinks)
+    {
+        followSymbolicLinks_ = followSymbolicLinks;
+    }
+
+    /**
+     *  Returns the filter that selects the directories to descend into.
+     *  @return  The filter, or null if every directory is descended into.
+     **/
+    public IFSFileFilter getDirectoryFilter()
+    {
+        return directoryFilter_;
+    }
+
+    /**
+     *  Sets a filter that selects the directories to descend into.  Directories that are not accepted are still
+     *  visited, but their contents are not.  The filter is called on the worker threads.
+     *  @param  directoryFilter  The filter, or null to descend into every directory.
+     **/
+    public void setDirectoryFilter(IFSFileFilter directoryFilter)
+    {
+        directoryFilter_ = directoryFilter;
+    }
+
+    /**
+     *  Walks the tree, calling the visitor for each object found.  This method returns when the whole tree has been
+     *  visited, or when the visitor ends the walk.
+     *  @param  visitor  The visitor.
+     *  @exception  IOException  If the visitor throws it, or if this thread is interrupted.
+     *  @exception  AS400SecurityException  If the visitor throws it.
+     **/
+    public void walk(IFSTreeVisitor visitor) throws IOException, AS400SecurityException
+    {
+        if (visitor == null)
+            throw new NullPointerException("visitor");
+
+        Walk walk = new Walk();
+        try
+        {
+            Object entry;
+            while ((entry = walk.take()) != null)
+            {
+                boolean proceed;
+                if (entry instanceof Failure)
+                    proceed = visitor.visitFailed(((Failure)entry).directory_, ((Failure)entry).exception_);
+                else
+                    proceed = visitor.visitFile((IFSFile)entry);
+                if (!proceed) break;
+            }
+        }
+        finally
+        {
+            walk.close();
+        }
+    }
+
+    /**
+     *  Returns a stream of the objects in the tree.  The walk starts when this method is called.  The stream must be
+     *  closed to end the walk early.  A directory that cannot be listed ends the stream with an UncheckedIOException.
+     *  @return  The stream.
+     **/
+    public Stream<IFSFile> stream()
+    {
+        final Walk walk = new Walk();
+        Iterator<IFSFile> iterator = new Iterator<IFSFile>()
+        {
+            private IFSFile next_;
+
+            @Override
+            public boolean hasNext()
+            {
+                if (next_ != null) return true;
+                Object entry;
+                try
+                {
+                    entry = walk.take();
+                }
+                catch (InterruptedIOException e)
+                {
+                    walk.close();
+                    throw new UncheckedIOException(e);
+                }
+                if (entry instanceof Failure)
+                {
+                    walk.close();
+                    throw new UncheckedIOException(((Failure)entry).exception_);
+                }
+                next_ = (IFSFile)entry;
+                return next_ != null;
+            }
+
+            @Override
+            public IFSFile next()
+            {
+                if (!hasNext()) throw new NoSuchElementException();
+                IFSFile result = next_;
+                next_ = null;
+                return result;
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false).onClose(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                walk.close();
+            }
+        });
+    }
+
+    // A directory that remains to be listed.
+    private static final class Directory
+    {
+        final String path_;
+        final int depth_;
+
+        Directory(String path, int depth)
+        {
+            path_ = path;
+            depth_ = depth;
+        }
+    }
+
+    // A directory that could not be listed.
+    private static final class Failure
+    {
+        final String directory_;
+        final IOException exception_;
+
+        Failure(String directory, IOException exception)
+        {
+            directory_ = directory;
+            exception_ = exception;
+        }
+    }
+
+    // One walk of the tree.  Workers take directories from pending_, list them, and put what they find into results_.
+    // outstanding_ counts the directories that are pending or being listed; the worker that brings it to zero
+    // marks the end of the walk.
+    private final class Walk
+    {
+        private final Object END = new Object();
+
+        private final LinkedBlockingDeque<Directory> pending_ = new LinkedBlockingDeque<Directory>();
+        private final ArrayBlockingQueue<Object> results_ = new ArrayBlockingQueue<Object>(queueCapacity_);
+        private final AtomicInteger outstanding_ = new AtomicInteger(1);
+        private volatile boolean closed_ = false;
+        private boolean ended_ = false;
+
+        Walk()
+        {
+            pending_.addFirst(new Directory(path_, 0));
+            boolean virtual = system_.isVirtualThreads();
+            for (int i = 0; i < parallelism_; ++i)
+            {
+                Thread worker = AS400ThreadedServer.newThread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        work();
+                    }
+                }, "IFSTreeWalker-" + i, virtual);
+                worker.start();
+            }
+        }
+
+        // Returns the next IFSFile or Failure, or null at the end of the walk.
+        Object take() throws InterruptedIOException
+        {
+            if (ended_) return null;
+            try
+            {
+                Object entry = results_.take();
+                if (entry != END) return entry;
+                ended_ = true;
+                return null;
+            }
+            catch (InterruptedException e)
+            {
+                Trace.log(Trace.ERROR, "Interrupted", e);
+                InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+                throwException.initCause(e);
+                throw throwException;
+            }
+        }
+
+        // Stops the workers.  A worker that is listing a directory stops after the current block of entries.
+        void close()
+        {
+            closed_ = true;
+            ended_ = true;
+            results_.clear();
+        }
+
+        private void work()
+        {
+            AS400 system = new AS400(system_);
+            try
+            {
+                while (!closed_)
+                {
+                    Directory directory = pending_.pollFirst(POLL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                    if (directory == null)
+                    {
+                        if (outstanding_.get() == 0) break;
+                        continue;
+                    }
+                    try
+                    {
+                        list(system, directory);
+                    }
+                    finally
+                    {
+                        if (outstanding_.decrementAndGet() == 0) put(END);
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "IFSTreeWalker: worker interrupted:", e);
+            }
+            finally
+            {
+                system.disconnectAllServices();
+            }
+        }
+
+        // Lists a directory one block at a time, queuing its subdirectories for listing before they are returned.
+        private void list(AS400 system, Directory directory) throws InterruptedException
+        {
+            try
+            {
+                IFSFileEnumeration enumeration = new IFSFileEnumeration(new IFSFile(system, directory.path_), null, "*");
+                while (!closed_ && enumeration.hasMoreElements())
+                {
+                    IFSFile file = enumeration.nextFile();
+                    if (file.isDirectory() && directory.depth_ + 1 < maxDepth_ &&
+                        (followSymbolicLinks_ || !file.isSymbolicLink()) &&
+                        (directoryFilter_ == null || directoryFilter_.accept(file)))
+                    {
+                        outstanding_.incrementAndGet();
+                        pending_.addFirst(new Directory(file.getPath(), directory.depth_ + 1));
+                    }
+                    // The file has not connected yet, so it can be given the caller's system object.
+                    file.setSystem(system_);
+                    put(file);
+                }
+            }
+            catch (AS400SecurityException e)
+            {
+                Trace.log(Trace.ERROR, "Security exception listing directory " + directory.path_, e);
+                put(new Failure(directory.path_, new ExtendedIOException(directory.path_, ExtendedIOException.ACCESS_DENIED)));
+            }
+            catch (IOException e)
+            {
+                put(new Failure(directory.path_, e));
+            }
+            catch (PropertyVetoException e)
+            {
+                // No listeners are registered on the listed objects.
+                Trace.log(Trace.ERROR, "Unexpected exception setting system of listed object", e);
+                throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+            }
+        }
+
+        // Waits for room in the result queue, or for the walk to be closed.
+        private void put(Object entry) throws InterruptedException
+        {
+            while (!closed_)
+            {
+                if (results_.offer(entry, POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: IFSWriteBehind.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Write-behind for IFSFileOutputStream.
+// Instead of waiting for the reply to each write request before sending the next, this class keeps up to the
+// number of unacknowledged write requests set by the com.ibm.as400.access.IFSFile.writeBehindWindow system property
+// outstanding on the file server connection.  The file server processes the requests of a connection in order, so
+// the file offset is advanced when a request is sent.  A failure reported by the reply to an earlier request is thrown
+// by the next write, flush or close of the stream.
+final class IFSWriteBehind
+{
+    private static final int window_ = getWindowProperty();
+
+    private final IFSFileDescriptorImplRemote fd_;
+    // Write requests that have been sent but whose replies have not been checked, in the order they were sent.
+    private final ArrayDeque<PendingWrite> pending_ = new ArrayDeque<PendingWrite>();
+
+    // A write request waiting for its reply.
+    private static final class PendingWrite
+    {
+        final CompletableFuture<DataStream> future_;
+        final int length_;
+
+        PendingWrite(CompletableFuture<DataStream> future, int length)
+        {
+            future_ = future;
+            length_ = length;
+        }
+    }
+
+    IFSWriteBehind(IFSFileDescriptorImplRemote fd)
+    {
+        fd_ = fd;
+    }
+
+    // Indicates if writes to a file output stream are sent without waiting for each reply.
+    static boolean isEnabled()
+    {
+        return window_ > 0;
+    }
+
+    // Send write requests for the data, waiting only when the window of unacknowledged requests is full.
+    // A failure from an earlier request is thrown before any new request is sent.
+    void write(byte[] data, int dataOffset, int length, boolean forceToStorage) throws IOException, AS400SecurityException
+    {
+        checkCompleted();
+
+        while (length > 0)
+        {
+            int writeLength = Math.min(length, fd_.getMaxDataBlockSize());
+
+            // Set the chain bit if there is more data to write.
+            IFSWriteReq req = new IFSWriteReq(fd_.getFileHandle(), fd_.getFileOffset(),
+                                              data, dataOffset, writeLength,
+                                              0xffff, forceToStorage, fd_.serverDatastreamLevel_);
+            if (length - writeLength > 0)
+                req.setChainIndicator(1);
+
+            while (pending_.size() >= window_)
+                complete();
+
+            CompletableFuture<DataStream> future = null;
+            try {
+                future = fd_.server_.sendAsync(req);
+            }
+            catch (ConnectionDroppedException e)
+            {
+                Trace.log(Trace.ERROR, "Byte stream server connection lost");
+                fd_.connectionDropped(e);
+            }
+            pending_.addLast(new PendingWrite(future, writeLength));
+
+            fd_.incrementFileOffset(writeLength);
+            dataOffset += writeLength;
+            length -= writeLength;
+        }
+    }
+
+    // Wait for the replies to every outstanding write request.  A failure is thrown after the remaining replies
+    // have been received.
+    void completeAll() throws IOException, AS400SecurityException
+    {
+        while (!pending_.isEmpty())
+            complete();
+    }
+
+    // Check the replies that have already arrived, without waiting.
+    private void checkCompleted() throws IOException, AS400SecurityException
+    {
+        while (!pending_.isEmpty() && pending_.getFirst().future_.isDone())
+            complete();
+    }
+
+    // Receive and check the reply to the oldest outstanding request.  Once a write has failed, the data of later
+    // requests is not contiguous with the file, so their replies are received but their outcome is not reported.
+    private void complete() throws IOException, AS400SecurityException
+    {
+        try
+        {
+            receiveOldest();
+        }
+        catch (InterruptedIOException e)
+        {
+            throw e;
+        }
+        catch (IOException e)
+        {
+            discardRemaining();
+            throw e;
+        }
+        catch (AS400SecurityException e)
+        {
+            discardRemaining();
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            discardRemaining();
+            throw e;
+        }
+    }
+
+    private void discardRemaining()
+    {
+        while (!pending_.isEmpty())
+        {
+            try
+            {
+                receiveOldest();
+            }
+            catch (InterruptedIOException e)
+            {
+                pending_.clear();
+            }
+            catch (Exception e)
+            {
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "IFSWriteBehind: write after failed write also failed:", e);
+            }
+        }
+    }
+
+    // Wait for the reply to the oldest outstanding request and check it.
+    private void receiveOldest() throws IOException, AS400SecurityException
+    {
+        PendingWrite write = pending_.getFirst();
+        ClientAccessDataStream ds = null;
+        try
+        {
+            ds = (ClientAccessDataStream)write.future_.get();
+        }
+        catch (InterruptedException e)
+        {
+            Trace.log(Trace.ERROR, "Interrupted", e);
+            InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+            throwException.initCause(e);
+            throw throwException;
+        }
+        catch (ExecutionException e)
+        {
+            pending_.removeFirst();
+            Throwable cause = e.getCause();
+            if (cause instanceof ConnectionDroppedException)
+            {
+                Trace.log(Trace.ERROR, "Byte stream server connection lost");
+                pending_.clear();
+                fd_.connectionDropped((ConnectionDroppedException)cause);
+            }
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            Trace.log(Trace.ERROR, "Unexpected exception writing behind", cause);
+            throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+        }
+        pending_.removeFirst();
+        fd_.checkWriteReply(ds, write.length_);
+    }
+
+    private static int getWindowProperty()
+    {
+        String value = SystemProperties.getProperty(SystemProperties.IFSFILE_WRITE_BEHIND_WINDOW);
+        if (value == null) return 0;
+        try
+        {
+            return Math.max(0, Math.min(64, Integer.parseInt(value.trim())));
+        }
+        catch (NumberFormatException e)
+        {
+            Trace.log(Trace.WARNING, "Error retrieving writeBehindWindow property value:", e);
+            return 0;
+        }
+    }
+}
@@ -51,6 +51,45 @@ Construct a write request.
               int    dataCCSID,
               boolean forceToStorage,
               int     datastreamLevel)
+  {
+    this(fileHandle, fileOffset, dataLength, dataCCSID, forceToStorage, datastreamLevel);
+
+    // Copy the data to be written, into the "file data" field of the request.
+    System.arraycopy(data, dataOffset, data_, getFileDataOffset(datastreamLevel), dataLength);
+  }
+
+/**
+Construct a write request for the data in a buffer.
+The buffer position is advanced by the number of bytes copied into the request.
+@param fileHandle the file handle
+@param fileOffset the offset (in bytes) in the file
+@param data the buffer that contains the data to write
+@param dataLength the number of bytes to write
+@param dataCCSID the code page and character set of data (0xffff if unknown)
+@param forceToStorage if the data must be written to disk before the server replies
+@param datastreamLevel the datastream level of the server
+**/
+  IFSWriteReq(int    fileHandle,
+              long   fileOffset,
+              java.nio.ByteBuffer data,
+              int    dataLength,
+              int    dataCCSID,
+              boolean forceToStorage,
+              int     datastreamLevel)
+  {
+    this(fileHandle, fileOffset, dataLength, dataCCSID, forceToStorage, datastreamLevel);
+
+    // Copy the data to be written, into the "file data" field of the request.
+    data.get(data_, getFileDataOffset(datastreamLevel), dataLength);
+  }
+
+  // Construct a write request whose "file data" field is not yet filled in.
+  private IFSWriteReq(int    fileHandle,
+                      long   fileOffset,
+                      int    dataLength,
+                      int    dataCCSID,
+                      boolean forceToStorage,
+                      int     datastreamLevel)
   {
     super(HEADER_LENGTH + getTemplateLength(datastreamLevel) + 6 + dataLength);
     setLength(data_.length);
@@ -74,10 +113,6 @@ Construct a write request.
 
     // Set the code point.
     set16bit(0x0020, getFileDataCPOffset(datastreamLevel));
-
-    // Copy the data to be written, into the "file data" field of the request.
-    System.arraycopy(data, dataOffset, data_, getFileDataOffset(datastreamLevel), dataLength);
-
   }
 
   private final static int getTemplateLength(int datastreamLevel)
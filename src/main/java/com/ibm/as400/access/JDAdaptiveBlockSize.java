@@ -0,0 +1,237 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDAdaptiveBlockSize.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+
+
+/**
+<p>The JDAdaptiveBlockSize class chooses the size of the blocks
+that a JDServerRowCache requests from the system.
+
+<p>After each block is received, the latency of the connection is
+estimated as the smallest round trip time seen, and the transfer rate
+as the block size divided by the rest of the round trip time.  The
+next block is sized to twice the product of the latency and the
+smaller of the transfer rate and the rate at which the application
+reads the rows, so that waiting for a block takes at most about a third
+of the time.  The size at most doubles or halves from one block to the
+next, and stays between 8 kilobytes and the maximum block size.
+**/
+final class JDAdaptiveBlockSize
+implements AS400JDBCFetchMetrics
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private static final int    MINIMUM_BLOCK_SIZE_      = 8 * 1024;
+  private static final int    MAXIMUM_BLOCKING_FACTOR_ = 32767;
+  private static final double WEIGHT_                  = 0.25;        // of a new rate sample
+
+  private final int           rowLength_;
+  private final int           minimumBlockSize_;
+  private final int           maximumBlockSize_;
+  private int                 blockSize_;
+
+  private long                latency_                 = -1;
+  private double              transferRate_            = 0;
+  private double              readRate_                = 0;
+  private long                blockCount_              = 0;
+  private long                bytesReceived_           = 0;
+  private long                lastRoundTripTime_       = 0;
+
+  private long                requestTime_             = 0;
+  private volatile long       arrivalTime_             = 0;           // set by the reply thread
+  private long                blockTime_               = 0;           // when the current block was received
+
+
+
+/**
+Constructs a JDAdaptiveBlockSize object.
+
+@param  initialBlockSize    The block size of the first request, in kilobytes.
+@param  maximumBlockSize    The maximum block size, in kilobytes.  Sizes
+                            larger than the system accepts are reduced.
+@param  rowLength           The row length, in bytes.
+**/
+  JDAdaptiveBlockSize (int initialBlockSize, int maximumBlockSize, int rowLength)
+  {
+    rowLength_        = rowLength;
+    maximumBlockSize_ = Math.max (Math.min (maximumBlockSize, JDProperties.BLOCK_SIZE_MAX_INT) * 1024, MINIMUM_BLOCK_SIZE_);
+    minimumBlockSize_ = MINIMUM_BLOCK_SIZE_;
+    blockSize_        = round (initialBlockSize * 1024L);
+  }
+
+
+
+  // Rounds a size in bytes to whole kilobytes within the bounds.
+  private int round (double size)
+  {
+    long kilobytes = (long) (size / 1024);
+    return (int) Math.max (minimumBlockSize_, Math.min (maximumBlockSize_, kilobytes * 1024));
+  }
+
+
+
+/**
+Records that a block is being requested.
+
+@param  rowsRead    The number of rows of the current block
+                    that the application has read.
+**/
+  void blockRequested (int rowsRead)
+  {
+    long now = System.nanoTime ();
+    if (blockTime_ != 0 && rowsRead > 0 && rowLength_ > 0)
+    {
+      long elapsed = now - blockTime_;
+      if (elapsed > 0)
+        readRate_ = average (readRate_, ((double) rowsRead * rowLength_ * 1000000000.0) / elapsed);
+    }
+    requestTime_ = now;
+    arrivalTime_ = 0;
+  }
+
+
+
+/**
+Records that the reply to the requested block has arrived.  This is
+called by the thread that reads the reply, which may not be the thread
+that requested the block.
+**/
+  void replyArrived ()
+  {
+    arrivalTime_ = System.nanoTime ();
+  }
+
+
+
+/**
+Records that the requested block has been received, and
+chooses the size of the next block.
+
+@param  bytes   The length of the reply, in bytes.
+**/
+  void blockReceived (int bytes)
+  {
+    long now = System.nanoTime ();
+    long arrivalTime = arrivalTime_;
+    long roundTripTime = ((arrivalTime != 0) ? arrivalTime : now) - requestTime_;
+    blockTime_ = now;
+
+    ++blockCount_;
+    bytesReceived_ += bytes;
+    lastRoundTripTime_ = roundTripTime;
+
+    if (latency_ < 0 || roundTripTime < latency_)
+      latency_ = roundTripTime;
+
+    long transferTime = roundTripTime - latency_;
+    if (transferTime > 0 && bytes > 0)
+      transferRate_ = average (transferRate_, ((double) bytes * 1000000000.0) / transferTime);
+
+    // While the rate is not known, the round trip is all latency,
+    // so a larger block costs nothing extra.
+    double rate = transferRate_;
+    if (readRate_ > 0 && (rate == 0 || readRate_ < rate))
+      rate = readRate_;
+
+    double target = (rate == 0) ? (blockSize_ * 2.0) : (2.0 * rate * latency_ / 1000000000.0);
+    target = Math.max (blockSize_ / 2.0, Math.min (blockSize_ * 2.0, target));
+    blockSize_ = round (target);
+  }
+
+
+
+  // Returns the average of a rate and a new sample, weighting recent samples more.
+  private static double average (double rate, double sample)
+  {
+    return (rate == 0) ? sample : (rate + WEIGHT_ * (sample - rate));
+  }
+
+
+
+  public int getBlockSize ()
+  {
+    return blockSize_;
+  }
+
+
+
+  public int getBlockingFactor ()
+  {
+    if (rowLength_ <= 0)
+      return 1;
+    return Math.max (1, Math.min (MAXIMUM_BLOCKING_FACTOR_, blockSize_ / rowLength_));
+  }
+
+
+
+  public int getMaximumBlockSize ()
+  {
+    return maximumBlockSize_;
+  }
+
+
+
+  public long getBlockCount ()
+  {
+    return blockCount_;
+  }
+
+
+
+  public long getBytesReceived ()
+  {
+    return bytesReceived_;
+  }
+
+
+
+  public long getLastRoundTripTime ()
+  {
+    return lastRoundTripTime_;
+  }
+
+
+
+  public long getLatency ()
+  {
+    return latency_;
+  }
+
+
+
+  public double getTransferRate ()
+  {
+    return transferRate_;
+  }
+
+
+
+  public double getReadRate ()
+  {
+    return readRate_;
+  }
+
+
+
+  public String toString ()
+  {
+    return "blockSize=" + blockSize_ + ", blockingFactor=" + getBlockingFactor ()
+      + ", roundTripTime=" + lastRoundTripTime_ + ", latency=" + latency_
+      + ", transferRate=" + (long) transferRate_ + ", readRate=" + (long) readRate_
+      + ", blocks=" + blockCount_;
+  }
+}
@@ -1431,7 +1431,7 @@ implements ConnectionEventListener
         catch (SQLException e) {
           logException(ResourceBundleLoader.getText("AS400CP_FILLEXC"), e);
         }
-        if (system == null || !system.isConnectionAlive(AS400.DATABASE))
+        if (system == null || !ConnectionLivenessProbe.isAlive(system, AS400.DATABASE))
         {
           // This pooled connection is bad.  Add it to the 'condemned' list.
           if (JDTrace.isTraceOn()) logDiagnostic("JDConnectionPoolManager.getConnection() is condemning a connection that has failed a validity pretest: " + conn1.toString());
@@ -0,0 +1,208 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDConnectionPoolMetrics.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+The JDConnectionPoolMetrics class counts the requests and
+connections of an AS400JDBCConnectionPool.
+**/
+final class JDConnectionPoolMetrics
+implements AS400JDBCConnectionPoolMetricsMXBean
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  // Upper bounds, in milliseconds, of the histogram buckets.  Also used for the statement execution times in
+  // JDStatementStatistics.  Callers must not modify the array.
+  static final long[] HISTOGRAM_LIMITS_ = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+  private final AS400JDBCConnectionPool pool_;
+  private final AtomicLongArray waitHistogram_  = new AtomicLongArray (HISTOGRAM_LIMITS_.length + 1);
+  private final AtomicLong      requests_       = new AtomicLong ();
+  private final AtomicLong      waitTime_       = new AtomicLong ();      // nanoseconds
+  private final AtomicLong      timeouts_       = new AtomicLong ();
+  private final AtomicLong      created_        = new AtomicLong ();
+  private final AtomicLong      createTime_     = new AtomicLong ();      // nanoseconds
+  private final AtomicLong      maxCreateTime_  = new AtomicLong ();      // nanoseconds
+  private final AtomicLong      createFailures_ = new AtomicLong ();
+  private final AtomicLong      closed_         = new AtomicLong ();
+  private final AtomicLong      leaks_          = new AtomicLong ();
+
+
+
+  JDConnectionPoolMetrics (AS400JDBCConnectionPool pool)
+  {
+    pool_ = pool;
+  }
+
+
+
+  void connectionRequested (long waitTime)
+  {
+    requests_.incrementAndGet ();
+    waitTime_.addAndGet (waitTime);
+
+    long millis = waitTime / 1000000;
+    int bucket = 0;
+    while (bucket < HISTOGRAM_LIMITS_.length && millis >= HISTOGRAM_LIMITS_[bucket])
+      ++bucket;
+    waitHistogram_.incrementAndGet (bucket);
+  }
+
+
+
+  void requestTimedOut ()
+  {
+    timeouts_.incrementAndGet ();
+  }
+
+
+
+  void connectionCreated (long createTime)
+  {
+    created_.incrementAndGet ();
+    createTime_.addAndGet (createTime);
+    long max = maxCreateTime_.get ();
+    while (createTime > max && !maxCreateTime_.compareAndSet (max, createTime))
+      max = maxCreateTime_.get ();
+  }
+
+
+
+  void connectionCreateFailed ()
+  {
+    createFailures_.incrementAndGet ();
+  }
+
+
+
+  void connectionClosed ()
+  {
+    closed_.incrementAndGet ();
+  }
+
+
+
+  void leakDetected ()
+  {
+    leaks_.incrementAndGet ();
+  }
+
+
+
+  public int getActiveConnectionCount ()
+  {
+    return pool_.getActiveConnectionCount ();
+  }
+
+
+
+  public int getAvailableConnectionCount ()
+  {
+    return pool_.getAvailableConnectionCount ();
+  }
+
+
+
+  public int getWaitingRequestCount ()
+  {
+    return pool_.getWaitingRequestCount ();
+  }
+
+
+
+  public long getRequestCount ()
+  {
+    return requests_.get ();
+  }
+
+
+
+  public long getTimeoutCount ()
+  {
+    return timeouts_.get ();
+  }
+
+
+
+  public double getAverageWaitTime ()
+  {
+    long requests = requests_.get ();
+    return (requests == 0) ? 0 : waitTime_.get () / 1000000.0 / requests;
+  }
+
+
+
+  public long[] getWaitTimeHistogram ()
+  {
+    long[] histogram = new long[waitHistogram_.length ()];
+    for (int i = 0; i < histogram.length; ++i)
+      histogram[i] = waitHistogram_.get (i);
+    return histogram;
+  }
+
+
+
+  public long[] getWaitTimeHistogramLimits ()
+  {
+    return HISTOGRAM_LIMITS_.clone ();
+  }
+
+
+
+  public long getConnectionsCreated ()
+  {
+    return created_.get ();
+  }
+
+
+
+  public long getConnectionCreateFailures ()
+  {
+    return createFailures_.get ();
+  }
+
+
+
+  public long getConnectionsClosed ()
+  {
+    return closed_.get ();
+  }
+
+
+
+  public double getAverageCreateTime ()
+  {
+    long created = created_.get ();
+    return (created == 0) ? 0 : createTime_.get () / 1000000.0 / created;
+  }
+
+
+
+  public double getMaximumCreateTime ()
+  {
+    return maxCreateTime_.get () / 1000000.0;
+  }
+
+
+
+  public long getLeakCount ()
+  {
+    return leaks_.get ();
+  }
+}
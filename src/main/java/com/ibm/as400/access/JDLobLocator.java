@@ -13,7 +13,9 @@
 
 package com.ibm.as400.access;
 
+import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 
 
@@ -40,6 +42,7 @@ class JDLobLocator
   private int                     maxLength_; // The max length in LOB-characters.
   private int                     columnIndex_        = -1;
   private boolean                 graphic_;        
+  private int                     blockSize_;  // The block size of the streams in bytes.
   DBReplyRequestedDS retrieveDataReply = null;
 
 
@@ -56,6 +59,14 @@ class JDLobLocator
     maxLength_       = maxLength;
     dataCompression_ = connection_.getDataCompression() == AS400JDBCConnection.DATA_COMPRESSION_OLD_;
     graphic_ = graphic;
+    try
+    {
+      blockSize_ = connection_.getProperties().getInt(JDProperties.LOB_BLOCK_SIZE) * 1024;
+    }
+    catch (SQLException e)
+    {
+      blockSize_ = 0;
+    }
   }
 
 
@@ -71,6 +82,7 @@ class JDLobLocator
     maxLength_ = loc.maxLength_;
     dataCompression_ = loc.dataCompression_;
     graphic_ = loc.graphic_;
+    blockSize_ = loc.blockSize_;
     handle_ = loc.handle_;
     length_ = loc.length_;
     columnIndex_ = loc.columnIndex_;
@@ -173,27 +185,7 @@ Retrieves part of the contents of the lob.
       DBSQLRequestDS request = null;
       try
       {
-        request = DBDSPool.getDBSQLRequestDS(DBSQLRequestDS.FUNCTIONID_RETRIEVE_LOB_DATA,
-                                             id_, DBBaseRequestDS.ORS_BITMAP_RETURN_DATA
-                                             + DBBaseRequestDS.ORS_BITMAP_RESULT_DATA, 0);
-        request.setLOBLocatorHandle(handle_);
-        request.setRequestedSize(length);
-        request.setStartOffset((int)offset); // Some day the IBM i will support 8-byte offsets.
-        request.setCompressionIndicator(dataCompression_ ? 0xF1 : 0xF0);
-        request.setReturnCurrentLengthIndicator(0xF1);
-        // If a column index has not been set for this locator, then do not pass
-        // the optional column index parameter to the system.
-        if (columnIndex_ != -1)
-        {
-          request.setColumnIndex(columnIndex_);
-        }
-
-        if (JDTrace.isTraceOn())
-        {
-          JDTrace.logInformation(connection_, "Retrieving lob data from handle: " + handle_ + 
-                                 " bytesToRead: " + length + " startingOffset: " + offset +
-                                 " dataCompression: " + dataCompression_ + " columnIndex: " + columnIndex_);
-        }
+        request = newRetrieveDataRequest(offset, length);
 
         if (retrieveDataReply != null) { retrieveDataReply.returnToPool(); retrieveDataReply=null; } 
         retrieveDataReply = connection_.sendAndReceive(request, id_);
@@ -228,6 +220,155 @@ Retrieves part of the contents of the lob.
   }
 
 
+/**
+Sends a request to retrieve part of the contents of the lob, without
+waiting for the reply.  The reply is returned by receiveData().
+Other requests can be sent on the connection while the reply is outstanding.
+
+@param  offset      The offset within the LOB, in LOB-characters.
+@param  length      The number of LOB-characters to read from the LOB.
+@return             The future for the reply.
+
+@exception  SQLException    If the position is not valid,
+                            if the length is not valid,
+                            or an error occurs.
+**/
+  synchronized CompletableFuture<DataStream> retrieveDataAsync(long offset, int length) throws SQLException
+  {
+    if (offset < 0 || length < 0) JDError.throwSQLException(this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);
+
+    if (offset >= getMaxLength()) JDError.throwSQLException(this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);
+
+    if (offset > 0x7FFFFFFF) offset = 0x7FFFFFFF;
+
+    DBSQLRequestDS request = null;
+    try
+    {
+      request = newRetrieveDataRequest(offset, length);
+      return connection_.sendAsync(request, id_);
+    }
+    catch (DBDataStreamException e)
+    {
+      JDError.throwSQLException(this, JDError.EXC_INTERNAL, e);
+      return null;
+    }
+    finally
+    {
+      if (request != null) { request.returnToPool(); request = null; }
+    }
+  }
+
+
+
+/**
+Waits for the reply to a request sent by retrieveDataAsync().  The
+caller must release the reply when it has read the LOB data.
+
+@param  future      The future returned by retrieveDataAsync().
+@return             The reply.  Its LOB data is adjusted for graphic LOBs.
+
+@exception  SQLException    If an error occurs.
+**/
+  DBReplyRequestedDS receiveData(CompletableFuture<DataStream> future) throws SQLException
+  {
+    DBReplyRequestedDS reply = connection_.receiveAsync(future);
+    int errorClass = reply.getErrorClass();
+    int returnCode = reply.getReturnCode();
+
+    if (errorClass != 0)
+    {
+      reply.returnToPool();
+      JDError.throwSQLException(this, connection_, id_, errorClass, returnCode);
+    }
+
+    synchronized(this)
+    {
+      length_ = reply.getCurrentLOBLength();
+    }
+
+    DBLobData lobData = reply.getLOBData();
+    if (graphic_ && lobData != null)
+    {
+      lobData.adjustForGraphic();
+    }
+    return reply;
+  }
+
+
+
+  // Creates the request to retrieve part of the contents of the lob.
+  private DBSQLRequestDS newRetrieveDataRequest(long offset, int length) throws DBDataStreamException
+  {
+    DBSQLRequestDS request = DBDSPool.getDBSQLRequestDS(DBSQLRequestDS.FUNCTIONID_RETRIEVE_LOB_DATA,
+                                                        id_, DBBaseRequestDS.ORS_BITMAP_RETURN_DATA
+                                                        + DBBaseRequestDS.ORS_BITMAP_RESULT_DATA, 0);
+    request.setLOBLocatorHandle(handle_);
+    request.setRequestedSize(length);
+    request.setStartOffset((int)offset); // Some day the IBM i will support 8-byte offsets.
+    request.setCompressionIndicator(dataCompression_ ? 0xF1 : 0xF0);
+    request.setReturnCurrentLengthIndicator(0xF1);
+    // If a column index has not been set for this locator, then do not pass
+    // the optional column index parameter to the system.
+    if (columnIndex_ != -1)
+    {
+      request.setColumnIndex(columnIndex_);
+    }
+
+    if (JDTrace.isTraceOn())
+    {
+      JDTrace.logInformation(connection_, "Retrieving lob data from handle: " + handle_ + 
+                             " bytesToRead: " + length + " startingOffset: " + offset +
+                             " dataCompression: " + dataCompression_ + " columnIndex: " + columnIndex_);
+    }
+    return request;
+  }
+
+
+
+/**
+Returns the number of bytes that LOB streams read and write in one request.
+
+@return     The block size in bytes, or 0 if the "lob block size" property is 0.
+**/
+  int getBlockSize()
+  {
+    return blockSize_;
+  }
+
+
+
+/**
+Returns a stream that reads the contents of the lob.  If the "lob block size"
+property is set, the stream reads blocks of that size ahead of the caller.
+
+@return     The stream.
+**/
+  InputStream getInputStream()
+  {
+    if (getBlockSize() > 0)
+      return new AS400JDBCLobInputStream(this);
+    return new AS400JDBCInputStream(this);
+  }
+
+
+
+/**
+Returns a stream that reads part of the contents of the lob.  If the "lob block size"
+property is set, the stream reads blocks of that size ahead of the caller.
+
+@param  pos         The starting position, in LOB-characters.
+@param  length      The length of the stream, in LOB-characters.
+@return             The stream.
+**/
+  InputStream getInputStream(long pos, long length)
+  {
+    if (getBlockSize() > 0)
+      return new AS400JDBCLobInputStream(this, pos, length);
+    return new AS400JDBCInputStream(this, pos, length);
+  }
+
+
+
 /**
 Sets the column index.
 
@@ -156,6 +156,14 @@ public class JDMRI extends ListResourceBundle
       { "PROP_NAME_USE_SOCK5", "useSock5"},
       { "PROP_NAME_VIRTUAL_THREADS", "virtualThreads"},
       { "PROP_NAME_TRIM_CHAR_FIELDS", "trimCharFields"},
+      { "PROP_NAME_STATEMENT_CACHE_SIZE", "statementCacheSize"},
+      { "PROP_NAME_BLOCK_PREFETCH_THRESHOLD", "blockPrefetchThreshold"},
+      { "PROP_NAME_MAXIMUM_BLOCK_SIZE", "maximumBlockSize"},
+      { "PROP_NAME_BATCH_FLUSH_ROWS", "batchFlushRows"},
+      { "PROP_NAME_BATCH_FLUSH_SIZE", "batchFlushSize"},
+      { "PROP_NAME_METADATA_CACHE_SIZE", "metadataCacheSize"},
+      { "PROP_NAME_METADATA_CACHE_TIME", "metadataCacheTime"},
+      { "PROP_NAME_LOB_BLOCK_SIZE", "lobBlockSize"},
            // #TRANNOTE JDBC property descriptions.
       { "ACCESS_DESC", "Specifies the level of database access for the connection." },
       { "BEHAVIOR_OVERRIDE_DESC", "Specifies the Toolbox JDBC driver behavior to override." },     //@J5A
@@ -276,6 +284,14 @@ public class JDMRI extends ListResourceBundle
       {"TLS_TRUSTSTORE_PASSWORD_DESC","Specifies the password associated with the configured TLS truststore."},
       {"USE_SOCK5_DESC","Specifies that Socks5 should be used for the proxy support."},
       {"VIRTUAL_THREADS_DESC","Specifies that virtual threads should be used when available."},
+      {"STATEMENT_CACHE_SIZE_DESC","Specifies the maximum number of closed prepared statements kept prepared by each connection for reuse.  A value of 0 means that statements are not cached."},
+      {"BLOCK_PREFETCH_THRESHOLD_DESC","Specifies the percentage of a block of a forward-only result set that is read before the next block is requested from the system in the background.  A value of 0 means that blocks are not requested in the background."},
+      {"MAXIMUM_BLOCK_SIZE_DESC","Specifies the largest block size (in kilobytes) that the driver uses when it adjusts the block size of forward-only result sets to the speed of the connection.  Values larger than 16000 are reduced to 16000.  A value of 0 means that the block size is not adjusted."},
+      {"BATCH_FLUSH_ROWS_DESC","Specifies the number of rows added to the batch of a prepared statement after which the rows are sent to the system before executeBatch() is called.  A value of 0 means that rows are not sent before executeBatch() is called."},
+      {"BATCH_FLUSH_SIZE_DESC","Specifies the size (in kilobytes) of the rows added to the batch of a prepared statement after which the rows are sent to the system before executeBatch() is called.  A value of 0 means that rows are not sent before executeBatch() is called."},
+      {"METADATA_CACHE_SIZE_DESC","Specifies the maximum number of DatabaseMetaData getColumns(), getPrimaryKeys(), getTables() and getIndexInfo() results kept for reuse by the connections to the same system with the same user and metadata properties.  A value of 0 means that the results are not cached."},
+      {"METADATA_CACHE_TIME_DESC","Specifies the number of seconds that a cached DatabaseMetaData result is reused.  This property has no effect unless the metadata cache size is greater than 0."},
+      {"LOB_BLOCK_SIZE_DESC","Specifies the size (in kilobytes) of the blocks that LOB locator streams read from and write to the system.  The next block is requested while the current block is read.  A value of 0 means that the data is read and written as the application requests it."},
       // JDBC 2 - Optional Package support - RowSet    @E5
       { "PROP_NAME_RS_COMMAND", "command" },
       { "PROP_NAME_RS_CONCURRENCY", "concurrency" },
@@ -14,6 +14,7 @@
 package com.ibm.as400.access;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 
 
 
@@ -36,6 +37,7 @@ class JDPackageManager
   private DBReplyPackageInfo  cachedPackage_;
   private ConvTable           cachedPackageConverter_; //@P0C
   private int                 cachedStatementCount_;
+  private HashMap<String, Integer> cachedStatementIndexes_;   // statement text -> first cached statement index
   private boolean             clear_;
   private AS400JDBCConnection connection_;
   private boolean             created_;
@@ -158,6 +160,7 @@ class JDPackageManager
             cachedPackage_ = reply.getPackageInfo ();
             cachedPackageConverter_ = connection_.getConverter (cachedPackage_.getCCSID());
             cachedStatementCount_ = cachedPackage_.getStatementCount ();
+            cachedStatementIndexes_ = indexStatements ();
           }
         }
         finally
@@ -175,6 +178,35 @@ class JDPackageManager
 
 
 
+  /**
+  Builds the index of the statement text in the cached package, so that
+  a statement can be found without comparing it to every cached statement.
+  When the package contains the same text more than once, the first
+  statement is used.
+  
+  @return the index.
+  
+  @exception  DBDataStreamException    If the data stream is problematic.
+  **/
+  private HashMap<String, Integer> indexStatements ()
+  throws DBDataStreamException
+  {
+    HashMap<String, Integer> indexes = new HashMap<String, Integer> (cachedStatementCount_ * 4 / 3 + 1);
+    for (int i = 0; i < cachedStatementCount_; ++i)
+    {
+      String statementText = cachedPackage_.getStatementText (i, cachedPackageConverter_);
+      if (! indexes.containsKey (statementText))
+        indexes.put (statementText, Integer.valueOf (i));
+    }
+
+    if (JDTrace.isTraceOn())
+      JDTrace.logInformation (connection_,
+                              "Indexed " + indexes.size () + " statements in package [" + name_ + "]");
+    return indexes;
+  }
+
+
+
   /**
   Creates the package on the system, if extended dynamic support is
   enabled.  If the package already existed on the system, and the
@@ -327,46 +359,13 @@ class JDPackageManager
   int getCachedStatementIndex (JDSQLStatement sqlStatement)
   throws SQLException
   {
-    if (! isCached())
+    if (! isCached() || cachedStatementIndexes_ == null)
       return -1;
 
-    String statementText = sqlStatement.toString ();
-    int statementTextLength = statementText.length ();
-
-    //@G1M Moved this if statement.  It should not have been in the for loop.
-    //@F2A If we are running to a v5r1 or higher system, the cached 
-    //@F2A package is now in unicode.
-    if (connection_.getVRM() >= JDUtilities.vrm510)              //@F2A
-    {
-      //@F2A
-      statementTextLength = statementTextLength * 2;           //@F2A
-    }                                                            //@F2A
-
-    for (int i = 0; i < cachedStatementCount_; ++i)
-    {
-
-      try
-      {
-        // Compare lengths first, before going to the
-        // expense of a full String comparison.
-        if (statementTextLength == cachedPackage_.getStatementTextLength (i))
-        {
-
-          // The lengths match, so now do the String
-          // comparison.
-          if (statementText.equals (cachedPackage_.getStatementText (i,
-                                                                     cachedPackageConverter_)))
-            return i;
-        }
-      }
-      catch (DBDataStreamException e)
-      {
-        JDError.throwSQLException (JDError.EXC_INTERNAL, e);
-      }
-
-    }
-
-    return -1;
+    // The statement text of the whole package was converted and
+    // indexed when the package was downloaded.
+    Integer index = cachedStatementIndexes_.get (sqlStatement.toString ());
+    return (index == null) ? -1 : index.intValue ();
   }
 
 
@@ -193,10 +193,18 @@ public class JDProperties implements Serializable, Cloneable {
   static final int USE_SOCK5 = 105; // @greenscreens
   static final int VIRTUAL_THREADS = 106; // @greenscreens
   static final int TRIM_CHAR_FIELDS = 107;
+  static final int STATEMENT_CACHE_SIZE = 108;
+  static final int BLOCK_PREFETCH_THRESHOLD = 109;
+  static final int MAXIMUM_BLOCK_SIZE = 110;
+  static final int BATCH_FLUSH_ROWS = 111;
+  static final int BATCH_FLUSH_SIZE = 112;
+  static final int METADATA_CACHE_SIZE = 113;
+  static final int METADATA_CACHE_TIME = 114;
+  static final int LOB_BLOCK_SIZE = 115;
 
   // always add to the end of the array!
 
-  private static final int NUMBER_OF_ATTRIBUTES_ = 108;
+  private static final int NUMBER_OF_ATTRIBUTES_ = 116;
 
   // Property names.
   static final String ACCESS_ = "access";
@@ -275,6 +283,14 @@ public class JDProperties implements Serializable, Cloneable {
   static final String TRANSLATE_BINARY_ = "translate binary";
   static final String TRANSLATE_HEX_ = "translate hex";
   static final String TRIM_CHAR_FIELDS_ = "trim char fields";
+  static final String STATEMENT_CACHE_SIZE_ = "statement cache size";
+  static final String BLOCK_PREFETCH_THRESHOLD_ = "block prefetch threshold";
+  static final String MAXIMUM_BLOCK_SIZE_ = "maximum block size";
+  static final String BATCH_FLUSH_ROWS_ = "batch flush rows";
+  static final String BATCH_FLUSH_SIZE_ = "batch flush size";
+  static final String METADATA_CACHE_SIZE_ = "metadata cache size";
+  static final String METADATA_CACHE_TIME_ = "metadata cache time";
+  static final String LOB_BLOCK_SIZE_ = "lob block size";
   static final String USER_ = "user"; // @native
   static final String USE_DRDA_METADATA_VERSION_ = "use drda metadata version";
   static final String QAQQINILIB_ = "qaqqinilib";
@@ -1668,6 +1684,70 @@ public class JDProperties implements Serializable, Cloneable {
     dpi_[i].choices[0] = FALSE_;
     dpi_[i].choices[1] = TRUE_;
     defaults_[i] = EMPTY_;
+
+    // Statement cache size
+    i = STATEMENT_CACHE_SIZE;
+    dpi_[i] = new DriverPropertyInfo(STATEMENT_CACHE_SIZE_, "");
+    dpi_[i].description = "STATEMENT_CACHE_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Block prefetch threshold
+    i = BLOCK_PREFETCH_THRESHOLD;
+    dpi_[i] = new DriverPropertyInfo(BLOCK_PREFETCH_THRESHOLD_, "");
+    dpi_[i].description = "BLOCK_PREFETCH_THRESHOLD_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Maximum block size
+    i = MAXIMUM_BLOCK_SIZE;
+    dpi_[i] = new DriverPropertyInfo(MAXIMUM_BLOCK_SIZE_, "");
+    dpi_[i].description = "MAXIMUM_BLOCK_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Batch flush rows
+    i = BATCH_FLUSH_ROWS;
+    dpi_[i] = new DriverPropertyInfo(BATCH_FLUSH_ROWS_, "");
+    dpi_[i].description = "BATCH_FLUSH_ROWS_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Batch flush size
+    i = BATCH_FLUSH_SIZE;
+    dpi_[i] = new DriverPropertyInfo(BATCH_FLUSH_SIZE_, "");
+    dpi_[i].description = "BATCH_FLUSH_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Metadata cache size
+    i = METADATA_CACHE_SIZE;
+    dpi_[i] = new DriverPropertyInfo(METADATA_CACHE_SIZE_, "");
+    dpi_[i].description = "METADATA_CACHE_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
+    // Metadata cache time
+    i = METADATA_CACHE_TIME;
+    dpi_[i] = new DriverPropertyInfo(METADATA_CACHE_TIME_, "");
+    dpi_[i].description = "METADATA_CACHE_TIME_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "300";
+
+    // LOB block size
+    i = LOB_BLOCK_SIZE;
+    dpi_[i] = new DriverPropertyInfo(LOB_BLOCK_SIZE_, "");
+    dpi_[i].description = "LOB_BLOCK_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
   }
 
   /**
@@ -37,6 +37,7 @@ import java.util.Vector;
 // construction time.
 //
 public class JDSQLStatement
+implements Cloneable
 {
     // Native statement types.
     //
@@ -122,6 +123,7 @@ public class JDSQLStatement
     private boolean         selectTableNotSet_          = true;     //@K1A boolean to determine if selectTable_ has been set, if so, then selectTableNotSet_ is false
   private boolean         selectFromInsert_           = false;    // @GKA
     private boolean       isMetaDataCall_ = false;                //@K5A
+    private String          normalizedText_             = null;     // for JDStatementStatistics
 
     // Contains a list of AS400JDBCStatementListener objects to be invoked when events occur
     // related to a JDSQLStatement.
@@ -193,6 +195,64 @@ public class JDSQLStatement
 
 
 
+    /**
+    Returns a JDSQLStatement object for an SQL statement.  If the connection
+    has already parsed the same SQL statement with the same settings, this
+    returns a copy of the earlier result instead of parsing the statement again.
+    Statements are not cached when statement listeners are registered,
+    since a listener may change the SQL statement differently each time.
+    
+    @param  sql                 A SQL statement.
+    @param  decimalSeparator    The decimal separator.
+    @param  convert             Convert to native SQL?
+    @param  packageCriteria     The package criteria.
+    @param  connection          A connection object to get properties off.
+    @return                     The statement.
+    
+    @exception  SQLException        If there is a syntax error or
+                                    a reference to an unsupported
+                                    scalar function.
+    **/
+    static JDSQLStatement getStatement(String sql, String decimalSeparator, boolean convert, String packageCriteria,
+                                       AS400JDBCConnection connection)
+    throws SQLException
+    {
+        JDSQLStatementCache cache = (connection == null) ? null : connection.sqlStatementCache_;
+        if(cache == null || sql == null || !statementListeners_.isEmpty())
+            return new JDSQLStatement(sql, decimalSeparator, convert, packageCriteria, connection);
+
+        String key = JDSQLStatementCache.getKey(sql, decimalSeparator, convert, packageCriteria);
+        JDSQLStatement parsed = cache.get(key);
+        if(parsed == null)
+        {
+            parsed = new JDSQLStatement(sql, decimalSeparator, convert, packageCriteria, connection);
+            cache.put(key, parsed);
+        }
+        return parsed.copy();
+    }
+
+
+
+    /**
+    Returns a copy of this statement that can be changed
+    without affecting this statement.
+    
+    @return     The copy.
+    **/
+    private JDSQLStatement copy()
+    {
+        try
+        {
+            return (JDSQLStatement)clone();
+        }
+        catch(CloneNotSupportedException e)
+        {
+            throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+
+
     /**
     Constructs a JDSQLStatement object.
     
@@ -1287,6 +1347,16 @@ public class JDSQLStatement
         return value_;                                                     // @E1C
     }
 
+
+    // Returns the SQL statement with its literals replaced, by which
+    // JDStatementStatistics collects its statistics.
+    String getNormalizedText()
+    {
+        if (normalizedText_ == null)
+            normalizedText_ = JDStatementStatistics.normalize(value_);
+        return normalizedText_;
+    }
+
     
     boolean getIsMetaDataCall() { 
       return isMetaDataCall_; 
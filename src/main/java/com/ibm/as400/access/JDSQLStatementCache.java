@@ -0,0 +1,121 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDSQLStatementCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+
+/**
+<p>This class caches parsed SQL statements for one connection, so that
+running the same SQL text again does not tokenize it and process its
+escape clauses again.  The parse also depends on the connection, for
+example its release, naming, and bidi properties, which is why each
+connection has its own cache.
+**/
+class JDSQLStatementCache
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private static final int DEFAULT_SIZE_ = 256;
+
+  private final int maximumSize_;
+  private final LinkedHashMap<String, JDSQLStatement> statements_;   // in least recently used order
+
+
+
+  private JDSQLStatementCache (int maximumSize)
+  {
+    maximumSize_ = maximumSize;
+    statements_ = new LinkedHashMap<String, JDSQLStatement> (16, 0.75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      protected boolean removeEldestEntry (Map.Entry<String, JDSQLStatement> eldest)
+      {
+        return size () > maximumSize_;
+      }
+    };
+  }
+
+
+
+  /**
+  Returns a cache with the size set by the
+  com.ibm.as400.access.JDBC.sqlStatementCacheSize system property.
+
+  @return the cache, or null if the size is 0.
+  **/
+  static JDSQLStatementCache createDefault ()
+  {
+    int size = DEFAULT_SIZE_;
+    String value = SystemProperties.getProperty (SystemProperties.JDBC_SQL_STATEMENT_CACHE_SIZE);
+    if (value != null)
+    {
+      try
+      {
+        size = Integer.parseInt (value.trim ());
+      }
+      catch (NumberFormatException e)
+      {
+        if (JDTrace.isTraceOn ())
+          JDTrace.logInformation ("Ignoring " + SystemProperties.JDBC_SQL_STATEMENT_CACHE_SIZE + "=" + value);
+      }
+    }
+    return (size > 0) ? new JDSQLStatementCache (size) : null;
+  }
+
+
+
+  /**
+  Returns the key for an SQL statement and the settings used to parse it.
+  **/
+  static String getKey (String sql, String decimalSeparator, boolean convert, String packageCriteria)
+  {
+    StringBuilder buffer = new StringBuilder (sql.length () + 16);
+    buffer.append (convert ? '1' : '0').append (decimalSeparator).append (packageCriteria);
+    buffer.append (':').append (sql);
+    return buffer.toString ();
+  }
+
+
+
+  /**
+  Returns the parsed statement for a key.  The caller must copy the
+  statement before using it.
+
+  @param  key     the key.
+  @return         the parsed statement, or null if not cached.
+  **/
+  synchronized JDSQLStatement get (String key)
+  {
+    return statements_.get (key);
+  }
+
+
+
+  /**
+  Caches a parsed statement.  The statement must not be changed afterward.
+
+  @param  key           the key.
+  @param  sqlStatement  the parsed statement.
+  **/
+  synchronized void put (String key, JDSQLStatement sqlStatement)
+  {
+    statements_.put (key, sqlStatement);
+  }
+}
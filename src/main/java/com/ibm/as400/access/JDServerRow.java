@@ -13,6 +13,7 @@
 
 package com.ibm.as400.access;
 
+import java.math.BigDecimal;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Calendar;
@@ -56,6 +57,42 @@ implements JDRow
     private boolean[]               translated_;
     private boolean                 wasCompressed = false;   // set to true if variable length field compression is used
     private Hashtable               insensitiveColumnNames_; // @PDA maps strings to column indexes
+    private SQLConversionSettings   settings_;
+
+    // Fast access types, used to read numeric values directly from
+    // the raw bytes without translating the SQLData objects.
+    private static final int        FAST_NONE_          = 0;
+    private static final int        FAST_SMALLINT_      = 1;
+    private static final int        FAST_INTEGER_       = 2;
+    private static final int        FAST_BIGINT_        = 3;
+    private static final int        FAST_REAL_          = 4;
+    private static final int        FAST_DOUBLE_        = 5;
+    private static final int        FAST_PACKED_        = 6;
+    private static final int        FAST_ZONED_         = 7;
+    private static final int        FAST_CHAR_          = 8;
+
+    private static final int        FAST_MAX_PRECISION_ = 18;
+    private static final long       FAST_MAX_CHAR_      = 999999999999999L;    // exact as a double
+    private static final long       FAST_MAX_DOUBLE_    = 1L << 53;
+
+    private static final long[]     LONG_POWERS_OF_TEN_   = new long[FAST_MAX_PRECISION_ + 1];
+    private static final double[]   DOUBLE_POWERS_OF_TEN_ = new double[FAST_MAX_PRECISION_ + 1];
+    static
+    {
+        long power = 1;
+        for(int i = 0; i <= FAST_MAX_PRECISION_; ++i)
+        {
+            LONG_POWERS_OF_TEN_[i] = power;
+            DOUBLE_POWERS_OF_TEN_[i] = power;
+            power *= 10;
+        }
+    }
+
+    private int[]                   fastTypes_;            // null until first needed
+    private char[][]                fastCharTables_;       // for FAST_CHAR_ fields
+    private long                    fastLong_;             // unscaled value
+    private int                     fastScale_;
+    private double                  fastDouble_;
     boolean                         containsLob_;     //@re-prep
     boolean                         containsArray_;     //@array
 
@@ -161,6 +198,9 @@ implements JDRow
         rowIndex_           = -1;
         serverData_         = null;
         serverFormat_       = serverFormat;
+        settings_           = settings;
+        fastTypes_          = null;
+        fastCharTables_     = null;
         int dateFormat = -1;	// @550A
         int timeFormat = -1;	// @550A
 
@@ -451,6 +491,412 @@ implements JDRow
 
 
 
+    /**
+    Indicates if a field can be read with the fast access methods,
+    which decode numeric values directly from the raw bytes instead
+    of translating the SQLData object.
+
+    @param  index   The field index (1-based).
+    @return         true if the field can be read with the fast access methods.
+
+    @exception  SQLException    If an error occurs.
+    **/
+    boolean isFastAccess (int index)
+    throws SQLException
+    {
+        if(fastTypes_ == null)
+            initializeFastTypes ();
+        return fastTypes_[index - 1] != FAST_NONE_;
+    }
+
+
+
+    // Chooses the fast access type of each field.  Scaled binary
+    // integers, decimals with more digits than fit in a long, and
+    // character fields that need more than a single byte table (or
+    // that could be truncated to the max field size) are left to the
+    // SQLData objects.
+    private void initializeFastTypes ()
+    throws SQLException
+    {
+        int count = sqlData_.length;
+        int[] fastTypes = new int[count];
+        char[][] fastCharTables = new char[count][];
+        int maxFieldSize = (settings_ == null) ? 0 : settings_.getMaxFieldSize ();
+        for(int i = 0; i < count; ++i)
+        {
+            if(sqlTypes_[i] == SQLData.NATIVE_ARRAY)
+                continue;
+            switch(sqlData_[i].getSQLType ())
+            {
+                case SQLData.SMALLINT:
+                    fastTypes[i] = (scales_[i] > 0) ? FAST_NONE_ : FAST_SMALLINT_;
+                    break;
+                case SQLData.INTEGER:
+                    fastTypes[i] = (scales_[i] > 0) ? FAST_NONE_ : FAST_INTEGER_;
+                    break;
+                case SQLData.BIGINT:
+                    fastTypes[i] = FAST_BIGINT_;
+                    break;
+                case SQLData.REAL:
+                    fastTypes[i] = FAST_REAL_;
+                    break;
+                case SQLData.DOUBLE:
+                    fastTypes[i] = FAST_DOUBLE_;
+                    break;
+                case SQLData.DECIMAL:
+                    fastTypes[i] = (precisions_[i] > FAST_MAX_PRECISION_) ? FAST_NONE_ : FAST_PACKED_;
+                    break;
+                case SQLData.NUMERIC:
+                    fastTypes[i] = (precisions_[i] > FAST_MAX_PRECISION_) ? FAST_NONE_ : FAST_ZONED_;
+                    break;
+                case SQLData.CHAR:
+                    if(maxFieldSize <= 0 || maxFieldSize >= dataLength_[i])
+                    {
+                        ConvTable converter = connection_.getConverter (ccsids_[i]);
+                        if(converter instanceof ConvTableSingleMap)
+                        {
+                            fastCharTables[i] = ((ConvTableSingleMap) converter).toUnicode_;
+                            fastTypes[i] = FAST_CHAR_;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        fastCharTables_ = fastCharTables;
+        fastTypes_ = fastTypes;
+    }
+
+
+
+    // Decodes a field of the current row into fastLong_ and fastScale_,
+    // or into fastDouble_ for floating point fields.  Returns false if
+    // the value must be read through the SQLData object instead.
+    private boolean decodeFast (int index0)
+    {
+        if(rowIndex_ < 0 || rawBytes_ == null || rowDataOffset_ == -1)
+            return false;
+
+        int offset = rowDataOffset_ + dataOffset_[index0];
+        fastScale_ = 0;
+        switch(fastTypes_[index0])
+        {
+            case FAST_SMALLINT_:
+                fastLong_ = BinaryConverter.byteArrayToShort (rawBytes_, offset);
+                return true;
+            case FAST_INTEGER_:
+                fastLong_ = BinaryConverter.byteArrayToInt (rawBytes_, offset);
+                return true;
+            case FAST_BIGINT_:
+                fastLong_ = BinaryConverter.byteArrayToLong (rawBytes_, offset);
+                return true;
+            case FAST_REAL_:
+                fastDouble_ = BinaryConverter.byteArrayToFloat (rawBytes_, offset);
+                return true;
+            case FAST_DOUBLE_:
+                fastDouble_ = BinaryConverter.byteArrayToDouble (rawBytes_, offset);
+                return true;
+            case FAST_PACKED_:
+                return decodePacked (offset, precisions_[index0], scales_[index0]);
+            case FAST_ZONED_:
+                return decodeZoned (offset, precisions_[index0], scales_[index0]);
+            case FAST_CHAR_:
+                return decodeChar (offset, dataLength_[index0], fastCharTables_[index0]);
+            default:
+                return false;
+        }
+    }
+
+
+
+    // Decodes a packed decimal value.  See AS400PackedDecimal.toObject().
+    private boolean decodePacked (int offset, int precision, int scale)
+    {
+        int length = precision / 2 + 1;
+        int last = offset + length - 1;
+        boolean negative;
+        switch(rawBytes_[last] & 0x0F)
+        {
+            case 0x0B:
+            case 0x0D:
+                negative = true;
+                break;
+            case 0x0A:
+            case 0x0C:
+            case 0x0E:
+            case 0x0F:
+                negative = false;
+                break;
+            default:
+                return false;
+        }
+
+        // An even precision has a leading pad digit, which must not
+        // push the value past FAST_MAX_PRECISION_ digits.
+        long limit = LONG_POWERS_OF_TEN_[FAST_MAX_PRECISION_ - 1];
+        long value = 0;
+        for(int i = offset; i <= last; ++i)
+        {
+            int high = (rawBytes_[i] & 0xFF) >>> 4;
+            if(high > 9 || value >= limit)
+                return false;
+            value = value * 10 + high;
+            if(i < last)
+            {
+                int low = rawBytes_[i] & 0x0F;
+                if(low > 9 || value >= limit)
+                    return false;
+                value = value * 10 + low;
+            }
+        }
+
+        fastLong_ = negative ? -value : value;
+        fastScale_ = scale;
+        return true;
+    }
+
+
+
+    // Decodes a zoned decimal value.  See AS400ZonedDecimal.toObject().
+    private boolean decodeZoned (int offset, int precision, int scale)
+    {
+        int last = offset + precision - 1;
+        boolean negative;
+        switch((rawBytes_[last] & 0xFF) >>> 4)
+        {
+            case 0x0B:
+            case 0x0D:
+                negative = true;
+                break;
+            case 0x0A:
+            case 0x0C:
+            case 0x0E:
+            case 0x0F:
+                negative = false;
+                break;
+            default:
+                return false;
+        }
+
+        long value = 0;
+        for(int i = offset; i <= last; ++i)
+        {
+            int digit = rawBytes_[i] & 0x0F;
+            if(digit > 9)
+                return false;
+            value = value * 10 + digit;
+        }
+
+        fastLong_ = negative ? -value : value;
+        fastScale_ = scale;
+        return true;
+    }
+
+
+
+    // Decodes a character value made of an optional sign, digits
+    // and an optional decimal point, surrounded by blanks.  Anything
+    // else, including negative zero and values that a double cannot
+    // hold exactly, is left to the SQLData object, which parses the
+    // string with Double.valueOf() or new BigDecimal().
+    private boolean decodeChar (int offset, int length, char[] table)
+    {
+        int end = offset + length;
+        int i = offset;
+        while(i < end && table[rawBytes_[i] & 0xFF] <= ' ')
+            ++i;
+        while(end > i && table[rawBytes_[end - 1] & 0xFF] <= ' ')
+            --end;
+        if(i == end)
+            return false;
+
+        boolean negative = false;
+        char c = table[rawBytes_[i] & 0xFF];
+        if(c == '-' || c == '+')
+        {
+            negative = (c == '-');
+            ++i;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int scale = -1;
+        for(; i < end; ++i)
+        {
+            c = table[rawBytes_[i] & 0xFF];
+            if(c >= '0' && c <= '9')
+            {
+                value = value * 10 + (c - '0');
+                if(value > FAST_MAX_CHAR_)
+                    return false;
+                ++digits;
+                if(scale >= 0 && ++scale > FAST_MAX_PRECISION_)
+                    return false;
+            }
+            else if(c == '.' && scale < 0)
+                scale = 0;
+            else
+                return false;
+        }
+        if(digits == 0 || (negative && value == 0))
+            return false;
+
+        fastLong_ = negative ? -value : value;
+        fastScale_ = (scale < 0) ? 0 : scale;
+        return true;
+    }
+
+
+
+    /**
+    Reads a field of the current row as an int or a long, directly
+    from the raw bytes.  The value is returned by getFastLong().
+    This returns false in any case where the SQLData object would
+    report truncation, so the caller can read the value through
+    the SQLData object instead.
+
+    @param  index   The field index (1-based).
+    @param  toInt   true to read the value as an int, false for a long.
+    @return         true if the value was read.
+    **/
+    boolean readFastLong (int index, boolean toInt)
+    {
+        int index0 = index - 1;
+        if(!decodeFast (index0))
+            return false;
+
+        switch(fastTypes_[index0])
+        {
+            case FAST_REAL_:
+                // Compare as a float, the same as SQLReal.
+                float f = (float) fastDouble_;
+                if(toInt)
+                {
+                    if(f > Integer.MAX_VALUE || f < Integer.MIN_VALUE)
+                        return false;
+                    fastLong_ = (int) f;
+                }
+                else
+                {
+                    if(f > Long.MAX_VALUE || f < Long.MIN_VALUE)
+                        return false;
+                    fastLong_ = (long) f;
+                }
+                return true;
+
+            case FAST_DOUBLE_:
+                double d = fastDouble_;
+                if(toInt)
+                {
+                    if(d > Integer.MAX_VALUE || d < Integer.MIN_VALUE)
+                        return false;
+                    fastLong_ = (int) d;
+                }
+                else
+                {
+                    if(d > Long.MAX_VALUE || d < Long.MIN_VALUE)
+                        return false;
+                    fastLong_ = (long) d;
+                }
+                return true;
+
+            default:
+                if(fastScale_ == 0)
+                {
+                    if(toInt && (fastLong_ > Integer.MAX_VALUE || fastLong_ < Integer.MIN_VALUE))
+                        return false;
+                }
+                else
+                {
+                    // Drop the fraction.  The SQLData objects compare the
+                    // whole value to the bounds, so a fraction next to a
+                    // bound is left to them.
+                    fastLong_ = fastLong_ / LONG_POWERS_OF_TEN_[fastScale_];
+                    if(toInt && (fastLong_ >= Integer.MAX_VALUE || fastLong_ <= Integer.MIN_VALUE))
+                        return false;
+                }
+                return true;
+        }
+    }
+
+
+
+    /**
+    Reads a field of the current row as a double, directly from
+    the raw bytes.  The value is returned by getFastDouble().
+
+    @param  index   The field index (1-based).
+    @return         true if the value was read.
+    **/
+    boolean readFastDouble (int index)
+    {
+        int index0 = index - 1;
+        if(!decodeFast (index0))
+            return false;
+
+        switch(fastTypes_[index0])
+        {
+            case FAST_REAL_:
+            case FAST_DOUBLE_:
+                return true;
+
+            default:
+                if(fastScale_ == 0)
+                    fastDouble_ = fastLong_;
+                else if(fastLong_ < FAST_MAX_DOUBLE_ && fastLong_ > -FAST_MAX_DOUBLE_)
+                    // Both operands are exact, so the quotient is correctly
+                    // rounded, the same as BigDecimal.doubleValue().
+                    fastDouble_ = fastLong_ / DOUBLE_POWERS_OF_TEN_[fastScale_];
+                else
+                    return false;
+                return true;
+        }
+    }
+
+
+
+    /**
+    Reads a field of the current row as a BigDecimal, directly from
+    the raw bytes.  Floating point fields are not read.
+
+    @param  index   The field index (1-based).
+    @return         The value, or null if the value was not read.
+    **/
+    BigDecimal readFastBigDecimal (int index)
+    {
+        int index0 = index - 1;
+        switch(fastTypes_[index0])
+        {
+            case FAST_REAL_:
+            case FAST_DOUBLE_:
+                return null;
+            default:
+                if(!decodeFast (index0))
+                    return null;
+                return BigDecimal.valueOf (fastLong_, fastScale_);
+        }
+    }
+
+
+
+    // Returns the value read by readFastLong().
+    long getFastLong ()
+    {
+        return fastLong_;
+    }
+
+
+
+    // Returns the value read by readFastDouble().
+    double getFastDouble ()
+    {
+        return fastDouble_;
+    }
+
+
+
     //-------------------------------------------------------------//
     //                                                             //
     // INTERFACE IMPLEMENTATIONS                                   //
@@ -13,7 +13,10 @@
 
 package com.ibm.as400.access;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 
 
@@ -44,6 +47,22 @@ implements JDRowCache
   private int                     bufferSize_;                                  //@K54  
   private JDCursor                cursor_ = null; //@pda perf2 - fetch/close
   private DBReplyRequestedDS fetchReply = null; //@P0A
+
+  // Block prefetch.  When the "block prefetch threshold" property is set,
+  // the next block of a forward-only, read-only result set is requested once
+  // that percentage of the current block has been read.  The reply is received
+  // in the background and becomes the current block when next() reaches the
+  // end of the current one, so at most one extra block is held.
+  private int                     prefetchThreshold_ = 0;
+  private CompletableFuture<DataStream> prefetchReply_ = null;
+
+  // Adaptive block size.  When the "maximum block size" property is set,
+  // the size of each block of a forward-only, read-only result set is
+  // chosen from the round trip times and read rate measured so far.
+  private JDAdaptiveBlockSize     adaptiveBlockSize_ = null;
+
+  // The SQL statement whose statistics count the rows and fetches.
+  private JDSQLStatement          sqlStatement_ = null;
   
 
   // Index always points to the row within the cache.
@@ -152,6 +171,7 @@ prefetched.
     {
         this(row, connection, id, blockingFactor, lastBlock, resultSetType);
         cursor_ = cursor;  
+        initializeBlocking(resultSetType);
     }
     
 
@@ -251,6 +271,43 @@ prefetched.
     {
         this(row, connection, id, blockingFactor, serverData, lastBlock, resultSetType);
         cursor_ = cursor;  
+        initializeBlocking(resultSetType);
+    }
+
+
+
+    // Enables block prefetch and the adaptive block size if their properties
+    // are set and the rows are read in blocks from a forward-only, read-only
+    // cursor.  They are never used for scrollable cursors, since they move the
+    // cursor on the system in ways that a block requested ahead would disturb.
+    // The adaptive block size is not used when the blocking factor comes from
+    // the fetch size, since the "block size" property is then "0".
+    private void initializeBlocking (int resultSetType)
+    throws SQLException
+    {
+        if(resultSetType != ResultSet.TYPE_FORWARD_ONLY ||
+           cursor_ == null ||
+           cursor_.getConcurrency() == ResultSet.CONCUR_UPDATABLE ||
+           blockingFactor_ <= 1)
+            return;
+
+        int threshold = connection_.getProperties().getInt(JDProperties.BLOCK_PREFETCH_THRESHOLD);
+        if(threshold > 0)
+            prefetchThreshold_ = Math.min(threshold, 100);
+
+        int maximumBlockSize = connection_.getProperties().getInt(JDProperties.MAXIMUM_BLOCK_SIZE);
+        if(maximumBlockSize > 0 && bufferSize_ > 0)
+            adaptiveBlockSize_ = new JDAdaptiveBlockSize(bufferSize_, maximumBlockSize, row_.getRowLength());
+    }
+
+
+
+    // Indicates if a fetch requests a block of rows rather than a single row.
+    private boolean isBlockFetch (int fetchScrollOption)
+    {
+        return (fetchScrollOption == DBSQLRequestDS.FETCH_NEXT) &&
+               (blockingFactor_ > 0) &&
+               (cursorPositionOfFirstRowInCache_ >= 0);
     }
 
 
@@ -290,12 +347,68 @@ Fetches a block of data from the system.
   {
     boolean endBlock = false;
 
+    // A block requested ahead is no longer the next block once
+    // the cursor is moved some other way.
+    discardPrefetch ();
+
     try
     {
       DBSQLRequestDS request = null; //@P0A
       try
       {
-        request = DBDSPool.getDBSQLRequestDS ( //@P0C
+        boolean adaptive = (adaptiveBlockSize_ != null) && isBlockFetch (fetchScrollOption);
+        request = createFetchRequest (fetchScrollOption, rows);
+
+        if (JDTrace.isTraceOn ())
+          JDTrace.logInformation (connection_, "Fetching a block of data from the system "+fetchScrollOption+","+rows);
+
+        // The rows of the previous block have been consumed, so its reply buffer can be reused.
+        if (fetchReply != null) { fetchReply.releaseReplyBuffer(); fetchReply.returnToPool(); fetchReply = null; } 
+        if (adaptive)
+          adaptiveBlockSize_.blockRequested (cached_);
+        fetchReply = connection_.sendAndReceive (request, id_); //@P0C
+        if (adaptive)
+          adaptiveBlockSize_.replyArrived ();
+        JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry (sqlStatement_);
+        if (statistics != null)
+          statistics.sent (request);
+
+        endBlock = processFetchReply ();
+        if (adaptive)
+          adaptiveBlockReceived ();
+      }
+      finally
+      {
+        if (request != null) { request.returnToPool(); request =null; } 
+        // if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
+      }
+    }
+    catch (DBDataStreamException e)
+    {
+      JDError.throwSQLException (JDError.EXC_INTERNAL, e);
+    }
+
+    return endBlock;
+  }
+
+
+
+/**
+Creates a fetch request.
+
+@param  fetchScrollOption   The fetch scroll option.
+@param  rows                The number of rows when
+                            fetchScrollOption is
+                            DBSQLRequestDS.FETCH_RELATIVE.
+@return                     The request.  The caller must
+                            return it to the pool.
+
+@exception  DBDataStreamException    If an error occurs.
+**/
+  private DBSQLRequestDS createFetchRequest (int fetchScrollOption, int rows)
+  throws DBDataStreamException
+  {
+        DBSQLRequestDS request = DBDSPool.getDBSQLRequestDS ( //@P0C
                                                DBSQLRequestDS.FUNCTIONID_FETCH,
                                                id_, DBBaseRequestDS.ORS_BITMAP_RETURN_DATA
                                                + DBBaseRequestDS.ORS_BITMAP_RESULT_DATA, 0);
@@ -310,10 +423,13 @@ Fetches a block of data from the system.
         // go backward or relative to the current location.  This 
         // will be slower but it is the only way to assure accurate 
         // information is returned to the app. 
-        if ((fetchScrollOption == DBSQLRequestDS.FETCH_NEXT) &&       
-            (blockingFactor_ > 0)                            &&
-            (cursorPositionOfFirstRowInCache_ >= 0))                    // @G1a
+        if (isBlockFetch (fetchScrollOption))                          // @G1a
         {
+            if(adaptiveBlockSize_ != null)
+            {
+                blockingFactor_ = adaptiveBlockSize_.getBlockingFactor();
+                bufferSize_ = adaptiveBlockSize_.getBlockSize() / 1024;
+            }
             if(variableFieldCompressionSupported_)   //@K54
             {                   
                 //Do not need to set the blocking factor if using variable-length field compression
@@ -331,11 +447,26 @@ Fetches a block of data from the system.
           request.setBlockingFactor (1);
         }   
 
-        if (JDTrace.isTraceOn ())
-          JDTrace.logInformation (connection_, "Fetching a block of data from the system "+fetchScrollOption+","+rows);
+        return request;
+  }
 
-        if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
-        fetchReply = connection_.sendAndReceive (request, id_); //@P0C
+
+
+/**
+Processes the reply to a fetch request, which is the
+current reply.
+
+@return                     true if the first or last block (in
+                            the appropriate direction) was fetched,
+                            false otherwise.
+
+@exception  SQLException    If an error occurs.
+@exception  DBDataStreamException    If the reply is not valid.
+**/
+  private boolean processFetchReply ()
+  throws SQLException, DBDataStreamException
+  {
+        boolean endBlock = false;
 
         int errorClass = fetchReply.getErrorClass();
         int returnCode = fetchReply.getReturnCode();
@@ -386,28 +517,172 @@ Fetches a block of data from the system.
           cached_ = serverData_.getRowCount ();
         }
 
+        JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry (sqlStatement_);
+        if (statistics != null)
+          statistics.fetched (cached_, fetchReply);
+
         if (emptyChecked_ == false) //empty_ is refering to empty resultset, not empty cache_
         {
           emptyChecked_ = true;
           empty_        = (cached_ == 0);
         }
-      }
-      finally
+
+        return endBlock;
+  }
+
+
+
+/**
+Requests the next block from the system without waiting for it,
+if prefetch is enabled and enough of the current block has been read.
+
+@exception  SQLException    If an error occurs.
+**/
+  private void prefetch ()
+  throws SQLException
+  {
+    // The position of the block must be known, so that the request
+    // asks for a full block.
+    if ((prefetchReply_ != null)
+        || (lastBlock_)
+        || (cached_ <= 0)
+        || (cursorPositionOfFirstRowInCache_ <= 0)
+        || (cursor_.isClosed ())
+        || ((index_ + 1) * 100 < cached_ * prefetchThreshold_))
+      return;
+
+    DBSQLRequestDS request = null;
+    try
+    {
+      request = createFetchRequest (DBSQLRequestDS.FETCH_NEXT, 0);
+
+      if (JDTrace.isTraceOn ())
+        JDTrace.logInformation (connection_, "Requesting the next block of data from the system after row " + (index_ + 1) + " of " + cached_);
+
+      if (adaptiveBlockSize_ != null)
+        adaptiveBlockSize_.blockRequested (index_ + 1);
+      prefetchReply_ = connection_.sendAsync (request, id_);
+      JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry (sqlStatement_);
+      if (statistics != null)
+        statistics.sent (request);
+
+      if (adaptiveBlockSize_ != null)
       {
-        if (request != null) { request.returnToPool(); request =null; } 
-        // if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
+        final JDAdaptiveBlockSize adaptiveBlockSize = adaptiveBlockSize_;
+        prefetchReply_.thenRun (new Runnable()
+        {
+          public void run ()
+          {
+            adaptiveBlockSize.replyArrived ();
+          }
+        });
       }
     }
     catch (DBDataStreamException e)
     {
       JDError.throwSQLException (JDError.EXC_INTERNAL, e);
     }
+    finally
+    {
+      if (request != null) { request.returnToPool(); request = null; }
+    }
+  }
+
+
+
+/**
+Makes the block requested by prefetch() the current block,
+waiting for it if it has not been received yet.
 
+@return                     true if the last block was fetched,
+                            false otherwise.
+
+@exception  SQLException    If an error occurs.
+**/
+  private boolean receivePrefetch ()
+  throws SQLException
+  {
+    CompletableFuture<DataStream> prefetchReply = prefetchReply_;
+    prefetchReply_ = null;
+
+    if (JDTrace.isTraceOn ())
+      JDTrace.logInformation (connection_, "Using the block of data requested in the background, received=" + prefetchReply.isDone ());
+
+    DBReplyRequestedDS reply = connection_.receiveAsync (prefetchReply);
+
+    // The rows of the previous block have been consumed, so its reply buffer can be reused.
+    if (fetchReply != null) { fetchReply.releaseReplyBuffer(); fetchReply.returnToPool(); fetchReply = null; }
+    fetchReply = reply;
+
+    boolean endBlock = false;
+    try
+    {
+      endBlock = processFetchReply ();
+      if (adaptiveBlockSize_ != null)
+        adaptiveBlockReceived ();
+    }
+    catch (DBDataStreamException e)
+    {
+      JDError.throwSQLException (JDError.EXC_INTERNAL, e);
+    }
     return endBlock;
   }
 
 
 
+/**
+Passes the size of the block just received to the adaptive
+block size, which chooses the size of the next block.
+**/
+  private void adaptiveBlockReceived ()
+  {
+    adaptiveBlockSize_.blockReceived (fetchReply.getLength ());
+
+    if (JDTrace.isTraceOn ())
+      JDTrace.logInformation (connection_, "Adaptive block size: " + adaptiveBlockSize_);
+  }
+
+
+
+/**
+Returns the block sizes chosen for the result set.
+
+@return     The metrics, or null if the block size is not adaptive.
+**/
+  AS400JDBCFetchMetrics getFetchMetrics ()
+  {
+    return adaptiveBlockSize_;
+  }
+
+
+
+/**
+Discards the block requested by prefetch(), if any.  This does not wait
+for the reply; it is released when it is received.
+**/
+  private void discardPrefetch ()
+  {
+    if (prefetchReply_ == null)
+      return;
+
+    if (JDTrace.isTraceOn ())
+      JDTrace.logInformation (connection_, "Discarding the block of data requested in the background");
+
+    prefetchReply_.thenAccept (new Consumer<DataStream>()
+    {
+      public void accept (DataStream reply)
+      {
+        ClassDecoupler.freeDBReplyStream (reply);
+      }
+    });
+    prefetchReply_ = null;
+
+    // The cursor on the system has moved past the discarded block.
+    cursorPositionOfFirstRowInCache_ = NOT_KNOWN;
+  }
+
+
+
 /**
 Sets the fetch size.
 
@@ -448,9 +723,11 @@ Sets the fetch size.
   {
     // No-op.  It is assumed that the cursor will be closed
     // elsewhere.
+    discardPrefetch ();
     
       // Make sure reply is returned to pool 
       if (fetchReply != null) {
+        fetchReply.releaseReplyBuffer();
         fetchReply.returnToPool();  fetchReply = null; 
       }
   }
@@ -801,7 +1078,10 @@ Sets the fetch size.
     {
       boolean wasBeforeFirst = (index_== -1) ? true : false;   //@rel4
       int oldCached = cached_;                                     // @G1a
-      lastBlock_ = fetch (DBSQLRequestDS.FETCH_NEXT);
+      if (prefetchReply_ != null)
+        lastBlock_ = receivePrefetch ();
+      else
+        lastBlock_ = fetch (DBSQLRequestDS.FETCH_NEXT);
       firstBlock_ = false;
       index_ = 0;
 
@@ -820,6 +1100,9 @@ Sets the fetch size.
     }
 
     row_.setRowIndex (index_);
+
+    if (prefetchThreshold_ > 0)
+      prefetch ();
   }
 
 
@@ -953,6 +1236,7 @@ Sets the fetch size.
   
   protected void finalize() throws Throwable {
 		super.finalize();
+        discardPrefetch ();
         if (fetchReply != null) { fetchReply.returnToPool(); fetchReply=null; } 
   }
 
@@ -963,4 +1247,16 @@ Sets the fetch size.
   public void setResultSet(AS400JDBCResultSet resultSet) {
     resultSet_      = resultSet; 
   }
+
+  /*
+   * Set the SQL statement whose statistics count the rows and fetches
+   * of this cache.  The rows already in the cache were returned with
+   * the execution, and are counted now.
+   */
+  void setSQLStatement(JDSQLStatement sqlStatement) {
+    sqlStatement_ = sqlStatement;
+    JDStatementStatistics.Entry statistics = JDStatementStatistics.getEntry (sqlStatement_);
+    if (statistics != null && serverData_ != null)
+      statistics.fetched (cached_, null);
+  }
 }
@@ -153,6 +153,20 @@ implements JDRowCache
         }
     }
 
+    /**
+    Returns a row cache that shares the data of this row cache, but has
+    its own row and position.  The data must not be changed afterwards.
+
+    @return     The row cache.
+
+    @exception  SQLException    If an error occurs.
+    **/
+    JDSimpleRowCache copy()
+    throws SQLException
+    {
+        return new JDSimpleRowCache(new JDSimpleRow(row_, true), data_, nulls_, dataMappingErrors_);
+    }
+
     /**
     Repositions the cursor so that the row reflects the appropriate
     data.
@@ -0,0 +1,396 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDStatementStatistics.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+The JDStatementStatistics class collects the execution statistics
+of the SQL statements run by the driver, by normalized SQL text.
+
+<p>The statements and result sets look up the statistics of their
+SQL text each time they execute or fetch, so that statistics removed
+by reset() are started again.  When no statistics are collected, the
+lookup is one read of a volatile field.
+**/
+final class JDStatementStatistics
+implements AS400JDBCStatementStatisticsMXBean
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private static final JDStatementStatistics metrics_ = new JDStatementStatistics ();
+  private static final ConcurrentHashMap<String, Entry> entries_ = new ConcurrentHashMap<String, Entry> ();
+  private static final AtomicLong dropped_ = new AtomicLong ();
+  private static volatile int maximum_ = 0;
+  static
+  {
+    String propVal = SystemProperties.getProperty (SystemProperties.JDBC_STATEMENT_STATISTICS);
+    if (propVal != null)
+    {
+      try
+      {
+        maximum_ = Math.max (0, Integer.parseInt (propVal.trim ()));
+      }
+      catch (NumberFormatException e)
+      {
+        Trace.log (Trace.WARNING, "Error retrieving statement statistics property value:", e);
+      }
+    }
+  }
+
+
+
+/**
+The statistics of one SQL text.
+**/
+  static final class Entry
+  {
+    private final String          sql_;
+    private final AtomicLong      executions_     = new AtomicLong ();
+    private final AtomicLong      prepares_       = new AtomicLong ();
+    private final AtomicLong      totalTime_      = new AtomicLong ();      // nanoseconds
+    private final AtomicLong      minimumTime_    = new AtomicLong (Long.MAX_VALUE); // nanoseconds
+    private final AtomicLong      maximumTime_    = new AtomicLong ();      // nanoseconds
+    private final AtomicLongArray histogram_      = new AtomicLongArray (JDConnectionPoolMetrics.HISTOGRAM_LIMITS_.length + 1);
+    private final AtomicLong      rowsFetched_    = new AtomicLong ();
+    private final AtomicLong      fetches_        = new AtomicLong ();
+    private final AtomicLong      bytesSent_      = new AtomicLong ();
+    private final AtomicLong      bytesReceived_  = new AtomicLong ();
+
+    Entry (String sql)
+    {
+      sql_ = sql;
+    }
+
+    void prepared (DataStream request, DataStream reply)
+    {
+      prepares_.incrementAndGet ();
+      transferred (request, reply);
+    }
+
+    void executed (long time, DataStream request, DataStream reply)
+    {
+      executions_.incrementAndGet ();
+      totalTime_.addAndGet (time);
+
+      long min = minimumTime_.get ();
+      while (time < min && !minimumTime_.compareAndSet (min, time))
+        min = minimumTime_.get ();
+      long max = maximumTime_.get ();
+      while (time > max && !maximumTime_.compareAndSet (max, time))
+        max = maximumTime_.get ();
+
+      long millis = time / 1000000;
+      int bucket = 0;
+      while (bucket < JDConnectionPoolMetrics.HISTOGRAM_LIMITS_.length && millis >= JDConnectionPoolMetrics.HISTOGRAM_LIMITS_[bucket])
+        ++bucket;
+      histogram_.incrementAndGet (bucket);
+
+      transferred (request, reply);
+    }
+
+    // Counts the rows of a block.  The reply is null for the first block,
+    // which is returned with the execution.
+    void fetched (int rows, DataStream reply)
+    {
+      rowsFetched_.addAndGet (rows);
+      if (reply != null)
+      {
+        fetches_.incrementAndGet ();
+        bytesReceived_.addAndGet (reply.getLength ());
+      }
+    }
+
+    void sent (DataStream request)
+    {
+      bytesSent_.addAndGet (request.getLength ());
+    }
+
+    private void transferred (DataStream request, DataStream reply)
+    {
+      if (request != null)
+        bytesSent_.addAndGet (request.getLength ());
+      if (reply != null)
+        bytesReceived_.addAndGet (reply.getLength ());
+    }
+
+    AS400JDBCSQLStatistics getStatistics ()
+    {
+      long[] histogram = new long[histogram_.length ()];
+      for (int i = 0; i < histogram.length; ++i)
+        histogram[i] = histogram_.get (i);
+      long min = minimumTime_.get ();
+      return new AS400JDBCSQLStatistics (sql_, executions_.get (), prepares_.get (),
+                                         totalTime_.get () / 1000000.0,
+                                         (min == Long.MAX_VALUE) ? 0 : min / 1000000.0,
+                                         maximumTime_.get () / 1000000.0, histogram,
+                                         rowsFetched_.get (), fetches_.get (),
+                                         bytesSent_.get (), bytesReceived_.get ());
+    }
+  }
+
+
+
+  private JDStatementStatistics ()
+  {
+  }
+
+
+
+/**
+Returns the statistics collector.
+
+@return     The collector.
+**/
+  static AS400JDBCStatementStatisticsMXBean getMetrics ()
+  {
+    return metrics_;
+  }
+
+
+
+/**
+Returns the statistics of an SQL statement.
+
+@param  sqlStatement    The SQL statement, or null.
+@return                 The statistics, or null if statistics are not
+                        collected for the statement.
+**/
+  static Entry getEntry (JDSQLStatement sqlStatement)
+  {
+    int maximum = maximum_;
+    if (maximum <= 0 || sqlStatement == null)
+      return null;
+
+    String sql = sqlStatement.getNormalizedText ();
+    Entry entry = entries_.get (sql);
+    if (entry == null)
+    {
+      if (entries_.size () >= maximum)
+      {
+        dropped_.incrementAndGet ();
+        return null;
+      }
+      Entry newEntry = new Entry (sql);
+      entry = entries_.putIfAbsent (sql, newEntry);
+      if (entry == null)
+        entry = newEntry;
+    }
+    return entry;
+  }
+
+
+
+/**
+Returns the SQL text with its literals replaced by ?, its comments
+removed, and each run of white space replaced by one space.
+
+@param  sql     The SQL text.
+@return         The normalized text.
+**/
+  static String normalize (String sql)
+  {
+    int length = sql.length ();
+    StringBuilder buffer = new StringBuilder (length);
+    int i = 0;
+    while (i < length)
+    {
+      char c = sql.charAt (i);
+      if (c == '\'')
+      {
+        // String literal.  A quote is escaped by doubling it.
+        ++i;
+        while (i < length)
+        {
+          if (sql.charAt (i) == '\'')
+          {
+            if (i + 1 < length && sql.charAt (i + 1) == '\'')
+              i += 2;
+            else
+              break;
+          }
+          else
+            ++i;
+        }
+        ++i;
+        buffer.append ('?');
+      }
+      else if (c == '"')
+      {
+        // Delimited identifier, kept as is.
+        int end = sql.indexOf ('"', i + 1);
+        end = (end < 0) ? length : end + 1;
+        buffer.append (sql, i, end);
+        i = end;
+      }
+      else if (c == '-' && i + 1 < length && sql.charAt (i + 1) == '-')
+      {
+        int end = sql.indexOf ('\n', i);
+        i = (end < 0) ? length : end;
+      }
+      else if (c == '/' && i + 1 < length && sql.charAt (i + 1) == '*')
+      {
+        int end = sql.indexOf ("*/", i + 2);
+        i = (end < 0) ? length : end + 2;
+        appendSpace (buffer);
+      }
+      else if (Character.isWhitespace (c))
+      {
+        appendSpace (buffer);
+        ++i;
+      }
+      else if ((Character.isDigit (c) || (c == '.' && i + 1 < length && Character.isDigit (sql.charAt (i + 1))))
+               && !isIdentifierPart (buffer))
+      {
+        // Numeric literal, with an optional fraction and exponent.
+        while (i < length && (Character.isDigit (sql.charAt (i)) || sql.charAt (i) == '.'))
+          ++i;
+        if (i < length && (sql.charAt (i) == 'E' || sql.charAt (i) == 'e'))
+        {
+          int j = i + 1;
+          if (j < length && (sql.charAt (j) == '+' || sql.charAt (j) == '-'))
+            ++j;
+          if (j < length && Character.isDigit (sql.charAt (j)))
+          {
+            i = j;
+            while (i < length && Character.isDigit (sql.charAt (i)))
+              ++i;
+          }
+        }
+        buffer.append ('?');
+      }
+      else
+      {
+        buffer.append (c);
+        ++i;
+      }
+    }
+
+    int end = buffer.length ();
+    if (end > 0 && buffer.charAt (end - 1) == ' ')
+      buffer.setLength (end - 1);
+    return buffer.toString ();
+  }
+
+
+
+  // Appends one space, unless the text is empty or already ends with a space.
+  private static void appendSpace (StringBuilder buffer)
+  {
+    int end = buffer.length ();
+    if (end > 0 && buffer.charAt (end - 1) != ' ')
+      buffer.append (' ');
+  }
+
+
+
+  // Indicates if the text ends with part of an identifier, so that a digit continues it.
+  private static boolean isIdentifierPart (StringBuilder buffer)
+  {
+    int end = buffer.length ();
+    if (end == 0)
+      return false;
+    char c = buffer.charAt (end - 1);
+    return Character.isLetterOrDigit (c) || c == '_' || c == '$' || c == '#' || c == '@';
+  }
+
+
+
+  public int getMaximumStatementCount ()
+  {
+    return maximum_;
+  }
+
+
+
+  public void setMaximumStatementCount (int count)
+  {
+    if (count < 0)
+      throw new ExtendedIllegalArgumentException ("count", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    maximum_ = count;
+  }
+
+
+
+  public int getStatementCount ()
+  {
+    return entries_.size ();
+  }
+
+
+
+  public long getDroppedCount ()
+  {
+    return dropped_.get ();
+  }
+
+
+
+  public AS400JDBCSQLStatistics[] getStatistics ()
+  {
+    AS400JDBCSQLStatistics[] statistics = new AS400JDBCSQLStatistics[entries_.size ()];
+    int count = 0;
+    Iterator<Entry> iterator = entries_.values ().iterator ();
+    while (iterator.hasNext () && count < statistics.length)
+      statistics[count++] = iterator.next ().getStatistics ();
+    if (count < statistics.length)
+      statistics = Arrays.copyOf (statistics, count);
+
+    Arrays.sort (statistics, new Comparator<AS400JDBCSQLStatistics> ()
+    {
+      public int compare (AS400JDBCSQLStatistics a, AS400JDBCSQLStatistics b)
+      {
+        return Double.compare (b.getTotalTime (), a.getTotalTime ());
+      }
+    });
+    return statistics;
+  }
+
+
+
+  public long[] getExecutionTimeHistogramLimits ()
+  {
+    return JDConnectionPoolMetrics.HISTOGRAM_LIMITS_.clone ();
+  }
+
+
+
+  public String dump ()
+  {
+    AS400JDBCSQLStatistics[] statistics = getStatistics ();
+    StringBuilder buffer = new StringBuilder ();
+    buffer.append ("statements=").append (statistics.length)
+          .append (", maximumStatements=").append (maximum_)
+          .append (", dropped=").append (dropped_.get ())
+          .append (System.getProperty ("line.separator"));
+    for (int i = 0; i < statistics.length; ++i)
+      buffer.append (statistics[i]).append (System.getProperty ("line.separator"));
+    return buffer.toString ();
+  }
+
+
+
+  public void reset ()
+  {
+    entries_.clear ();
+    dropped_.set (0);
+  }
+}
@@ -60,10 +60,7 @@ class PoolConnectionEventListener implements ConnectionEventListener
 
     AS400JDBCPooledConnection connection = (AS400JDBCPooledConnection)event.getSource();
 
-    synchronized (pool_.activePool_)
-    {
-      pool_.activePool_.removeElement(connection);       // Update the pools.
-    }
+    pool_.activePool_.remove(connection);       // Update the pools.
 
     // Determine if connection has expired.
     if ((pool_.getMaxLifetime() != -1 && connection.getLifeSpan() > pool_.getMaxLifetime()) ||         // Max lifetime exceeded.
@@ -96,10 +93,7 @@ class PoolConnectionEventListener implements ConnectionEventListener
             JDTrace.logInformation(this, "connectionClosed() adding to avaialblePool_");
           }
 
-          synchronized (pool_.availablePool_)
-          {
-            pool_.availablePool_.addElement(connection);                // connection still good, reuse.
-          }
+          pool_.returnPooledConnection(connection);                // connection still good, reuse.
 
           // Notify listeners that a connection was returned.
           if (pool_.poolListeners_ != null)
@@ -112,6 +106,7 @@ class PoolConnectionEventListener implements ConnectionEventListener
         {            //@B4A
           if (JDTrace.isTraceOn())         //@B4A @B5C
             JDTrace.logInformation (this, "connectionClosed() Removing closed connection from pool.");   //@B4A @B5C
+          pool_.closePooledConnection(connection);
         }
       }
       catch (SQLException sqe)
@@ -23,6 +23,7 @@ import java.net.NoRouteToHostException;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
+import java.nio.channels.SocketChannel;
 import java.util.Hashtable;
 
 import com.ibm.as400.socket.Sock5Socket;
@@ -218,7 +219,10 @@ class PortMapper
 
         }
         if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Opening socket for service "+service+" to system..."+systemName+" port:"+srvPort);
-        Socket socket = getSocketConnection(systemName, srvPort, socketProperties);  //@timeout2
+        // Sign-on and host connection servers are always read synchronously; DDM replies are not framed like
+        // client access data streams.  Every other service may be multiplexed by AS400SelectorReader.
+        boolean selectable = AS400SelectorReader.isEnabled() && service != AS400.SIGNON && service != AS400.HOSTCNN && service != AS400.RECORDACCESS;
+        Socket socket = getSocketConnection(systemName, srvPort, socketProperties, selectable);  //@timeout2
         
 
         // We use the port returned in the previous reply to establish a new socket connection to the requested service...
@@ -244,6 +248,13 @@ class PortMapper
      *  If running in JVM 1.3 then it defaults to the old connection without a timeout
      */
     static Socket getSocketConnection(String systemName, int port, SocketProperties socketProperties) throws IOException
+    {
+      return getSocketConnection(systemName, port, socketProperties, false);
+    }
+
+    // @param  selectable  true to open the socket from a SocketChannel so that AS400SelectorReader can register it.
+    //                     Ignored when a SOCKS5 proxy server is configured.
+    static Socket getSocketConnection(String systemName, int port, SocketProperties socketProperties, boolean selectable) throws IOException
     {
       //Code to make use of new method java.net.Socket.connect(host, timeout) in jdk 1.4
       //only really needed on first socket connect so we do not hang when a system is down.  
@@ -257,7 +268,11 @@ class PortMapper
         Class.forName("java.net.InetSocketAddress"); //throws ClassNotFoundException (common to all jvm implementations)
 
 		// @greenscreens
-		pmSocket = createSocket(null, port, socketProperties);
+		String sock5Server = socketProperties.getSock5Server();
+		if (selectable && (sock5Server == null || sock5Server.trim().length() == 0))
+		  pmSocket = SocketChannel.open().socket();
+		else
+		  pmSocket = createSocket(null, port, socketProperties);
 
         int loginTimeout = 0;
         if(socketProperties.isLoginTimeoutSet())
@@ -279,7 +294,8 @@ class PortMapper
         {
           try
           {
-            Class thisClass = pmSocket.getClass();
+            // Look the method up on java.net.Socket: the socket adaptor of a SocketChannel is not an accessible class.
+            Class thisClass = Socket.class;
             Method method = thisClass.getMethod("connect", new Class[]{ SocketAddress.class, java.lang.Integer.TYPE});
             //method.setAccessible(true);                   //@CRS (applet gets exception when calling setAccessible())
             Object args[] = new Object[2];
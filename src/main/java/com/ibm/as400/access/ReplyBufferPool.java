@@ -0,0 +1,189 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: ReplyBufferPool.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Pool of byte arrays that host server replies are received into.
+ *  <p>By default every reply data stream is received into a newly allocated byte array.  When the
+ *  <tt>com.ibm.as400.access.AS400.replyBufferPool</tt> system property is <tt>true</tt>, replies whose consumers
+ *  know when the data is no longer referenced (database fetch replies, file server read replies and discarded
+ *  replies) are received into buffers from this pool instead, and the buffers are reused once released.
+ *  <p>Buffers are kept in power-of-two size classes from 1 KB to 16 MB.  Larger replies are always allocated.
+ *  Idle buffers are held through soft references, so the pool never keeps the JVM from reclaiming memory.
+ *  <p>The counters are cumulative for the JVM and can be used to measure how many allocations the pool saves.
+ **/
+public final class ReplyBufferPool
+{
+    private static final int MIN_SHIFT = 10;  // 1 KB
+    private static final int MAX_SHIFT = 24;  // 16 MB
+    // Idle bytes retained per size class.  Every class keeps at least MIN_BUFFERS_PER_CLASS buffers.
+    private static final int RETAINED_BYTES_PER_CLASS = 8 * 1024 * 1024;
+    private static final int MIN_BUFFERS_PER_CLASS = 2;
+    private static final int MAX_BUFFERS_PER_CLASS = 64;
+
+    private static final boolean enabled_ = getEnabledProperty();
+
+    private static final SizeClass[] classes_ = new SizeClass[MAX_SHIFT - MIN_SHIFT + 1];
+    static
+    {
+        for (int i = 0; i < classes_.length; ++i)
+        {
+            int size = 1 << (MIN_SHIFT + i);
+            int count = Math.max(MIN_BUFFERS_PER_CLASS, Math.min(MAX_BUFFERS_PER_CLASS, RETAINED_BYTES_PER_CLASS / size));
+            classes_[i] = new SizeClass(size, count);
+        }
+    }
+
+    private static final AtomicLong hits_ = new AtomicLong();
+    private static final AtomicLong misses_ = new AtomicLong();
+    private static final AtomicLong oversize_ = new AtomicLong();
+    private static final AtomicLong releases_ = new AtomicLong();
+
+    // A stack of idle buffers of one size.
+    private static final class SizeClass
+    {
+        final int size_;
+        final SoftReference<byte[]>[] buffers_;
+        int count_ = 0;
+
+        @SuppressWarnings("unchecked")
+        SizeClass(int size, int maxBuffers)
+        {
+            size_ = size;
+            buffers_ = (SoftReference<byte[]>[])new SoftReference<?>[maxBuffers];
+        }
+
+        synchronized byte[] pop()
+        {
+            while (count_ > 0)
+            {
+                SoftReference<byte[]> ref = buffers_[--count_];
+                buffers_[count_] = null;
+                byte[] buffer = ref.get();
+                if (buffer != null) return buffer;
+            }
+            return null;
+        }
+
+        synchronized void push(byte[] buffer)
+        {
+            if (count_ < buffers_.length) buffers_[count_++] = new SoftReference<byte[]>(buffer);
+        }
+    }
+
+    private ReplyBufferPool()
+    {
+    }
+
+    /**
+     *  Indicates if replies are received into pooled buffers.
+     *  @return  true if the pool is enabled; false otherwise.
+     **/
+    public static boolean isEnabled()
+    {
+        return enabled_;
+    }
+
+    // Returns a buffer of at least the given length.  The buffer may be longer than requested.
+    static byte[] allocate(int length)
+    {
+        int index = getClassIndex(length);
+        if (index < 0)
+        {
+            oversize_.incrementAndGet();
+            return new byte[length];
+        }
+        SizeClass sizeClass = classes_[index];
+        byte[] buffer = sizeClass.pop();
+        if (buffer != null)
+        {
+            hits_.incrementAndGet();
+            return buffer;
+        }
+        misses_.incrementAndGet();
+        return new byte[sizeClass.size_];
+    }
+
+    // Makes a buffer from allocate() available for reuse.  The caller must not reference the buffer afterward.
+    static void release(byte[] buffer)
+    {
+        int index = getClassIndex(buffer.length);
+        if (index < 0 || classes_[index].size_ != buffer.length) return;
+        releases_.incrementAndGet();
+        classes_[index].push(buffer);
+    }
+
+    private static int getClassIndex(int length)
+    {
+        if (length > (1 << MAX_SHIFT)) return -1;
+        int shift = (length <= (1 << MIN_SHIFT)) ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(length - 1);
+        return shift - MIN_SHIFT;
+    }
+
+    /**
+     *  Returns the number of reply buffers that were reused from the pool.
+     *  @return  The number of pool hits.
+     **/
+    public static long getHitCount()
+    {
+        return hits_.get();
+    }
+
+    /**
+     *  Returns the number of reply buffers that had to be allocated because no pooled buffer of the size class was idle.
+     *  @return  The number of pool misses.
+     **/
+    public static long getMissCount()
+    {
+        return misses_.get();
+    }
+
+    /**
+     *  Returns the number of replies that were too large to be pooled.
+     *  @return  The number of oversize replies.
+     **/
+    public static long getOversizeCount()
+    {
+        return oversize_.get();
+    }
+
+    /**
+     *  Returns the number of buffers that were returned to the pool.
+     *  @return  The number of releases.
+     **/
+    public static long getReleaseCount()
+    {
+        return releases_.get();
+    }
+
+    /**
+     *  Resets the hit, miss, oversize and release counters to zero.
+     **/
+    public static void resetCounters()
+    {
+        hits_.set(0);
+        misses_.set(0);
+        oversize_.set(0);
+        releases_.set(0);
+    }
+
+    private static boolean getEnabledProperty()
+    {
+        String value = SystemProperties.getProperty(SystemProperties.AS400_REPLY_BUFFER_POOL);
+        return value != null && Boolean.valueOf(value.trim()).booleanValue();
+    }
+}
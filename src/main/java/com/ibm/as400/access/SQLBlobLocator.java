@@ -548,7 +548,7 @@ final class SQLBlobLocator extends SQLLocatorBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return new AS400JDBCInputStream(new JDLobLocator(locator_));
+        return new JDLobLocator(locator_).getInputStream();
     }
 
     public Blob getBlob()
@@ -641,7 +641,7 @@ final class SQLClobLocator implements SQLLocator
                 return new ByteArrayInputStream(ConvTable.getTable(819, null).stringToByteArray(value_));//@loch
             }                       //@loch
             
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()), 819); // ISO-8859-1.
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()), 819); // ISO-8859-1.
         }
         catch(UnsupportedEncodingException e)
         {
@@ -671,7 +671,7 @@ final class SQLClobLocator implements SQLLocator
                 return new HexReaderInputStream(new StringReader(value_)); //@loch
             }                       //@loch
             
-            return new HexReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()));
+            return new HexReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()));
         }
         catch(UnsupportedEncodingException e)
         {
@@ -741,7 +741,7 @@ final class SQLClobLocator implements SQLLocator
                 return new StringReader(value_); //@loch
             }                       //@loch
             
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -879,7 +879,7 @@ final class SQLClobLocator implements SQLLocator
             }                       //@loch
         
         
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()), 13488);
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()), 13488);
         }
         catch(UnsupportedEncodingException e)
         {
@@ -904,7 +904,7 @@ final class SQLClobLocator implements SQLLocator
         
         try
         {
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -636,7 +636,7 @@ final class SQLDBClobLocator implements SQLLocator
                 return new ByteArrayInputStream(ConvTable.getTable(819, null).stringToByteArray(value_));//@loch
             }                       //@loch
             
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()), 819); // ISO-8859-1.
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()), 819); // ISO-8859-1.
         }
         catch(UnsupportedEncodingException e)
         {
@@ -666,7 +666,7 @@ final class SQLDBClobLocator implements SQLLocator
                 return new HexReaderInputStream(new StringReader(value_)); //@loch
             }                       //@loch
             
-            return new HexReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()));
+            return new HexReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()));
         }
         catch(UnsupportedEncodingException e)
         {
@@ -743,7 +743,7 @@ final class SQLDBClobLocator implements SQLLocator
                 return new StringReader(value_); //@loch
             }                       //@loch
             
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -862,7 +862,7 @@ final class SQLDBClobLocator implements SQLLocator
                 return new ReaderInputStream(new StringReader(value_), 13488); //@loch
             }                       //@loch
             
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(locator_), converter_.getCcsid()), 13488);
+            return new ReaderInputStream(new ConvTableReader(locator_.getInputStream(), converter_.getCcsid()), 13488);
         }
         catch(UnsupportedEncodingException e)
         {
@@ -887,7 +887,7 @@ final class SQLDBClobLocator implements SQLLocator
         
         try
         {
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -676,7 +676,7 @@ final class SQLNClobLocator implements SQLLocator
                 return new ByteArrayInputStream(ConvTable.getTable(819, null).stringToByteArray(value_));//@loch
             }                       //@loch
             
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()), 819); // ISO-8859-1.
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()), 819); // ISO-8859-1.
         }
         catch(UnsupportedEncodingException e)
         {
@@ -706,7 +706,7 @@ final class SQLNClobLocator implements SQLLocator
                 return new HexReaderInputStream(new StringReader(value_)); //@loch
             }                       //@loch
             
-            return new HexReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()));
+            return new HexReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()));
         }
         catch(UnsupportedEncodingException e)
         {
@@ -783,7 +783,7 @@ final class SQLNClobLocator implements SQLLocator
                 return new StringReader(value_); //@loch
             }                       //@loch
             
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -922,7 +922,7 @@ final class SQLNClobLocator implements SQLLocator
             }                       //@loch
         
         
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid()), 13488);
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid()), 13488);
         }
         catch(UnsupportedEncodingException e)
         {
@@ -946,7 +946,7 @@ final class SQLNClobLocator implements SQLLocator
         
         try
         {
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid());
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid());
         }
         catch(UnsupportedEncodingException e)
         {
@@ -724,7 +724,7 @@ final class SQLXMLLocator extends SQLLocatorBase
                 return new ByteArrayInputStream(ConvTable.getTable(819, null).stringToByteArray(valueClob_));//@loch
             }                       //@loch
             //remove xml declaration via ConvTableReader
-            Reader tmpUnicodeReader = new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid(), true); 
+            Reader tmpUnicodeReader = new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid(), true); 
            // tmpUnicodeReader.
             return new ReaderInputStream(tmpUnicodeReader, 819); // ISO-8859-1. //is xml type
         }
@@ -746,7 +746,7 @@ final class SQLXMLLocator extends SQLLocatorBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return new AS400JDBCInputStream(new JDLobLocator(locator_));
+        return new JDLobLocator(locator_).getInputStream();
     }
 
     public Blob getBlob()
@@ -826,7 +826,7 @@ final class SQLXMLLocator extends SQLLocatorBase
                 return new StringReader(valueClob_); //@loch
             }                       //@loch
             //remove xml declaration via ConvTableReader
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid(), true); //@xml4
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid(), true); //@xml4
         }
         catch(UnsupportedEncodingException e)
         {
@@ -972,7 +972,7 @@ final class SQLXMLLocator extends SQLLocatorBase
             }                       //@loch
         
             //remove xml declaration via ConvTableReader
-            return new ReaderInputStream(new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid(), true), 13488); //@xml4
+            return new ReaderInputStream(new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid(), true), 13488); //@xml4
         }
         catch(UnsupportedEncodingException e)
         {
@@ -997,7 +997,7 @@ final class SQLXMLLocator extends SQLLocatorBase
         try
         {
             //remove xml declaration via ConvTableReader
-            return new ConvTableReader(new AS400JDBCInputStream(new JDLobLocator(locator_)), converter_.getCcsid(), true);   //@xml4
+            return new ConvTableReader(new JDLobLocator(locator_).getInputStream(), converter_.getCcsid(), true);   //@xml4
         }
         catch(UnsupportedEncodingException e)
         {
@@ -0,0 +1,330 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: SSLEngineChannel.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+// TLS over a SocketChannel using an SSLEngine.
+// An SSLSocket can only be read with blocking streams, so secure connections that are served by
+// AS400SelectorReader use this class instead.  The handshake and the initial host server exchanges run
+// with the channel in blocking mode; after the channel is switched to non-blocking, read(ByteBuffer)
+// returns whatever application data can be decrypted without waiting.
+class SSLEngineChannel
+{
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SocketChannel channel_;
+    private final SSLEngine engine_;
+    private final ChannelOutputStream channelOut_;
+
+    // Network (encrypted) buffers and the decrypted application input buffer.  netIn_ and appIn_ are
+    // always left ready for filling (put mode); netOut_ is only used while the write lock is held.
+    private ByteBuffer netIn_;
+    private ByteBuffer appIn_;
+    private ByteBuffer netOut_;
+    private boolean eof_ = false;
+    // Stream of the socket, used to read in blocking mode.  Created on the first blocking read.
+    private InputStream socketIn_;
+
+    private final Object readLock_ = new Object();
+    private final Object writeLock_ = new Object();
+
+    private final InputStream inStream_ = new InputStream()
+    {
+        @Override
+        public int read() throws IOException
+        {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) == 1) ? (b[0] & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0) return 0;
+            ByteBuffer dst = ByteBuffer.wrap(b, off, len);
+            int count;
+            while ((count = SSLEngineChannel.this.read(dst)) == 0) {
+                // Blocking mode only; read(ByteBuffer) blocks on the channel itself.
+            }
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            synchronized (readLock_)
+            {
+                return appIn_.position();
+            }
+        }
+    };
+
+    private final OutputStream outStream_ = new OutputStream()
+    {
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[] { (byte)b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            SSLEngineChannel.this.write(ByteBuffer.wrap(b, off, len));
+        }
+    };
+
+    SSLEngineChannel(SocketChannel channel, SSLEngine engine)
+    {
+        channel_ = channel;
+        engine_ = engine;
+        channelOut_ = new ChannelOutputStream(channel);
+        SSLSession session = engine.getSession();
+        netIn_ = ByteBuffer.allocate(session.getPacketBufferSize());
+        netOut_ = ByteBuffer.allocate(session.getPacketBufferSize());
+        appIn_ = ByteBuffer.allocate(session.getApplicationBufferSize());
+    }
+
+    InputStream getInputStream()
+    {
+        return inStream_;
+    }
+
+    OutputStream getOutputStream()
+    {
+        return outStream_;
+    }
+
+    SocketChannel getChannel()
+    {
+        return channel_;
+    }
+
+    // Perform the TLS handshake.  The channel must be in blocking mode.
+    // The handshake reads wait at most the socket timeout (SO_TIMEOUT), like the SSLSocket handshake.
+    // @exception  IOException  If the handshake fails or the connection is closed.
+    void handshake() throws IOException
+    {
+        synchronized (readLock_)
+        {
+            synchronized (writeLock_)
+            {
+                engine_.beginHandshake();
+                SSLEngineResult.HandshakeStatus status = engine_.getHandshakeStatus();
+                while (status != SSLEngineResult.HandshakeStatus.FINISHED && status != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING)
+                {
+                    switch (status)
+                    {
+                        case NEED_WRAP:
+                            status = wrap(EMPTY);
+                            break;
+                        case NEED_UNWRAP:
+                            SSLEngineResult result = unwrap();
+                            if (result.getStatus() == SSLEngineResult.Status.CLOSED
+                                || (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW && fillNetIn() < 0))
+                            {
+                                throw new SSLException("Connection closed during TLS handshake.");
+                            }
+                            status = engine_.getHandshakeStatus();
+                            break;
+                        case NEED_TASK:
+                            runDelegatedTasks();
+                            status = engine_.getHandshakeStatus();
+                            break;
+                        default:
+                            status = engine_.getHandshakeStatus();
+                            break;
+                    }
+                }
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "SSLEngineChannel: handshake complete, protocol " + engine_.getSession().getProtocol());
+            }
+        }
+    }
+
+    // Read decrypted application data into the buffer.
+    // In blocking mode this waits until at least one byte is available.  In non-blocking mode it returns 0
+    // when no complete TLS record has arrived yet.
+    // @return  The number of bytes transferred, or -1 at end of stream.
+    int read(ByteBuffer dst) throws IOException
+    {
+        synchronized (readLock_)
+        {
+            while (true)
+            {
+                if (appIn_.position() > 0)
+                {
+                    appIn_.flip();
+                    int count = Math.min(appIn_.remaining(), dst.remaining());
+                    int limit = appIn_.limit();
+                    appIn_.limit(appIn_.position() + count);
+                    dst.put(appIn_);
+                    appIn_.limit(limit);
+                    appIn_.compact();
+                    return count;
+                }
+                if (eof_) return -1;
+
+                // Decrypt whatever is already buffered before going back to the channel.
+                SSLEngineResult result = unwrap();
+                if (result.getStatus() == SSLEngineResult.Status.CLOSED)
+                {
+                    eof_ = true;
+                    continue;
+                }
+                if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) runDelegatedTasks();
+                if (engine_.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_WRAP)
+                {
+                    synchronized (writeLock_)
+                    {
+                        wrap(EMPTY);
+                    }
+                }
+                if (result.bytesProduced() > 0 || (result.getStatus() == SSLEngineResult.Status.OK && result.bytesConsumed() > 0)) continue;
+
+                int count = fillNetIn();
+                if (count < 0)
+                {
+                    eof_ = true;
+                }
+                else if (count == 0)
+                {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    // Encrypt and send all remaining bytes of the buffer.
+    void write(ByteBuffer src) throws IOException
+    {
+        synchronized (writeLock_)
+        {
+            while (src.hasRemaining())
+            {
+                wrap(src);
+            }
+        }
+    }
+
+    void close() throws IOException
+    {
+        try
+        {
+            engine_.closeOutbound();
+            synchronized (writeLock_)
+            {
+                if (channel_.isOpen() && channel_.isBlocking()) wrap(EMPTY);
+            }
+        }
+        catch (IOException e)
+        {
+            if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "SSLEngineChannel: close_notify not sent:", e);
+        }
+        finally
+        {
+            channelOut_.close();
+            channel_.close();
+        }
+    }
+
+    // Wraps src into netOut_ and writes the TLS record.  Caller holds writeLock_.
+    private SSLEngineResult.HandshakeStatus wrap(ByteBuffer src) throws IOException
+    {
+        while (true)
+        {
+            netOut_.clear();
+            SSLEngineResult result = engine_.wrap(src, netOut_);
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW)
+            {
+                netOut_ = ByteBuffer.allocate(Math.max(netOut_.capacity() * 2, engine_.getSession().getPacketBufferSize()));
+                continue;
+            }
+            // A closed engine still produces the close_notify record, which is sent like any other.
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED && result.bytesProduced() == 0)
+            {
+                throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+            }
+            netOut_.flip();
+            channelOut_.writeFully(netOut_);
+            return result.getHandshakeStatus();
+        }
+    }
+
+    // Unwraps buffered network data into appIn_.  Caller holds readLock_.
+    private SSLEngineResult unwrap() throws IOException
+    {
+        while (true)
+        {
+            netIn_.flip();
+            SSLEngineResult result;
+            try
+            {
+                result = engine_.unwrap(netIn_, appIn_);
+            }
+            finally
+            {
+                netIn_.compact();
+            }
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW)
+            {
+                ByteBuffer larger = ByteBuffer.allocate(appIn_.capacity() + engine_.getSession().getApplicationBufferSize());
+                appIn_.flip();
+                larger.put(appIn_);
+                appIn_ = larger;
+                continue;
+            }
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW && !netIn_.hasRemaining())
+            {
+                ByteBuffer larger = ByteBuffer.allocate(netIn_.capacity() + engine_.getSession().getPacketBufferSize());
+                netIn_.flip();
+                larger.put(netIn_);
+                netIn_ = larger;
+            }
+            return result;
+        }
+    }
+
+    // Reads more encrypted bytes from the channel.  Caller holds readLock_.
+    // A blocking SocketChannel.read ignores SO_TIMEOUT, so in blocking mode the bytes are read through the
+    // socket's stream, which throws SocketTimeoutException when the socket timeout expires.
+    // @exception  java.net.SocketTimeoutException  If no data arrives within the socket timeout.
+    private int fillNetIn() throws IOException
+    {
+        if (!channel_.isBlocking()) return channel_.read(netIn_);
+
+        if (socketIn_ == null) socketIn_ = channel_.socket().getInputStream();
+        int count = socketIn_.read(netIn_.array(), netIn_.arrayOffset() + netIn_.position(), netIn_.remaining());
+        if (count > 0) netIn_.position(netIn_.position() + count);
+        return count;
+    }
+
+    private void runDelegatedTasks()
+    {
+        Runnable task;
+        while ((task = engine_.getDelegatedTask()) != null)
+        {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: SharedScheduler.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+The SharedScheduler class runs the periodic tasks and timeouts of
+the Toolbox on one daemon thread, instead of a thread per task.
+
+<p>The tasks run one at a time, so a task must not block for long.
+A timeout that needs to do blocking work, such as sending a cancel
+request, passes the work to {@link #startThread startThread()}, so a
+thread is only created when a timeout expires.  Cancelled tasks are
+removed from the queue right away.
+**/
+final class SharedScheduler
+implements AS400SchedulerMetricsMXBean
+{
+  static final String copyright = "Copyright (C) 2026 International Business Machines Corporation and others.";
+
+
+
+  private static ScheduledThreadPoolExecutor executor_;
+  private static final SharedScheduler metrics_         = new SharedScheduler ();
+
+  private static final AtomicLong timeoutsScheduled_    = new AtomicLong ();
+  private static final AtomicLong timeoutsCancelled_    = new AtomicLong ();
+  private static final AtomicLong timeoutsExpired_      = new AtomicLong ();
+  private static final AtomicLong threadsStarted_       = new AtomicLong ();
+  private static final AtomicLong schedulingTime_       = new AtomicLong ();      // nanoseconds
+
+
+
+/**
+A scheduled timeout.
+**/
+  static final class Timeout
+  {
+    private final ScheduledFuture<?> future_;
+
+    Timeout (ScheduledFuture<?> future)
+    {
+      future_ = future;
+    }
+
+/**
+Cancels the timeout, if it has not expired.
+**/
+    void cancel ()
+    {
+      long start = System.nanoTime ();
+      if (future_.cancel (false))
+        timeoutsCancelled_.incrementAndGet ();
+      schedulingTime_.addAndGet (System.nanoTime () - start);
+    }
+  }
+
+
+
+  private SharedScheduler ()
+  {
+  }
+
+
+
+  // Returns the executor, creating its thread the first time.
+  private static synchronized ScheduledThreadPoolExecutor getExecutor ()
+  {
+    if (executor_ == null)
+    {
+      executor_ = new ScheduledThreadPoolExecutor (1, new ThreadFactory ()
+      {
+        public Thread newThread (Runnable runnable)
+        {
+          return AS400ThreadedServer.newThread (runnable, "AS400SharedScheduler", false);
+        }
+      });
+      executor_.setRemoveOnCancelPolicy (true);
+    }
+    return executor_;
+  }
+
+
+
+/**
+Returns the metrics of the scheduler.
+
+@return     The metrics.
+**/
+  static AS400SchedulerMetricsMXBean getMetrics ()
+  {
+    return metrics_;
+  }
+
+
+
+/**
+Schedules a task to run once.
+
+@param  task        The task.
+@param  delay       The delay, in milliseconds.
+@return             The future used to cancel the task.
+**/
+  static ScheduledFuture<?> schedule (Runnable task, long delay)
+  {
+    return getExecutor ().schedule (task, delay, TimeUnit.MILLISECONDS);
+  }
+
+
+
+/**
+Schedules a timeout.  The timeout should be cancelled when the
+operation it limits completes.
+
+@param  task        The task to run when the timeout expires.
+@param  delay       The timeout, in milliseconds.
+@return             The timeout.
+**/
+  static Timeout scheduleTimeout (final Runnable task, long delay)
+  {
+    long start = System.nanoTime ();
+    timeoutsScheduled_.incrementAndGet ();
+    ScheduledFuture<?> future = getExecutor ().schedule (new Runnable ()
+    {
+      public void run ()
+      {
+        timeoutsExpired_.incrementAndGet ();
+        try
+        {
+          task.run ();
+        }
+        catch (RuntimeException e)
+        {
+          if (Trace.traceOn_) Trace.log (Trace.ERROR, "Timeout task failed.", e);
+        }
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+    schedulingTime_.addAndGet (System.nanoTime () - start);
+    return new Timeout (future);
+  }
+
+
+
+/**
+Schedules a task to run repeatedly.  If the task throws an exception,
+it is logged and the task keeps running.
+
+@param  task            The task.
+@param  initialDelay    The delay before the first run, in milliseconds.
+@param  delay           The delay between the end of one run and the start of the next, in milliseconds.
+@return                 The future used to cancel the task.
+**/
+  static ScheduledFuture<?> scheduleWithFixedDelay (final Runnable task, long initialDelay, long delay)
+  {
+    return getExecutor ().scheduleWithFixedDelay (new Runnable ()
+    {
+      public void run ()
+      {
+        try
+        {
+          task.run ();
+        }
+        catch (RuntimeException e)
+        {
+          // A task that throws would not run again.
+          if (Trace.traceOn_) Trace.log (Trace.ERROR, "Scheduled task failed.", e);
+        }
+      }
+    }, initialDelay, delay, TimeUnit.MILLISECONDS);
+  }
+
+
+
+/**
+Runs blocking work for an expired timeout on its own daemon thread.
+
+@param  task        The work.
+@param  name        The name of the thread.
+**/
+  static void startThread (Runnable task, String name)
+  {
+    threadsStarted_.incrementAndGet ();
+    AS400ThreadedServer.newThread (task, name, false).start ();
+  }
+
+
+
+  public long getTimeoutsScheduled ()
+  {
+    return timeoutsScheduled_.get ();
+  }
+
+
+
+  public long getTimeoutsCancelled ()
+  {
+    return timeoutsCancelled_.get ();
+  }
+
+
+
+  public long getTimeoutsExpired ()
+  {
+    return timeoutsExpired_.get ();
+  }
+
+
+
+  public int getPendingTaskCount ()
+  {
+    ScheduledThreadPoolExecutor executor;
+    synchronized (SharedScheduler.class)
+    {
+      executor = executor_;
+    }
+    return (executor == null) ? 0 : executor.getQueue ().size ();
+  }
+
+
+
+  public long getThreadsStarted ()
+  {
+    return threadsStarted_.get ();
+  }
+
+
+
+  public double getAverageSchedulingTime ()
+  {
+    long scheduled = timeoutsScheduled_.get ();
+    return (scheduled == 0) ? 0 : schedulingTime_.get () / 1000.0 / scheduled;
+  }
+}
@@ -18,6 +18,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 abstract class SocketContainer
 {
@@ -28,4 +30,24 @@ abstract class SocketContainer
     abstract void setSoTimeout(int timeout) throws SocketException; 
     abstract int  getSoTimeout() throws SocketException; 
     abstract String getLocalAddress();
+
+    // Returns the channel to register with AS400SelectorReader, or null if this socket can only be read by a blocking read daemon.
+    SocketChannel getSelectableChannel()
+    {
+        return null;
+    }
+
+    // Switches the socket to non-blocking mode for AS400SelectorReader.  After this call the input stream must
+    // no longer be used; replies are obtained with read(ByteBuffer) when the channel is readable.
+    void configureNonBlocking() throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    // Reads the bytes currently available without blocking.
+    // @return  The number of bytes read, possibly 0, or -1 at end of stream.
+    int read(ByteBuffer dst) throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
 }
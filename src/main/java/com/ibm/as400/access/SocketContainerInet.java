@@ -18,10 +18,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 class SocketContainerInet extends SocketContainer
 {
     Socket socket_;
+    // Non-null once the channel has been switched to non-blocking mode for AS400SelectorReader.
+    private ChannelOutputStream channelOut_;
 
     @Override
     void setProperties(Socket socket, String serviceName, String systemName, int port, SSLOptions options) throws IOException
@@ -33,6 +37,7 @@ class SocketContainerInet extends SocketContainer
     void close() throws IOException
     {
         socket_.close();
+        if (channelOut_ != null) channelOut_.close();
     }
 
     @Override
@@ -44,6 +49,7 @@ class SocketContainerInet extends SocketContainer
     @Override
     OutputStream getOutputStream() throws IOException
     {
+        if (channelOut_ != null) return channelOut_;
         return socket_.getOutputStream();
     }
     
@@ -61,4 +67,24 @@ class SocketContainerInet extends SocketContainer
     String getLocalAddress() {
         return socket_.getLocalAddress().getHostAddress();
     }
+
+    @Override
+    SocketChannel getSelectableChannel()
+    {
+        return socket_.getChannel();
+    }
+
+    @Override
+    void configureNonBlocking() throws IOException
+    {
+        SocketChannel channel = socket_.getChannel();
+        channel.configureBlocking(false);
+        channelOut_ = new ChannelOutputStream(channel);
+    }
+
+    @Override
+    int read(ByteBuffer dst) throws IOException
+    {
+        return socket_.getChannel().read(dst);
+    }
 }
@@ -18,7 +18,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 
@@ -26,10 +30,43 @@ import javax.net.ssl.SSLSocketFactory;
 class SocketContainerJSSE extends SocketContainer
 {
     private SSLSocket sslSocket_;
+    // Used instead of sslSocket_ when the connection is served by AS400SelectorReader.
+    private Socket socket_;
+    private SSLEngineChannel engineChannel_;
 
     @Override
     void setProperties(Socket socket, String serviceName, String systemName, int port, SSLOptions options) throws IOException
     {
+        // A socket that was opened from a SocketChannel is meant to be multiplexed, which requires an SSLEngine.
+        // A caller-supplied SSLSocketFactory can only produce SSLSockets, so it keeps the blocking socket.
+        if (socket.getChannel() != null && (options == null || options.sslSocketFactory_ == null))
+        {
+            if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "SocketContainerJSSE: create SSLEngine");
+            SSLEngine engine;
+            try
+            {
+                engine = SSLContext.getDefault().createSSLEngine(systemName, port);
+            }
+            catch (java.security.NoSuchAlgorithmException e)
+            {
+                throw new IOException(e);
+            }
+            engine.setUseClientMode(true);
+            if (SecureAS400.changeCipherSuites)
+            {
+                try {
+                    engine.setEnabledCipherSuites(SecureAS400.newCipherSuites);
+                }
+                catch (Exception e) {
+                    Trace.log(Trace.ERROR, "SocketContainerJSSE: unable to change cipher suites:", e);
+                }
+            }
+            socket_ = socket;
+            engineChannel_ = new SSLEngineChannel(socket.getChannel(), engine);
+            engineChannel_.handshake();
+            return;
+        }
+
         if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "SocketContainerJSSE: create SSLSocket");
         
         SSLSocketFactory sslFactory = ((options != null) && (options.sslSocketFactory_ != null)) ? options.sslSocketFactory_ : (SSLSocketFactory)SSLSocketFactory.getDefault();
@@ -72,13 +109,15 @@ class SocketContainerJSSE extends SocketContainer
     void close() throws IOException
     {
         if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "SocketContainerJSSE: close");
-        sslSocket_.close();
+        if (engineChannel_ != null) engineChannel_.close();
+        else sslSocket_.close();
     }
 
     @Override
     InputStream getInputStream() throws IOException
     {
         if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "SocketContainerJSSE: getInputStream");
+        if (engineChannel_ != null) return engineChannel_.getInputStream();
         return sslSocket_.getInputStream();
     }
 
@@ -86,21 +125,43 @@ class SocketContainerJSSE extends SocketContainer
     OutputStream getOutputStream() throws IOException
     {
         if (Trace.isTraceOn()) Trace.log(Trace.DIAGNOSTIC, "SocketContainerJSSE: getOutputStream");
+        if (engineChannel_ != null) return engineChannel_.getOutputStream();
         return sslSocket_.getOutputStream();
     }
 
     @Override    
     int getSoTimeout() throws SocketException {
+      if (engineChannel_ != null) return socket_.getSoTimeout();
       return sslSocket_.getSoTimeout(); 
     }
 
     @Override
     void setSoTimeout(int timeout) throws SocketException {
-      sslSocket_.setSoTimeout(timeout); 
+      if (engineChannel_ != null) socket_.setSoTimeout(timeout);
+      else sslSocket_.setSoTimeout(timeout); 
     }
     
     @Override
     String getLocalAddress() {
+        if (engineChannel_ != null) return socket_.getLocalAddress().getHostAddress();
         return sslSocket_.getLocalAddress().getHostAddress();
     }
+
+    @Override
+    SocketChannel getSelectableChannel()
+    {
+        return (engineChannel_ != null) ? engineChannel_.getChannel() : null;
+    }
+
+    @Override
+    void configureNonBlocking() throws IOException
+    {
+        engineChannel_.getChannel().configureBlocking(false);
+    }
+
+    @Override
+    int read(ByteBuffer dst) throws IOException
+    {
+        return engineChannel_.read(dst);
+    }
 }
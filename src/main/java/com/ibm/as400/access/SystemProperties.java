@@ -139,6 +139,33 @@ public class SystemProperties
      **/
     public static final String AS400_THREAD_USED = ACCESS_PREFIX + "AS400.threadUsed";
 
+    /**
+     Specifies the number of shared selector threads that read replies from the host servers.
+     By default, every host server connection of an AS400 object that uses threads has its own read daemon thread.
+     Setting this property to a positive value directs the Toolbox to multiplex the connections over this fixed number
+     of threads instead, so the thread count stays constant as connections are added.
+     Record level access connections, and secure connections that use a custom SSLSocketFactory, always use their own read daemon thread.
+     This property has no effect when threads are not used.
+     <ul>
+     <li>Property name: com.ibm.as400.access.AS400.selectorThreads
+     <li>Values/syntax: <i>number of threads</i>
+     <li>Default: <tt>0</tt>
+     </ul>
+     **/
+    public static final String AS400_SELECTOR_THREADS = ACCESS_PREFIX + "AS400.selectorThreads";
+
+    /**
+     Specifies whether host server replies are received into pooled buffers.
+     Setting this property to <tt>true</tt> directs the Toolbox to receive database fetch replies and file server read replies
+     into buffers from {@link ReplyBufferPool ReplyBufferPool}, which are reused once the reply data has been consumed.
+     <ul>
+     <li>Property name: com.ibm.as400.access.AS400.replyBufferPool
+     <li>Values/syntax: <tt>true</tt> or <tt>false</tt>
+     <li>Default: <tt>false</tt>
+     </ul>
+     **/
+    public static final String AS400_REPLY_BUFFER_POOL = ACCESS_PREFIX + "AS400.replyBufferPool";
+
     /*public*/ static final String SECUREAS400_PROXY_ENCRYPTION_MODE = ACCESS_PREFIX + "SecureAS400.proxyEncryptionMode";
 
     /**
@@ -263,7 +290,75 @@ public class SystemProperties
      **/
     public static final String FTP_REUSE_SOCKET = ACCESS_PREFIX + "FTP.reuseSocket";
 
+    /**
+     Specifies the number of read requests that are kept outstanding when a stream file is read sequentially.
+     When this property is set to a value greater than zero, {@link IFSFileInputStream IFSFileInputStream} and {@link IFSRandomAccessFile IFSRandomAccessFile}
+     detect sequential reads and send read requests for the data that follows before it is asked for, so that
+     large files are transferred without waiting one round trip per request.
+     <ul>
+     <li>Property name: com.ibm.as400.access.IFSFile.readAheadDepth
+     <li>Values/syntax: <tt>0 or greater</tt> (0 means "no read-ahead")
+     <li>Default: <tt>0</tt>
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String IFSFILE_READ_AHEAD_DEPTH = ACCESS_PREFIX + "IFSFile.readAheadDepth";
+
+    /**
+     Specifies the number of bytes requested by each read-ahead request.
+     This property is used only when {@link #IFSFILE_READ_AHEAD_DEPTH com.ibm.as400.access.IFSFile.readAheadDepth} is greater than zero.
+     <ul>
+     <li>Property name: com.ibm.as400.access.IFSFile.readAheadChunkSize
+     <li>Values/syntax: <tt>1024-16000000</tt>
+     <li>Default: <tt>262144</tt>
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String IFSFILE_READ_AHEAD_CHUNK_SIZE = ACCESS_PREFIX + "IFSFile.readAheadChunkSize";
+
+    /**
+     Specifies the number of write requests of an {@link IFSFileOutputStream IFSFileOutputStream} that may be waiting for a reply.
+     When this property is set to a value greater than zero, the stream sends each write request without waiting for the
+     replies to earlier ones, until that many are outstanding.  A failure reported for an earlier request is thrown
+     by the next write, flush or close of the stream.
+     <ul>
+     <li>Property name: com.ibm.as400.access.IFSFile.writeBehindWindow
+     <li>Values/syntax: <tt>0 or greater</tt> (0 means "wait for each reply")
+     <li>Default: <tt>0</tt>
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String IFSFILE_WRITE_BEHIND_WINDOW = ACCESS_PREFIX + "IFSFile.writeBehindWindow";
+
+    /**
+     Specifies the number of milliseconds that integrated file system attributes are kept in a cache shared by the
+     {@link IFSFile IFSFile} objects of each {@link AS400 AS400} object.
+     When this property is set to a value greater than zero, every AS400 object starts with an
+     {@link IFSAttributeCache IFSAttributeCache}, and methods such as exists(), isDirectory(), length() and lastModified()
+     of a new IFSFile object for a recently queried path are answered without a request to the system.
+     <ul>
+     <li>Property name: com.ibm.as400.access.IFSFile.attributeCacheTimeout
+     <li>Values/syntax: <tt>0 or greater</tt> (0 means "no shared attribute cache")
+     <li>Default: <tt>0</tt>
+     <li>Overridden by: {@link IFSAttributeCache#enable(AS400, long, int) IFSAttributeCache.enable()}
+     </ul>
+     **/
+    public static final String IFSFILE_ATTRIBUTE_CACHE_TIMEOUT = ACCESS_PREFIX + "IFSFile.attributeCacheTimeout";
+
+    /**
+     Specifies the maximum number of paths kept in each shared integrated file system attribute cache.
+     This property is used only when {@link #IFSFILE_ATTRIBUTE_CACHE_TIMEOUT com.ibm.as400.access.IFSFile.attributeCacheTimeout} is greater than zero.
+     <ul>
+     <li>Property name: com.ibm.as400.access.IFSFile.attributeCacheSize
+     <li>Values/syntax: <tt>1 or greater</tt>
+     <li>Default: <tt>10000</tt>
+     <li>Overridden by: {@link IFSAttributeCache#enable(AS400, long, int) IFSAttributeCache.enable()}
+     </ul>
+     **/
+    public static final String IFSFILE_ATTRIBUTE_CACHE_SIZE = ACCESS_PREFIX + "IFSFile.attributeCacheSize";
+
     /*public*/ static final String JDBC_STATEMENT_LISTENERS = ACCESS_PREFIX + "JDBC.statementListeners";
+    /*public*/ static final String JDBC_SQL_STATEMENT_CACHE_SIZE = ACCESS_PREFIX + "JDBC.sqlStatementCacheSize"; // parsed SQL statements kept per connection, 0 to disable
     /*public*/ static final String JDBC_SECURE_CURRENT_USER = ACCESS_PREFIX + "JDBC.secureCurrentUser"; //@pw3 not documented in html
     /*public*/ static final String JDBC_JVM16_SYNCHRONIZE = ACCESS_PREFIX + "JDBC.jvm16Synchronize"; //@dmy temp fix for jvm 1.6 memory stomping
     /*public*/ static final String TRACE_MONITOR = ACCESS_PREFIX + "Trace.monitor";
@@ -294,6 +389,33 @@ public class SystemProperties
      **/
     public static final String CONNECTIONPOOL_PRETEST = ACCESS_PREFIX + "ConnectionPool.pretest";
 
+    /**
+     Specifies how long, in milliseconds, a reply from a server job is taken as proof that a pooled connection is alive.
+     When a pooled connection is pretested, or validated by a JDBC connection pool, and its server job has replied within this time,
+     no request is sent to the system.  Otherwise the connection is pinged.  A value of <tt>0</tt> always pings the connection.
+     <ul>
+     <li>Property name: com.ibm.as400.access.ConnectionPool.pretestCacheTime
+     <li>Values/syntax: <tt>0</tt> or more
+     <li>Default: <tt>1000</tt>
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String CONNECTIONPOOL_PRETEST_CACHE_TIME = ACCESS_PREFIX + "ConnectionPool.pretestCacheTime";
+
+    /**
+     Specifies the maximum number of distinct SQL statements for which the JDBC driver collects execution statistics.
+     The statistics are collected by the SQL text with its literals replaced by <tt>?</tt>, and can be read
+     from {@link AS400JDBCDriver#getStatementStatistics AS400JDBCDriver.getStatementStatistics()}.
+     A value of <tt>0</tt> does not collect statistics.
+     <ul>
+     <li>Property name: com.ibm.as400.access.JDBC.statementStatistics
+     <li>Values/syntax: <tt>0</tt> or more
+     <li>Default: <tt>0</tt>
+     <li>Overridden by: {@link AS400JDBCStatementStatisticsMXBean#setMaximumStatementCount AS400JDBCStatementStatisticsMXBean.setMaximumStatementCount()}
+     </ul>
+     **/
+    public static final String JDBC_STATEMENT_STATISTICS = ACCESS_PREFIX + "JDBC.statementStatistics";
+
     /**
      Specifies the behavior of the {@link com.ibm.as400.data.ProgramCallDocument ProgramCallDocument} in the event that XML parsing errors occur.
      By default, the ProgramCallDocument object simply traces any parse errors.  The trace category is {@link Trace#PCML PCML}.  Setting this property to <tt>true</tt> directs the Toolbox to also throw a SAXException in the event of a parsing error.
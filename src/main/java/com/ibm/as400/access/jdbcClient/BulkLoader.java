@@ -0,0 +1,746 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: BulkLoader.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+package com.ibm.as400.access.jdbcClient;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads rows into a table using several connections in parallel.
+ * <p>Each connection prepares one parameterized INSERT statement and sends the
+ * rows with addBatch and executeBatch, so the rows are sent to the system as
+ * block inserts rather than as SQL statements.  The rows are read from a
+ * {@link BulkLoader.RowSource RowSource} on the calling thread and handed to the
+ * connections in batches.
+ * <p>A row that cannot be converted or inserted is rejected: it is written to the
+ * error output, if one is set, and the load continues until more than the maximum
+ * number of errors is reached.  When the load fails, rows committed before the
+ * failure remain in the table.
+ * <p>The loader can also be run from the command line:
+ * <pre>
+ *  java com.ibm.as400.access.jdbcClient.BulkLoader url userid password table file [options]
+ *
+ *  -parallel n       Number of connections (default 4)
+ *  -batch n          Rows per block insert (default 1000)
+ *  -commit n         Rows per commit on each connection (default 0, autocommit)
+ *  -maxerrors n      Number of rejected rows allowed (default 0)
+ *  -errors file      File to write the rejected rows to
+ *  -report n         Report the throughput every n rows (default 100000)
+ *  -columns a,b,c    Columns to insert (default all columns of the table)
+ *  -delimiter c      Field delimiter of the file (default ,)
+ *  -header           Skip the first line of the file
+ * </pre>
+ */
+public class BulkLoader {
+
+  /**
+   * A source of rows for a bulk load.
+   */
+  public interface RowSource {
+    /**
+     * Returns the next row.  A value of the row may be a String, which is
+     * converted to the type of its column, or any object accepted by
+     * PreparedStatement.setObject.  A null value inserts the null value.
+     * @return The values of the next row, or null if there are no more rows.
+     * @throws IOException If the row cannot be read.
+     */
+    public Object[] nextRow() throws IOException;
+  }
+
+  /**
+   * Reads rows from comma separated values.  Fields may be enclosed in double
+   * quotes, in which case they can contain the delimiter, line breaks and doubled
+   * quotes.  An empty field that is not quoted is the null value.
+   */
+  public static class CsvRowSource implements RowSource, Closeable {
+    private Reader reader_;
+    private char delimiter_;
+    private boolean skipHeader_;
+    private int next_ = -2;   // -2 means no character has been read ahead
+
+    /**
+     * Constructs a CsvRowSource.
+     * @param reader The reader of the values.
+     * @param delimiter The field delimiter.
+     * @param skipHeader true if the first line is a header to skip.
+     */
+    public CsvRowSource(Reader reader, char delimiter, boolean skipHeader) {
+      reader_ = (reader instanceof BufferedReader) ? reader : new BufferedReader(reader);
+      delimiter_ = delimiter;
+      skipHeader_ = skipHeader;
+    }
+
+    private int read() throws IOException {
+      if (next_ != -2) {
+        int c = next_;
+        next_ = -2;
+        return c;
+      }
+      return reader_.read();
+    }
+
+    public Object[] nextRow() throws IOException {
+      if (skipHeader_) {
+        skipHeader_ = false;
+        if (nextRow() == null) return null;
+      }
+      int c = read();
+      if (c == -1) return null;
+      next_ = c;
+
+      List<String> fields = new ArrayList<String>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      boolean inQuotes = false;
+      while (true) {
+        c = read();
+        if (inQuotes) {
+          if (c == -1) {
+            throw new IOException("Unterminated quoted field");
+          } else if (c == '"') {
+            int following = read();
+            if (following == '"') {
+              field.append('"');
+            } else {
+              inQuotes = false;
+              next_ = following;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == '"' && field.length() == 0 && !quoted) {
+          quoted = true;
+          inQuotes = true;
+        } else if (c == delimiter_ || c == '\n' || c == '\r' || c == -1) {
+          fields.add((quoted || field.length() > 0) ? field.toString() : null);
+          field.setLength(0);
+          quoted = false;
+          if (c != delimiter_) {
+            if (c == '\r') {
+              int following = read();
+              if (following != '\n') next_ = following;
+            }
+            return fields.toArray();
+          }
+        } else {
+          field.append((char) c);
+        }
+      }
+    }
+
+    public void close() throws IOException {
+      reader_.close();
+    }
+  }
+
+  private static final long POLL_MILLISECONDS = 100;
+  private static final Object[][] END = new Object[0][];
+
+  private String url_;
+  private Properties info_;
+  private int parallelism_ = 4;
+  private int batchSize_ = 1000;
+  private long commitInterval_ = 0;
+  private long maxErrors_ = 0;
+  private PrintStream errorOutput_;
+  private PrintStream reportOutput_;
+  private long reportInterval_ = 100000;
+  private String[] columns_;
+
+  private AtomicLong rowsLoaded_ = new AtomicLong();
+  private AtomicLong rowsRejected_ = new AtomicLong();
+  private long startTime_;
+  private volatile SQLException failure_;
+
+  /**
+   * Constructs a BulkLoader.
+   * @param url The URL used to connect each connection.
+   * @param info The connection properties, including user and password.
+   */
+  public BulkLoader(String url, Properties info) {
+    if (url == null) throw new NullPointerException("url");
+    url_ = url;
+    info_ = (info == null) ? new Properties() : info;
+  }
+
+  /**
+   * Sets the number of connections that insert rows in parallel.
+   * @param parallelism The number of connections, from 1 to 64.  The default is 4.
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1 || parallelism > 64)
+      throw new IllegalArgumentException("parallelism: " + parallelism);
+    parallelism_ = parallelism;
+  }
+
+  /**
+   * Sets the number of rows sent in each block insert.
+   * @param batchSize The number of rows.  The default is 1000.
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize < 1)
+      throw new IllegalArgumentException("batchSize: " + batchSize);
+    batchSize_ = batchSize;
+  }
+
+  /**
+   * Sets the number of rows each connection inserts between commits.  The
+   * rows are committed after the first batch that reaches the interval.
+   * @param commitInterval The number of rows, or 0 to run the connections with
+   *        autocommit.  The default is 0.
+   */
+  public void setCommitInterval(long commitInterval) {
+    if (commitInterval < 0)
+      throw new IllegalArgumentException("commitInterval: " + commitInterval);
+    commitInterval_ = commitInterval;
+  }
+
+  /**
+   * Sets the number of rows that can be rejected before the load fails.
+   * @param maxErrors The number of rows.  The default is 0.
+   */
+  public void setMaxErrors(long maxErrors) {
+    if (maxErrors < 0)
+      throw new IllegalArgumentException("maxErrors: " + maxErrors);
+    maxErrors_ = maxErrors;
+  }
+
+  /**
+   * Sets the stream the rejected rows are written to.  Each rejected row is
+   * written as a line of comma separated values, followed by a field with the
+   * reason it was rejected.
+   * @param errorOutput The stream, or null to not write the rejected rows.
+   */
+  public void setErrorOutput(PrintStream errorOutput) {
+    errorOutput_ = errorOutput;
+  }
+
+  /**
+   * Sets the stream the throughput is reported to.
+   * @param reportOutput The stream, or null to not report the throughput.
+   */
+  public void setReportOutput(PrintStream reportOutput) {
+    reportOutput_ = reportOutput;
+  }
+
+  /**
+   * Sets the number of rows between throughput reports.
+   * @param reportInterval The number of rows.  The default is 100000.
+   */
+  public void setReportInterval(long reportInterval) {
+    if (reportInterval < 1)
+      throw new IllegalArgumentException("reportInterval: " + reportInterval);
+    reportInterval_ = reportInterval;
+  }
+
+  /**
+   * Sets the columns the values of each row are inserted into.
+   * @param columns The column names, or null to insert into all columns of the table.
+   */
+  public void setColumns(String[] columns) {
+    columns_ = columns;
+  }
+
+  /**
+   * Returns the number of rows inserted and committed by the last load.
+   * @return The number of rows.
+   */
+  public long getRowsLoaded() {
+    return rowsLoaded_.get();
+  }
+
+  /**
+   * Returns the number of rows rejected by the last load.
+   * @return The number of rows.
+   */
+  public long getRowsRejected() {
+    return rowsRejected_.get();
+  }
+
+  /**
+   * Loads the rows of a source into a table.
+   * @param source The source of the rows.
+   * @param table The name of the table, optionally qualified by its schema.
+   * @return The number of rows inserted and committed.
+   * @throws SQLException If the load fails.
+   */
+  public long load(RowSource source, String table) throws SQLException {
+    rowsLoaded_.set(0);
+    rowsRejected_.set(0);
+    failure_ = null;
+    startTime_ = System.currentTimeMillis();
+
+    Object[] row = readRow(source);
+    if (row == null) return 0;
+    String sql = buildInsert(table, (columns_ != null) ? columns_.length : row.length);
+
+    // The connections are opened before any row is read past the first,
+    // so a connection failure ends the load before it starts.
+    List<Connection> connections = new ArrayList<Connection>();
+    try {
+      for (int i = 0; i < parallelism_; i++) {
+        Connection connection = DriverManager.getConnection(url_, info_);
+        connections.add(connection);
+        connection.setAutoCommit(commitInterval_ == 0);
+      }
+    } catch (SQLException e) {
+      closeAll(connections);
+      throw e;
+    }
+
+    ArrayBlockingQueue<Object[][]> queue = new ArrayBlockingQueue<Object[][]>(parallelism_ * 2);
+    Thread[] threads = new Thread[parallelism_];
+    for (int i = 0; i < parallelism_; i++) {
+      threads[i] = new Thread(new Worker(connections.get(i), sql, queue), "BulkLoader-" + (i + 1));
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+
+    try {
+      List<Object[]> batch = new ArrayList<Object[]>(batchSize_);
+      while (row != null && failure_ == null) {
+        batch.add(row);
+        if (batch.size() == batchSize_) {
+          put(queue, batch.toArray(new Object[batch.size()][]));
+          batch.clear();
+        }
+        row = readRow(source);
+      }
+      if (!batch.isEmpty()) put(queue, batch.toArray(new Object[batch.size()][]));
+    } catch (SQLException e) {
+      fail(e);
+    } finally {
+      for (int i = 0; i < parallelism_; i++) {
+        put(queue, END);
+      }
+      for (int i = 0; i < parallelism_; i++) {
+        try {
+          threads[i].join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          fail(new SQLException("Bulk load interrupted"));
+        }
+      }
+    }
+
+    report();
+    if (failure_ != null) throw failure_;
+    return rowsLoaded_.get();
+  }
+
+  private Object[] readRow(RowSource source) throws SQLException {
+    try {
+      return source.nextRow();
+    } catch (IOException e) {
+      SQLException sqlException = new SQLException("Unable to read row: " + e.getMessage());
+      sqlException.initCause(e);
+      throw sqlException;
+    }
+  }
+
+  private String buildInsert(String table, int count) {
+    StringBuilder sb = new StringBuilder("INSERT INTO ");
+    sb.append(table);
+    if (columns_ != null) {
+      sb.append(" (");
+      for (int i = 0; i < columns_.length; i++) {
+        if (i > 0) sb.append(", ");
+        sb.append(columns_[i]);
+      }
+      sb.append(")");
+    }
+    sb.append(" VALUES (");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) sb.append(", ");
+      sb.append("?");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+
+  // Puts a batch on the queue.  Once the load has failed, batches other than
+  // END are dropped, and END is only put while there is room so a worker that
+  // has already stopped does not block the reader.
+  private void put(ArrayBlockingQueue<Object[][]> queue, Object[][] batch) {
+    try {
+      while (!queue.offer(batch, POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+        if (failure_ != null && batch != END) return;
+        if (failure_ != null) queue.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(new SQLException("Bulk load interrupted"));
+    }
+  }
+
+  private synchronized void fail(SQLException e) {
+    if (failure_ == null) failure_ = e;
+  }
+
+  private static void closeAll(List<Connection> connections) {
+    for (int i = 0; i < connections.size(); i++) {
+      try {
+        connections.get(i).close();
+      } catch (SQLException e) {
+        // Ignore
+      }
+    }
+  }
+
+  private void loaded(long count) {
+    long total = rowsLoaded_.addAndGet(count);
+    if (reportOutput_ != null && total / reportInterval_ != (total - count) / reportInterval_) {
+      report();
+    }
+  }
+
+  private void report() {
+    if (reportOutput_ == null) return;
+    long elapsed = System.currentTimeMillis() - startTime_;
+    long loaded = rowsLoaded_.get();
+    long rate = (elapsed > 0) ? (loaded * 1000 / elapsed) : loaded;
+    synchronized (reportOutput_) {
+      reportOutput_.println("BULKLOAD: " + loaded + " rows loaded, " + rowsRejected_.get()
+          + " rows rejected, " + elapsed + " ms, " + rate + " rows/second");
+    }
+  }
+
+  private void reject(Object[] row, String reason) throws SQLException {
+    long rejected = rowsRejected_.incrementAndGet();
+    if (errorOutput_ != null) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < row.length; i++) {
+        appendField(sb, (row[i] == null) ? null : row[i].toString());
+        sb.append(',');
+      }
+      appendField(sb, reason);
+      synchronized (errorOutput_) {
+        errorOutput_.println(sb.toString());
+      }
+    }
+    if (rejected > maxErrors_) {
+      throw new SQLException("Bulk load ended after " + rejected + " rejected rows: " + reason);
+    }
+  }
+
+  private static void appendField(StringBuilder sb, String value) {
+    if (value == null) return;
+    if (value.length() == 0 || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+      sb.append('"');
+      sb.append(value.replace("\"", "\"\""));
+      sb.append('"');
+    } else {
+      sb.append(value);
+    }
+  }
+
+  //
+  // Converts the values of a column.  The converters are chosen once from the
+  // parameter metadata of the insert, so each value only needs a parse to the
+  // Java type of the column before it is set.
+  //
+  private static abstract class Converter {
+    int sqlType_;
+
+    Converter(int sqlType) {
+      sqlType_ = sqlType;
+    }
+
+    void set(PreparedStatement ps, int index, Object value) throws SQLException {
+      if (value == null) {
+        ps.setNull(index, sqlType_);
+      } else if (value instanceof String) {
+        setString(ps, index, (String) value);
+      } else {
+        ps.setObject(index, value);
+      }
+    }
+
+    abstract void setString(PreparedStatement ps, int index, String value) throws SQLException;
+
+    static Converter forType(int sqlType) {
+      switch (sqlType) {
+        case Types.SMALLINT:
+        case Types.INTEGER:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setInt(index, Integer.parseInt(value.trim()));
+            }
+          };
+        case Types.BIGINT:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setLong(index, Long.parseLong(value.trim()));
+            }
+          };
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setBigDecimal(index, new BigDecimal(value.trim()));
+            }
+          };
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setDouble(index, Double.parseDouble(value.trim()));
+            }
+          };
+        case Types.DATE:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setDate(index, Date.valueOf(value.trim()));
+            }
+          };
+        case Types.TIME:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setTime(index, Time.valueOf(value.trim()));
+            }
+          };
+        case Types.TIMESTAMP:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setTimestamp(index, Timestamp.valueOf(value.trim()));
+            }
+          };
+        default:
+          return new Converter(sqlType) {
+            void setString(PreparedStatement ps, int index, String value) throws SQLException {
+              ps.setString(index, value);
+            }
+          };
+      }
+    }
+  }
+
+  //
+  // Inserts the batches taken from the queue on one connection.
+  //
+  private class Worker implements Runnable {
+    private Connection connection_;
+    private String sql_;
+    private ArrayBlockingQueue<Object[][]> queue_;
+    private PreparedStatement ps_;
+    private Converter[] converters_;
+    private long uncommitted_ = 0;
+
+    Worker(Connection connection, String sql, ArrayBlockingQueue<Object[][]> queue) {
+      connection_ = connection;
+      sql_ = sql;
+      queue_ = queue;
+    }
+
+    public void run() {
+      try {
+        ps_ = connection_.prepareStatement(sql_);
+        ParameterMetaData metaData = ps_.getParameterMetaData();
+        converters_ = new Converter[metaData.getParameterCount()];
+        for (int i = 0; i < converters_.length; i++) {
+          converters_[i] = Converter.forType(metaData.getParameterType(i + 1));
+        }
+
+        while (true) {
+          Object[][] batch = queue_.poll(POLL_MILLISECONDS, TimeUnit.MILLISECONDS);
+          if (batch == END) break;
+          if (batch == null || failure_ != null) continue;
+          insert(batch);
+        }
+        if (failure_ == null && !connection_.getAutoCommit()) {
+          commit();
+        }
+      } catch (SQLException e) {
+        fail(e);
+      } catch (InterruptedException e) {
+        fail(new SQLException("Bulk load interrupted"));
+      } finally {
+        try {
+          if (!connection_.getAutoCommit()) connection_.rollback();
+        } catch (SQLException e) {
+          // Ignore
+        }
+        try {
+          connection_.close();
+        } catch (SQLException e) {
+          // Ignore
+        }
+      }
+    }
+
+    // Sets the values of a row.  Returns the reason the row is rejected, or null.
+    private String bind(Object[] row) {
+      if (row.length != converters_.length) {
+        return "Expected " + converters_.length + " values, found " + row.length;
+      }
+      try {
+        for (int i = 0; i < row.length; i++) {
+          converters_[i].set(ps_, i + 1, row[i]);
+        }
+        return null;
+      } catch (SQLException e) {
+        return e.toString();
+      } catch (RuntimeException e) {
+        return e.toString();
+      }
+    }
+
+    private void insert(Object[][] batch) throws SQLException {
+      List<Object[]> rows = new ArrayList<Object[]>(batch.length);
+      for (int i = 0; i < batch.length; i++) {
+        String reason = bind(batch[i]);
+        if (reason == null) {
+          ps_.addBatch();
+          rows.add(batch[i]);
+        } else {
+          reject(batch[i], reason);
+        }
+      }
+      if (rows.isEmpty()) return;
+
+      int inserted;
+      try {
+        ps_.executeBatch();
+        inserted = rows.size();
+      } catch (BatchUpdateException e) {
+        // The rows before the failing row are inserted when the connection runs
+        // without commitment control; otherwise the block insert is undone.
+        // Either way the update counts cover the rows that were inserted, so
+        // the rest are inserted one at a time to find the rejected rows.
+        ps_.clearBatch();
+        int[] updateCounts = e.getUpdateCounts();
+        inserted = (updateCounts == null) ? 0 : updateCounts.length;
+        for (int i = inserted; i < rows.size(); i++) {
+          Object[] row = rows.get(i);
+          bind(row);
+          try {
+            ps_.executeUpdate();
+            ++inserted;
+          } catch (SQLException rowException) {
+            reject(row, rowException.toString());
+          }
+        }
+      }
+
+      // With autocommit the rows are loaded now; otherwise they are counted
+      // when they are committed, since a failed load rolls them back.
+      if (commitInterval_ == 0) {
+        loaded(inserted);
+        return;
+      }
+      uncommitted_ += inserted;
+      if (uncommitted_ >= commitInterval_) {
+        commit();
+      }
+    }
+
+    private void commit() throws SQLException {
+      connection_.commit();
+      loaded(uncommitted_);
+      uncommitted_ = 0;
+    }
+  }
+
+  /**
+   * Runs a bulk load from the command line.
+   * @param args url userid password table file [options]
+   */
+  public static void main(String[] args) {
+    if (args.length < 5) {
+      System.out.println("Usage:  java com.ibm.as400.access.jdbcClient.BulkLoader url userid password table file");
+      System.out.println("           [-parallel n] [-batch n] [-commit n] [-maxerrors n] [-errors file]");
+      System.out.println("           [-report n] [-columns a,b,c] [-delimiter c] [-header]");
+      System.exit(1);
+    }
+
+    Properties info = new Properties();
+    info.put("user", args[1]);
+    info.put("password", args[2]);
+    BulkLoader loader = new BulkLoader(args[0], info);
+    loader.setReportOutput(System.out);
+    char delimiter = ',';
+    boolean header = false;
+    PrintStream errorOutput = null;
+    CsvRowSource source = null;
+
+    try {
+      Class.forName("com.ibm.as400.access.AS400JDBCDriver");
+      for (int i = 5; i < args.length; i++) {
+        String option = args[i];
+        if (option.equals("-header")) {
+          header = true;
+        } else if (i + 1 >= args.length) {
+          throw new IllegalArgumentException("Missing value for " + option);
+        } else if (option.equals("-parallel")) {
+          loader.setParallelism(Integer.parseInt(args[++i]));
+        } else if (option.equals("-batch")) {
+          loader.setBatchSize(Integer.parseInt(args[++i]));
+        } else if (option.equals("-commit")) {
+          loader.setCommitInterval(Long.parseLong(args[++i]));
+        } else if (option.equals("-maxerrors")) {
+          loader.setMaxErrors(Long.parseLong(args[++i]));
+        } else if (option.equals("-errors")) {
+          errorOutput = new PrintStream(new FileOutputStream(args[++i]), true, "UTF-8");
+          loader.setErrorOutput(errorOutput);
+        } else if (option.equals("-report")) {
+          loader.setReportInterval(Long.parseLong(args[++i]));
+        } else if (option.equals("-columns")) {
+          loader.setColumns(args[++i].split(","));
+        } else if (option.equals("-delimiter")) {
+          delimiter = args[++i].charAt(0);
+        } else {
+          throw new IllegalArgumentException("Unknown option " + option);
+        }
+      }
+
+      source = new CsvRowSource(new InputStreamReader(new FileInputStream(args[4]), "UTF-8"), delimiter, header);
+      loader.load(source, args[3]);
+    } catch (Exception e) {
+      System.out.println("Exception " + e);
+      e.printStackTrace();
+      System.exit(1);
+    } finally {
+      try {
+        if (source != null) source.close();
+      } catch (IOException e) {
+        // Ignore
+      }
+      if (errorOutput != null) errorOutput.close();
+    }
+  }
+}
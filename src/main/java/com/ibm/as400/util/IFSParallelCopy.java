@@ -0,0 +1,199 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename:  IFSParallelCopy.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others.  All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.util;
+
+import com.ibm.as400.access.AS400;
+import com.ibm.as400.access.CommandLineArguments;
+import com.ibm.as400.access.IFSParallelTransfer;
+import com.ibm.as400.access.Trace;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ *  Copies a large file between the integrated file system and the local file system over several file server
+ *  connections at the same time.
+ *  <p>
+ *
+ *  IFSParallelCopy can be run as a command line program, as follows:
+ *  <BLOCKQUOTE><PRE>
+ *  <strong>java com.ibm.as400.util.IFSParallelCopy</strong>  <i>systemName</i>  -get|-put  <i>source</i>  <i>target</i>  [ options ]
+ *  </PRE></BLOCKQUOTE>
+ *  <b>Options:</b>
+ *
+ *  <dl>
+ *
+ *  <dt><b><code>-get </code></b>
+ *  <dd>Copies the integrated file system file <i>source</i> to the local file <i>target</i>.
+ *
+ *  <dt><b><code>-put </code></b>
+ *  <dd>Copies the local file <i>source</i> to the integrated file system file <i>target</i>.
+ *
+ *  <dt><b><code>-user </code></b><i>userID</i>
+ *  <dd>Specifies the user ID.  The -user option may be abbreviated to -u.
+ *
+ *  <dt><b><code>-password </code></b><i>password</i>
+ *  <dd>Specifies the password.  The -password option may be abbreviated to -p.
+ *  If it is not specified, the password is prompted for when possible.
+ *
+ *  <dt><b><code>-connections </code></b><i>number</i>
+ *  <dd>Specifies the number of file server connections.
+ *  The -connections option may be abbreviated to -c.  The default is 4.
+ *
+ *  <dt><b><code>-rangeSize </code></b><i>bytes</i>
+ *  <dd>Specifies the size of the ranges transferred by each connection.
+ *  The -rangeSize option may be abbreviated to -r.  The default is 8388608 (8 MB).
+ *
+ *  <dt><b><code>-verbose </code></b>
+ *  <dd>Specifies verbose output.
+ *  The -verbose option may be abbreviated to -v.
+ *
+ *  </dl>
+ *  <br>
+ *  Here is an example of calling IFSParallelCopy from the command line:
+ *  <br>
+ *  <BLOCKQUOTE><PRE>
+ *  java com.ibm.as400.util.IFSParallelCopy myServer -get /home/myUser/backup.savf backup.savf -user myUser -connections 8
+ *  </PRE></BLOCKQUOTE>
+ *
+ *  To copy files from within a program, use
+ *  {@link com.ibm.as400.access.IFSParallelTransfer IFSParallelTransfer}.
+ *
+ **/
+public class IFSParallelCopy
+{
+   /**
+    *   Run IFSParallelCopy.
+    * @param args The command line arguments.
+    **/
+   public static void main(String args[])
+   {
+      PrintWriter writer = new PrintWriter(System.out, true);
+      int exitCode = 0;
+      try
+      {
+         Vector<String> options = new Vector<String>();
+         options.addElement("-get");
+         options.addElement("-put");
+         options.addElement("-user");
+         options.addElement("-password");
+         options.addElement("-connections");
+         options.addElement("-rangeSize");
+         options.addElement("-verbose");
+
+         Hashtable<String, String> shortcuts = new Hashtable<String, String>();
+         shortcuts.put("-h", "-help");
+         shortcuts.put("-?", "-help");
+         shortcuts.put("-u", "-user");
+         shortcuts.put("-p", "-password");
+         shortcuts.put("-c", "-connections");
+         shortcuts.put("-r", "-rangeSize");
+         shortcuts.put("-v", "-verbose");
+
+         CommandLineArguments arguments = new CommandLineArguments(args, options, shortcuts);
+
+         String systemName = arguments.getOptionValue("");
+         boolean get = arguments.isOptionSpecified("-get");
+         boolean put = arguments.isOptionSpecified("-put");
+         String[] files = parseFiles(get ? arguments.getOptionValue("-get") : arguments.getOptionValue("-put"));
+         if (arguments.isOptionSpecified("-help") || systemName == null || systemName.length() == 0 ||
+             get == put || files == null)
+         {
+           usage(writer);
+           return;
+         }
+
+         if (arguments.isOptionSpecified("-verbose")) {
+           Trace.setTraceDiagnosticOn(true);
+           Trace.setTraceOn(true);
+         }
+
+         String user = arguments.getOptionValue("-user");
+         String password = arguments.getOptionValue("-password");
+         AS400 system;
+         if (user == null)
+           system = new AS400(systemName);
+         else if (password == null)
+           system = new AS400(systemName, user);
+         else
+           system = new AS400(systemName, user, password.toCharArray());
+
+         IFSParallelTransfer transfer = new IFSParallelTransfer(system);
+         String connections = arguments.getOptionValue("-connections");
+         if (connections != null)
+           transfer.setConnections(Integer.parseInt(connections));
+         String rangeSize = arguments.getOptionValue("-rangeSize");
+         if (rangeSize != null)
+           transfer.setRangeSize(Long.parseLong(rangeSize));
+
+         if (get)
+           transfer.download(files[0], new File(files[1]));
+         else
+           transfer.upload(new File(files[0]), files[1]);
+
+         writer.println("Copied " + transfer.getBytesTransferred() + " bytes in " + transfer.getElapsedTime() +
+                        " ms (" + transfer.getThroughput() + " bytes per second) over " +
+                        transfer.getConnections() + " connections.");
+         system.disconnectAllServices();
+      }
+      catch(Throwable e)
+      {
+         exitCode = 1;
+         e.printStackTrace(writer);
+         if (Trace.isTraceOn())
+            Trace.log(Trace.ERROR, e);
+      }
+      finally
+      {
+        try {
+         if ((System.getProperty("com.ibm.as400.util.DisableExit") == null)  &&
+             (System.getenv("com.ibm.as400.util.DisableExit") == null))
+           System.exit(exitCode); // this is necessary in case a signon dialog popped up
+        } catch (Exception e) {
+          // Ignore any errors from exit (for example, a security manager could cause
+          // a security exception when exit is called.
+        }
+      }
+   }
+
+
+   // The source and target follow the -get or -put option.
+   private static String[] parseFiles(String value)
+   {
+      if (value == null) return null;
+      String[] files = value.trim().split("\\s+");
+      return (files.length == 2) ? files : null;
+   }
+
+
+   /**
+    *  Displays the help text.
+    **/
+   static void usage(PrintWriter writer)
+   {
+      writer.println("Usage:");
+      writer.println();
+      writer.println("  IFSParallelCopy systemName -get ifsFile localFile [options]");
+      writer.println("  IFSParallelCopy systemName -put localFile ifsFile [options]");
+      writer.println();
+      writer.println("Options:");
+      writer.println("  -user userID");
+      writer.println("  -password password");
+      writer.println("  -connections number      (default 4)");
+      writer.println("  -rangeSize bytes         (default 8388608)");
+      writer.println("  -verbose");
+   }
+}